@@ -150,6 +150,24 @@ public class BiomeConfig {
      */
     public static final boolean ENABLE_TEXTURE_VARIATION = true;
     
+    /**
+     * Number of 64px tiles along each side of a biome cache chunk.
+     * Each cached chunk holds one byte per tile (32x32 tiles = 1KB).
+     * 
+     * Performance impact: Low
+     * Default: 32
+     */
+    public static final int BIOME_CACHE_CHUNK_TILES = 32;
+    
+    /**
+     * Maximum number of chunks kept in the biome tile cache before the
+     * least recently used chunk is evicted.
+     * 
+     * Memory impact: Low (256 chunks = 256KB)
+     * Default: 256
+     */
+    public static final int BIOME_CACHE_MAX_CHUNKS = 256;
+    
     // ========== FUTURE EXTENSIBILITY ==========
     
     /**
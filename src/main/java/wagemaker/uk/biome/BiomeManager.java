@@ -5,7 +5,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 
 /**
  * Core biome management system that determines which biome applies at any world coordinate.
@@ -26,8 +25,8 @@ public class BiomeManager {
     private final List<BiomeZone> biomeZones;
     private final Map<BiomeType, Texture> textureCache;
     private final BiomeTextureGenerator textureGenerator;
+    private final BiomeTileCache tileCache;
     private boolean initialized;
-    private final Random noiseRandom;
     private boolean headlessMode;
     
     /**
@@ -38,8 +37,8 @@ public class BiomeManager {
         this.biomeZones = new ArrayList<>();
         this.textureCache = new HashMap<>();
         this.textureGenerator = new BiomeTextureGenerator();
+        this.tileCache = new BiomeTileCache();
         this.initialized = false;
-        this.noiseRandom = new Random(54321); // Fixed seed for consistent noise pattern
         this.headlessMode = false;
     }
     
@@ -120,6 +119,10 @@ public class BiomeManager {
      * Uses multiple random sand patches scattered around the world.
      * Sand patches appear at distances between 7000-15000px from spawn.
      * 
+     * Tile-aligned positions (as drawn by the grass renderer) are answered from the
+     * {@link BiomeTileCache}; other positions are evaluated by the shared
+     * {@link BiomeQueryService}. Both paths return identical results.
+     * 
      * @param worldX The x-coordinate in world space
      * @param worldY The y-coordinate in world space
      * @return The biome type at this position
@@ -127,166 +130,17 @@ public class BiomeManager {
      * Requirements: 1.2 (distance calculation), 4.1 (coordinate-based), 4.2 (deterministic)
      */
     public BiomeType getBiomeAtPosition(float worldX, float worldY) {
-        // Check if position is in a sand patch
-        if (isInSandPatch(worldX, worldY)) {
-            return BiomeType.SAND;
-        }
-        
-        // Default to grass
-        return BiomeType.GRASS;
-    }
-    
-    /**
-     * Checks if a position is within a sand patch.
-     * Uses multi-octave noise to create organic, irregular sand patches
-     * scattered throughout the world at various distances from spawn.
-     * 
-     * @param worldX The x-coordinate in world space
-     * @param worldY The y-coordinate in world space
-     * @return true if position is in sand, false otherwise
-     */
-    private boolean isInSandPatch(float worldX, float worldY) {
-        float distance = calculateDistanceFromSpawn(worldX, worldY);
-        
-        // Don't spawn sand too close to spawn (keep spawn area grass)
-        if (distance < 1000) {
-            return false;
-        }
-        
-        // Use multi-octave noise to create organic sand patches
-        // Scale coordinates for noise sampling
-        float noiseScale1 = 0.00015f; // Large features (major patch locations)
-        float noiseScale2 = 0.0006f;  // Medium features (patch shapes)
-        float noiseScale3 = 0.0015f;  // Small features (edges and details)
-        
-        // Sample noise at different scales
-        float noise1 = simplexNoise(worldX * noiseScale1, worldY * noiseScale1);
-        float noise2 = simplexNoise(worldX * noiseScale2, worldY * noiseScale2);
-        float noise3 = simplexNoise(worldX * noiseScale3, worldY * noiseScale3);
-        
-        // Combine noise octaves with different weights
-        float combinedNoise = noise1 * 0.5f + noise2 * 0.35f + noise3 * 0.15f;
-        
-        // Add periodic variation based on distance to create "rings" of varying sand density
-        // This creates areas with more/less sand as you travel outward
-        float distancePhase = (float) Math.sin(distance * 0.0003f) * 0.15f;
-        
-        // Normalize combined noise to 0-1 range and add distance variation
-        float sandProbability = (combinedNoise * 0.5f + 0.5f) + distancePhase;
-        
-        // Threshold for sand (adjust to control sand coverage)
-        // 0.45 means roughly 55% of the world will be sand patches (increased from 0.6)
-        return sandProbability > 0.45f;
-    }
-    
-    /**
-     * Calculates the Euclidean distance from the spawn point (0,0) to a given position.
-     * 
-     * Formula: distance = sqrt(x² + y²)
-     * 
-     * @param x The x-coordinate in world space
-     * @param y The y-coordinate in world space
-     * @return The distance from spawn point in pixels
-     * 
-     * Requirements: 1.2 (distance calculation), 4.1 (coordinate-based)
-     */
-    private float calculateDistanceFromSpawn(float x, float y) {
-        return (float) Math.sqrt(x * x + y * y);
-    }
-    
-    /**
-     * Calculates a noise-based offset to add natural variation to biome boundaries.
-     * Uses multiple octaves of simplex-like noise to create organic, wavy boundaries
-     * instead of perfect circles.
-     * 
-     * The noise is deterministic based on world coordinates, ensuring consistent
-     * biome boundaries across multiple game sessions.
-     * 
-     * @param x The x-coordinate in world space
-     * @param y The y-coordinate in world space
-     * @return A noise offset value to add to the distance calculation (typically -1500 to +1500)
-     * 
-     * Requirements: 1.4 (natural variation), 4.2 (deterministic)
-     */
-    private float calculateNoiseOffset(float x, float y) {
-        // Use multiple octaves of noise for more natural variation
-        // Scale down coordinates for larger noise features
-        float scale1 = 0.0003f; // Large-scale features (wavy boundaries)
-        float scale2 = 0.001f;  // Medium-scale features (smaller indentations)
-        float scale3 = 0.003f;  // Small-scale features (fine detail)
-        
-        // Calculate noise at different scales
-        float noise1 = simplexNoise(x * scale1, y * scale1) * 1000.0f;  // ±1000px variation
-        float noise2 = simplexNoise(x * scale2, y * scale2) * 400.0f;   // ±400px variation
-        float noise3 = simplexNoise(x * scale3, y * scale3) * 100.0f;   // ±100px variation
-        
-        // Combine octaves for natural-looking boundaries
-        return noise1 + noise2 + noise3;
-    }
-    
-    /**
-     * Simple 2D simplex-like noise function for creating natural variation.
-     * This is a simplified noise implementation that provides deterministic
-     * pseudo-random values based on coordinates.
-     * 
-     * @param x The x-coordinate (scaled)
-     * @param y The y-coordinate (scaled)
-     * @return A noise value between -1.0 and 1.0
-     */
-    private float simplexNoise(float x, float y) {
-        // Use a hash-based approach for deterministic noise
-        // This creates smooth, continuous variation across the world
-        
-        // Get integer coordinates
-        int xi = (int) Math.floor(x);
-        int yi = (int) Math.floor(y);
-        
-        // Get fractional parts
-        float xf = x - xi;
-        float yf = y - yi;
-        
-        // Smooth interpolation (smoothstep function)
-        float u = xf * xf * (3.0f - 2.0f * xf);
-        float v = yf * yf * (3.0f - 2.0f * yf);
-        
-        // Get noise values at grid corners
-        float n00 = hash2D(xi, yi);
-        float n10 = hash2D(xi + 1, yi);
-        float n01 = hash2D(xi, yi + 1);
-        float n11 = hash2D(xi + 1, yi + 1);
-        
-        // Bilinear interpolation
-        float nx0 = lerp(n00, n10, u);
-        float nx1 = lerp(n01, n11, u);
-        
-        return lerp(nx0, nx1, v);
-    }
-    
-    /**
-     * Hash function to generate deterministic pseudo-random values for noise.
-     * 
-     * @param x The x grid coordinate
-     * @param y The y grid coordinate
-     * @return A pseudo-random value between -1.0 and 1.0
-     */
-    private float hash2D(int x, int y) {
-        // Use a simple hash function for deterministic randomness
-        int n = x + y * 57;
-        n = (n << 13) ^ n;
-        int nn = (n * (n * n * 15731 + 789221) + 1376312589) & 0x7fffffff;
-        return 1.0f - ((float) nn / 1073741824.0f);
+        return tileCache.getBiomeAtPosition(worldX, worldY);
     }
     
     /**
-     * Linear interpolation between two values.
+     * Gets the biome tile cache used for tile-aligned lookups.
+     * Useful for monitoring the cache hit rate.
      * 
-     * @param a The first value
-     * @param b The second value
-     * @param t The interpolation factor (0.0 to 1.0)
-     * @return The interpolated value
+     * @return The biome tile cache
      */
-    private float lerp(float a, float b, float t) {
-        return a + t * (b - a);
+    public BiomeTileCache getTileCache() {
+        return tileCache;
     }
     
     /**
@@ -359,6 +213,7 @@ public class BiomeManager {
         }
         
         textureCache.clear();
+        tileCache.clear();
         biomeZones.clear();
         initialized = false;
     }
@@ -0,0 +1,171 @@
+package wagemaker.uk.biome;
+
+/**
+ * Shared, stateless biome lookup used by the server, WorldState and the client.
+ * 
+ * Biome membership is a pure function of world coordinates, so a single instance
+ * can be queried concurrently from any thread. Unlike BiomeManager this class
+ * never touches OpenGL, generates no textures and allocates nothing per lookup,
+ * which makes it safe to call from world generation and network threads.
+ * 
+ * Requirements: 2.1 (performance), 4.1 (coordinate-based), 4.2 (deterministic)
+ */
+public final class BiomeQueryService {
+    
+    private static final BiomeQueryService INSTANCE = new BiomeQueryService();
+    
+    private BiomeQueryService() {
+    }
+    
+    /**
+     * Gets the shared biome query service.
+     * 
+     * @return The BiomeQueryService instance
+     */
+    public static BiomeQueryService getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Determines which biome type applies at a given world position.
+     * Uses multiple random sand patches scattered around the world.
+     * 
+     * @param worldX The x-coordinate in world space
+     * @param worldY The y-coordinate in world space
+     * @return The biome type at this position
+     * 
+     * Requirements: 1.2 (distance calculation), 4.1 (coordinate-based), 4.2 (deterministic)
+     */
+    public BiomeType getBiomeAtPosition(float worldX, float worldY) {
+        // Check if position is in a sand patch
+        if (isInSandPatch(worldX, worldY)) {
+            return BiomeType.SAND;
+        }
+        
+        // Default to grass
+        return BiomeType.GRASS;
+    }
+    
+    /**
+     * Checks if a position is within a sand patch.
+     * Uses multi-octave noise to create organic, irregular sand patches
+     * scattered throughout the world at various distances from spawn.
+     * 
+     * @param worldX The x-coordinate in world space
+     * @param worldY The y-coordinate in world space
+     * @return true if position is in sand, false otherwise
+     */
+    private boolean isInSandPatch(float worldX, float worldY) {
+        float distance = calculateDistanceFromSpawn(worldX, worldY);
+        
+        // Don't spawn sand too close to spawn (keep spawn area grass)
+        if (distance < 1000) {
+            return false;
+        }
+        
+        // Use multi-octave noise to create organic sand patches
+        // Scale coordinates for noise sampling
+        float noiseScale1 = 0.00015f; // Large features (major patch locations)
+        float noiseScale2 = 0.0006f;  // Medium features (patch shapes)
+        float noiseScale3 = 0.0015f;  // Small features (edges and details)
+        
+        // Sample noise at different scales
+        float noise1 = simplexNoise(worldX * noiseScale1, worldY * noiseScale1);
+        float noise2 = simplexNoise(worldX * noiseScale2, worldY * noiseScale2);
+        float noise3 = simplexNoise(worldX * noiseScale3, worldY * noiseScale3);
+        
+        // Combine noise octaves with different weights
+        float combinedNoise = noise1 * 0.5f + noise2 * 0.35f + noise3 * 0.15f;
+        
+        // Add periodic variation based on distance to create "rings" of varying sand density
+        // This creates areas with more/less sand as you travel outward
+        float distancePhase = (float) Math.sin(distance * 0.0003f) * 0.15f;
+        
+        // Normalize combined noise to 0-1 range and add distance variation
+        float sandProbability = (combinedNoise * 0.5f + 0.5f) + distancePhase;
+        
+        // Threshold for sand (adjust to control sand coverage)
+        // 0.45 means roughly 55% of the world will be sand patches (increased from 0.6)
+        return sandProbability > 0.45f;
+    }
+    
+    /**
+     * Calculates the Euclidean distance from the spawn point (0,0) to a given position.
+     * 
+     * Formula: distance = sqrt(x² + y²)
+     * 
+     * @param x The x-coordinate in world space
+     * @param y The y-coordinate in world space
+     * @return The distance from spawn point in pixels
+     * 
+     * Requirements: 1.2 (distance calculation), 4.1 (coordinate-based)
+     */
+    private float calculateDistanceFromSpawn(float x, float y) {
+        return (float) Math.sqrt(x * x + y * y);
+    }
+    
+    /**
+     * Simple 2D simplex-like noise function for creating natural variation.
+     * This is a simplified noise implementation that provides deterministic
+     * pseudo-random values based on coordinates.
+     * 
+     * @param x The x-coordinate (scaled)
+     * @param y The y-coordinate (scaled)
+     * @return A noise value between -1.0 and 1.0
+     */
+    float simplexNoise(float x, float y) {
+        // Use a hash-based approach for deterministic noise
+        // This creates smooth, continuous variation across the world
+        
+        // Get integer coordinates
+        int xi = (int) Math.floor(x);
+        int yi = (int) Math.floor(y);
+        
+        // Get fractional parts
+        float xf = x - xi;
+        float yf = y - yi;
+        
+        // Smooth interpolation (smoothstep function)
+        float u = xf * xf * (3.0f - 2.0f * xf);
+        float v = yf * yf * (3.0f - 2.0f * yf);
+        
+        // Get noise values at grid corners
+        float n00 = hash2D(xi, yi);
+        float n10 = hash2D(xi + 1, yi);
+        float n01 = hash2D(xi, yi + 1);
+        float n11 = hash2D(xi + 1, yi + 1);
+        
+        // Bilinear interpolation
+        float nx0 = lerp(n00, n10, u);
+        float nx1 = lerp(n01, n11, u);
+        
+        return lerp(nx0, nx1, v);
+    }
+    
+    /**
+     * Hash function to generate deterministic pseudo-random values for noise.
+     * 
+     * @param x The x grid coordinate
+     * @param y The y grid coordinate
+     * @return A pseudo-random value between -1.0 and 1.0
+     */
+    private float hash2D(int x, int y) {
+        // Use a simple hash function for deterministic randomness
+        int n = x + y * 57;
+        n = (n << 13) ^ n;
+        int nn = (n * (n * n * 15731 + 789221) + 1376312589) & 0x7fffffff;
+        return 1.0f - ((float) nn / 1073741824.0f);
+    }
+    
+    /**
+     * Linear interpolation between two values.
+     * 
+     * @param a The first value
+     * @param b The second value
+     * @param t The interpolation factor (0.0 to 1.0)
+     * @return The interpolated value
+     */
+    private float lerp(float a, float b, float t) {
+        return a + t * (b - a);
+    }
+}
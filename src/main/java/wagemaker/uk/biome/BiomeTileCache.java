@@ -0,0 +1,195 @@
+package wagemaker.uk.biome;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Chunked cache of biome lookups for 64px grass tiles.
+ * 
+ * The renderer asks for the biome of every visible tile on every frame, and each
+ * lookup evaluates several octaves of noise. Biomes never change for a given
+ * coordinate, so this cache stores one byte per tile in fixed-size chunks that
+ * are allocated on first use and filled tile by tile as they are queried.
+ * Chunks are evicted least-recently-used once the configured limit is reached.
+ * 
+ * The renderer walks tiles column by column, so the most recently used chunk is
+ * remembered and consecutive lookups in it skip the chunk map entirely. Like the
+ * rest of BiomeManager this cache is confined to the render thread; threads that
+ * need biome lookups should use {@link BiomeQueryService} directly.
+ * 
+ * Only tile-aligned positions are cached; the value stored for a tile is exactly
+ * what {@link BiomeQueryService#getBiomeAtPosition(float, float)} returns at the
+ * tile's origin, so cached and uncached lookups always agree.
+ * 
+ * Requirements: 2.1 (performance), 4.2 (deterministic)
+ */
+public class BiomeTileCache {
+    
+    /** Size of a grass tile in pixels. */
+    public static final int TILE_SIZE = 64;
+    private static final int TILE_SHIFT = 6;
+    
+    // Tile entries store ordinal + 1 so that 0 marks a tile not yet computed
+    private static final byte UNKNOWN = 0;
+    private static final BiomeType[] BIOME_TYPES = BiomeType.values();
+    
+    private final BiomeQueryService biomeQueryService;
+    private final int chunkTiles;
+    private final LinkedHashMap<Long, byte[]> chunks;
+    
+    private long lastChunkKey;
+    private byte[] lastChunk;
+    
+    private long hits;
+    private long misses;
+    private long evictions;
+    
+    /**
+     * Creates a cache using the sizes from {@link BiomeConfig}.
+     */
+    public BiomeTileCache() {
+        this(BiomeConfig.BIOME_CACHE_CHUNK_TILES, BiomeConfig.BIOME_CACHE_MAX_CHUNKS);
+    }
+    
+    /**
+     * Creates a cache with the given chunk size and capacity.
+     * 
+     * @param chunkTiles Number of tiles along each side of a chunk
+     * @param maxChunks Maximum number of chunks kept before LRU eviction
+     */
+    public BiomeTileCache(int chunkTiles, final int maxChunks) {
+        if (chunkTiles <= 0 || maxChunks <= 0) {
+            throw new IllegalArgumentException("Chunk size and capacity must be positive");
+        }
+        this.biomeQueryService = BiomeQueryService.getInstance();
+        this.chunkTiles = chunkTiles;
+        this.chunks = new LinkedHashMap<Long, byte[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+                if (size() > maxChunks) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+    
+    /**
+     * Checks whether a world position lies exactly on a tile origin and can
+     * therefore be answered from the cache.
+     * 
+     * @param worldX The x-coordinate in world space
+     * @param worldY The y-coordinate in world space
+     * @return true if both coordinates are whole multiples of the tile size
+     */
+    public static boolean isTileAligned(float worldX, float worldY) {
+        int x = (int) worldX;
+        int y = (int) worldY;
+        return x == worldX && y == worldY && (x & (TILE_SIZE - 1)) == 0 && (y & (TILE_SIZE - 1)) == 0;
+    }
+    
+    /**
+     * Gets the biome for the tile whose origin is at (tileX * 64, tileY * 64).
+     * 
+     * @param tileX The tile column
+     * @param tileY The tile row
+     * @return The biome type for the tile
+     */
+    public BiomeType getBiomeAtTile(int tileX, int tileY) {
+        int chunkX = Math.floorDiv(tileX, chunkTiles);
+        int chunkY = Math.floorDiv(tileY, chunkTiles);
+        long key = ((long) chunkX << 32) | (chunkY & 0xFFFFFFFFL);
+        
+        byte[] chunk = lastChunk;
+        if (chunk == null || key != lastChunkKey) {
+            chunk = chunks.get(key);
+            if (chunk == null) {
+                chunk = new byte[chunkTiles * chunkTiles];
+                chunks.put(key, chunk);
+            }
+            lastChunkKey = key;
+            lastChunk = chunk;
+        }
+        
+        int index = Math.floorMod(tileY, chunkTiles) * chunkTiles + Math.floorMod(tileX, chunkTiles);
+        byte entry = chunk[index];
+        if (entry != UNKNOWN) {
+            hits++;
+            return BIOME_TYPES[entry - 1];
+        }
+        
+        misses++;
+        BiomeType biome = biomeQueryService.getBiomeAtPosition(
+            (float) tileX * TILE_SIZE, (float) tileY * TILE_SIZE);
+        chunk[index] = (byte) (biome.ordinal() + 1);
+        return biome;
+    }
+    
+    /**
+     * Gets the biome at a world position, using the cache when the position is
+     * tile-aligned and falling back to a direct noise evaluation otherwise.
+     * 
+     * @param worldX The x-coordinate in world space
+     * @param worldY The y-coordinate in world space
+     * @return The biome type at this position
+     */
+    public BiomeType getBiomeAtPosition(float worldX, float worldY) {
+        if (isTileAligned(worldX, worldY)) {
+            return getBiomeAtTile((int) worldX >> TILE_SHIFT, (int) worldY >> TILE_SHIFT);
+        }
+        return biomeQueryService.getBiomeAtPosition(worldX, worldY);
+    }
+    
+    /**
+     * Removes all cached chunks and resets the statistics.
+     */
+    public void clear() {
+        chunks.clear();
+        lastChunk = null;
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+    
+    /**
+     * Gets the number of lookups answered from the cache.
+     * @return The hit count
+     */
+    public long getHits() {
+        return hits;
+    }
+    
+    /**
+     * Gets the number of lookups that required a noise evaluation.
+     * @return The miss count
+     */
+    public long getMisses() {
+        return misses;
+    }
+    
+    /**
+     * Gets the number of chunks evicted to stay within capacity.
+     * @return The eviction count
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+    
+    /**
+     * Gets the fraction of tile lookups answered from the cache.
+     * @return Hit rate between 0.0 and 1.0, or 0.0 before any lookups
+     */
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+    
+    /**
+     * Gets the number of chunks currently held in the cache.
+     * @return The chunk count
+     */
+    public int getChunkCount() {
+        return chunks.size();
+    }
+}
@@ -15,6 +15,7 @@ import wagemaker.uk.network.PlayerHungerUpdateMessage;
 import wagemaker.uk.network.PlayerJoinMessage;
 import wagemaker.uk.network.PlayerLeaveMessage;
 import wagemaker.uk.network.PlayerMovementMessage;
+import wagemaker.uk.network.PlayerVisibilityMessage;
 import wagemaker.uk.network.PlayerRespawnMessage;
 import wagemaker.uk.network.PongMessage;
 import wagemaker.uk.network.PositionCorrectionMessage;
@@ -27,6 +28,7 @@ import wagemaker.uk.network.TreeDestroyedMessage;
 import wagemaker.uk.network.TreeHealthUpdateMessage;
 import wagemaker.uk.network.TreeRemovalMessage;
 import wagemaker.uk.network.TreeState;
+import wagemaker.uk.network.WorldChunkMessage;
 import wagemaker.uk.network.WorldState;
 import wagemaker.uk.network.WorldStateMessage;
 import wagemaker.uk.network.WorldStateUpdateMessage;
@@ -98,7 +100,7 @@ public class GameMessageHandler extends DefaultMessageHandler {
         super.handleWorldState(message);
         
         // Sync the world state with the game
-        WorldState worldState = new WorldState(message.getWorldSeed());
+        WorldState worldState = new WorldState(message.getWorldSeed(), false);
         worldState.setPlayers(message.getPlayers());
         worldState.setTrees(message.getTrees());
         worldState.setStones(message.getStones());
@@ -106,7 +108,7 @@ public class GameMessageHandler extends DefaultMessageHandler {
         worldState.setClearedPositions(message.getClearedPositions());
         worldState.setRainZones(message.getRainZones());
         
-        game.syncWorldState(worldState);
+        game.syncWorldState(worldState, message.getStreamedChunkCount());
         
         // Sync rain zones to the rain system
         if (message.getRainZones() != null && game.rainSystem != null) {
@@ -114,6 +116,14 @@ public class GameMessageHandler extends DefaultMessageHandler {
         }
     }
     
+    @Override
+    protected void handleWorldChunk(WorldChunkMessage message) {
+        super.handleWorldChunk(message);
+        
+        // Chunks are applied a few per frame on the main thread
+        game.queueWorldChunk(message);
+    }
+    
     @Override
     protected void handleWorldStateUpdate(WorldStateUpdateMessage message) {
         super.handleWorldStateUpdate(message);
@@ -142,7 +152,8 @@ public class GameMessageHandler extends DefaultMessageHandler {
                         playerState.getX(),
                         playerState.getY(),
                         playerState.getDirection(),
-                        playerState.isMoving()
+                        playerState.isMoving(),
+                        message.getTimestamp()
                     );
                     remotePlayer.updateHealth(playerState.getHealth());
                 }
@@ -173,7 +184,8 @@ public class GameMessageHandler extends DefaultMessageHandler {
                 message.getX(), 
                 message.getY(), 
                 message.getDirection(), 
-                message.isMoving()
+                message.isMoving(),
+                message.getTimestamp()
             );
         } else {
             // Remote player doesn't exist yet - create it on-demand
@@ -245,6 +257,12 @@ public class GameMessageHandler extends DefaultMessageHandler {
         game.queuePlayerLeave(message.getPlayerId());
     }
     
+    @Override
+    protected void handlePlayerVisibility(PlayerVisibilityMessage message) {
+        // Queue on the main thread, as RemotePlayer creation involves OpenGL operations
+        game.queuePlayerVisibility(message);
+    }
+    
     @Override
     protected void handleTreeHealthUpdate(TreeHealthUpdateMessage message) {
         TreeState treeState = new TreeState();
@@ -373,11 +391,12 @@ public class GameMessageHandler extends DefaultMessageHandler {
         System.err.println("Position correction received: " + message.getReason());
         System.err.println("Correcting position to: (" + message.getCorrectedX() + ", " + message.getCorrectedY() + ")");
         
-        // Apply correction to local player with smooth interpolation
+        // Apply correction to local player, replaying movement the server has not seen yet
         game.correctPlayerPosition(
             message.getCorrectedX(),
             message.getCorrectedY(),
-            message.getCorrectedDirection()
+            message.getCorrectedDirection(),
+            message.getAcknowledgedSequence()
         );
         
         // Display notification to player
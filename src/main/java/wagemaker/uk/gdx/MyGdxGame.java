@@ -14,6 +14,7 @@ import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
@@ -56,6 +57,12 @@ import wagemaker.uk.ui.Compass;
 import wagemaker.uk.ui.GameMenu;
 import wagemaker.uk.ui.HealthBarUI;
 import wagemaker.uk.weather.RainSystem;
+import wagemaker.uk.world.CollisionGrid;
+import wagemaker.uk.world.LongHashSet;
+import wagemaker.uk.world.LongObjectHashMap;
+import wagemaker.uk.world.PickupIndex;
+import wagemaker.uk.world.TileKey;
+import wagemaker.uk.world.WorldGenerationWorker;
 import wagemaker.uk.world.WorldSaveData;
 import wagemaker.uk.world.WorldSaveManager;
 import wagemaker.uk.inventory.InventoryManager;
@@ -105,7 +112,7 @@ import wagemaker.uk.targeting.TargetingSystem;
  * // In network message handler (Network Thread)
  * public void handleItemPickup(ItemPickupMessage message) {
  *     // ✅ CORRECT: Immediate state update (thread-safe)
- *     Apple apple = apples.remove(message.getItemId());
+ *     Apple apple = apples.remove(TileKey.findKey(message.getItemId()));
  *     if (apple != null) {
  *         // ✅ CORRECT: Defer OpenGL operation to render thread
  *         deferOperation(() -> apple.dispose());
@@ -117,7 +124,7 @@ import wagemaker.uk.targeting.TargetingSystem;
  * <pre>{@code
  * // In network message handler (Network Thread)
  * public void handleItemPickup(ItemPickupMessage message) {
- *     Apple apple = apples.remove(message.getItemId());
+ *     Apple apple = apples.remove(TileKey.findKey(message.getItemId()));
  *     if (apple != null) {
  *         // ❌ INCORRECT: OpenGL call from network thread - WILL CRASH!
  *         apple.dispose();  // This calls texture.dispose() internally
@@ -180,29 +187,38 @@ public class MyGdxGame extends ApplicationAdapter {
     wagemaker.uk.ui.InventoryRenderer inventoryRenderer;
     OrthographicCamera camera;
     Viewport viewport;
-    Map<String, SmallTree> trees;
-    Map<String, AppleTree> appleTrees;
-    Map<String, CoconutTree> coconutTrees;
-    Map<String, BambooTree> bambooTrees;
-    Map<String, BananaTree> bananaTrees;
-    Map<String, Apple> apples;
-    Map<String, AppleSapling> appleSaplings;
-    Map<String, Banana> bananas;
-    Map<String, BananaSapling> bananaSaplings;
-    Map<String, BambooStack> bambooStacks;
-    Map<String, BambooSapling> bambooSaplings;
-    Map<String, TreeSapling> treeSaplings;
-    Map<String, WoodStack> woodStacks;
-    Map<String, Pebble> pebbles;
-    Map<String, PalmFiber> palmFibers;
-    Map<String, PlantedBamboo> plantedBamboos;
-    Map<String, PlantedTree> plantedTrees;
-    Map<String, wagemaker.uk.planting.PlantedBananaTree> plantedBananaTrees;
-    Map<String, wagemaker.uk.planting.PlantedAppleTree> plantedAppleTrees;
-    Map<String, Stone> stones;
-    Map<String, Stone> stoneMap;
+    WorldRenderer worldRenderer; // Spatial index of the world's sprites
+    CollisionGrid collisionGrid; // Trunks of every tree and stone
+    PickupIndex pickupIndex; // Dropped items of every type
+    WorldGenerationWorker worldGenerator; // Decides singleplayer trees and stones off the render thread
+    boolean worldGeneratorStale; // Layout must be rebuilt before the next request
+    long worldGeneratorSeed;
+    long lastGenerationChunk; // Camera chunk of the last generation request, packed with TileKey
+    boolean hasGenerationChunk; // False until the first request after a layout reset
+    private static final int MAX_GENERATED_PER_FRAME = 64;
+    LongObjectHashMap<SmallTree> trees;
+    LongObjectHashMap<AppleTree> appleTrees;
+    LongObjectHashMap<CoconutTree> coconutTrees;
+    LongObjectHashMap<BambooTree> bambooTrees;
+    LongObjectHashMap<BananaTree> bananaTrees;
+    LongObjectHashMap<Apple> apples;
+    LongObjectHashMap<AppleSapling> appleSaplings;
+    LongObjectHashMap<Banana> bananas;
+    LongObjectHashMap<BananaSapling> bananaSaplings;
+    LongObjectHashMap<BambooStack> bambooStacks;
+    LongObjectHashMap<BambooSapling> bambooSaplings;
+    LongObjectHashMap<TreeSapling> treeSaplings;
+    LongObjectHashMap<WoodStack> woodStacks;
+    LongObjectHashMap<Pebble> pebbles;
+    LongObjectHashMap<PalmFiber> palmFibers;
+    LongObjectHashMap<PlantedBamboo> plantedBamboos;
+    LongObjectHashMap<PlantedTree> plantedTrees;
+    LongObjectHashMap<wagemaker.uk.planting.PlantedBananaTree> plantedBananaTrees;
+    LongObjectHashMap<wagemaker.uk.planting.PlantedAppleTree> plantedAppleTrees;
+    LongObjectHashMap<Stone> stones;
+    LongObjectHashMap<Stone> stoneMap;
     Cactus cactus; // Single cactus near spawn
-    Map<String, Boolean> clearedPositions;
+    LongHashSet clearedPositions;
     PlantingSystem plantingSystem;
     Random random;
     long worldSeed; // World seed for deterministic generation
@@ -236,6 +252,9 @@ public class MyGdxGame extends ApplicationAdapter {
     // Pending player joins (to be processed on main thread)
     private java.util.concurrent.ConcurrentLinkedQueue<PlayerJoinMessage> pendingPlayerJoins;
     private java.util.concurrent.ConcurrentLinkedQueue<String> pendingPlayerLeaves;
+    private java.util.concurrent.ConcurrentLinkedQueue<wagemaker.uk.network.PlayerVisibilityMessage> pendingVisibilityChanges;
+    private java.util.concurrent.ConcurrentLinkedQueue<wagemaker.uk.network.WorldChunkMessage> pendingWorldChunks;
+    private final LongHashSet streamedTreeIds = new LongHashSet(); // Trees received in the current world download
     private java.util.concurrent.ConcurrentLinkedQueue<ItemState> pendingItemSpawns;
     private java.util.concurrent.ConcurrentLinkedQueue<String> pendingTreeRemovals;
     private java.util.concurrent.ConcurrentLinkedQueue<TreeState> pendingTreeCreations;
@@ -259,7 +278,10 @@ public class MyGdxGame extends ApplicationAdapter {
     // Camera dimensions for infinite world
     static final int CAMERA_WIDTH = 1280;
     static final int CAMERA_HEIGHT = 1024;
-
+    
+    // World download chunks applied per frame when joining a server
+    static final int WORLD_CHUNKS_PER_FRAME = 2;
+    
     @Override
     public void create() {
         // Initialize localization system first (before any UI components)
@@ -281,28 +303,34 @@ public class MyGdxGame extends ApplicationAdapter {
         
         batch = new SpriteBatch();
         shapeRenderer = new ShapeRenderer();
-        trees = new HashMap<>();
-        appleTrees = new HashMap<>();
-        coconutTrees = new HashMap<>();
-        bambooTrees = new HashMap<>();
-        bananaTrees = new HashMap<>();
-        apples = new HashMap<>();
-        appleSaplings = new HashMap<>();
-        bananas = new HashMap<>();
-        bananaSaplings = new HashMap<>();
-        bambooStacks = new HashMap<>();
-        bambooSaplings = new HashMap<>();
-        treeSaplings = new HashMap<>();
-        woodStacks = new HashMap<>();
-        pebbles = new HashMap<>();
-        palmFibers = new HashMap<>();
-        plantedBamboos = new HashMap<>();
-        plantedTrees = new HashMap<>();
-        plantedBananaTrees = new HashMap<>();
-        plantedAppleTrees = new HashMap<>();
-        stones = new HashMap<>();
-        stoneMap = new HashMap<>();
-        clearedPositions = new HashMap<>();
+        // Entity maps keep the world renderer's spatial index, the collision grid and the pickup index up to date
+        worldRenderer = new WorldRenderer();
+        collisionGrid = new CollisionGrid();
+        pickupIndex = new PickupIndex();
+        worldGenerator = new WorldGenerationWorker();
+        worldGeneratorStale = true;
+        trees = trackColliders(new RenderIndexedMap<>(worldRenderer, WorldRenderer.LAYER_OBJECTS), TreeType.SMALL);
+        appleTrees = trackColliders(new RenderIndexedMap<>(worldRenderer, WorldRenderer.LAYER_OBJECTS), TreeType.APPLE);
+        coconutTrees = trackColliders(new RenderIndexedMap<>(worldRenderer, WorldRenderer.LAYER_OBJECTS), TreeType.COCONUT);
+        bambooTrees = trackColliders(new RenderIndexedMap<>(worldRenderer, WorldRenderer.LAYER_OBJECTS), TreeType.BAMBOO);
+        bananaTrees = trackColliders(new RenderIndexedMap<>(worldRenderer, WorldRenderer.LAYER_OBJECTS), TreeType.BANANA);
+        apples = trackPickups(new RenderIndexedMap<>(worldRenderer, WorldRenderer.LAYER_GROUND, 24, 24), ItemType.APPLE);
+        appleSaplings = trackPickups(new RenderIndexedMap<>(worldRenderer, WorldRenderer.LAYER_GROUND, 32, 32), ItemType.APPLE_SAPLING);
+        bananas = trackPickups(new RenderIndexedMap<>(worldRenderer, WorldRenderer.LAYER_GROUND, 32, 32), ItemType.BANANA);
+        bananaSaplings = trackPickups(new RenderIndexedMap<>(worldRenderer, WorldRenderer.LAYER_GROUND, 32, 32), ItemType.BANANA_SAPLING);
+        bambooStacks = trackPickups(new RenderIndexedMap<>(worldRenderer, WorldRenderer.LAYER_GROUND, 32, 32), ItemType.BAMBOO_STACK);
+        bambooSaplings = trackPickups(new RenderIndexedMap<>(worldRenderer, WorldRenderer.LAYER_GROUND, 32, 32), ItemType.BABY_BAMBOO);
+        treeSaplings = trackPickups(new RenderIndexedMap<>(worldRenderer, WorldRenderer.LAYER_GROUND, 32, 32), ItemType.BABY_TREE);
+        woodStacks = trackPickups(new RenderIndexedMap<>(worldRenderer, WorldRenderer.LAYER_GROUND, 32, 32), ItemType.WOOD_STACK);
+        pebbles = trackPickups(new RenderIndexedMap<>(worldRenderer, WorldRenderer.LAYER_GROUND, 32, 32), ItemType.PEBBLE);
+        palmFibers = trackPickups(new RenderIndexedMap<>(worldRenderer, WorldRenderer.LAYER_GROUND, 32, 32), ItemType.PALM_FIBER);
+        plantedBamboos = new RenderIndexedMap<>(worldRenderer, WorldRenderer.LAYER_GROUND, 64, 64);
+        plantedTrees = new RenderIndexedMap<>(worldRenderer, WorldRenderer.LAYER_GROUND, 64, 64);
+        plantedBananaTrees = new RenderIndexedMap<>(worldRenderer, WorldRenderer.LAYER_GROUND, 32, 32, 16, 16);
+        plantedAppleTrees = new RenderIndexedMap<>(worldRenderer, WorldRenderer.LAYER_GROUND, 32, 32, 16, 16);
+        stones = trackColliders(new RenderIndexedMap<>(worldRenderer, WorldRenderer.LAYER_OBJECTS, 64, 64), null);
+        stoneMap = new LongObjectHashMap<>();
+        clearedPositions = new LongHashSet();
         remotePlayers = new HashMap<>();
         random = new Random();
         plantingSystem = new PlantingSystem();
@@ -311,6 +339,8 @@ public class MyGdxGame extends ApplicationAdapter {
         // Initialize pending player queues
         pendingPlayerJoins = new java.util.concurrent.ConcurrentLinkedQueue<>();
         pendingPlayerLeaves = new java.util.concurrent.ConcurrentLinkedQueue<>();
+        pendingVisibilityChanges = new java.util.concurrent.ConcurrentLinkedQueue<>();
+        pendingWorldChunks = new java.util.concurrent.ConcurrentLinkedQueue<>();
         pendingItemSpawns = new java.util.concurrent.ConcurrentLinkedQueue<>();
         pendingTreeRemovals = new java.util.concurrent.ConcurrentLinkedQueue<>();
         pendingTreeCreations = new java.util.concurrent.ConcurrentLinkedQueue<>();
@@ -330,10 +360,10 @@ public class MyGdxGame extends ApplicationAdapter {
         pendingWorldLoad = null;
         previousWorldState = null;
         worldLoadInProgress = false;
-
+        
         // create single cactus near player spawn (128px away)
         cactus = new Cactus(128, 128);
-
+        
         // create player at origin
         player = new Player(0, 0, camera);
         player.setTrees(trees);
@@ -352,6 +382,8 @@ public class MyGdxGame extends ApplicationAdapter {
         player.setPebbles(pebbles);
         player.setPalmFibers(palmFibers);
         player.setStones(stones);
+        player.setCollisionGrid(collisionGrid);
+        player.setPickupIndex(pickupIndex);
         player.setCactus(cactus);
         player.setGameInstance(this);
         player.setClearedPositions(clearedPositions);
@@ -363,7 +395,7 @@ public class MyGdxGame extends ApplicationAdapter {
         
         // Initialize inventory renderer
         inventoryRenderer = new wagemaker.uk.ui.InventoryRenderer();
-
+        
         gameMenu = new GameMenu();
         gameMenu.setPlayer(player); // Set player reference for saving
         gameMenu.setGameInstance(this); // Set game instance reference for multiplayer
@@ -397,7 +429,7 @@ public class MyGdxGame extends ApplicationAdapter {
         
         // Initialize health bar UI
         healthBarUI = new HealthBarUI(shapeRenderer);
-
+        
         // Initialize biome manager for ground texture variation
         biomeManager = new BiomeManager();
         biomeManager.initialize();
@@ -409,7 +441,7 @@ public class MyGdxGame extends ApplicationAdapter {
         player.setPlantedTrees(plantedTrees);
         player.setPlantedBananaTrees(plantedBananaTrees);
         player.setPlantedAppleTrees(plantedAppleTrees);
-
+        
         // Initialize rain system
         rainSystem = new RainSystem(shapeRenderer);
         rainSystem.initialize();
@@ -429,9 +461,9 @@ public class MyGdxGame extends ApplicationAdapter {
         // Initialize bird formation manager for ambient flying birds
         birdFormationManager = new BirdFormationManager(camera, viewport);
         birdFormationManager.initialize();
-
+        
     }
-
+    
     @Override
     public void render() {
         float deltaTime = Gdx.graphics.getDeltaTime();
@@ -454,6 +486,7 @@ public class MyGdxGame extends ApplicationAdapter {
         // Process pending player joins on main thread (for OpenGL context)
         processPendingPlayerJoins();
         processPendingPlayerLeaves();
+        processPendingVisibilityChanges();
         processPendingItemSpawns();
         processPendingTreeRemovals();
         processPendingBambooPlants();
@@ -464,11 +497,12 @@ public class MyGdxGame extends ApplicationAdapter {
         processPendingBananaTreeTransforms();
         processPendingAppleTreePlants();
         processPendingAppleTreeTransforms();
+        processPendingWorldChunks();
         processPendingTreeCreations();
         
         // Process pending world load operations on main thread (for OpenGL context)
         processPendingWorldLoad();
-
+        
         gameMenu.update();
         
         // Handle error dialog actions
@@ -534,7 +568,7 @@ public class MyGdxGame extends ApplicationAdapter {
                 displayNotification("Reconnecting... (" + gameClient.getReconnectAttempts() + "/3)");
             }
         }
-
+        
         // Update rain system with player position (always update, even when menu is open)
         float playerCenterX = player.getX() + 50; // Player sprite is 100x100, center at +50
         float playerCenterY = player.getY() + 50;
@@ -608,22 +642,21 @@ public class MyGdxGame extends ApplicationAdapter {
         }
         
         // update planted bamboos and check for transformations
-        List<String> bambooToTransform = new ArrayList<>();
-        for (Map.Entry<String, PlantedBamboo> entry : plantedBamboos.entrySet()) {
-            PlantedBamboo planted = entry.getValue();
+        LongHashSet bambooToTransform = new LongHashSet();
+        plantedBamboos.forEach((key, planted) -> {
             if (planted.update(deltaTime)) {
-                bambooToTransform.add(entry.getKey());
+                bambooToTransform.add(key);
             }
-        }
+        });
         
         // transform mature planted bamboos into bamboo trees
-        for (String key : bambooToTransform) {
+        for (long key : bambooToTransform.toArray()) {
             PlantedBamboo planted = plantedBamboos.remove(key);
             float x = planted.getX();
             float y = planted.getY();
             
             // Generate bamboo tree ID (reuse the planted bamboo key)
-            String bambooTreeId = key;
+            long bambooTreeId = key;
             
             BambooTree tree = new BambooTree(x, y);
             bambooTrees.put(bambooTreeId, tree);
@@ -634,8 +667,8 @@ public class MyGdxGame extends ApplicationAdapter {
                 wagemaker.uk.network.BambooTransformMessage message = 
                     new wagemaker.uk.network.BambooTransformMessage(
                         gameClient.getClientId(), 
-                        key, 
-                        bambooTreeId, 
+                        TileKey.idOf(key), 
+                        TileKey.idOf(bambooTreeId), 
                         x, 
                         y
                     );
@@ -644,22 +677,21 @@ public class MyGdxGame extends ApplicationAdapter {
         }
         
         // update planted trees and check for transformations
-        List<String> treesToTransform = new ArrayList<>();
-        for (Map.Entry<String, PlantedTree> entry : plantedTrees.entrySet()) {
-            PlantedTree planted = entry.getValue();
+        LongHashSet treesToTransform = new LongHashSet();
+        plantedTrees.forEach((key, planted) -> {
             if (planted.update(deltaTime)) {
-                treesToTransform.add(entry.getKey());
+                treesToTransform.add(key);
             }
-        }
+        });
         
         // transform mature planted trees into small trees
-        for (String key : treesToTransform) {
+        for (long key : treesToTransform.toArray()) {
             PlantedTree planted = plantedTrees.remove(key);
             float x = planted.getX();
             float y = planted.getY();
             
             // Generate small tree ID (reuse the planted tree key)
-            String smallTreeId = key;
+            long smallTreeId = key;
             
             SmallTree tree = new SmallTree(x, y);
             trees.put(smallTreeId, tree);
@@ -670,8 +702,8 @@ public class MyGdxGame extends ApplicationAdapter {
                 wagemaker.uk.network.TreeTransformMessage message = 
                     new wagemaker.uk.network.TreeTransformMessage(
                         gameClient.getClientId(), 
-                        key, 
-                        smallTreeId, 
+                        TileKey.idOf(key), 
+                        TileKey.idOf(smallTreeId), 
                         x, 
                         y
                     );
@@ -680,21 +712,20 @@ public class MyGdxGame extends ApplicationAdapter {
         }
         
         // update planted banana trees and check for transformations
-        List<String> bananaTreesToTransform = new ArrayList<>();
-        for (Map.Entry<String, wagemaker.uk.planting.PlantedBananaTree> entry : plantedBananaTrees.entrySet()) {
-            wagemaker.uk.planting.PlantedBananaTree planted = entry.getValue();
+        LongHashSet bananaTreesToTransform = new LongHashSet();
+        plantedBananaTrees.forEach((key, planted) -> {
             if (planted.update(deltaTime)) {
-                bananaTreesToTransform.add(entry.getKey());
+                bananaTreesToTransform.add(key);
             }
-        }
+        });
         
         // transform mature planted banana trees into banana trees
-        for (String key : bananaTreesToTransform) {
+        for (long key : bananaTreesToTransform.toArray()) {
             wagemaker.uk.planting.PlantedBananaTree planted = plantedBananaTrees.remove(key);
             float x = planted.getX();
             float y = planted.getY();
             
-            String bananaTreeId = key;
+            long bananaTreeId = key;
             
             BananaTree tree = new BananaTree(x, y);
             bananaTrees.put(bananaTreeId, tree);
@@ -703,28 +734,27 @@ public class MyGdxGame extends ApplicationAdapter {
             if (gameClient != null && gameClient.isConnected()) {
                 wagemaker.uk.network.BananaTreeTransformMessage message = 
                     new wagemaker.uk.network.BananaTreeTransformMessage(
-                        gameClient.getClientId(), key, bananaTreeId, x, y
+                        gameClient.getClientId(), TileKey.idOf(key), TileKey.idOf(bananaTreeId), x, y
                     );
                 gameClient.sendMessage(message);
             }
         }
         
         // update planted apple trees and check for transformations
-        List<String> appleTreesToTransform = new ArrayList<>();
-        for (Map.Entry<String, wagemaker.uk.planting.PlantedAppleTree> entry : plantedAppleTrees.entrySet()) {
-            wagemaker.uk.planting.PlantedAppleTree planted = entry.getValue();
+        LongHashSet appleTreesToTransform = new LongHashSet();
+        plantedAppleTrees.forEach((key, planted) -> {
             if (planted.update(deltaTime)) {
-                appleTreesToTransform.add(entry.getKey());
+                appleTreesToTransform.add(key);
             }
-        }
+        });
         
         // transform mature planted apple trees into apple trees
-        for (String key : appleTreesToTransform) {
+        for (long key : appleTreesToTransform.toArray()) {
             wagemaker.uk.planting.PlantedAppleTree planted = plantedAppleTrees.remove(key);
             float x = planted.getX();
             float y = planted.getY();
             
-            String appleTreeId = key;
+            long appleTreeId = key;
             
             AppleTree tree = new AppleTree(x, y);
             appleTrees.put(appleTreeId, tree);
@@ -733,7 +763,7 @@ public class MyGdxGame extends ApplicationAdapter {
             if (gameClient != null && gameClient.isConnected()) {
                 wagemaker.uk.network.AppleTreeTransformMessage message = 
                     new wagemaker.uk.network.AppleTreeTransformMessage(
-                        gameClient.getClientId(), key, appleTreeId, x, y
+                        gameClient.getClientId(), TileKey.idOf(key), TileKey.idOf(appleTreeId), x, y
                     );
                 gameClient.sendMessage(message);
             }
@@ -758,14 +788,17 @@ public class MyGdxGame extends ApplicationAdapter {
         }
         
         camera.update();
-
+        
         Gdx.gl.glClearColor(0.1f, 0.12f, 0.16f, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
-
+        
         // apply viewport and camera
         viewport.apply();
         batch.setProjectionMatrix(camera.combined);
-
+        
+        // Create any trees and stones the background worker has generated
+        updateWorldGeneration();
+        
         batch.begin();
         // draw infinite grass background around camera
         drawInfiniteGrass();
@@ -782,42 +815,35 @@ public class MyGdxGame extends ApplicationAdapter {
             boolean isValid = player.getTargetingSystem().isTargetValid();
             player.getTargetIndicatorRenderer().render(batch, targetCoords[0], targetCoords[1], isValid);
         }
-        // draw planted bamboos (after terrain, before trees)
-        drawPlantedBamboos();
-        // draw planted trees (after terrain, before trees)
-        drawPlantedTrees();
-        // draw planted banana trees (after terrain, before trees)
-        drawPlantedBananaTrees();
-        // draw planted apple trees (after terrain, before trees)
-        drawPlantedAppleTrees();
-        // draw respawn indicators (after terrain, before trees)
+        // collect the visible world once; the ground layer (planted saplings and
+        // dropped items) is drawn first, then trees, stones and players sorted by depth
+        float viewHalfWidth = viewport.getWorldWidth() / 2;
+        float viewHalfHeight = viewport.getWorldHeight() / 2;
+        worldRenderer.beginFrame(camera.position.x - viewHalfWidth, camera.position.y - viewHalfHeight,
+                                 camera.position.x + viewHalfWidth, camera.position.y + viewHalfHeight);
+        if (cactus != null) {
+            TextureRegion cactusTexture = cactus.getTexture();
+            worldRenderer.addDynamic(cactusTexture, cactus.getX(), cactus.getY(),
+                                     cactusTexture.getRegionWidth(), cactusTexture.getRegionHeight(),
+                                     WorldRenderer.LAYER_OBJECTS);
+        }
+        worldRenderer.addDynamic(player.getCurrentFrame(), player.getX(), player.getY(), 100, 100,
+                                 WorldRenderer.LAYER_OBJECTS);
+        if (gameMode != GameMode.SINGLEPLAYER) {
+            for (RemotePlayer remotePlayer : remotePlayers.values()) {
+                worldRenderer.addDynamic(remotePlayer.getCurrentFrame(), remotePlayer.getX(), remotePlayer.getY(),
+                                         100, 100, WorldRenderer.LAYER_OBJECTS);
+            }
+        }
+        worldRenderer.draw(batch, WorldRenderer.LAYER_GROUND);
+        // draw respawn indicators (after ground sprites, before trees)
         if (respawnManager != null) {
             respawnManager.renderIndicators(batch, deltaTime, 
                                           camera.position.x, camera.position.y,
                                           viewport.getWorldWidth(), viewport.getWorldHeight());
         }
-        // draw trees
-        drawTrees();
-        drawCoconutTrees();
-        drawBambooTrees();
-        drawStones();
-        drawApples();
-        drawAppleSaplings();
-        drawBananas();
-        drawBananaSaplings();
-        drawBambooStacks();
-        drawBambooSaplings();
-        drawTreeSaplings();
-        drawWoodStacks();
-        drawPebbles();
-        drawPalmFibers();
-        drawCactus();
-        // draw player before apple trees so foliage appears in front
-        batch.draw(player.getCurrentFrame(), player.getX(), player.getY(), 100, 100);
-        // draw remote players at same z-order as local player
-        renderRemotePlayers();
-        drawAppleTrees();
-        drawBananaTrees();
+        // draw trees, stones, cactus and players
+        worldRenderer.draw(batch, WorldRenderer.LAYER_OBJECTS);
         batch.end();
         
         // Render rain effects after batch.end() but before UI
@@ -881,6 +907,53 @@ public class MyGdxGame extends ApplicationAdapter {
         }
     }
     
+    /**
+     * Keeps the collision grid and the world generation layout in step with a map of trees or stones.
+     * @param map The entity map
+     * @param treeType The type of the trees in the map, or null for stones
+     * @return The map
+     */
+    private <V extends WorldSprite> RenderIndexedMap<V> trackColliders(RenderIndexedMap<V> map, TreeType treeType) {
+        String prefix = treeType != null ? treeType.name() + ":" : "STONE:";
+        map.addChangeListener((key, oldValue, newValue) -> {
+            String id = TileKey.idOf(key);
+            if (newValue == null) {
+                collisionGrid.remove(prefix + id);
+            } else if (treeType != null) {
+                collisionGrid.put(prefix + id, CollisionGrid.forTree(treeType, newValue.getX(), newValue.getY()));
+            } else {
+                collisionGrid.put(prefix + id, CollisionGrid.forStone(newValue.getX(), newValue.getY()));
+            }
+            
+            // Generated trees and stones keep their spacing from everything placed in the world
+            if (newValue != null && gameMode == GameMode.SINGLEPLAYER && !worldGeneratorStale) {
+                if (treeType != null) {
+                    worldGenerator.occupyTree(id, newValue.getX(), newValue.getY());
+                } else {
+                    worldGenerator.occupyStone(id, newValue.getX(), newValue.getY());
+                }
+            }
+        });
+        return map;
+    }
+    
+    /**
+     * Keeps the pickup index in step with a map of dropped items.
+     * @param map The item map
+     * @param itemType The type of the items in the map
+     * @return The map
+     */
+    private <V extends WorldSprite> RenderIndexedMap<V> trackPickups(RenderIndexedMap<V> map, ItemType itemType) {
+        map.addChangeListener((key, oldValue, newValue) -> {
+            if (newValue == null) {
+                pickupIndex.remove(TileKey.idOf(key), itemType);
+            } else {
+                pickupIndex.put(TileKey.idOf(key), itemType, newValue.getX(), newValue.getY());
+            }
+        });
+        return map;
+    }
+    
     private void drawInfiniteGrass() {
         // Calculate visible area around camera
         float camX = camera.position.x;
@@ -901,298 +974,97 @@ public class MyGdxGame extends ApplicationAdapter {
                 // Get appropriate texture for this position based on biome
                 Texture texture = biomeManager.getTextureForPosition(x, y);
                 batch.draw(texture, x, y, 64, 64);
-                
-                // Only generate trees/stones in singleplayer mode
-                // In multiplayer, server is authoritative and sends all entities
-                if (gameMode == GameMode.SINGLEPLAYER) {
-                    generateTreeAt(x, y);
-                    generateStoneAt(x, y);
-                }
             }
         }
     }
     
     /**
-     * Generates a tree at the specified world coordinates using deterministic procedural generation.
-     * 
-     * <p><b>DETERMINISTIC BEHAVIOR GUARANTEE:</b></p>
-     * <p>This method ensures that the same world seed and coordinates will ALWAYS produce the same
-     * tree type at the same location across all game sessions and multiplayer clients. This is
-     * critical for multiplayer synchronization.</p>
-     * 
-     * <p><b>Order of Operations (CRITICAL for determinism):</b></p>
-     * <ol>
-     *   <li>Set deterministic random seed based on worldSeed + position</li>
-     *   <li>Check spawn probability (2%) using seeded random</li>
-     *   <li>Validate spawn location (distance checks, view checks)</li>
-     *   <li>Query biome type (deterministic, based on coordinates only)</li>
-     *   <li>Select tree type using seeded random + biome filtering</li>
-     * </ol>
-     * 
-     * <p><b>Randomness Sources:</b></p>
-     * <ul>
-     *   <li>Spawn probability: {@code random.nextFloat() < 0.005f} (seeded)</li>
-     *   <li>Tree type selection: {@code random.nextFloat()} (seeded)</li>
-     *   <li>Biome query: {@code biomeManager.getBiomeAtPosition(x, y)} (deterministic, NO randomness)</li>
-     * </ul>
-     * 
-     * <p><b>Multiplayer Synchronization:</b></p>
-     * <p>All clients use the same worldSeed value synchronized from the server. Combined with
-     * deterministic biome queries and seeded random generation, this ensures all clients see
-     * identical trees at identical positions without requiring per-tree network synchronization.</p>
-     * 
-     * @param x The x-coordinate in world space (must be aligned to 64px grid)
-     * @param y The y-coordinate in world space (must be aligned to 64px grid)
+     * Requests trees and stones for the area around the camera from the background
+     * generation worker and creates the entities it has finished.
+     * Only runs in singleplayer; in multiplayer the server sends all entities.
      */
-    private void generateTreeAt(int x, int y) {
-        // CRITICAL: In multiplayer mode, clients should NEVER generate trees locally
-        // Only the server generates trees, clients receive them via WorldState
+    private void updateWorldGeneration() {
         if (gameMode != GameMode.SINGLEPLAYER) {
             return;
         }
         
-        String key = x + "," + y;
-        if (!trees.containsKey(key) && !appleTrees.containsKey(key) && !coconutTrees.containsKey(key) && !bambooTrees.containsKey(key) && !bananaTrees.containsKey(key) && !clearedPositions.containsKey(key)) {
-            // STEP 1: Set deterministic random seed
-            // Combines world seed with position using prime number multipliers to ensure unique,
-            // reproducible seeds for each coordinate pair across all clients
-            random.setSeed(worldSeed + x * 31L + y * 17L);
-            
-            // STEP 2: Check spawn probability (2% chance)
-            // Uses the seeded random to ensure same coordinates always get same spawn decision
-            if (random.nextFloat() < 0.005f) {
-                // STEP 3: Add random offset to break grid pattern (±32px in each direction)
-                // Try multiple times to find a position without overlapping trees
-                float treeX = 0, treeY = 0;
-                boolean validPosition = false;
-                int maxAttempts = 5;
-                
-                for (int attempt = 0; attempt < maxAttempts; attempt++) {
-                    float offsetX = (random.nextFloat() - 0.5f) * 64; // -32 to +32
-                    float offsetY = (random.nextFloat() - 0.5f) * 64; // -32 to +32
-                    treeX = x + offsetX;
-                    treeY = y + offsetY;
-                    
-                    // Check biome type first to determine minimum distance
-                    wagemaker.uk.biome.BiomeType biome = biomeManager.getBiomeAtPosition(treeX, treeY);
-                    float minDistance = (biome == wagemaker.uk.biome.BiomeType.SAND) ? 50f : 192f;
-                    
-                    // Check if any tree is too close (192px for grass, 50px for sand)
-                    if (!isTreeTooClose(treeX, treeY, minDistance)) {
-                        validPosition = true;
-                        break;
-                    }
-                }
-                
-                // If no valid position found after attempts, skip this tree
-                if (!validPosition) {
-                    return;
-                }
-                
-                // STEP 4: Validate spawn location (deterministic checks only)
-                // Don't spawn trees too close to spawn point (within 200px)
-                float distanceFromSpawn = (float) Math.sqrt(treeX * treeX + treeY * treeY);
-                if (distanceFromSpawn < 200) {
-                    return;
-                }
-                
-                // STEP 5: Query biome type again for tree type selection
-                // BiomeManager returns consistent biome types based solely on world coordinates
-                wagemaker.uk.biome.BiomeType biome = biomeManager.getBiomeAtPosition(treeX, treeY);
-                
-                // STEP 6: Generate tree based on biome type
-                // Tree type selection uses the SAME seeded random instance from Step 1
-                if (biome == wagemaker.uk.biome.BiomeType.SAND) {
-                    // Sand biomes: bamboo trees with 30% spawn rate (reduced by 70%)
-                    if (random.nextFloat() < 0.3f) {
-                        bambooTrees.put(key, new BambooTree(treeX, treeY));
-                    }
-                } else {
-                    // Grass biomes: adjusted tree type distribution
-                    // SmallTree: 42.5% (increased by 30% from 32.5%)
-                    // AppleTree: 12.5% (reduced by 50% from 25%)
-                    // CoconutTree: 32.5% (unchanged)
-                    // BananaTree: 12.5% (reduced by 50% from 25%)
-                    float treeType = random.nextFloat();
-                    if (treeType < 0.425f) {
-                        trees.put(key, new SmallTree(treeX, treeY));
-                    } else if (treeType < 0.55f) {
-                        appleTrees.put(key, new AppleTree(treeX, treeY));
-                    } else if (treeType < 0.875f) {
-                        coconutTrees.put(key, new CoconutTree(treeX, treeY));
-                    } else {
-                        bananaTrees.put(key, new BananaTree(treeX, treeY));
-                    }
-                }
-            }
+        // Start a new layout for a new seed or a freshly loaded world, including everything already placed
+        if (worldGeneratorStale || worldGeneratorSeed != worldSeed) {
+            worldGenerator.reset(worldSeed);
+            occupyExisting(trees);
+            occupyExisting(appleTrees);
+            occupyExisting(coconutTrees);
+            occupyExisting(bambooTrees);
+            occupyExisting(bananaTrees);
+            stones.forEach((key, stone) -> worldGenerator.occupyStone(TileKey.idOf(key), stone.getX(), stone.getY()));
+            worldGeneratorSeed = worldSeed;
+            worldGeneratorStale = false;
+            hasGenerationChunk = false;
         }
-    }
-    
-    private boolean isTreeNearby(int x, int y, int minDistance) {
-        for (SmallTree tree : trees.values()) {
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            if (Math.sqrt(dx * dx + dy * dy) < minDistance) {
-                return true;
-            }
-        }
-        for (AppleTree tree : appleTrees.values()) {
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            if (Math.sqrt(dx * dx + dy * dy) < minDistance) {
-                return true;
-            }
-        }
-        for (CoconutTree tree : coconutTrees.values()) {
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            if (Math.sqrt(dx * dx + dy * dy) < minDistance) {
-                return true;
-            }
-        }
-        for (BambooTree tree : bambooTrees.values()) {
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            if (Math.sqrt(dx * dx + dy * dy) < minDistance) {
-                return true;
-            }
-        }
-        for (BananaTree tree : bananaTrees.values()) {
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            if (Math.sqrt(dx * dx + dy * dy) < minDistance) {
-                return true;
-            }
+        
+        // Ask for the camera's view plus one chunk ahead whenever the camera enters another chunk
+        float camX = camera.position.x;
+        float camY = camera.position.y;
+        long chunk = TileKey.pack(WorldGenerationWorker.chunkCoord(camX), WorldGenerationWorker.chunkCoord(camY));
+        if (!hasGenerationChunk || lastGenerationChunk != chunk) {
+            float reachX = viewport.getWorldWidth() + WorldGenerationWorker.CHUNK_SIZE;
+            float reachY = viewport.getWorldHeight() + WorldGenerationWorker.CHUNK_SIZE;
+            worldGenerator.requestArea(camX - reachX, camY - reachY, camX + reachX, camY + reachY,
+                player.getX(), player.getY());
+            lastGenerationChunk = chunk;
+            hasGenerationChunk = true;
         }
-        return false;
+        
+        worldGenerator.drain(this::createGeneratedEntity, MAX_GENERATED_PER_FRAME);
     }
     
-    /**
-     * Checks if a tree position is too close to any existing tree.
-     * Uses float coordinates for precise overlap detection.
-     * 
-     * @param x The x-coordinate to check
-     * @param y The y-coordinate to check
-     * @param minDistance Minimum distance required between trees
-     * @return true if too close to another tree, false otherwise
-     */
-    private boolean isTreeTooClose(float x, float y, float minDistance) {
-        for (SmallTree tree : trees.values()) {
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            if (Math.sqrt(dx * dx + dy * dy) < minDistance) {
-                return true;
-            }
-        }
-        for (AppleTree tree : appleTrees.values()) {
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            if (Math.sqrt(dx * dx + dy * dy) < minDistance) {
-                return true;
-            }
-        }
-        for (CoconutTree tree : coconutTrees.values()) {
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            if (Math.sqrt(dx * dx + dy * dy) < minDistance) {
-                return true;
-            }
-        }
-        for (BambooTree tree : bambooTrees.values()) {
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            if (Math.sqrt(dx * dx + dy * dy) < minDistance) {
-                return true;
-            }
-        }
-        for (BananaTree tree : bananaTrees.values()) {
-            float dx = tree.getX() - x;
-            float dy = tree.getY() - y;
-            if (Math.sqrt(dx * dx + dy * dy) < minDistance) {
-                return true;
-            }
-        }
-        return false;
+    private void occupyExisting(LongObjectHashMap<? extends WorldSprite> treeMap) {
+        treeMap.forEach((key, tree) -> worldGenerator.occupyTree(TileKey.idOf(key), tree.getX(), tree.getY()));
     }
     
     /**
-     * Generates a stone at the specified world coordinates using deterministic procedural generation.
-     * Stones spawn only on sand biomes with approximately 1 stone per 500x500 pixels.
-     * Ensures minimum 100 pixel distance from trees to avoid overlap.
-     * 
-     * @param x The x-coordinate in world space (aligned to 64px grid)
-     * @param y The y-coordinate in world space (aligned to 64px grid)
+     * Creates a tree or stone decided by the generation worker, unless its tile
+     * has been cleared or already holds one.
      */
-    private void generateStoneAt(int x, int y) {
-        // CRITICAL: In multiplayer mode, clients should NEVER generate stones locally
-        // Only the server generates stones, clients receive them via WorldState
-        if (gameMode != GameMode.SINGLEPLAYER) {
+    private void createGeneratedEntity(WorldGenerationWorker.GeneratedEntity generated) {
+        long key = generated.getTile();
+        if (clearedPositions.contains(key)) {
             return;
         }
         
-        String key = x + "," + y;
-        
-        // Don't spawn stones where they already exist or where positions are cleared
-        if (stones.containsKey(key) || stoneMap.containsKey(key) || clearedPositions.containsKey(key)) {
+        float x = generated.getX();
+        float y = generated.getY();
+        if (generated.isStone()) {
+            if (!stones.containsKey(key) && !stoneMap.containsKey(key)) {
+                Stone stone = new Stone(x, y);
+                stones.put(key, stone);
+                stoneMap.put(key, stone);
+            }
             return;
         }
         
-        // Set deterministic random seed based on world seed and position
-        random.setSeed(worldSeed + x * 37L + y * 23L);
-        
-        // Stone spawn probability: consistent for both singleplayer and multiplayer
-        // Single-player: 0.001 (0.1%), Multiplayer: 0.005 (0.5%)
-        float spawnRate = 0.001f;
-        if (random.nextFloat() < spawnRate) {
-            // Add random offset to break grid pattern
-            float offsetX = (random.nextFloat() - 0.5f) * 64; // -32 to +32
-            float offsetY = (random.nextFloat() - 0.5f) * 64; // -32 to +32
-            float stoneX = x + offsetX;
-            float stoneY = y + offsetY;
-            
-            // Only spawn stones on sand biomes
-            wagemaker.uk.biome.BiomeType biome = biomeManager.getBiomeAtPosition(stoneX, stoneY);
-            if (biome != wagemaker.uk.biome.BiomeType.SAND) {
-                return;
-            }
-            
-            // Don't spawn stones too close to spawn point (within 200px)
-            float distanceFromSpawn = (float) Math.sqrt(stoneX * stoneX + stoneY * stoneY);
-            if (distanceFromSpawn < 200) {
-                return;
-            }
-            
-            // Don't spawn stones near player (512px minimum distance)
-            float distFromPlayer = (float) Math.sqrt((stoneX - player.getX()) * (stoneX - player.getX()) + (stoneY - player.getY()) * (stoneY - player.getY()));
-            if (distFromPlayer < 512) {
-                return;
-            }
-            
-            // Ensure minimum 100 pixel distance from trees
-            if (isTreeTooClose(stoneX, stoneY, 100f)) {
-                return;
-            }
-            
-            // Check if any existing stone is too close (minimum 100 pixels)
-            for (Stone existingStone : stones.values()) {
-                float dx = existingStone.getX() - stoneX;
-                float dy = existingStone.getY() - stoneY;
-                if (Math.sqrt(dx * dx + dy * dy) < 100) {
-                    return;
-                }
-            }
-            for (Stone existingStone : stoneMap.values()) {
-                float dx = existingStone.getX() - stoneX;
-                float dy = existingStone.getY() - stoneY;
-                if (Math.sqrt(dx * dx + dy * dy) < 100) {
-                    return;
-                }
-            }
-            
-            // Create stone at the calculated position
-            Stone stone = new Stone(stoneX, stoneY);
-            stones.put(key, stone);
-            stoneMap.put(key, stone);
+        if (trees.containsKey(key) || appleTrees.containsKey(key) || coconutTrees.containsKey(key)
+                || bambooTrees.containsKey(key) || bananaTrees.containsKey(key)) {
+            return;
+        }
+        switch (generated.getTreeType()) {
+            case SMALL:
+                trees.put(key, new SmallTree(x, y));
+                break;
+            case APPLE:
+                appleTrees.put(key, new AppleTree(x, y));
+                break;
+            case COCONUT:
+                coconutTrees.put(key, new CoconutTree(x, y));
+                break;
+            case BAMBOO:
+                bambooTrees.put(key, new BambooTree(x, y));
+                break;
+            case BANANA:
+                bananaTrees.put(key, new BananaTree(x, y));
+                break;
+            default:
+                break;
         }
     }
     
@@ -1218,338 +1090,11 @@ public class MyGdxGame extends ApplicationAdapter {
         return (x >= leftBound && x <= rightBound && y >= bottomBound && y <= topBound);
     }
     
-    private void drawTrees() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth();
-        float viewHeight = viewport.getWorldHeight();
-        
-        for (SmallTree tree : trees.values()) {
-            // only draw trees near camera
-            if (Math.abs(tree.getX() - camX) < viewWidth && 
-                Math.abs(tree.getY() - camY) < viewHeight) {
-                batch.draw(tree.getTexture(), tree.getX(), tree.getY());
-            }
-        }
-    }
-    
-    private void drawAppleTrees() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth();
-        float viewHeight = viewport.getWorldHeight();
-        
-        for (AppleTree appleTree : appleTrees.values()) {
-            // only draw apple trees near camera
-            if (Math.abs(appleTree.getX() - camX) < viewWidth && 
-                Math.abs(appleTree.getY() - camY) < viewHeight) {
-                batch.draw(appleTree.getTexture(), appleTree.getX(), appleTree.getY());
-            }
-        }
-    }
-    
-    private void drawCoconutTrees() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth();
-        float viewHeight = viewport.getWorldHeight();
-        
-        for (CoconutTree coconutTree : coconutTrees.values()) {
-            // only draw coconut trees near camera
-            if (Math.abs(coconutTree.getX() - camX) < viewWidth && 
-                Math.abs(coconutTree.getY() - camY) < viewHeight) {
-                batch.draw(coconutTree.getTexture(), coconutTree.getX(), coconutTree.getY());
-            }
-        }
-    }
-    
-    private void drawBambooTrees() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth();
-        float viewHeight = viewport.getWorldHeight();
-        
-        for (BambooTree bambooTree : bambooTrees.values()) {
-            // only draw bamboo trees near camera
-            if (Math.abs(bambooTree.getX() - camX) < viewWidth && 
-                Math.abs(bambooTree.getY() - camY) < viewHeight) {
-                batch.draw(bambooTree.getTexture(), bambooTree.getX(), bambooTree.getY());
-            }
-        }
-    }
-    
-    private void drawBananaTrees() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth();
-        float viewHeight = viewport.getWorldHeight();
-        
-        for (BananaTree bananaTree : bananaTrees.values()) {
-            // only draw banana trees near camera
-            if (Math.abs(bananaTree.getX() - camX) < viewWidth && 
-                Math.abs(bananaTree.getY() - camY) < viewHeight) {
-                batch.draw(bananaTree.getTexture(), bananaTree.getX(), bananaTree.getY());
-            }
-        }
-    }
-    
-    private void drawApples() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth();
-        float viewHeight = viewport.getWorldHeight();
-        
-        for (Apple apple : apples.values()) {
-            // only draw apples near camera
-            if (Math.abs(apple.getX() - camX) < viewWidth && 
-                Math.abs(apple.getY() - camY) < viewHeight) {
-                batch.draw(apple.getTexture(), apple.getX(), apple.getY(), 24, 24);
-            }
-        }
-    }
-    
-    private void drawAppleSaplings() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth() / 2;
-        float viewHeight = viewport.getWorldHeight() / 2;
-        
-        for (AppleSapling appleSapling : appleSaplings.values()) {
-            // only draw apple saplings near camera
-            if (Math.abs(appleSapling.getX() - camX) < viewWidth && 
-                Math.abs(appleSapling.getY() - camY) < viewHeight) {
-                batch.draw(appleSapling.getTexture(), appleSapling.getX(), appleSapling.getY(), 32, 32);
-            }
-        }
-    }
-    
-    private void drawBananas() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth();
-        float viewHeight = viewport.getWorldHeight();
-        
-        for (Banana banana : bananas.values()) {
-            // only draw bananas near camera
-            if (Math.abs(banana.getX() - camX) < viewWidth && 
-                Math.abs(banana.getY() - camY) < viewHeight) {
-                batch.draw(banana.getTexture(), banana.getX(), banana.getY(), 32, 32);
-            }
-        }
-    }
-    
-    private void drawBananaSaplings() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth() / 2;
-        float viewHeight = viewport.getWorldHeight() / 2;
-        
-        for (BananaSapling bananaSapling : bananaSaplings.values()) {
-            // only draw banana saplings near camera
-            if (Math.abs(bananaSapling.getX() - camX) < viewWidth && 
-                Math.abs(bananaSapling.getY() - camY) < viewHeight) {
-                batch.draw(bananaSapling.getTexture(), bananaSapling.getX(), bananaSapling.getY(), 32, 32);
-            }
-        }
-    }
-    
-    private void drawBambooStacks() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth() / 2;
-        float viewHeight = viewport.getWorldHeight() / 2;
-        
-        for (BambooStack bambooStack : bambooStacks.values()) {
-            if (Math.abs(bambooStack.getX() - camX) < viewWidth && 
-                Math.abs(bambooStack.getY() - camY) < viewHeight) {
-                batch.draw(bambooStack.getTexture(), bambooStack.getX(), bambooStack.getY(), 32, 32);
-            }
-        }
-    }
-    
-    private void drawBambooSaplings() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth() / 2;
-        float viewHeight = viewport.getWorldHeight() / 2;
-        
-        for (BambooSapling bambooSapling : bambooSaplings.values()) {
-            if (Math.abs(bambooSapling.getX() - camX) < viewWidth && 
-                Math.abs(bambooSapling.getY() - camY) < viewHeight) {
-                batch.draw(bambooSapling.getTexture(), bambooSapling.getX(), bambooSapling.getY(), 32, 32);
-            }
-        }
-    }
-    
-    private void drawTreeSaplings() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth() / 2;
-        float viewHeight = viewport.getWorldHeight() / 2;
-        
-        for (TreeSapling treeSapling : treeSaplings.values()) {
-            if (Math.abs(treeSapling.getX() - camX) < viewWidth && 
-                Math.abs(treeSapling.getY() - camY) < viewHeight) {
-                batch.draw(treeSapling.getTexture(), treeSapling.getX(), treeSapling.getY(), 32, 32);
-            }
-        }
-    }
-    
-    private void drawWoodStacks() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth() / 2;
-        float viewHeight = viewport.getWorldHeight() / 2;
-        
-        for (WoodStack woodStack : woodStacks.values()) {
-            if (Math.abs(woodStack.getX() - camX) < viewWidth && 
-                Math.abs(woodStack.getY() - camY) < viewHeight) {
-                batch.draw(woodStack.getTexture(), woodStack.getX(), woodStack.getY(), 32, 32);
-            }
-        }
-    }
-    
-    private void drawPlantedBamboos() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth() / 2;
-        float viewHeight = viewport.getWorldHeight() / 2;
-        
-        for (PlantedBamboo planted : plantedBamboos.values()) {
-            if (Math.abs(planted.getX() - camX) < viewWidth && 
-                Math.abs(planted.getY() - camY) < viewHeight) {
-                Texture texture = planted.getTexture();
-                if (texture != null) {
-                    batch.draw(texture, planted.getX(), planted.getY(), 64, 64);
-                } else {
-                    System.err.println("[RENDER] PlantedBamboo at (" + planted.getX() + ", " + planted.getY() + ") has null texture!");
-                }
-            }
-        }
-    }
-    
-    private void drawPlantedBananaTrees() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth() / 2;
-        float viewHeight = viewport.getWorldHeight() / 2;
-        
-        for (wagemaker.uk.planting.PlantedBananaTree planted : plantedBananaTrees.values()) {
-            if (Math.abs(planted.getX() - camX) < viewWidth && Math.abs(planted.getY() - camY) < viewHeight) {
-                Texture texture = planted.getTexture();
-                if (texture != null) {
-                    // Center the 32x32 sapling in the 64x64 tile: (64 - 32) / 2 = 16 pixel offset
-                    float centerOffset = (64 - 32) / 2.0f;
-                    batch.draw(texture, planted.getX() + centerOffset, planted.getY() + centerOffset, 32, 32);
-                } else {
-                    System.err.println("[RENDER] PlantedBananaTree at (" + planted.getX() + ", " + planted.getY() + ") has null texture!");
-                }
-            }
-        }
-    }
-    
-    private void drawPlantedAppleTrees() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth() / 2;
-        float viewHeight = viewport.getWorldHeight() / 2;
-        
-        for (wagemaker.uk.planting.PlantedAppleTree planted : plantedAppleTrees.values()) {
-            if (Math.abs(planted.getX() - camX) < viewWidth && Math.abs(planted.getY() - camY) < viewHeight) {
-                Texture texture = planted.getTexture();
-                if (texture != null) {
-                    // Center the 32x32 sapling in the 64x64 tile: (64 - 32) / 2 = 16 pixel offset
-                    float centerOffset = (64 - 32) / 2.0f;
-                    batch.draw(texture, planted.getX() + centerOffset, planted.getY() + centerOffset, 32, 32);
-                } else {
-                    System.err.println("[RENDER] PlantedAppleTree at (" + planted.getX() + ", " + planted.getY() + ") has null texture!");
-                }
-            }
-        }
-    }
-    
-    private void drawPlantedTrees() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth() / 2;
-        float viewHeight = viewport.getWorldHeight() / 2;
-        
-        for (PlantedTree planted : plantedTrees.values()) {
-            if (Math.abs(planted.getX() - camX) < viewWidth && 
-                Math.abs(planted.getY() - camY) < viewHeight) {
-                Texture texture = planted.getTexture();
-                if (texture != null) {
-                    batch.draw(texture, planted.getX(), planted.getY(), 64, 64);
-                } else {
-                    System.err.println("[RENDER] PlantedTree at (" + planted.getX() + ", " + planted.getY() + ") has null texture!");
-                }
-            }
-        }
-    }
-    
-    private void drawCactus() {
-        if (cactus != null) {
-            float camX = camera.position.x;
-            float camY = camera.position.y;
-            float viewWidth = viewport.getWorldWidth();
-            float viewHeight = viewport.getWorldHeight();
-            
-            // only draw cactus if near camera
-            if (Math.abs(cactus.getX() - camX) < viewWidth && 
-                Math.abs(cactus.getY() - camY) < viewHeight) {
-                batch.draw(cactus.getTexture(), cactus.getX(), cactus.getY());
-            }
-        }
-    }
-    
-    private void drawStones() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth();
-        float viewHeight = viewport.getWorldHeight();
-        
-        for (Stone stone : stones.values()) {
-            // only draw stones near camera
-            if (Math.abs(stone.getX() - camX) < viewWidth && 
-                Math.abs(stone.getY() - camY) < viewHeight) {
-                batch.draw(stone.getTexture(), stone.getX(), stone.getY(), 64, 64);
-            }
-        }
-    }
-    
-    private void drawPebbles() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth() / 2;
-        float viewHeight = viewport.getWorldHeight() / 2;
-        
-        for (Pebble pebble : pebbles.values()) {
-            if (Math.abs(pebble.getX() - camX) < viewWidth && 
-                Math.abs(pebble.getY() - camY) < viewHeight) {
-                batch.draw(pebble.getTexture(), pebble.getX(), pebble.getY(), 32, 32);
-            }
-        }
-    }
-    
-    private void drawPalmFibers() {
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth() / 2;
-        float viewHeight = viewport.getWorldHeight() / 2;
-        
-        for (PalmFiber palmFiber : palmFibers.values()) {
-            if (Math.abs(palmFiber.getX() - camX) < viewWidth && 
-                Math.abs(palmFiber.getY() - camY) < viewHeight) {
-                batch.draw(palmFiber.getTexture(), palmFiber.getX(), palmFiber.getY(), 32, 32);
-            }
-        }
-    }
-
     @Override
     public void resize(int width, int height) {
         viewport.update(width, height);
     }
-
+    
     private void drawHealthBars() {
         shapeRenderer.setProjectionMatrix(camera.combined);
         shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
@@ -1719,7 +1264,7 @@ public class MyGdxGame extends ApplicationAdapter {
             shapeRenderer.end();
         }
     }
-
+    
     public void spawnNewCactus() {
         if (cactus != null) {
             cactus.dispose();
@@ -1751,30 +1296,11 @@ public class MyGdxGame extends ApplicationAdapter {
         System.out.println("New cactus spawned at: " + newX + ", " + newY + " (distance from player: " + 
                           Math.sqrt((newX - playerX) * (newX - playerX) + (newY - playerY) * (newY - playerY)) + ")");
     }
-
+    
     /**
      * Renders all remote players in multiplayer mode.
      * This method draws remote player sprites and their name tags.
      */
-    private void renderRemotePlayers() {
-        if (gameMode == GameMode.SINGLEPLAYER || remotePlayers.isEmpty()) {
-            return;
-        }
-        
-        float camX = camera.position.x;
-        float camY = camera.position.y;
-        float viewWidth = viewport.getWorldWidth();
-        float viewHeight = viewport.getWorldHeight();
-        
-        // Only render remote players near the camera
-        for (RemotePlayer remotePlayer : remotePlayers.values()) {
-            if (Math.abs(remotePlayer.getX() - camX) < viewWidth && 
-                Math.abs(remotePlayer.getY() - camY) < viewHeight) {
-                remotePlayer.render(batch);
-            }
-        }
-    }
-    
     /**
      * Renders name tags for all remote players.
      * This is called after the main batch rendering.
@@ -1984,6 +1510,18 @@ public class MyGdxGame extends ApplicationAdapter {
      * @param state The world state from the server
      */
     public void syncWorldState(WorldState state) {
+        syncWorldState(state, 0);
+    }
+    
+    /**
+     * Synchronizes the local game state with the server's world state.
+     * When the world is streamed, the state only holds the players and the
+     * trees, stones and items arrive afterwards via {@link #queueWorldChunk}.
+     * 
+     * @param state The world state from the server
+     * @param streamedChunkCount Number of world chunks that follow, or 0 if the state is complete
+     */
+    public void syncWorldState(WorldState state, int streamedChunkCount) {
         if (state == null) {
             return;
         }
@@ -2004,7 +1542,7 @@ public class MyGdxGame extends ApplicationAdapter {
         if (state.getClearedPositions() != null) {
             clearedPositions.clear();
             for (String position : state.getClearedPositions()) {
-                clearedPositions.put(position, true);
+                clearedPositions.add(TileKey.keyOf(position));
             }
         }
         
@@ -2030,8 +1568,15 @@ public class MyGdxGame extends ApplicationAdapter {
         
         // Sync tree states and remove ghost trees
         if (state.getTrees() != null) {
-            // First, remove any local trees that don't exist on the server (ghost trees)
-            removeGhostTrees(state.getTrees());
+            // First, remove any local trees that don't exist on the server (ghost trees);
+            // a streamed world does this once the last chunk has been applied
+            if (streamedChunkCount == 0) {
+                LongHashSet serverTrees = new LongHashSet(state.getTrees().size());
+                for (String treeId : state.getTrees().keySet()) {
+                    serverTrees.add(TileKey.findKey(treeId));
+                }
+                removeGhostTrees(serverTrees);
+            }
             
             // Then sync the server's trees
             for (TreeState treeState : state.getTrees().values()) {
@@ -2063,14 +1608,15 @@ public class MyGdxGame extends ApplicationAdapter {
      * This prevents desync issues where clients see trees that don't exist in the server's world state.
      * Queues removals to be processed on the main thread to avoid OpenGL context issues.
      * 
-     * @param serverTrees Map of tree IDs to TreeState from the server
+     * @param serverTrees The keys of the trees on the server
      */
-    private void removeGhostTrees(Map<String, TreeState> serverTrees) {
+    private void removeGhostTrees(LongHashSet serverTrees) {
         int queuedCount = 0;
         
         // Check small trees
-        for (String treeId : trees.keySet()) {
-            if (!serverTrees.containsKey(treeId)) {
+        for (long key : trees.keys()) {
+            if (!serverTrees.contains(key)) {
+                String treeId = TileKey.idOf(key);
                 pendingTreeRemovals.offer(treeId);
                 queuedCount++;
                 System.out.println("Queued ghost small tree for removal: " + treeId);
@@ -2078,8 +1624,9 @@ public class MyGdxGame extends ApplicationAdapter {
         }
         
         // Check apple trees
-        for (String treeId : appleTrees.keySet()) {
-            if (!serverTrees.containsKey(treeId)) {
+        for (long key : appleTrees.keys()) {
+            if (!serverTrees.contains(key)) {
+                String treeId = TileKey.idOf(key);
                 pendingTreeRemovals.offer(treeId);
                 queuedCount++;
                 System.out.println("Queued ghost apple tree for removal: " + treeId);
@@ -2087,8 +1634,9 @@ public class MyGdxGame extends ApplicationAdapter {
         }
         
         // Check coconut trees
-        for (String treeId : coconutTrees.keySet()) {
-            if (!serverTrees.containsKey(treeId)) {
+        for (long key : coconutTrees.keys()) {
+            if (!serverTrees.contains(key)) {
+                String treeId = TileKey.idOf(key);
                 pendingTreeRemovals.offer(treeId);
                 queuedCount++;
                 System.out.println("Queued ghost coconut tree for removal: " + treeId);
@@ -2096,8 +1644,9 @@ public class MyGdxGame extends ApplicationAdapter {
         }
         
         // Check bamboo trees
-        for (String treeId : bambooTrees.keySet()) {
-            if (!serverTrees.containsKey(treeId)) {
+        for (long key : bambooTrees.keys()) {
+            if (!serverTrees.contains(key)) {
+                String treeId = TileKey.idOf(key);
                 pendingTreeRemovals.offer(treeId);
                 queuedCount++;
                 System.out.println("Queued ghost bamboo tree for removal: " + treeId);
@@ -2105,8 +1654,9 @@ public class MyGdxGame extends ApplicationAdapter {
         }
         
         // Check banana trees
-        for (String treeId : bananaTrees.keySet()) {
-            if (!serverTrees.containsKey(treeId)) {
+        for (long key : bananaTrees.keys()) {
+            if (!serverTrees.contains(key)) {
+                String treeId = TileKey.idOf(key);
                 pendingTreeRemovals.offer(treeId);
                 queuedCount++;
                 System.out.println("Queued ghost banana tree for removal: " + treeId);
@@ -2276,31 +1826,31 @@ public class MyGdxGame extends ApplicationAdapter {
         // If type is null (from TreeHealthUpdateMessage), try to find the tree in all maps
         if (type == null) {
             // Try each tree type map
-            SmallTree smallTree = trees.get(treeId);
+            SmallTree smallTree = trees.get(TileKey.findKey(treeId));
             if (smallTree != null) {
                 smallTree.setHealth(health);
                 return;
             }
             
-            AppleTree appleTree = appleTrees.get(treeId);
+            AppleTree appleTree = appleTrees.get(TileKey.findKey(treeId));
             if (appleTree != null) {
                 appleTree.setHealth(health);
                 return;
             }
             
-            CoconutTree coconutTree = coconutTrees.get(treeId);
+            CoconutTree coconutTree = coconutTrees.get(TileKey.findKey(treeId));
             if (coconutTree != null) {
                 coconutTree.setHealth(health);
                 return;
             }
             
-            BambooTree bambooTree = bambooTrees.get(treeId);
+            BambooTree bambooTree = bambooTrees.get(TileKey.findKey(treeId));
             if (bambooTree != null) {
                 bambooTree.setHealth(health);
                 return;
             }
             
-            BananaTree bananaTree = bananaTrees.get(treeId);
+            BananaTree bananaTree = bananaTrees.get(TileKey.findKey(treeId));
             if (bananaTree != null) {
                 bananaTree.setHealth(health);
                 return;
@@ -2314,33 +1864,33 @@ public class MyGdxGame extends ApplicationAdapter {
         boolean treeExists = false;
         switch (type) {
             case SMALL:
-                treeExists = trees.containsKey(treeId);
+                treeExists = trees.containsKey(TileKey.findKey(treeId));
                 if (treeExists) {
-                    trees.get(treeId).setHealth(health);
+                    trees.get(TileKey.findKey(treeId)).setHealth(health);
                 }
                 break;
             case APPLE:
-                treeExists = appleTrees.containsKey(treeId);
+                treeExists = appleTrees.containsKey(TileKey.findKey(treeId));
                 if (treeExists) {
-                    appleTrees.get(treeId).setHealth(health);
+                    appleTrees.get(TileKey.findKey(treeId)).setHealth(health);
                 }
                 break;
             case COCONUT:
-                treeExists = coconutTrees.containsKey(treeId);
+                treeExists = coconutTrees.containsKey(TileKey.findKey(treeId));
                 if (treeExists) {
-                    coconutTrees.get(treeId).setHealth(health);
+                    coconutTrees.get(TileKey.findKey(treeId)).setHealth(health);
                 }
                 break;
             case BAMBOO:
-                treeExists = bambooTrees.containsKey(treeId);
+                treeExists = bambooTrees.containsKey(TileKey.findKey(treeId));
                 if (treeExists) {
-                    bambooTrees.get(treeId).setHealth(health);
+                    bambooTrees.get(TileKey.findKey(treeId)).setHealth(health);
                 }
                 break;
             case BANANA:
-                treeExists = bananaTrees.containsKey(treeId);
+                treeExists = bananaTrees.containsKey(TileKey.findKey(treeId));
                 if (treeExists) {
-                    bananaTrees.get(treeId).setHealth(health);
+                    bananaTrees.get(TileKey.findKey(treeId)).setHealth(health);
                 }
                 break;
         }
@@ -2348,10 +1898,10 @@ public class MyGdxGame extends ApplicationAdapter {
         // If tree doesn't exist, check if there's a sapling first
         if (!treeExists) {
             // Don't create tree if there's a sapling at this position
-            boolean hasSapling = plantedTrees.containsKey(treeId) || 
-                                plantedBamboos.containsKey(treeId) ||
-                                plantedAppleTrees.containsKey(treeId) ||
-                                plantedBananaTrees.containsKey(treeId);
+            boolean hasSapling = plantedTrees.containsKey(TileKey.findKey(treeId)) || 
+                                plantedBamboos.containsKey(TileKey.findKey(treeId)) ||
+                                plantedAppleTrees.containsKey(TileKey.findKey(treeId)) ||
+                                plantedBananaTrees.containsKey(TileKey.findKey(treeId));
             
             if (!hasSapling) {
                 pendingTreeCreations.offer(treeState);
@@ -2378,39 +1928,39 @@ public class MyGdxGame extends ApplicationAdapter {
      */
     private boolean removeTreeImmediate(String treeId) {
         // Try to remove from all tree maps
-        SmallTree smallTree = trees.remove(treeId);
+        SmallTree smallTree = trees.remove(TileKey.findKey(treeId));
         if (smallTree != null) {
             smallTree.dispose();
-            clearedPositions.put(treeId, true);
+            clearedPositions.add(TileKey.keyOf(treeId));
             return true;
         }
         
-        AppleTree appleTree = appleTrees.remove(treeId);
+        AppleTree appleTree = appleTrees.remove(TileKey.findKey(treeId));
         if (appleTree != null) {
             appleTree.dispose();
-            clearedPositions.put(treeId, true);
+            clearedPositions.add(TileKey.keyOf(treeId));
             return true;
         }
         
-        CoconutTree coconutTree = coconutTrees.remove(treeId);
+        CoconutTree coconutTree = coconutTrees.remove(TileKey.findKey(treeId));
         if (coconutTree != null) {
             coconutTree.dispose();
-            clearedPositions.put(treeId, true);
+            clearedPositions.add(TileKey.keyOf(treeId));
             return true;
         }
         
-        BambooTree bambooTree = bambooTrees.remove(treeId);
+        BambooTree bambooTree = bambooTrees.remove(TileKey.findKey(treeId));
         if (bambooTree != null) {
             System.out.println("[DEBUG] Bamboo tree removed: " + treeId);
             bambooTree.dispose();
-            clearedPositions.put(treeId, true);
+            clearedPositions.add(TileKey.keyOf(treeId));
             return true;
         }
         
-        BananaTree bananaTree = bananaTrees.remove(treeId);
+        BananaTree bananaTree = bananaTrees.remove(TileKey.findKey(treeId));
         if (bananaTree != null) {
             bananaTree.dispose();
-            clearedPositions.put(treeId, true);
+            clearedPositions.add(TileKey.keyOf(treeId));
             return true;
         }
         
@@ -2438,7 +1988,7 @@ public class MyGdxGame extends ApplicationAdapter {
         float health = stoneState.getHealth();
         
         // Check if stone already exists
-        Stone stone = stoneMap.get(stoneId);
+        Stone stone = stoneMap.get(TileKey.findKey(stoneId));
         if (stone != null) {
             // Update health of existing stone
             stone.setHealth(health);
@@ -2446,11 +1996,11 @@ public class MyGdxGame extends ApplicationAdapter {
             // Queue stone creation to render thread (texture creation requires OpenGL context)
             deferOperation(() -> {
                 // Double-check it wasn't created while waiting for render thread
-                if (!stoneMap.containsKey(stoneId)) {
+                if (!stoneMap.containsKey(TileKey.findKey(stoneId))) {
                     Stone newStone = new Stone(stoneState.getX(), stoneState.getY());
                     newStone.setHealth(health);
-                    stones.put(stoneId, newStone);
-                    stoneMap.put(stoneId, newStone);
+                    stones.put(TileKey.keyOf(stoneId), newStone);
+                    stoneMap.put(TileKey.keyOf(stoneId), newStone);
                     System.out.println("[STONE] Created stone on client: " + stoneId + " at (" + stoneState.getX() + ", " + stoneState.getY() + ")");
                 }
             });
@@ -2465,11 +2015,11 @@ public class MyGdxGame extends ApplicationAdapter {
      */
     public void removeStone(String stoneId) {
         // Remove from both maps immediately (thread-safe)
-        Stone stone = stoneMap.remove(stoneId);
-        stones.remove(stoneId);
+        Stone stone = stoneMap.remove(TileKey.findKey(stoneId));
+        stones.remove(TileKey.findKey(stoneId));
         
         // Add to cleared positions to prevent regeneration
-        clearedPositions.put(stoneId, true);
+        clearedPositions.add(TileKey.keyOf(stoneId));
         
         if (stone != null) {
             // Defer texture disposal to main thread
@@ -2553,7 +2103,7 @@ public class MyGdxGame extends ApplicationAdapter {
      * <h3>Implementation Pattern:</h3>
      * <pre>{@code
      * // Step 1: Immediate state update (thread-safe map operation)
-     * Apple apple = apples.remove(itemId);
+     * Apple apple = apples.remove(TileKey.findKey(itemId));
      * 
      * // Step 2: Defer OpenGL operation if item existed
      * if (apple != null) {
@@ -2588,34 +2138,34 @@ public class MyGdxGame extends ApplicationAdapter {
      * @return The ItemType of the item, or null if not found
      */
     public wagemaker.uk.inventory.ItemType getItemType(String itemId) {
-        if (apples.containsKey(itemId)) {
+        if (apples.containsKey(TileKey.findKey(itemId))) {
             return wagemaker.uk.inventory.ItemType.APPLE;
         }
-        if (appleSaplings.containsKey(itemId)) {
+        if (appleSaplings.containsKey(TileKey.findKey(itemId))) {
             return wagemaker.uk.inventory.ItemType.APPLE_SAPLING;
         }
-        if (bananas.containsKey(itemId)) {
+        if (bananas.containsKey(TileKey.findKey(itemId))) {
             return wagemaker.uk.inventory.ItemType.BANANA;
         }
-        if (bananaSaplings.containsKey(itemId)) {
+        if (bananaSaplings.containsKey(TileKey.findKey(itemId))) {
             return wagemaker.uk.inventory.ItemType.BANANA_SAPLING;
         }
-        if (bambooStacks.containsKey(itemId)) {
+        if (bambooStacks.containsKey(TileKey.findKey(itemId))) {
             return wagemaker.uk.inventory.ItemType.BAMBOO_STACK;
         }
-        if (bambooSaplings.containsKey(itemId)) {
+        if (bambooSaplings.containsKey(TileKey.findKey(itemId))) {
             return wagemaker.uk.inventory.ItemType.BABY_BAMBOO;
         }
-        if (treeSaplings.containsKey(itemId)) {
+        if (treeSaplings.containsKey(TileKey.findKey(itemId))) {
             return wagemaker.uk.inventory.ItemType.BABY_TREE;
         }
-        if (woodStacks.containsKey(itemId)) {
+        if (woodStacks.containsKey(TileKey.findKey(itemId))) {
             return wagemaker.uk.inventory.ItemType.WOOD_STACK;
         }
-        if (pebbles.containsKey(itemId)) {
+        if (pebbles.containsKey(TileKey.findKey(itemId))) {
             return wagemaker.uk.inventory.ItemType.PEBBLE;
         }
-        if (palmFibers.containsKey(itemId)) {
+        if (palmFibers.containsKey(TileKey.findKey(itemId))) {
             return wagemaker.uk.inventory.ItemType.PALM_FIBER;
         }
         return null;
@@ -2623,70 +2173,70 @@ public class MyGdxGame extends ApplicationAdapter {
     
     public void removeItem(String itemId) {
         // Immediately remove from game state (thread-safe map operations)
-        Apple apple = apples.remove(itemId);
+        Apple apple = apples.remove(TileKey.findKey(itemId));
         if (apple != null) {
             // Defer texture disposal to render thread
             deferOperation(() -> apple.dispose());
             return;
         }
         
-        AppleSapling appleSapling = appleSaplings.remove(itemId);
+        AppleSapling appleSapling = appleSaplings.remove(TileKey.findKey(itemId));
         if (appleSapling != null) {
             // Defer texture disposal to render thread
             deferOperation(() -> appleSapling.dispose());
             return;
         }
         
-        Banana banana = bananas.remove(itemId);
+        Banana banana = bananas.remove(TileKey.findKey(itemId));
         if (banana != null) {
             // Defer texture disposal to render thread
             deferOperation(() -> banana.dispose());
             return;
         }
         
-        BananaSapling bananaSapling = bananaSaplings.remove(itemId);
+        BananaSapling bananaSapling = bananaSaplings.remove(TileKey.findKey(itemId));
         if (bananaSapling != null) {
             // Defer texture disposal to render thread
             deferOperation(() -> bananaSapling.dispose());
             return;
         }
         
-        BambooStack bambooStack = bambooStacks.remove(itemId);
+        BambooStack bambooStack = bambooStacks.remove(TileKey.findKey(itemId));
         if (bambooStack != null) {
             // Defer texture disposal to render thread
             deferOperation(() -> bambooStack.dispose());
             return;
         }
         
-        BambooSapling bambooSapling = bambooSaplings.remove(itemId);
+        BambooSapling bambooSapling = bambooSaplings.remove(TileKey.findKey(itemId));
         if (bambooSapling != null) {
             // Defer texture disposal to render thread
             deferOperation(() -> bambooSapling.dispose());
             return;
         }
         
-        TreeSapling treeSapling = treeSaplings.remove(itemId);
+        TreeSapling treeSapling = treeSaplings.remove(TileKey.findKey(itemId));
         if (treeSapling != null) {
             // Defer texture disposal to render thread
             deferOperation(() -> treeSapling.dispose());
             return;
         }
         
-        WoodStack woodStack = woodStacks.remove(itemId);
+        WoodStack woodStack = woodStacks.remove(TileKey.findKey(itemId));
         if (woodStack != null) {
             // Defer texture disposal to render thread
             deferOperation(() -> woodStack.dispose());
             return;
         }
         
-        Pebble pebble = pebbles.remove(itemId);
+        Pebble pebble = pebbles.remove(TileKey.findKey(itemId));
         if (pebble != null) {
             // Defer texture disposal to render thread
             deferOperation(() -> pebble.dispose());
             return;
         }
         
-        PalmFiber palmFiber = palmFibers.remove(itemId);
+        PalmFiber palmFiber = palmFibers.remove(TileKey.findKey(itemId));
         if (palmFiber != null) {
             // Defer texture disposal to render thread
             deferOperation(() -> palmFiber.dispose());
@@ -2775,7 +2325,7 @@ public class MyGdxGame extends ApplicationAdapter {
      * <pre>{@code
      * // In network message handler
      * public void handleItemPickup(String itemId) {
-     *     Apple apple = apples.remove(itemId);  // Immediate state update
+     *     Apple apple = apples.remove(TileKey.findKey(itemId));  // Immediate state update
      *     if (apple != null) {
      *         deferOperation(() -> apple.dispose());  // Deferred texture disposal
      *     }
@@ -2810,10 +2360,10 @@ public class MyGdxGame extends ApplicationAdapter {
      * <h3>What NOT to Defer:</h3>
      * <pre>{@code
      * // ❌ DON'T defer simple state updates
-     * deferOperation(() -> apples.remove(itemId));  // Unnecessary!
+     * deferOperation(() -> apples.remove(TileKey.findKey(itemId)));  // Unnecessary!
      * 
      * // ✅ DO update state immediately, defer only OpenGL operations
-     * Apple apple = apples.remove(itemId);
+     * Apple apple = apples.remove(TileKey.findKey(itemId));
      * if (apple != null) {
      *     deferOperation(() -> apple.dispose());
      * }
@@ -3001,6 +2551,8 @@ public class MyGdxGame extends ApplicationAdapter {
         // Clear pending queues
         pendingPlayerJoins.clear();
         pendingPlayerLeaves.clear();
+        pendingVisibilityChanges.clear();
+        pendingWorldChunks.clear();
         pendingItemSpawns.clear();
         pendingTreeRemovals.clear();
         pendingTreeCreations.clear();
@@ -3048,14 +2600,16 @@ public class MyGdxGame extends ApplicationAdapter {
     }
     
     /**
-     * Corrects the local player's position with smooth interpolation.
+     * Corrects the local player's position, replaying movement the server has not processed yet.
      * Called when the server detects position desynchronization.
      * 
      * @param correctedX The corrected X position
      * @param correctedY The corrected Y position
      * @param correctedDirection The corrected direction
+     * @param acknowledgedSequence The last movement sequence the server processed, or 0 if unknown
      */
-    public void correctPlayerPosition(float correctedX, float correctedY, wagemaker.uk.network.Direction correctedDirection) {
+    public void correctPlayerPosition(float correctedX, float correctedY, wagemaker.uk.network.Direction correctedDirection,
+                                      int acknowledgedSequence) {
         if (player == null) {
             return;
         }
@@ -3071,18 +2625,9 @@ public class MyGdxGame extends ApplicationAdapter {
         System.err.println("  Corrected position: (" + correctedX + ", " + correctedY + ")");
         System.err.println("  Distance: " + distance + " pixels");
         
-        // If distance is small, snap immediately
-        if (distance < 10) {
-            player.setPosition(correctedX, correctedY);
-        } else {
-            // For larger distances, use smooth interpolation
-            // We'll interpolate over the next few frames
-            // This is a simple approach - could be enhanced with a proper interpolation system
-            
-            // For now, just snap to the corrected position
-            // A more sophisticated system would interpolate over time
-            player.setPosition(correctedX, correctedY);
-        }
+        // Rebase the predicted movement on the server's position instead of snapping back to it
+        player.reconcilePosition(acknowledgedSequence, correctedX, correctedY);
+        System.err.println("  Reconciled position: (" + player.getX() + ", " + player.getY() + ")");
         
         // Update direction if needed
         // Note: Direction enum from network package needs to be converted to player direction
@@ -3153,79 +2698,84 @@ public class MyGdxGame extends ApplicationAdapter {
      * @return WorldState containing complete current game state
      */
     public WorldState extractCurrentWorldState() {
-        WorldState worldState = new WorldState(worldSeed);
+        WorldState worldState = new WorldState(worldSeed, false);
         
         // Extract tree states
         Map<String, TreeState> treeStates = new HashMap<>();
         
         // Add small trees
-        for (Map.Entry<String, SmallTree> entry : trees.entrySet()) {
-            SmallTree tree = entry.getValue();
+        for (long key : trees.keys()) {
+            SmallTree tree = trees.get(key);
+            String id = TileKey.idOf(key);
             TreeState treeState = new TreeState(
-                entry.getKey(),
+                id,
                 TreeType.SMALL,
                 tree.getX(),
                 tree.getY(),
                 tree.getHealth(),
                 true
             );
-            treeStates.put(entry.getKey(), treeState);
+            treeStates.put(id, treeState);
         }
         
         // Add apple trees
-        for (Map.Entry<String, AppleTree> entry : appleTrees.entrySet()) {
-            AppleTree tree = entry.getValue();
+        for (long key : appleTrees.keys()) {
+            AppleTree tree = appleTrees.get(key);
+            String id = TileKey.idOf(key);
             TreeState treeState = new TreeState(
-                entry.getKey(),
+                id,
                 TreeType.APPLE,
                 tree.getX(),
                 tree.getY(),
                 tree.getHealth(),
                 true
             );
-            treeStates.put(entry.getKey(), treeState);
+            treeStates.put(id, treeState);
         }
         
         // Add coconut trees
-        for (Map.Entry<String, CoconutTree> entry : coconutTrees.entrySet()) {
-            CoconutTree tree = entry.getValue();
+        for (long key : coconutTrees.keys()) {
+            CoconutTree tree = coconutTrees.get(key);
+            String id = TileKey.idOf(key);
             TreeState treeState = new TreeState(
-                entry.getKey(),
+                id,
                 TreeType.COCONUT,
                 tree.getX(),
                 tree.getY(),
                 tree.getHealth(),
                 true
             );
-            treeStates.put(entry.getKey(), treeState);
+            treeStates.put(id, treeState);
         }
         
         // Add bamboo trees
-        for (Map.Entry<String, BambooTree> entry : bambooTrees.entrySet()) {
-            BambooTree tree = entry.getValue();
+        for (long key : bambooTrees.keys()) {
+            BambooTree tree = bambooTrees.get(key);
+            String id = TileKey.idOf(key);
             TreeState treeState = new TreeState(
-                entry.getKey(),
+                id,
                 TreeType.BAMBOO,
                 tree.getX(),
                 tree.getY(),
                 tree.getHealth(),
                 true
             );
-            treeStates.put(entry.getKey(), treeState);
+            treeStates.put(id, treeState);
         }
         
         // Add banana trees
-        for (Map.Entry<String, BananaTree> entry : bananaTrees.entrySet()) {
-            BananaTree tree = entry.getValue();
+        for (long key : bananaTrees.keys()) {
+            BananaTree tree = bananaTrees.get(key);
+            String id = TileKey.idOf(key);
             TreeState treeState = new TreeState(
-                entry.getKey(),
+                id,
                 TreeType.BANANA,
                 tree.getX(),
                 tree.getY(),
                 tree.getHealth(),
                 true
             );
-            treeStates.put(entry.getKey(), treeState);
+            treeStates.put(id, treeState);
         }
         
         worldState.setTrees(treeStates);
@@ -3234,49 +2784,56 @@ public class MyGdxGame extends ApplicationAdapter {
         Map<String, ItemState> itemStates = new HashMap<>();
         
         // Add apples
-        for (Map.Entry<String, Apple> entry : apples.entrySet()) {
-            Apple apple = entry.getValue();
+        for (long key : apples.keys()) {
+            Apple apple = apples.get(key);
+            String id = TileKey.idOf(key);
             ItemState itemState = new ItemState(
-                entry.getKey(),
+                id,
                 ItemType.APPLE,
                 apple.getX(),
                 apple.getY(),
                 false
             );
-            itemStates.put(entry.getKey(), itemState);
+            itemStates.put(id, itemState);
         }
         
         // Add bananas
-        for (Map.Entry<String, Banana> entry : bananas.entrySet()) {
-            Banana banana = entry.getValue();
+        for (long key : bananas.keys()) {
+            Banana banana = bananas.get(key);
+            String id = TileKey.idOf(key);
             ItemState itemState = new ItemState(
-                entry.getKey(),
+                id,
                 ItemType.BANANA,
                 banana.getX(),
                 banana.getY(),
                 false
             );
-            itemStates.put(entry.getKey(), itemState);
+            itemStates.put(id, itemState);
         }
         
         worldState.setItems(itemStates);
         
         // Extract stone states
         Map<String, StoneState> stoneStates = new HashMap<>();
-        for (Map.Entry<String, Stone> entry : stones.entrySet()) {
-            Stone stone = entry.getValue();
+        for (long key : stones.keys()) {
+            Stone stone = stones.get(key);
+            String id = TileKey.idOf(key);
             StoneState stoneState = new StoneState(
-                entry.getKey(),
+                id,
                 stone.getX(),
                 stone.getY(),
                 stone.getHealth()
             );
-            stoneStates.put(entry.getKey(), stoneState);
+            stoneStates.put(id, stoneState);
         }
         worldState.setStones(stoneStates);
         
         // Extract cleared positions
-        worldState.setClearedPositions(new HashSet<>(clearedPositions.keySet()));
+        java.util.Set<String> clearedIds = new HashSet<>();
+        for (long position : clearedPositions.toArray()) {
+            clearedIds.add(TileKey.idOf(position));
+        }
+        worldState.setClearedPositions(clearedIds);
         
         // Extract rain zones
         if (rainSystem != null && rainSystem.getZoneManager() != null) {
@@ -3285,57 +2842,61 @@ public class MyGdxGame extends ApplicationAdapter {
         
         // Extract planted trees
         Map<String, wagemaker.uk.network.PlantedTreeState> plantedTreeStates = new HashMap<>();
-        for (Map.Entry<String, PlantedTree> entry : plantedTrees.entrySet()) {
-            PlantedTree plantedTree = entry.getValue();
+        for (long key : plantedTrees.keys()) {
+            PlantedTree plantedTree = plantedTrees.get(key);
+            String id = TileKey.idOf(key);
             wagemaker.uk.network.PlantedTreeState treeState = new wagemaker.uk.network.PlantedTreeState(
-                entry.getKey(),
+                id,
                 plantedTree.getX(),
                 plantedTree.getY(),
                 0.0f // Growth timer - PlantedTree doesn't expose this, so use 0
             );
-            plantedTreeStates.put(entry.getKey(), treeState);
+            plantedTreeStates.put(id, treeState);
         }
         worldState.setPlantedTrees(plantedTreeStates);
         
         // Extract planted bamboos
         Map<String, wagemaker.uk.network.PlantedBambooState> plantedBambooStates = new HashMap<>();
-        for (Map.Entry<String, PlantedBamboo> entry : plantedBamboos.entrySet()) {
-            PlantedBamboo plantedBamboo = entry.getValue();
+        for (long key : plantedBamboos.keys()) {
+            PlantedBamboo plantedBamboo = plantedBamboos.get(key);
+            String id = TileKey.idOf(key);
             wagemaker.uk.network.PlantedBambooState bambooState = new wagemaker.uk.network.PlantedBambooState(
-                entry.getKey(),
+                id,
                 plantedBamboo.getX(),
                 plantedBamboo.getY(),
                 0.0f // Growth timer - PlantedBamboo doesn't expose this, so use 0
             );
-            plantedBambooStates.put(entry.getKey(), bambooState);
+            plantedBambooStates.put(id, bambooState);
         }
         worldState.setPlantedBamboos(plantedBambooStates);
         
         // Extract planted banana trees
         Map<String, wagemaker.uk.network.PlantedBananaTreeState> plantedBananaTreeStates = new HashMap<>();
-        for (Map.Entry<String, wagemaker.uk.planting.PlantedBananaTree> entry : plantedBananaTrees.entrySet()) {
-            wagemaker.uk.planting.PlantedBananaTree plantedBananaTree = entry.getValue();
+        for (long key : plantedBananaTrees.keys()) {
+            wagemaker.uk.planting.PlantedBananaTree plantedBananaTree = plantedBananaTrees.get(key);
+            String id = TileKey.idOf(key);
             wagemaker.uk.network.PlantedBananaTreeState bananaTreeState = new wagemaker.uk.network.PlantedBananaTreeState(
-                entry.getKey(),
+                id,
                 plantedBananaTree.getX(),
                 plantedBananaTree.getY(),
                 plantedBananaTree.getGrowthTimer()
             );
-            plantedBananaTreeStates.put(entry.getKey(), bananaTreeState);
+            plantedBananaTreeStates.put(id, bananaTreeState);
         }
         worldState.setPlantedBananaTrees(plantedBananaTreeStates);
         
         // Extract planted apple trees
         Map<String, wagemaker.uk.network.PlantedAppleTreeState> plantedAppleTreeStates = new HashMap<>();
-        for (Map.Entry<String, wagemaker.uk.planting.PlantedAppleTree> entry : plantedAppleTrees.entrySet()) {
-            wagemaker.uk.planting.PlantedAppleTree plantedAppleTree = entry.getValue();
+        for (long key : plantedAppleTrees.keys()) {
+            wagemaker.uk.planting.PlantedAppleTree plantedAppleTree = plantedAppleTrees.get(key);
+            String id = TileKey.idOf(key);
             wagemaker.uk.network.PlantedAppleTreeState appleTreeState = new wagemaker.uk.network.PlantedAppleTreeState(
-                entry.getKey(),
+                id,
                 plantedAppleTree.getX(),
                 plantedAppleTree.getY(),
                 plantedAppleTree.getGrowthTimer()
             );
-            plantedAppleTreeStates.put(entry.getKey(), appleTreeState);
+            plantedAppleTreeStates.put(id, appleTreeState);
         }
         worldState.setPlantedAppleTrees(plantedAppleTreeStates);
         
@@ -3388,7 +2949,7 @@ public class MyGdxGame extends ApplicationAdapter {
             if (saveData.getClearedPositions() != null) {
                 clearedPositions.clear();
                 for (String position : saveData.getClearedPositions()) {
-                    clearedPositions.put(position, true);
+                    clearedPositions.add(TileKey.keyOf(position));
                 }
                 System.out.println("Restored " + saveData.getClearedPositions().size() + " cleared positions");
             }
@@ -3556,6 +3117,9 @@ public class MyGdxGame extends ApplicationAdapter {
             // Clear cleared positions
             clearedPositions.clear();
             
+            // Rebuild the generation layout from the restored world
+            worldGeneratorStale = true;
+            
             System.out.println("Existing world state cleaned up successfully");
             
         } catch (Exception e) {
@@ -3576,7 +3140,7 @@ public class MyGdxGame extends ApplicationAdapter {
             
             if (!treeState.isExists()) {
                 // Tree was destroyed, add to cleared positions
-                clearedPositions.put(treeId, true);
+                clearedPositions.add(TileKey.keyOf(treeId));
                 continue;
             }
             
@@ -3585,31 +3149,31 @@ public class MyGdxGame extends ApplicationAdapter {
                     case SMALL:
                         SmallTree smallTree = new SmallTree(treeState.getX(), treeState.getY());
                         smallTree.setHealth(treeState.getHealth());
-                        trees.put(treeId, smallTree);
+                        trees.put(TileKey.keyOf(treeId), smallTree);
                         break;
-                        
+                    
                     case APPLE:
                         AppleTree appleTree = new AppleTree(treeState.getX(), treeState.getY());
                         appleTree.setHealth(treeState.getHealth());
-                        appleTrees.put(treeId, appleTree);
+                        appleTrees.put(TileKey.keyOf(treeId), appleTree);
                         break;
-                        
+                    
                     case COCONUT:
                         CoconutTree coconutTree = new CoconutTree(treeState.getX(), treeState.getY());
                         coconutTree.setHealth(treeState.getHealth());
-                        coconutTrees.put(treeId, coconutTree);
+                        coconutTrees.put(TileKey.keyOf(treeId), coconutTree);
                         break;
-                        
+                    
                     case BAMBOO:
                         BambooTree bambooTree = new BambooTree(treeState.getX(), treeState.getY());
                         bambooTree.setHealth(treeState.getHealth());
-                        bambooTrees.put(treeId, bambooTree);
+                        bambooTrees.put(TileKey.keyOf(treeId), bambooTree);
                         break;
-                        
+                    
                     case BANANA:
                         BananaTree bananaTree = new BananaTree(treeState.getX(), treeState.getY());
                         bananaTree.setHealth(treeState.getHealth());
-                        bananaTrees.put(treeId, bananaTree);
+                        bananaTrees.put(TileKey.keyOf(treeId), bananaTree);
                         break;
                 }
             } catch (Exception e) {
@@ -3630,8 +3194,8 @@ public class MyGdxGame extends ApplicationAdapter {
             try {
                 Stone stone = new Stone(stoneState.getX(), stoneState.getY());
                 stone.setHealth(stoneState.getHealth());
-                stones.put(stoneId, stone);
-                stoneMap.put(stoneId, stone);
+                stones.put(TileKey.keyOf(stoneId), stone);
+                stoneMap.put(TileKey.keyOf(stoneId), stone);
             } catch (Exception e) {
                 System.err.println("Error restoring stone " + stoneId + ": " + e.getMessage());
             }
@@ -3656,17 +3220,17 @@ public class MyGdxGame extends ApplicationAdapter {
                 switch (itemState.getType()) {
                     case APPLE:
                         Apple apple = new Apple(itemState.getX(), itemState.getY());
-                        apples.put(itemId, apple);
+                        apples.put(TileKey.keyOf(itemId), apple);
                         break;
-                        
+                    
                     case BANANA:
                         Banana banana = new Banana(itemState.getX(), itemState.getY());
-                        bananas.put(itemId, banana);
+                        bananas.put(TileKey.keyOf(itemId), banana);
                         break;
-                        
+                    
                     case PEBBLE:
                         Pebble pebble = new Pebble(itemState.getX(), itemState.getY());
-                        pebbles.put(itemId, pebble);
+                        pebbles.put(TileKey.keyOf(itemId), pebble);
                         break;
                 }
             } catch (Exception e) {
@@ -3686,7 +3250,7 @@ public class MyGdxGame extends ApplicationAdapter {
             
             try {
                 PlantedTree plantedTree = new PlantedTree(treeState.getX(), treeState.getY());
-                plantedTrees.put(plantedTreeId, plantedTree);
+                plantedTrees.put(TileKey.keyOf(plantedTreeId), plantedTree);
             } catch (Exception e) {
                 System.err.println("Error restoring planted tree " + plantedTreeId + ": " + e.getMessage());
             }
@@ -3704,7 +3268,7 @@ public class MyGdxGame extends ApplicationAdapter {
             
             try {
                 PlantedBamboo plantedBamboo = new PlantedBamboo(bambooState.getX(), bambooState.getY());
-                plantedBamboos.put(plantedBambooId, plantedBamboo);
+                plantedBamboos.put(TileKey.keyOf(plantedBambooId), plantedBamboo);
             } catch (Exception e) {
                 System.err.println("Error restoring planted bamboo " + plantedBambooId + ": " + e.getMessage());
             }
@@ -3719,7 +3283,7 @@ public class MyGdxGame extends ApplicationAdapter {
             try {
                 wagemaker.uk.planting.PlantedBananaTree plantedBananaTree = new wagemaker.uk.planting.PlantedBananaTree(bananaTreeState.getX(), bananaTreeState.getY());
                 plantedBananaTree.setGrowthTimer(bananaTreeState.getGrowthTimer());
-                plantedBananaTrees.put(plantedBananaTreeId, plantedBananaTree);
+                plantedBananaTrees.put(TileKey.keyOf(plantedBananaTreeId), plantedBananaTree);
             } catch (Exception e) {
                 System.err.println("Error restoring planted banana tree " + plantedBananaTreeId + ": " + e.getMessage());
             }
@@ -3734,7 +3298,7 @@ public class MyGdxGame extends ApplicationAdapter {
             try {
                 wagemaker.uk.planting.PlantedAppleTree plantedAppleTree = new wagemaker.uk.planting.PlantedAppleTree(appleTreeState.getX(), appleTreeState.getY());
                 plantedAppleTree.setGrowthTimer(appleTreeState.getGrowthTimer());
-                plantedAppleTrees.put(plantedAppleTreeId, plantedAppleTree);
+                plantedAppleTrees.put(TileKey.keyOf(plantedAppleTreeId), plantedAppleTree);
             } catch (Exception e) {
                 System.err.println("Error restoring planted apple tree " + plantedAppleTreeId + ": " + e.getMessage());
             }
@@ -4130,6 +3694,24 @@ public class MyGdxGame extends ApplicationAdapter {
         pendingPlayerLeaves.offer(playerId);
     }
     
+    /**
+     * Queues a remote player coming into or going out of view to be processed on the main thread.
+     * 
+     * @param message The player visibility message
+     */
+    public void queuePlayerVisibility(wagemaker.uk.network.PlayerVisibilityMessage message) {
+        pendingVisibilityChanges.offer(message);
+    }
+    
+    /**
+     * Queues a chunk of the initial world download to be applied on the main thread.
+     * 
+     * @param chunk The world chunk message
+     */
+    public void queueWorldChunk(wagemaker.uk.network.WorldChunkMessage chunk) {
+        pendingWorldChunks.offer(chunk);
+    }
+    
     /**
      * Processes pending player joins on the main render thread.
      * This ensures OpenGL operations happen in the correct context.
@@ -4194,6 +3776,94 @@ public class MyGdxGame extends ApplicationAdapter {
         }
     }
     
+    /**
+     * Applies a few chunks of the initial world download per frame, so a large
+     * world does not freeze the game while it loads. Ghost trees are removed
+     * once the last chunk has been applied.
+     */
+    private void processPendingWorldChunks() {
+        for (int i = 0; i < WORLD_CHUNKS_PER_FRAME; i++) {
+            wagemaker.uk.network.WorldChunkMessage chunk = pendingWorldChunks.poll();
+            if (chunk == null) {
+                return;
+            }
+            if (chunk.getChunkIndex() == 0) {
+                streamedTreeIds.clear();
+            }
+            
+            if (chunk.getClearedPositions() != null) {
+                for (String position : chunk.getClearedPositions()) {
+                    clearedPositions.add(TileKey.keyOf(position));
+                }
+            }
+            if (chunk.getTrees() != null) {
+                for (String treeId : chunk.getTrees().keySet()) {
+                    streamedTreeIds.add(TileKey.keyOf(treeId));
+                }
+                for (TreeState treeState : chunk.getTrees().values()) {
+                    updateTreeFromState(treeState);
+                }
+            }
+            if (chunk.getStones() != null) {
+                for (StoneState stoneState : chunk.getStones().values()) {
+                    updateStoneFromState(stoneState);
+                }
+            }
+            if (chunk.getItems() != null) {
+                for (ItemState itemState : chunk.getItems().values()) {
+                    updateItemFromState(itemState);
+                }
+            }
+            
+            if (chunk.isLastChunk()) {
+                removeGhostTrees(streamedTreeIds);
+                streamedTreeIds.clear();
+                System.out.println("World download complete (" + chunk.getChunkCount() + " chunks)");
+            }
+        }
+    }
+    
+    /**
+     * Processes remote players coming into or going out of view on the main render thread.
+     * Unlike joins and leaves, these are silent: the players are still on the server.
+     */
+    private void processPendingVisibilityChanges() {
+        wagemaker.uk.network.PlayerVisibilityMessage message;
+        while ((message = pendingVisibilityChanges.poll()) != null) {
+            String playerId = message.getPlayerId();
+            if (gameClient != null && playerId.equals(gameClient.getClientId())) {
+                continue;
+            }
+            
+            if (!message.isVisible()) {
+                RemotePlayer remotePlayer = remotePlayers.remove(playerId);
+                if (remotePlayer != null) {
+                    remotePlayer.dispose();
+                }
+                continue;
+            }
+            
+            wagemaker.uk.network.Direction direction = message.getDirection() != null 
+                ? message.getDirection() : wagemaker.uk.network.Direction.DOWN;
+            RemotePlayer existingPlayer = remotePlayers.get(playerId);
+            if (existingPlayer != null) {
+                existingPlayer.updatePosition(message.getX(), message.getY(), direction, false);
+                existingPlayer.updateHealth(message.getHealth());
+            } else {
+                remotePlayers.put(playerId, new RemotePlayer(
+                    playerId,
+                    message.getPlayerName(),
+                    message.getCharacterSprite(),
+                    message.getX(),
+                    message.getY(),
+                    direction,
+                    message.getHealth(),
+                    false
+                ));
+            }
+        }
+    }
+    
     /**
      * Processes pending player leaves on the main render thread.
      */
@@ -4224,53 +3894,53 @@ public class MyGdxGame extends ApplicationAdapter {
             // Create item on main thread (safe for OpenGL context)
             switch (type) {
                 case APPLE:
-                    if (!apples.containsKey(itemId)) {
-                        apples.put(itemId, new Apple(x, y));
+                    if (!apples.containsKey(TileKey.findKey(itemId))) {
+                        apples.put(TileKey.keyOf(itemId), new Apple(x, y));
                     }
                     break;
                 case APPLE_SAPLING:
-                    if (!appleSaplings.containsKey(itemId)) {
-                        appleSaplings.put(itemId, new AppleSapling(x, y));
+                    if (!appleSaplings.containsKey(TileKey.findKey(itemId))) {
+                        appleSaplings.put(TileKey.keyOf(itemId), new AppleSapling(x, y));
                     }
                     break;
                 case BANANA:
-                    if (!bananas.containsKey(itemId)) {
-                        bananas.put(itemId, new Banana(x, y));
+                    if (!bananas.containsKey(TileKey.findKey(itemId))) {
+                        bananas.put(TileKey.keyOf(itemId), new Banana(x, y));
                     }
                     break;
                 case BANANA_SAPLING:
-                    if (!bananaSaplings.containsKey(itemId)) {
-                        bananaSaplings.put(itemId, new BananaSapling(x, y));
+                    if (!bananaSaplings.containsKey(TileKey.findKey(itemId))) {
+                        bananaSaplings.put(TileKey.keyOf(itemId), new BananaSapling(x, y));
                     }
                     break;
                 case BAMBOO_STACK:
-                    if (!bambooStacks.containsKey(itemId)) {
-                        bambooStacks.put(itemId, new BambooStack(x, y));
+                    if (!bambooStacks.containsKey(TileKey.findKey(itemId))) {
+                        bambooStacks.put(TileKey.keyOf(itemId), new BambooStack(x, y));
                     }
                     break;
                 case BABY_BAMBOO:
-                    if (!bambooSaplings.containsKey(itemId)) {
-                        bambooSaplings.put(itemId, new BambooSapling(x, y));
+                    if (!bambooSaplings.containsKey(TileKey.findKey(itemId))) {
+                        bambooSaplings.put(TileKey.keyOf(itemId), new BambooSapling(x, y));
                     }
                     break;
                 case BABY_TREE:
-                    if (!treeSaplings.containsKey(itemId)) {
-                        treeSaplings.put(itemId, new TreeSapling(x, y));
+                    if (!treeSaplings.containsKey(TileKey.findKey(itemId))) {
+                        treeSaplings.put(TileKey.keyOf(itemId), new TreeSapling(x, y));
                     }
                     break;
                 case WOOD_STACK:
-                    if (!woodStacks.containsKey(itemId)) {
-                        woodStacks.put(itemId, new WoodStack(x, y));
+                    if (!woodStacks.containsKey(TileKey.findKey(itemId))) {
+                        woodStacks.put(TileKey.keyOf(itemId), new WoodStack(x, y));
                     }
                     break;
                 case PEBBLE:
-                    if (!pebbles.containsKey(itemId)) {
-                        pebbles.put(itemId, new Pebble(x, y));
+                    if (!pebbles.containsKey(TileKey.findKey(itemId))) {
+                        pebbles.put(TileKey.keyOf(itemId), new Pebble(x, y));
                     }
                     break;
                 case PALM_FIBER:
-                    if (!palmFibers.containsKey(itemId)) {
-                        palmFibers.put(itemId, new PalmFiber(x, y));
+                    if (!palmFibers.containsKey(TileKey.findKey(itemId))) {
+                        palmFibers.put(TileKey.keyOf(itemId), new PalmFiber(x, y));
                     }
                     break;
             }
@@ -4302,10 +3972,10 @@ public class MyGdxGame extends ApplicationAdapter {
             float health = treeState.getHealth();
             
             // Don't create tree if there's a sapling at this position
-            boolean hasSapling = plantedTrees.containsKey(treeId) || 
-                                plantedBamboos.containsKey(treeId) ||
-                                plantedAppleTrees.containsKey(treeId) ||
-                                plantedBananaTrees.containsKey(treeId);
+            boolean hasSapling = plantedTrees.containsKey(TileKey.findKey(treeId)) || 
+                                plantedBamboos.containsKey(TileKey.findKey(treeId)) ||
+                                plantedAppleTrees.containsKey(TileKey.findKey(treeId)) ||
+                                plantedBananaTrees.containsKey(TileKey.findKey(treeId));
             
             if (hasSapling) {
                 continue;
@@ -4314,44 +3984,44 @@ public class MyGdxGame extends ApplicationAdapter {
             // Create tree on main thread (safe for OpenGL context)
             switch (type) {
                 case SMALL:
-                    if (!trees.containsKey(treeId)) {
+                    if (!trees.containsKey(TileKey.findKey(treeId))) {
                         SmallTree smallTree = new SmallTree(x, y);
                         smallTree.setHealth(health);
-                        trees.put(treeId, smallTree);
+                        trees.put(TileKey.keyOf(treeId), smallTree);
                     }
                     break;
                 case APPLE:
-                    if (!appleTrees.containsKey(treeId)) {
+                    if (!appleTrees.containsKey(TileKey.findKey(treeId))) {
                         AppleTree appleTree = new AppleTree(x, y);
                         appleTree.setHealth(health);
-                        appleTrees.put(treeId, appleTree);
+                        appleTrees.put(TileKey.keyOf(treeId), appleTree);
                     }
                     break;
                 case COCONUT:
-                    if (!coconutTrees.containsKey(treeId)) {
+                    if (!coconutTrees.containsKey(TileKey.findKey(treeId))) {
                         CoconutTree coconutTree = new CoconutTree(x, y);
                         coconutTree.setHealth(health);
-                        coconutTrees.put(treeId, coconutTree);
+                        coconutTrees.put(TileKey.keyOf(treeId), coconutTree);
                     }
                     break;
                 case BAMBOO:
-                    if (!bambooTrees.containsKey(treeId)) {
+                    if (!bambooTrees.containsKey(TileKey.findKey(treeId))) {
                         BambooTree bambooTree = new BambooTree(x, y);
                         bambooTree.setHealth(health);
-                        bambooTrees.put(treeId, bambooTree);
+                        bambooTrees.put(TileKey.keyOf(treeId), bambooTree);
                     }
                     break;
                 case BANANA:
-                    if (!bananaTrees.containsKey(treeId)) {
+                    if (!bananaTrees.containsKey(TileKey.findKey(treeId))) {
                         BananaTree bananaTree = new BananaTree(x, y);
                         bananaTree.setHealth(health);
-                        bananaTrees.put(treeId, bananaTree);
+                        bananaTrees.put(TileKey.keyOf(treeId), bananaTree);
                     }
                     break;
             }
         }
     }
-
+    
     /**
      * Queues a bamboo plant to be processed on the main thread.
      * @param message The bamboo plant message
@@ -4432,16 +4102,16 @@ public class MyGdxGame extends ApplicationAdapter {
             System.out.println("[MyGdxGame] Processing pending bamboo plant #" + processedCount + ":");
             System.out.println("  - Planted Bamboo ID: " + plantedBambooId);
             System.out.println("  - Position: (" + x + ", " + y + ")");
-            System.out.println("  - Already exists: " + plantedBamboos.containsKey(plantedBambooId));
+            System.out.println("  - Already exists: " + plantedBamboos.containsKey(TileKey.findKey(plantedBambooId)));
             System.out.println("  - Current plantedBamboos count: " + plantedBamboos.size());
             
             // Create planted bamboo if it doesn't exist
-            if (!plantedBamboos.containsKey(plantedBambooId)) {
+            if (!plantedBamboos.containsKey(TileKey.findKey(plantedBambooId))) {
                 PlantedBamboo plantedBamboo = new PlantedBamboo(x, y);
-                Texture texture = plantedBamboo.getTexture();
+                TextureRegion texture = plantedBamboo.getTexture();
                 System.out.println("  - PlantedBamboo created, texture is: " + (texture != null ? "valid" : "NULL"));
                 
-                plantedBamboos.put(plantedBambooId, plantedBamboo);
+                plantedBamboos.put(TileKey.keyOf(plantedBambooId), plantedBamboo);
                 System.out.println("  - SUCCESS: Remote player planted bamboo at: " + plantedBambooId);
                 System.out.println("  - New plantedBamboos count: " + plantedBamboos.size());
             } else {
@@ -4467,15 +4137,15 @@ public class MyGdxGame extends ApplicationAdapter {
             float y = message.getY();
             
             // Remove planted bamboo
-            PlantedBamboo plantedBamboo = plantedBamboos.remove(plantedBambooId);
+            PlantedBamboo plantedBamboo = plantedBamboos.remove(TileKey.findKey(plantedBambooId));
             if (plantedBamboo != null) {
                 plantedBamboo.dispose();
             }
             
             // Create bamboo tree
-            if (!bambooTrees.containsKey(bambooTreeId)) {
+            if (!bambooTrees.containsKey(TileKey.findKey(bambooTreeId))) {
                 BambooTree bambooTree = new BambooTree(x, y);
-                bambooTrees.put(bambooTreeId, bambooTree);
+                bambooTrees.put(TileKey.keyOf(bambooTreeId), bambooTree);
                 System.out.println("Bamboo transformed to tree: " + bambooTreeId);
             }
         }
@@ -4497,16 +4167,16 @@ public class MyGdxGame extends ApplicationAdapter {
             System.out.println("[MyGdxGame] Processing pending tree plant #" + processedCount + ":");
             System.out.println("  - Planted Tree ID: " + plantedTreeId);
             System.out.println("  - Position: (" + x + ", " + y + ")");
-            System.out.println("  - Already exists: " + plantedTrees.containsKey(plantedTreeId));
+            System.out.println("  - Already exists: " + plantedTrees.containsKey(TileKey.findKey(plantedTreeId)));
             System.out.println("  - Current plantedTrees count: " + plantedTrees.size());
             
             // Create planted tree if it doesn't exist
-            if (!plantedTrees.containsKey(plantedTreeId)) {
+            if (!plantedTrees.containsKey(TileKey.findKey(plantedTreeId))) {
                 PlantedTree plantedTree = new PlantedTree(x, y);
-                Texture texture = plantedTree.getTexture();
+                TextureRegion texture = plantedTree.getTexture();
                 System.out.println("  - PlantedTree created, texture is: " + (texture != null ? "valid" : "NULL"));
                 
-                plantedTrees.put(plantedTreeId, plantedTree);
+                plantedTrees.put(TileKey.keyOf(plantedTreeId), plantedTree);
                 System.out.println("  - SUCCESS: Remote player planted tree at: " + plantedTreeId);
                 System.out.println("  - New plantedTrees count: " + plantedTrees.size());
             } else {
@@ -4532,15 +4202,15 @@ public class MyGdxGame extends ApplicationAdapter {
             float y = message.getY();
             
             // Remove planted tree
-            PlantedTree plantedTree = plantedTrees.remove(plantedTreeId);
+            PlantedTree plantedTree = plantedTrees.remove(TileKey.findKey(plantedTreeId));
             if (plantedTree != null) {
                 plantedTree.dispose();
             }
             
             // Create small tree
-            if (!trees.containsKey(smallTreeId)) {
+            if (!trees.containsKey(TileKey.findKey(smallTreeId))) {
                 SmallTree smallTree = new SmallTree(x, y);
-                trees.put(smallTreeId, smallTree);
+                trees.put(TileKey.keyOf(smallTreeId), smallTree);
                 System.out.println("Tree transformed from planted to small tree: " + smallTreeId);
             }
         }
@@ -4553,9 +4223,9 @@ public class MyGdxGame extends ApplicationAdapter {
             float x = message.getX();
             float y = message.getY();
             
-            if (!plantedBananaTrees.containsKey(plantedBananaTreeId)) {
+            if (!plantedBananaTrees.containsKey(TileKey.findKey(plantedBananaTreeId))) {
                 wagemaker.uk.planting.PlantedBananaTree plantedBananaTree = new wagemaker.uk.planting.PlantedBananaTree(x, y);
-                plantedBananaTrees.put(plantedBananaTreeId, plantedBananaTree);
+                plantedBananaTrees.put(TileKey.keyOf(plantedBananaTreeId), plantedBananaTree);
             }
         }
     }
@@ -4568,18 +4238,18 @@ public class MyGdxGame extends ApplicationAdapter {
             float x = message.getX();
             float y = message.getY();
             
-            wagemaker.uk.planting.PlantedBananaTree plantedBananaTree = plantedBananaTrees.remove(plantedBananaTreeId);
+            wagemaker.uk.planting.PlantedBananaTree plantedBananaTree = plantedBananaTrees.remove(TileKey.findKey(plantedBananaTreeId));
             if (plantedBananaTree != null) {
                 plantedBananaTree.dispose();
             }
             
-            if (!bananaTrees.containsKey(bananaTreeId)) {
+            if (!bananaTrees.containsKey(TileKey.findKey(bananaTreeId))) {
                 BananaTree bananaTree = new BananaTree(x, y);
-                bananaTrees.put(bananaTreeId, bananaTree);
+                bananaTrees.put(TileKey.keyOf(bananaTreeId), bananaTree);
             }
         }
     }
-
+    
     private void processPendingAppleTreePlants() {
         wagemaker.uk.network.AppleTreePlantMessage message;
         while ((message = pendingAppleTreePlants.poll()) != null) {
@@ -4587,9 +4257,9 @@ public class MyGdxGame extends ApplicationAdapter {
             float x = message.getX();
             float y = message.getY();
             
-            if (!plantedAppleTrees.containsKey(plantedAppleTreeId)) {
+            if (!plantedAppleTrees.containsKey(TileKey.findKey(plantedAppleTreeId))) {
                 wagemaker.uk.planting.PlantedAppleTree plantedAppleTree = new wagemaker.uk.planting.PlantedAppleTree(x, y);
-                plantedAppleTrees.put(plantedAppleTreeId, plantedAppleTree);
+                plantedAppleTrees.put(TileKey.keyOf(plantedAppleTreeId), plantedAppleTree);
             }
         }
     }
@@ -4602,18 +4272,18 @@ public class MyGdxGame extends ApplicationAdapter {
             float x = message.getX();
             float y = message.getY();
             
-            wagemaker.uk.planting.PlantedAppleTree plantedAppleTree = plantedAppleTrees.remove(plantedAppleTreeId);
+            wagemaker.uk.planting.PlantedAppleTree plantedAppleTree = plantedAppleTrees.remove(TileKey.findKey(plantedAppleTreeId));
             if (plantedAppleTree != null) {
                 plantedAppleTree.dispose();
             }
             
-            if (!appleTrees.containsKey(appleTreeId)) {
+            if (!appleTrees.containsKey(TileKey.findKey(appleTreeId))) {
                 AppleTree appleTree = new AppleTree(x, y);
-                appleTrees.put(appleTreeId, appleTree);
+                appleTrees.put(TileKey.keyOf(appleTreeId), appleTree);
             }
         }
     }
-
+    
     /**
      * Gets the inventory manager instance.
      * @return The inventory manager
@@ -4626,7 +4296,7 @@ public class MyGdxGame extends ApplicationAdapter {
      * Gets the planted trees map.
      * @return The planted trees map
      */
-    public Map<String, PlantedTree> getPlantedTrees() {
+    public LongObjectHashMap<PlantedTree> getPlantedTrees() {
         return plantedTrees;
     }
     
@@ -4645,14 +4315,14 @@ public class MyGdxGame extends ApplicationAdapter {
     public void createTreeForRespawn(String treeId, TreeType treeType, float x, float y) {
         // Remove old tree from WorldState first
         if (gameServer != null) {
-            gameServer.getWorldState().getTrees().remove(treeId);
+            gameServer.getWorldState().removeTreeWithoutClearing(treeId);
         }
         
         switch (treeType) {
             case SMALL:
-                if (!plantedTrees.containsKey(treeId)) {
+                if (!plantedTrees.containsKey(TileKey.findKey(treeId))) {
                     PlantedTree plantedTree = new PlantedTree(x, y);
-                    plantedTrees.put(treeId, plantedTree);
+                    plantedTrees.put(TileKey.keyOf(treeId), plantedTree);
                     if (gameServer != null) {
                         gameServer.getWorldState().getPlantedTrees().put(treeId, 
                             new wagemaker.uk.network.PlantedTreeState(treeId, x, y, 0.0f));
@@ -4661,9 +4331,9 @@ public class MyGdxGame extends ApplicationAdapter {
                 }
                 break;
             case APPLE:
-                if (!plantedAppleTrees.containsKey(treeId)) {
+                if (!plantedAppleTrees.containsKey(TileKey.findKey(treeId))) {
                     wagemaker.uk.planting.PlantedAppleTree plantedAppleTree = new wagemaker.uk.planting.PlantedAppleTree(x, y);
-                    plantedAppleTrees.put(treeId, plantedAppleTree);
+                    plantedAppleTrees.put(TileKey.keyOf(treeId), plantedAppleTree);
                     if (gameServer != null) {
                         gameServer.getWorldState().getPlantedAppleTrees().put(treeId,
                             new wagemaker.uk.network.PlantedAppleTreeState(treeId, x, y, 0.0f));
@@ -4672,19 +4342,19 @@ public class MyGdxGame extends ApplicationAdapter {
                 }
                 break;
             case COCONUT:
-                if (!coconutTrees.containsKey(treeId)) {
+                if (!coconutTrees.containsKey(TileKey.findKey(treeId))) {
                     CoconutTree coconutTree = new CoconutTree(x, y);
-                    coconutTrees.put(treeId, coconutTree);
+                    coconutTrees.put(TileKey.keyOf(treeId), coconutTree);
                     if (gameServer != null) {
-                        gameServer.getWorldState().getTrees().put(treeId,
+                        gameServer.getWorldState().addOrUpdateTree(
                             new TreeState(treeId, TreeType.COCONUT, x, y, 100.0f, true));
                     }
                 }
                 break;
             case BAMBOO:
-                if (!plantedBamboos.containsKey(treeId)) {
+                if (!plantedBamboos.containsKey(TileKey.findKey(treeId))) {
                     PlantedBamboo plantedBamboo = new PlantedBamboo(x, y);
-                    plantedBamboos.put(treeId, plantedBamboo);
+                    plantedBamboos.put(TileKey.keyOf(treeId), plantedBamboo);
                     if (gameServer != null) {
                         gameServer.getWorldState().getPlantedBamboos().put(treeId,
                             new wagemaker.uk.network.PlantedBambooState(treeId, x, y, 0.0f));
@@ -4693,9 +4363,9 @@ public class MyGdxGame extends ApplicationAdapter {
                 }
                 break;
             case BANANA:
-                if (!plantedBananaTrees.containsKey(treeId)) {
+                if (!plantedBananaTrees.containsKey(TileKey.findKey(treeId))) {
                     wagemaker.uk.planting.PlantedBananaTree plantedBananaTree = new wagemaker.uk.planting.PlantedBananaTree(x, y);
-                    plantedBananaTrees.put(treeId, plantedBananaTree);
+                    plantedBananaTrees.put(TileKey.keyOf(treeId), plantedBananaTree);
                     if (gameServer != null) {
                         gameServer.getWorldState().getPlantedBananaTrees().put(treeId,
                             new wagemaker.uk.network.PlantedBananaTreeState(treeId, x, y, 0.0f));
@@ -4724,12 +4394,12 @@ public class MyGdxGame extends ApplicationAdapter {
      */
     public void createStoneForRespawn(String stoneId, float x, float y) {
         // Check if stone already exists (avoid duplicates)
-        if (!stones.containsKey(stoneId) && !stoneMap.containsKey(stoneId)) {
+        if (!stones.containsKey(TileKey.findKey(stoneId)) && !stoneMap.containsKey(TileKey.findKey(stoneId))) {
             Stone stone = new Stone(x, y);
-            stones.put(stoneId, stone);
-            stoneMap.put(stoneId, stone);
+            stones.put(TileKey.keyOf(stoneId), stone);
+            stoneMap.put(TileKey.keyOf(stoneId), stone);
             // Remove from cleared positions so it can be interacted with again
-            clearedPositions.remove(stoneId);
+            clearedPositions.remove(TileKey.findKey(stoneId));
         }
     }
     
@@ -4889,9 +4559,12 @@ public class MyGdxGame extends ApplicationAdapter {
             planted.dispose();
         }
         
-        // Dispose shared textures
-        PlantedBamboo.disposeSharedTexture();
-        PlantedTree.disposeSharedTexture();
-        wagemaker.uk.planting.PlantedBananaTree.disposeSharedTexture();
+        // Stop the world generation worker
+        if (worldGenerator != null) {
+            worldGenerator.shutdown();
+        }
+        
+        // Dispose the sprite sheet shared by trees, items and planted entities
+        SpriteAtlas.disposeInstance();
     }
 }
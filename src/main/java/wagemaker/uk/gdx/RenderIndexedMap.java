@@ -0,0 +1,130 @@
+package wagemaker.uk.gdx;
+
+import wagemaker.uk.world.LongObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Map of world entities by {@link wagemaker.uk.world.TileKey} key that keeps a
+ * {@link WorldRenderer}'s index in step with its contents. Every way of adding
+ * or removing an entity updates the index, so code that only sees a plain
+ * LongObjectHashMap still keeps the renderer correct.
+ * 
+ * Entities are indexed at the position they have when added; re-put an entity
+ * if it moves. Their sprite is read every frame, so an entity whose texture
+ * changes in place, such as a growing sapling, needs no re-put. Other indexes
+ * of the same entities can follow the map through a {@link ChangeListener}.
+ * 
+ * @param <V> The entity type
+ */
+public class RenderIndexedMap<V extends WorldSprite> extends LongObjectHashMap<V> {
+    
+    /**
+     * Callback for entities added to or removed from the map.
+     * @param <V> The entity type
+     */
+    @FunctionalInterface
+    public interface ChangeListener<V> {
+        /**
+         * @param key The entity key
+         * @param oldValue The entity that was removed or replaced, or null
+         * @param newValue The entity that was added, or null if it was removed
+         */
+        void changed(long key, V oldValue, V newValue);
+    }
+    
+    private final WorldRenderer renderer;
+    private final int layer;
+    private final float width, height;
+    private final float offsetX, offsetY;
+    private final LongObjectHashMap<WorldRenderer.Entry> entries;
+    private final List<ChangeListener<V>> listeners;
+    
+    /**
+     * Creates a map whose entities are drawn at the size of their sprite.
+     * @param renderer The renderer to index the entities in
+     * @param layer The layer to draw them in
+     */
+    public RenderIndexedMap(WorldRenderer renderer, int layer) {
+        this(renderer, layer, 0, 0, 0, 0);
+    }
+    
+    /**
+     * Creates a map whose entities are drawn at a fixed size.
+     * @param renderer The renderer to index the entities in
+     * @param layer The layer to draw them in
+     * @param width The drawn width, or 0 for the width of the sprite
+     * @param height The drawn height, or 0 for the height of the sprite
+     */
+    public RenderIndexedMap(WorldRenderer renderer, int layer, float width, float height) {
+        this(renderer, layer, width, height, 0, 0);
+    }
+    
+    /**
+     * Creates a map whose entities are drawn at a fixed size and offset from their position.
+     * @param renderer The renderer to index the entities in
+     * @param layer The layer to draw them in
+     * @param width The drawn width, or 0 for the width of the sprite
+     * @param height The drawn height, or 0 for the height of the sprite
+     * @param offsetX Horizontal offset of the sprite from the entity's position
+     * @param offsetY Vertical offset of the sprite from the entity's position
+     */
+    public RenderIndexedMap(WorldRenderer renderer, int layer, float width, float height,
+                            float offsetX, float offsetY) {
+        this.renderer = renderer;
+        this.layer = layer;
+        this.width = width;
+        this.height = height;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.entries = new LongObjectHashMap<>();
+        this.listeners = new ArrayList<>();
+    }
+    
+    /**
+     * Registers a callback for entities added to or removed from the map.
+     * @param listener The callback
+     */
+    public void addChangeListener(ChangeListener<V> listener) {
+        listeners.add(listener);
+    }
+    
+    @Override
+    public V put(long key, V value) {
+        V previous = super.put(key, value);
+        renderer.remove(entries.remove(key));
+        entries.put(key, renderer.add(value, value.getX() + offsetX, value.getY() + offsetY,
+            width, height, layer));
+        notifyChanged(key, previous, value);
+        return previous;
+    }
+    
+    @Override
+    public V remove(long key) {
+        V previous = super.remove(key);
+        if (previous != null) {
+            renderer.remove(entries.remove(key));
+            notifyChanged(key, previous, null);
+        }
+        return previous;
+    }
+    
+    @Override
+    public void clear() {
+        entries.forEachValue(renderer::remove);
+        if (!listeners.isEmpty()) {
+            for (long key : keys()) {
+                notifyChanged(key, get(key), null);
+            }
+        }
+        super.clear();
+        entries.clear();
+    }
+    
+    private void notifyChanged(long key, V oldValue, V newValue) {
+        for (int i = 0, n = listeners.size(); i < n; i++) {
+            listeners.get(i).changed(key, oldValue, newValue);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package wagemaker.uk.gdx;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Shared registry of the world sprites in sprites/assets.png.
+ * 
+ * The sprite sheet is decoded and uploaded once, as a single texture page, and
+ * every tree, item, stone and planted entity draws a region of it. Because all
+ * of them use the same texture, the SpriteBatch can draw the whole world
+ * without flushing on texture switches.
+ * 
+ * Must be used from the rendering thread, as it creates the texture on first use.
+ */
+public class SpriteAtlas {
+    
+    private static final String SPRITE_SHEET = "sprites/assets.png";
+    
+    // Size of the texture page. Some regions reach past the edge of the 500x500
+    // sheet, so the sheet is placed on a larger transparent page.
+    private static final int PAGE_SIZE = 512;
+    
+    /**
+     * Regions of the sprite sheet, as x, y, width and height in pixels from the top left.
+     */
+    public enum Sprite {
+        COCONUT_TREE(0, 0, 128, 128),
+        APPLE_TREE(128, 0, 128, 128),
+        BAMBOO_TREE(256, 0, 64, 128),
+        SMALL_TREE(320, 0, 64, 128),
+        BANANA_TREE(384, 0, 128, 128),
+        APPLE(0, 128, 64, 64),
+        BANANA(64, 128, 64, 64),
+        BAMBOO_STACK(128, 128, 64, 64),
+        BAMBOO_SAPLING(192, 128, 64, 64),
+        WOOD_STACK(256, 128, 64, 64),
+        PEBBLE(320, 128, 64, 64),
+        TREE_SAPLING(384, 128, 64, 64),
+        PALM_FIBER(448, 128, 64, 64),
+        BANANA_SAPLING(192, 192, 64, 64),
+        APPLE_SAPLING(192, 254, 64, 64),
+        CACTUS(0, 192, 64, 128),
+        STONE(64, 192, 128, 128);
+        
+        private final int x, y, width, height;
+        
+        Sprite(int x, int y, int width, int height) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+    }
+    
+    private static SpriteAtlas instance;
+    
+    private final TextureAtlas atlas;
+    private final TextureRegion[] regions;
+    
+    private SpriteAtlas() {
+        Pixmap sheet = new Pixmap(Gdx.files.internal(SPRITE_SHEET));
+        Pixmap page = new Pixmap(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888);
+        page.setBlending(Pixmap.Blending.None);
+        page.drawPixmap(sheet, 0, 0);
+        Texture texture = new Texture(page);
+        page.dispose();
+        sheet.dispose();
+        
+        // The atlas owns the page texture and disposes it
+        atlas = new TextureAtlas();
+        Sprite[] sprites = Sprite.values();
+        regions = new TextureRegion[sprites.length];
+        for (Sprite sprite : sprites) {
+            regions[sprite.ordinal()] = atlas.addRegion(sprite.name(), texture,
+                sprite.x, sprite.y, sprite.width, sprite.height);
+        }
+        System.out.println("[SpriteAtlas] Loaded " + sprites.length + " regions from " + SPRITE_SHEET);
+    }
+    
+    /**
+     * Gets the sprite atlas, loading the sprite sheet on first use.
+     * @return The shared sprite atlas
+     */
+    public static synchronized SpriteAtlas getInstance() {
+        if (instance == null) {
+            instance = new SpriteAtlas();
+        }
+        return instance;
+    }
+    
+    /**
+     * Gets the shared region of a sprite.
+     * @param sprite The sprite
+     * @return The texture region, which must not be disposed or modified
+     */
+    public TextureRegion getRegion(Sprite sprite) {
+        return regions[sprite.ordinal()];
+    }
+    
+    /**
+     * Shorthand for {@code getInstance().getRegion(sprite)}.
+     * @param sprite The sprite
+     * @return The texture region
+     */
+    public static TextureRegion region(Sprite sprite) {
+        return getInstance().getRegion(sprite);
+    }
+    
+    /**
+     * Releases the texture page. Call this from the game's dispose() method;
+     * the atlas is loaded again if it is used afterwards.
+     */
+    public static synchronized void disposeInstance() {
+        if (instance != null) {
+            instance.atlas.dispose();
+            instance = null;
+            System.out.println("[SpriteAtlas] Texture page disposed");
+        }
+    }
+}
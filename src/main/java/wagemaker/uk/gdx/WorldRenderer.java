@@ -0,0 +1,326 @@
+package wagemaker.uk.gdx;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import wagemaker.uk.world.LongObjectHashMap;
+import wagemaker.uk.world.TileKey;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Draws the world's sprites from a spatial index, so the cost of a frame
+ * depends on what is on screen rather than on how many entities are loaded.
+ * 
+ * Static entities (trees, stones, items, planted saplings) are kept in a grid
+ * of {@link #CELL_SIZE} cells, normally through a {@link RenderIndexedMap} that
+ * updates the index as entities are added and removed. Each frame the cells
+ * overlapping the view are queried once, moving entities such as players are
+ * added, and the visible sprites are drawn layer by layer. Within a layer
+ * sprites are sorted by their base y-coordinate, so entities further down the
+ * screen are drawn in front, and the order does not change from frame to frame.
+ */
+public class WorldRenderer {
+    
+    /** Layer for sprites lying on the ground, drawn below everything else. */
+    public static final int LAYER_GROUND = 0;
+    
+    /** Layer for upright sprites such as trees, stones and players. */
+    public static final int LAYER_OBJECTS = 1;
+    
+    /** Size of an index cell in pixels. */
+    public static final int CELL_SIZE = 256;
+    
+    // Largest sprite drawn; cells this far outside the view can still reach into it
+    private static final float MAX_SPRITE_SIZE = 128;
+    
+    private static final Comparator<Entry> DRAW_ORDER = (a, b) -> {
+        if (a.layer != b.layer) {
+            return Integer.compare(a.layer, b.layer);
+        }
+        if (a.y != b.y) {
+            return Float.compare(b.y, a.y); // Further up the screen is further back
+        }
+        if (a.x != b.x) {
+            return Float.compare(a.x, b.x);
+        }
+        return Long.compare(a.sequence, b.sequence);
+    };
+    
+    /**
+     * A sprite in the index or added for a single frame.
+     */
+    public static final class Entry {
+        private TextureRegion region;
+        private WorldSprite sprite; // Read every frame, so sprite changes show without re-adding
+        private boolean spriteWidth, spriteHeight; // Sized from the current sprite
+        private float x, y, width, height;
+        private int layer;
+        private long sequence;
+        private long cellKey;
+        private int slot = -1; // Index in the cell's list, or -1 if not in the index
+        
+        public TextureRegion getRegion() {
+            return region;
+        }
+        
+        public float getX() {
+            return x;
+        }
+        
+        public float getY() {
+            return y;
+        }
+        
+        public float getWidth() {
+            return width;
+        }
+        
+        public float getHeight() {
+            return height;
+        }
+        
+        public int getLayer() {
+            return layer;
+        }
+        
+        private void set(TextureRegion region, float x, float y, float width, float height, int layer) {
+            this.region = region;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.layer = layer;
+        }
+        
+        private void refresh() {
+            if (sprite == null) {
+                return;
+            }
+            region = sprite.getTexture();
+            if (spriteWidth) {
+                width = region != null ? region.getRegionWidth() : 0;
+            }
+            if (spriteHeight) {
+                height = region != null ? region.getRegionHeight() : 0;
+            }
+        }
+        
+        private boolean overlaps(float left, float bottom, float right, float top) {
+            return x < right && x + width > left && y < top && y + height > bottom;
+        }
+    }
+    
+    private final LongObjectHashMap<ArrayList<Entry>> cells;
+    private final ArrayList<Entry> visible;
+    private final ArrayList<Entry> dynamicPool;
+    private int dynamicCount;
+    private long nextSequence;
+    private int size;
+    private boolean sorted;
+    private float viewLeft, viewBottom, viewRight, viewTop;
+    
+    public WorldRenderer() {
+        this.cells = new LongObjectHashMap<>();
+        this.visible = new ArrayList<>();
+        this.dynamicPool = new ArrayList<>();
+        this.sorted = true;
+    }
+    
+    /**
+     * Adds a sprite to the index.
+     * @param region The sprite, or null to index an entity that draws nothing
+     * @param x The x-coordinate of the bottom left corner
+     * @param y The y-coordinate of the bottom left corner
+     * @param width The drawn width
+     * @param height The drawn height
+     * @param layer The layer to draw it in
+     * @return The entry, for removing it again
+     */
+    public Entry add(TextureRegion region, float x, float y, float width, float height, int layer) {
+        Entry entry = new Entry();
+        entry.set(region, x, y, width, height, layer);
+        return index(entry);
+    }
+    
+    /**
+     * Adds an entity to the index whose sprite is read each frame, so growth
+     * stages and other texture changes are drawn without re-adding it.
+     * @param sprite The entity
+     * @param x The x-coordinate of the bottom left corner
+     * @param y The y-coordinate of the bottom left corner
+     * @param width The drawn width, or 0 for the width of the current sprite
+     * @param height The drawn height, or 0 for the height of the current sprite
+     * @param layer The layer to draw it in
+     * @return The entry, for removing it again
+     */
+    public Entry add(WorldSprite sprite, float x, float y, float width, float height, int layer) {
+        Entry entry = new Entry();
+        entry.set(null, x, y, width, height, layer);
+        entry.sprite = sprite;
+        entry.spriteWidth = width <= 0;
+        entry.spriteHeight = height <= 0;
+        entry.refresh();
+        return index(entry);
+    }
+    
+    private Entry index(Entry entry) {
+        entry.sequence = nextSequence++;
+        entry.cellKey = TileKey.pack(cellCoord(entry.x), cellCoord(entry.y));
+        ArrayList<Entry> cell = cells.get(entry.cellKey);
+        if (cell == null) {
+            cell = new ArrayList<>();
+            cells.put(entry.cellKey, cell);
+        }
+        entry.slot = cell.size();
+        cell.add(entry);
+        size++;
+        return entry;
+    }
+    
+    /**
+     * Removes a sprite from the index.
+     * @param entry The entry returned by {@link #add}; ignored if null or already removed
+     */
+    public void remove(Entry entry) {
+        if (entry == null || entry.slot < 0) {
+            return;
+        }
+        ArrayList<Entry> cell = cells.get(entry.cellKey);
+        // Move the cell's last entry into the hole
+        Entry last = cell.remove(cell.size() - 1);
+        if (last != entry) {
+            cell.set(entry.slot, last);
+            last.slot = entry.slot;
+        }
+        if (cell.isEmpty()) {
+            cells.remove(entry.cellKey);
+        }
+        entry.slot = -1;
+        size--;
+    }
+    
+    /**
+     * Removes every sprite from the index.
+     */
+    public void clear() {
+        cells.forEachValue(cell -> {
+            for (Entry entry : cell) {
+                entry.slot = -1;
+            }
+        });
+        cells.clear();
+        visible.clear();
+        size = 0;
+    }
+    
+    /**
+     * Gets the number of sprites in the index.
+     * @return The sprite count
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Gets the number of non-empty index cells.
+     * @return The cell count
+     */
+    public int getCellCount() {
+        return cells.size();
+    }
+    
+    /**
+     * Starts a frame by collecting the indexed sprites that overlap the view.
+     * @param left The left edge of the view in world pixels
+     * @param bottom The bottom edge of the view
+     * @param right The right edge of the view
+     * @param top The top edge of the view
+     */
+    public void beginFrame(float left, float bottom, float right, float top) {
+        viewLeft = left;
+        viewBottom = bottom;
+        viewRight = right;
+        viewTop = top;
+        visible.clear();
+        dynamicCount = 0;
+        
+        int minX = cellCoord(left - MAX_SPRITE_SIZE);
+        int maxX = cellCoord(right);
+        int minY = cellCoord(bottom - MAX_SPRITE_SIZE);
+        int maxY = cellCoord(top);
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                ArrayList<Entry> cell = cells.get(TileKey.pack(cx, cy));
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0, n = cell.size(); i < n; i++) {
+                    Entry entry = cell.get(i);
+                    entry.refresh();
+                    if (entry.overlaps(left, bottom, right, top)) {
+                        visible.add(entry);
+                    }
+                }
+            }
+        }
+        sorted = false;
+    }
+    
+    /**
+     * Adds a sprite to the current frame only, e.g. for a player.
+     * Ignored if it is outside the view.
+     * @param region The sprite
+     * @param x The x-coordinate of the bottom left corner
+     * @param y The y-coordinate of the bottom left corner
+     * @param width The drawn width
+     * @param height The drawn height
+     * @param layer The layer to draw it in
+     */
+    public void addDynamic(TextureRegion region, float x, float y, float width, float height, int layer) {
+        if (dynamicCount == dynamicPool.size()) {
+            dynamicPool.add(new Entry());
+        }
+        Entry entry = dynamicPool.get(dynamicCount);
+        entry.set(region, x, y, width, height, layer);
+        if (!entry.overlaps(viewLeft, viewBottom, viewRight, viewTop)) {
+            return;
+        }
+        entry.sequence = nextSequence + dynamicCount; // After every indexed sprite
+        dynamicCount++;
+        visible.add(entry);
+        sorted = false;
+    }
+    
+    /**
+     * Gets the sprites of the current frame in drawing order.
+     * @return The visible sprites, valid until the next frame
+     */
+    public List<Entry> getVisible() {
+        if (!sorted) {
+            visible.sort(DRAW_ORDER);
+            sorted = true;
+        }
+        return visible;
+    }
+    
+    /**
+     * Draws the visible sprites of one layer.
+     * @param batch The sprite batch, which must have been begun
+     * @param layer The layer to draw
+     */
+    public void draw(SpriteBatch batch, int layer) {
+        List<Entry> entries = getVisible();
+        for (int i = 0, n = entries.size(); i < n; i++) {
+            Entry entry = entries.get(i);
+            if (entry.layer == layer && entry.region != null) {
+                batch.draw(entry.region, entry.x, entry.y, entry.width, entry.height);
+            }
+        }
+    }
+    
+    private static int cellCoord(float value) {
+        return (int) Math.floor(value / CELL_SIZE);
+    }
+}
@@ -0,0 +1,28 @@
+package wagemaker.uk.gdx;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * A world entity drawn as a single sprite at a fixed position,
+ * such as a tree, stone, dropped item or planted sapling.
+ */
+public interface WorldSprite {
+    
+    /**
+     * Gets the sprite to draw.
+     * @return The texture region, or null if the entity has nothing to draw
+     */
+    TextureRegion getTexture();
+    
+    /**
+     * Gets the x-coordinate of the bottom left corner of the sprite.
+     * @return The x-coordinate in world pixels
+     */
+    float getX();
+    
+    /**
+     * Gets the y-coordinate of the bottom left corner of the sprite.
+     * @return The y-coordinate in world pixels
+     */
+    float getY();
+}
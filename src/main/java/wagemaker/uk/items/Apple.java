@@ -1,11 +1,12 @@
 package wagemaker.uk.items;
 
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import wagemaker.uk.gdx.SpriteAtlas;
+import wagemaker.uk.gdx.WorldSprite;
 
-public class Apple {
+public class Apple implements WorldSprite {
     private float x, y;
-    private Texture texture;
+    private TextureRegion texture;
 
     public Apple(float x, float y) {
         this.x = x;
@@ -14,20 +15,10 @@ public class Apple {
     }
 
     private void createTexture() {
-        Texture spriteSheet = new Texture("sprites/assets.png");
-        Pixmap pixmap = new Pixmap(64, 64, Pixmap.Format.RGBA8888);
-        spriteSheet.getTextureData().prepare();
-        Pixmap sheetPixmap = spriteSheet.getTextureData().consumePixmap();
-        
-        pixmap.drawPixmap(sheetPixmap, 0, 0, 0, 128, 64, 64);
-        
-        texture = new Texture(pixmap);
-        pixmap.dispose();
-        sheetPixmap.dispose();
-        spriteSheet.dispose();
+        texture = SpriteAtlas.region(SpriteAtlas.Sprite.APPLE);
     }
 
-    public Texture getTexture() {
+    public TextureRegion getTexture() {
         return texture;
     }
 
@@ -40,6 +31,6 @@ public class Apple {
     }
 
     public void dispose() {
-        if (texture != null) texture.dispose();
+        // The texture region is shared through the SpriteAtlas
     }
 }
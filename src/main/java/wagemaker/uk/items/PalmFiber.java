@@ -1,16 +1,17 @@
 package wagemaker.uk.items;
 
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import wagemaker.uk.gdx.SpriteAtlas;
+import wagemaker.uk.gdx.WorldSprite;
 
 /**
  * PalmFiber item that is dropped when a CoconutTree is destroyed.
  * Can be collected and stored in inventory.
  * Follows the same pattern as other collectible items (Apple, Banana).
  */
-public class PalmFiber {
+public class PalmFiber implements WorldSprite {
     private float x, y;
-    private Texture texture;
+    private TextureRegion texture;
 
     public PalmFiber(float x, float y) {
         this.x = x;
@@ -19,21 +20,10 @@ public class PalmFiber {
     }
 
     private void createTexture() {
-        Texture spriteSheet = new Texture("sprites/assets.png");
-        Pixmap pixmap = new Pixmap(64, 64, Pixmap.Format.RGBA8888);
-        spriteSheet.getTextureData().prepare();
-        Pixmap sheetPixmap = spriteSheet.getTextureData().consumePixmap();
-        
-        // PalmFiber coordinates: 448 from left, 128 from top, 64x64 size
-        pixmap.drawPixmap(sheetPixmap, 0, 0, 448, 128, 64, 64);
-        
-        texture = new Texture(pixmap);
-        pixmap.dispose();
-        sheetPixmap.dispose();
-        spriteSheet.dispose();
+        texture = SpriteAtlas.region(SpriteAtlas.Sprite.PALM_FIBER);
     }
 
-    public Texture getTexture() {
+    public TextureRegion getTexture() {
         return texture;
     }
 
@@ -46,8 +36,6 @@ public class PalmFiber {
     }
 
     public void dispose() {
-        if (texture != null) {
-            texture.dispose();
-        }
+        // The texture region is shared through the SpriteAtlas
     }
 }
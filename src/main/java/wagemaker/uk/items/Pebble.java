@@ -1,7 +1,8 @@
 package wagemaker.uk.items;
 
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import wagemaker.uk.gdx.SpriteAtlas;
+import wagemaker.uk.gdx.WorldSprite;
 
 /**
  * Pebble item that is collected when a Stone is destroyed.
@@ -9,9 +10,9 @@ import com.badlogic.gdx.graphics.Texture;
  * 
  * Sprite coordinates in assets.png: 448, 0, 64, 64 (TBD - placeholder coordinates)
  */
-public class Pebble {
+public class Pebble implements WorldSprite {
     private float x, y;
-    private Texture texture;
+    private TextureRegion texture;
 
     public Pebble(float x, float y) {
         this.x = x;
@@ -20,22 +21,10 @@ public class Pebble {
     }
 
     private void createTexture() {
-        Texture spriteSheet = new Texture("sprites/assets.png");
-        Pixmap pixmap = new Pixmap(64, 64, Pixmap.Format.RGBA8888);
-        spriteSheet.getTextureData().prepare();
-        Pixmap sheetPixmap = spriteSheet.getTextureData().consumePixmap();
-        
-        // TODO: Update sprite coordinates when final pebble sprite is added to assets.png
-        // Current placeholder coordinates: 448, 0, 64, 64
-        pixmap.drawPixmap(sheetPixmap, 0, 0, 320, 128, 64, 64);
-        
-        texture = new Texture(pixmap);
-        pixmap.dispose();
-        sheetPixmap.dispose();
-        spriteSheet.dispose();
+        texture = SpriteAtlas.region(SpriteAtlas.Sprite.PEBBLE);
     }
 
-    public Texture getTexture() {
+    public TextureRegion getTexture() {
         return texture;
     }
 
@@ -48,8 +37,6 @@ public class Pebble {
     }
 
     public void dispose() {
-        if (texture != null) {
-            texture.dispose();
-        }
+        // The texture region is shared through the SpriteAtlas
     }
 }
@@ -1,16 +1,17 @@
 package wagemaker.uk.items;
 
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import wagemaker.uk.gdx.SpriteAtlas;
+import wagemaker.uk.gdx.WorldSprite;
 
 /**
  * TreeSapling item that can be dropped when a SmallTree is destroyed.
  * Can be collected and used for planting new trees.
  * Follows the same pattern as other collectible items (Apple, BambooSapling, WoodStack).
  */
-public class TreeSapling {
+public class TreeSapling implements WorldSprite {
     private float x, y;
-    private Texture texture;
+    private TextureRegion texture;
 
     public TreeSapling(float x, float y) {
         this.x = x;
@@ -19,21 +20,10 @@ public class TreeSapling {
     }
 
     private void createTexture() {
-        Texture spriteSheet = new Texture("sprites/assets.png");
-        Pixmap pixmap = new Pixmap(64, 64, Pixmap.Format.RGBA8888);
-        spriteSheet.getTextureData().prepare();
-        Pixmap sheetPixmap = spriteSheet.getTextureData().consumePixmap();
-        
-        // TreeSapling coordinates: 384 from left, 128 from top, 64x64 size
-        pixmap.drawPixmap(sheetPixmap, 0, 0, 384, 128, 64, 64);
-        
-        texture = new Texture(pixmap);
-        pixmap.dispose();
-        sheetPixmap.dispose();
-        spriteSheet.dispose();
+        texture = SpriteAtlas.region(SpriteAtlas.Sprite.TREE_SAPLING);
     }
 
-    public Texture getTexture() {
+    public TextureRegion getTexture() {
         return texture;
     }
 
@@ -46,8 +36,6 @@ public class TreeSapling {
     }
 
     public void dispose() {
-        if (texture != null) {
-            texture.dispose();
-        }
+        // The texture region is shared through the SpriteAtlas
     }
 }
@@ -0,0 +1,449 @@
+package wagemaker.uk.network;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary encoding for network messages.
+ * 
+ * Each message is written as a one-byte type tag, the common header
+ * (timestamp and sender ID) and then the message's own fields. Integers use
+ * LEB128 varints, floats are fixed 4-byte values, strings are a varint length
+ * followed by UTF-8 bytes, and enums are a single byte. Frequent messages have
+ * a dedicated layout; every other message type is carried as an embedded Java
+ * serialization payload under {@link #TAG_SERIALIZED}, so all messages can use
+ * the binary transport.
+ * 
+ * Fields appended to the end of a layout are optional: they are only written
+ * when set and only read when the message has bytes left, so peers that
+ * predate them still decode the message.
+ * 
+ * Tags and enum ordinals are part of the wire format for {@link #PROTOCOL_VERSION}
+ * and must never be renumbered; new layouts get new tags and a version bump.
+ */
+public final class BinaryMessageCodec {
+    
+    /** Version of the binary wire format, exchanged during protocol negotiation. */
+    public static final int PROTOCOL_VERSION = 1;
+    
+    static final int TAG_SERIALIZED = 0;
+    static final int TAG_PLAYER_MOVEMENT = 1;
+    static final int TAG_HEARTBEAT = 2;
+    static final int TAG_PING = 3;
+    static final int TAG_PONG = 4;
+    static final int TAG_ATTACK_ACTION = 5;
+    static final int TAG_TREE_HEALTH_UPDATE = 6;
+    static final int TAG_STONE_HEALTH_UPDATE = 7;
+    static final int TAG_PLAYER_HEALTH_UPDATE = 8;
+    static final int TAG_PLAYER_HUNGER_UPDATE = 9;
+    static final int TAG_POSITION_CORRECTION = 10;
+    static final int TAG_ITEM_PICKUP = 11;
+    static final int TAG_TREE_DESTROYED = 12;
+    static final int TAG_STONE_DESTROYED = 13;
+    static final int TAG_TREE_CREATED = 14;
+    static final int TAG_STONE_CREATED = 15;
+    static final int TAG_PLAYER_JOIN = 16;
+    static final int TAG_PLAYER_LEAVE = 17;
+    
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final TreeType[] TREE_TYPES = TreeType.values();
+    private static final int NULL_ENUM = 0xFF;
+    
+    private BinaryMessageCodec() {
+    }
+    
+    /**
+     * Encodes a message into a standalone byte array (without a length prefix).
+     * @param message The message to encode
+     * @return The encoded payload
+     * @throws IOException if the message cannot be encoded
+     */
+    public static byte[] encode(NetworkMessage message) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+        encode(message, new DataOutputStream(buffer));
+        return buffer.toByteArray();
+    }
+    
+    /**
+     * Writes the encoded form of a message (without a length prefix).
+     * @param message The message to encode
+     * @param out The stream to write to
+     * @throws IOException if the message cannot be encoded
+     */
+    public static void encode(NetworkMessage message, DataOutputStream out) throws IOException {
+        switch (message.getType()) {
+            case PLAYER_MOVEMENT: {
+                PlayerMovementMessage msg = (PlayerMovementMessage) message;
+                writeHeader(out, TAG_PLAYER_MOVEMENT, message);
+                out.writeFloat(msg.getX());
+                out.writeFloat(msg.getY());
+                writeEnum(out, msg.getDirection());
+                out.writeBoolean(msg.isMoving());
+                if (msg.getSequence() != 0 || msg.getCorrectionSequence() != 0) {
+                    writeVarInt(out, msg.getSequence());
+                }
+                if (msg.getCorrectionSequence() != 0) {
+                    writeVarInt(out, msg.getCorrectionSequence());
+                }
+                break;
+            }
+            case HEARTBEAT:
+                writeHeader(out, TAG_HEARTBEAT, message);
+                break;
+            case PING:
+                writeHeader(out, TAG_PING, message);
+                break;
+            case PONG:
+                writeHeader(out, TAG_PONG, message);
+                writeVarLong(out, ((PongMessage) message).getPingTimestamp());
+                break;
+            case ATTACK_ACTION: {
+                AttackActionMessage msg = (AttackActionMessage) message;
+                writeHeader(out, TAG_ATTACK_ACTION, message);
+                writeString(out, msg.getPlayerId());
+                writeString(out, msg.getTargetId());
+                out.writeFloat(msg.getDamage());
+                break;
+            }
+            case TREE_HEALTH_UPDATE: {
+                TreeHealthUpdateMessage msg = (TreeHealthUpdateMessage) message;
+                writeHeader(out, TAG_TREE_HEALTH_UPDATE, message);
+                writeString(out, msg.getTreeId());
+                out.writeFloat(msg.getHealth());
+                break;
+            }
+            case STONE_HEALTH_UPDATE: {
+                StoneHealthUpdateMessage msg = (StoneHealthUpdateMessage) message;
+                writeHeader(out, TAG_STONE_HEALTH_UPDATE, message);
+                writeString(out, msg.getStoneId());
+                out.writeFloat(msg.getHealth());
+                break;
+            }
+            case PLAYER_HEALTH_UPDATE: {
+                PlayerHealthUpdateMessage msg = (PlayerHealthUpdateMessage) message;
+                writeHeader(out, TAG_PLAYER_HEALTH_UPDATE, message);
+                writeString(out, msg.getPlayerId());
+                out.writeFloat(msg.getHealth());
+                break;
+            }
+            case PLAYER_HUNGER_UPDATE: {
+                PlayerHungerUpdateMessage msg = (PlayerHungerUpdateMessage) message;
+                writeHeader(out, TAG_PLAYER_HUNGER_UPDATE, message);
+                writeString(out, msg.getPlayerId());
+                out.writeFloat(msg.getHunger());
+                break;
+            }
+            case POSITION_CORRECTION: {
+                PositionCorrectionMessage msg = (PositionCorrectionMessage) message;
+                writeHeader(out, TAG_POSITION_CORRECTION, message);
+                writeString(out, msg.getPlayerId());
+                out.writeFloat(msg.getCorrectedX());
+                out.writeFloat(msg.getCorrectedY());
+                writeEnum(out, msg.getCorrectedDirection());
+                writeString(out, msg.getReason());
+                if (msg.getAcknowledgedSequence() != 0) {
+                    writeVarInt(out, msg.getAcknowledgedSequence());
+                }
+                break;
+            }
+            case ITEM_PICKUP: {
+                ItemPickupMessage msg = (ItemPickupMessage) message;
+                writeHeader(out, TAG_ITEM_PICKUP, message);
+                writeString(out, msg.getItemId());
+                writeString(out, msg.getPlayerId());
+                break;
+            }
+            case TREE_DESTROYED: {
+                TreeDestroyedMessage msg = (TreeDestroyedMessage) message;
+                writeHeader(out, TAG_TREE_DESTROYED, message);
+                writeString(out, msg.getTreeId());
+                out.writeFloat(msg.getX());
+                out.writeFloat(msg.getY());
+                break;
+            }
+            case STONE_DESTROYED: {
+                StoneDestroyedMessage msg = (StoneDestroyedMessage) message;
+                writeHeader(out, TAG_STONE_DESTROYED, message);
+                writeString(out, msg.getStoneId());
+                out.writeFloat(msg.getX());
+                out.writeFloat(msg.getY());
+                break;
+            }
+            case TREE_CREATED: {
+                TreeCreatedMessage msg = (TreeCreatedMessage) message;
+                writeHeader(out, TAG_TREE_CREATED, message);
+                writeString(out, msg.getTreeId());
+                writeEnum(out, msg.getTreeType());
+                out.writeFloat(msg.getX());
+                out.writeFloat(msg.getY());
+                out.writeFloat(msg.getHealth());
+                break;
+            }
+            case STONE_CREATED: {
+                StoneCreatedMessage msg = (StoneCreatedMessage) message;
+                writeHeader(out, TAG_STONE_CREATED, message);
+                writeString(out, msg.getStoneId());
+                out.writeFloat(msg.getX());
+                out.writeFloat(msg.getY());
+                out.writeFloat(msg.getHealth());
+                break;
+            }
+            case PLAYER_JOIN: {
+                PlayerJoinMessage msg = (PlayerJoinMessage) message;
+                writeHeader(out, TAG_PLAYER_JOIN, message);
+                writeString(out, msg.getPlayerId());
+                writeString(out, msg.getPlayerName());
+                writeString(out, msg.getCharacterSprite());
+                out.writeFloat(msg.getX());
+                out.writeFloat(msg.getY());
+                break;
+            }
+            case PLAYER_LEAVE: {
+                PlayerLeaveMessage msg = (PlayerLeaveMessage) message;
+                writeHeader(out, TAG_PLAYER_LEAVE, message);
+                writeString(out, msg.getPlayerId());
+                writeString(out, msg.getPlayerName());
+                break;
+            }
+            default:
+                writeSerialized(out, message);
+                break;
+        }
+    }
+    
+    /**
+     * Decodes a message from a standalone byte array produced by {@link #encode(NetworkMessage)}.
+     * @param data The encoded payload
+     * @return The decoded message
+     * @throws IOException if the payload is malformed
+     * @throws ClassNotFoundException if an embedded serialized message has an unknown class
+     */
+    public static NetworkMessage decode(byte[] data) throws IOException, ClassNotFoundException {
+        return decode(new DataInputStream(new ByteArrayInputStream(data)));
+    }
+    
+    /**
+     * Reads one encoded message (without a length prefix).
+     * @param in An in-memory stream holding the complete message, such as one frame;
+     *           available() is used to validate embedded lengths
+     * @return The decoded message
+     * @throws IOException if the payload is malformed
+     * @throws ClassNotFoundException if an embedded serialized message has an unknown class
+     */
+    public static NetworkMessage decode(DataInputStream in) throws IOException, ClassNotFoundException {
+        int tag = in.readUnsignedByte();
+        if (tag == TAG_SERIALIZED) {
+            return readSerialized(in);
+        }
+        
+        long timestamp = readVarLong(in);
+        String senderId = readString(in);
+        NetworkMessage message;
+        
+        switch (tag) {
+            case TAG_PLAYER_MOVEMENT:
+                message = new PlayerMovementMessage(senderId, in.readFloat(), in.readFloat(),
+                    readEnum(in, DIRECTIONS), in.readBoolean(), readOptionalVarInt(in), readOptionalVarInt(in));
+                break;
+            case TAG_HEARTBEAT:
+                message = new HeartbeatMessage(senderId);
+                break;
+            case TAG_PING:
+                message = new PingMessage(senderId);
+                break;
+            case TAG_PONG:
+                message = new PongMessage(senderId, readVarLong(in));
+                break;
+            case TAG_ATTACK_ACTION:
+                message = new AttackActionMessage(senderId, readString(in), readString(in), in.readFloat());
+                break;
+            case TAG_TREE_HEALTH_UPDATE:
+                message = new TreeHealthUpdateMessage(senderId, readString(in), in.readFloat());
+                break;
+            case TAG_STONE_HEALTH_UPDATE:
+                message = new StoneHealthUpdateMessage(senderId, readString(in), in.readFloat());
+                break;
+            case TAG_PLAYER_HEALTH_UPDATE:
+                message = new PlayerHealthUpdateMessage(senderId, readString(in), in.readFloat());
+                break;
+            case TAG_PLAYER_HUNGER_UPDATE:
+                message = new PlayerHungerUpdateMessage(senderId, readString(in), in.readFloat());
+                break;
+            case TAG_POSITION_CORRECTION:
+                message = new PositionCorrectionMessage(senderId, readString(in), in.readFloat(), in.readFloat(),
+                    readEnum(in, DIRECTIONS), readString(in), readOptionalVarInt(in));
+                break;
+            case TAG_ITEM_PICKUP:
+                message = new ItemPickupMessage(senderId, readString(in), readString(in));
+                break;
+            case TAG_TREE_DESTROYED:
+                message = new TreeDestroyedMessage(senderId, readString(in), in.readFloat(), in.readFloat());
+                break;
+            case TAG_STONE_DESTROYED:
+                message = new StoneDestroyedMessage(senderId, readString(in), in.readFloat(), in.readFloat());
+                break;
+            case TAG_TREE_CREATED:
+                message = new TreeCreatedMessage(senderId, readString(in), readEnum(in, TREE_TYPES),
+                    in.readFloat(), in.readFloat(), in.readFloat());
+                break;
+            case TAG_STONE_CREATED:
+                message = new StoneCreatedMessage(senderId, readString(in), in.readFloat(), in.readFloat(), in.readFloat());
+                break;
+            case TAG_PLAYER_JOIN:
+                message = new PlayerJoinMessage(readString(in), readString(in), readString(in), in.readFloat(), in.readFloat());
+                break;
+            case TAG_PLAYER_LEAVE:
+                message = new PlayerLeaveMessage(readString(in), readString(in));
+                break;
+            default:
+                throw new StreamCorruptedException("Unknown binary message tag: " + tag);
+        }
+        
+        // Restore the header fields the constructors initialise themselves
+        message.timestamp = timestamp;
+        message.setSenderId(senderId);
+        return message;
+    }
+    
+    private static void writeHeader(DataOutputStream out, int tag, NetworkMessage message) throws IOException {
+        out.writeByte(tag);
+        writeVarLong(out, message.getTimestamp());
+        writeString(out, message.getSenderId());
+    }
+    
+    private static void writeSerialized(DataOutputStream out, NetworkMessage message) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream objectOut = new ObjectOutputStream(buffer)) {
+            objectOut.writeObject(message);
+        }
+        out.writeByte(TAG_SERIALIZED);
+        writeVarInt(out, buffer.size());
+        buffer.writeTo(out);
+    }
+    
+    private static NetworkMessage readSerialized(DataInputStream in) throws IOException, ClassNotFoundException {
+        byte[] data = new byte[checkLength(in, readVarInt(in))];
+        in.readFully(data);
+        try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            Object obj = objectIn.readObject();
+            if (!(obj instanceof NetworkMessage)) {
+                throw new StreamCorruptedException("Embedded object is not a NetworkMessage: " + obj.getClass().getName());
+            }
+            return (NetworkMessage) obj;
+        }
+    }
+    
+    /**
+     * Writes an unsigned LEB128 varint.
+     * @param out The stream to write to
+     * @param value The value to write (treated as unsigned)
+     * @throws IOException if writing fails
+     */
+    public static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+    
+    /**
+     * Reads an unsigned LEB128 varint.
+     * @param in The stream to read from
+     * @return The decoded value
+     * @throws IOException if the varint is malformed or the stream ends
+     */
+    public static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Varint too long");
+    }
+    
+    /**
+     * Reads an optional trailing varint.
+     * @param in An in-memory stream holding the rest of the message
+     * @return The decoded value, or 0 if the message has no bytes left
+     * @throws IOException if the varint is malformed
+     */
+    private static int readOptionalVarInt(DataInputStream in) throws IOException {
+        return in.available() > 0 ? readVarInt(in) : 0;
+    }
+    
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+    
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Varlong too long");
+    }
+    
+    // Strings are written as (UTF-8 length + 1) so that 0 can represent null
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+    
+    private static String readString(DataInputStream in) throws IOException {
+        int length = readVarInt(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[checkLength(in, length - 1)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    // Decoding always runs over a complete in-memory frame, so a length can never
+    // exceed the bytes remaining; this stops a corrupt length from allocating a huge array
+    private static int checkLength(DataInputStream in, int length) throws IOException {
+        if (length < 0 || length > in.available()) {
+            throw new StreamCorruptedException("Invalid length: " + length);
+        }
+        return length;
+    }
+    
+    private static void writeEnum(DataOutputStream out, Enum<?> value) throws IOException {
+        out.writeByte(value == null ? NULL_ENUM : value.ordinal());
+    }
+    
+    private static <E extends Enum<E>> E readEnum(DataInputStream in, E[] values) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal == NULL_ENUM) {
+            return null;
+        }
+        if (ordinal >= values.length) {
+            throw new StreamCorruptedException("Invalid enum ordinal: " + ordinal);
+        }
+        return values[ordinal];
+    }
+}
@@ -0,0 +1,137 @@
+package wagemaker.uk.network;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+
+/**
+ * Transport for the binary protocol. Each message is framed as a varint
+ * payload length followed by the {@link BinaryMessageCodec} encoding.
+ * 
+ * Incoming frames larger than the configured maximum are skipped without being
+ * read into memory or decoded. Accepted frames are read into a receive buffer
+ * that is reused across messages.
+ */
+public class BinaryTransport implements MessageTransport {
+    
+    private static final int BUFFER_SIZE = 8192;
+    private static final int INITIAL_FRAME_SIZE = 256;
+    
+    private final DataInputStream input;
+    private final DataOutputStream output;
+    private final ByteArrayOutputStream frameBuffer;
+    private final DataOutputStream frameOutput;
+    private final int maxMessageSize;
+    private final FrameInputStream receiveBuffer;
+    private final DataInputStream receiveInput;
+    
+    /**
+     * Creates a binary transport over already negotiated socket streams,
+     * accepting incoming messages of any size.
+     * @param in The socket input stream
+     * @param out The socket output stream
+     */
+    public BinaryTransport(InputStream in, OutputStream out) {
+        this(in, out, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Creates a binary transport over already negotiated socket streams.
+     * @param in The socket input stream
+     * @param out The socket output stream
+     * @param maxMessageSize Largest accepted incoming frame payload in bytes
+     */
+    public BinaryTransport(InputStream in, OutputStream out, int maxMessageSize) {
+        this.input = new DataInputStream(in instanceof BufferedInputStream ? in : new BufferedInputStream(in, BUFFER_SIZE));
+        this.output = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        this.frameBuffer = new ByteArrayOutputStream(INITIAL_FRAME_SIZE);
+        this.frameOutput = new DataOutputStream(frameBuffer);
+        this.maxMessageSize = maxMessageSize;
+        this.receiveBuffer = new FrameInputStream();
+        this.receiveInput = new DataInputStream(receiveBuffer);
+    }
+    
+    @Override
+    public void write(NetworkMessage message) throws IOException {
+        frameBuffer.reset();
+        BinaryMessageCodec.encode(message, frameOutput);
+        BinaryMessageCodec.writeVarInt(output, frameBuffer.size());
+        frameBuffer.writeTo(output);
+    }
+    
+    @Override
+    public void flush() throws IOException {
+        output.flush();
+    }
+    
+    @Override
+    public NetworkMessage receive() throws IOException, ClassNotFoundException {
+        int length = BinaryMessageCodec.readVarInt(input);
+        if (length <= 0) {
+            throw new StreamCorruptedException("Invalid frame length: " + length);
+        }
+        if (length > maxMessageSize) {
+            // Drop the frame unread so the next message can still be received
+            input.skipNBytes(length);
+            throw new MessageTooLargeException(length, maxMessageSize, true);
+        }
+        
+        input.readFully(receiveBuffer.prepare(length), 0, length);
+        return BinaryMessageCodec.decode(receiveInput);
+    }
+    
+    @Override
+    public String getProtocolName() {
+        return "binary-v" + BinaryMessageCodec.PROTOCOL_VERSION;
+    }
+    
+    @Override
+    public void close() {
+        try {
+            input.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+        try {
+            output.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+    }
+    
+    /**
+     * Gets the largest incoming frame this transport accepts.
+     * @return The maximum message size in bytes
+     */
+    public int getMaxMessageSize() {
+        return maxMessageSize;
+    }
+    
+    /**
+     * In-memory stream over the reusable receive buffer. Each frame is decoded
+     * from the start of the buffer, which only grows when a larger frame arrives.
+     */
+    private static final class FrameInputStream extends ByteArrayInputStream {
+        
+        FrameInputStream() {
+            super(new byte[INITIAL_FRAME_SIZE]);
+        }
+        
+        byte[] prepare(int length) {
+            if (buf.length < length) {
+                buf = new byte[Math.max(length, buf.length * 2)];
+            }
+            pos = 0;
+            mark = 0;
+            count = length;
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,472 @@
+package wagemaker.uk.network;
+
+import wagemaker.uk.world.LongHashSet;
+import wagemaker.uk.world.TileKey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks which world chunks the server has already generated and generates
+ * newly entered chunks on a dedicated background worker.
+ * 
+ * Players only trigger work when they cross into a different chunk, and each
+ * chunk is generated once. Stone tiles skipped because the requesting player
+ * stood too close are remembered and planned again, on their own, once a
+ * player requests the chunk from far enough away. The worker only plans a
+ * chunk from the seed and the biomes; the plan is applied to WorldState
+ * through the tick loop, which checks for existing and cleared entities in the
+ * same step that adds the new ones. Trees and stones created by a chunk are
+ * pushed to the clients whose players are close enough to see them.
+ */
+public class ChunkGenerationManager {
+    
+    /** Size of a generation cell in pixels (same as a grass tile). */
+    public static final int TILE_SIZE = 64;
+    
+    /** Number of tiles along each side of a chunk. */
+    public static final int CHUNK_TILES = 8;
+    
+    /** Size of a chunk in pixels. */
+    public static final int CHUNK_SIZE = TILE_SIZE * CHUNK_TILES;
+    
+    /** Chunks within this many chunks of the player are generated (covers ~960px). */
+    public static final int GENERATION_RADIUS_CHUNKS = 2;
+    
+    // Stones are never generated within this distance of the requesting player
+    private static final float STONE_PLAYER_EXCLUSION = 512.0f;
+    
+    // Clients within this distance of a chunk centre receive its new entities
+    private static final float PUSH_RADIUS = (GENERATION_RADIUS_CHUNKS + 1) * CHUNK_SIZE * 1.5f;
+    
+    private final GameServer server;
+    private final Set<Long> generatedChunks;
+    private final Set<Long> pendingChunks;
+    private final Map<Long, long[]> deferredStoneTiles; // Per generated chunk, tiles skipped near the player
+    private final Map<String, Long> lastPlayerChunks;
+    private final ExecutorService worker;
+    
+    /**
+     * Creates a chunk generation manager for the given server.
+     * @param server The game server whose world state is populated
+     */
+    public ChunkGenerationManager(GameServer server) {
+        this.server = server;
+        this.generatedChunks = ConcurrentHashMap.newKeySet();
+        this.pendingChunks = ConcurrentHashMap.newKeySet();
+        this.deferredStoneTiles = new ConcurrentHashMap<>();
+        this.lastPlayerChunks = new ConcurrentHashMap<>();
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ChunkGenerationWorker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Called when a player's position changes. Queues generation for any chunks
+     * around the player that have not been generated yet, but only when the
+     * player has crossed into a different chunk since the last call.
+     * 
+     * @param playerId The player (client) ID
+     * @param x The player's world x-coordinate
+     * @param y The player's world y-coordinate
+     */
+    public void onPlayerMoved(String playerId, float x, float y) {
+        int chunkX = chunkCoord(x);
+        int chunkY = chunkCoord(y);
+        Long chunkKey = chunkKey(chunkX, chunkY);
+        
+        if (playerId != null && chunkKey.equals(lastPlayerChunks.put(playerId, chunkKey))) {
+            return;
+        }
+        
+        requestChunksAround(x, y);
+    }
+    
+    /**
+     * Queues generation for every chunk within the generation radius of a position
+     * that is neither generated nor already queued, and for the stone tiles a
+     * generated chunk skipped that are now far enough from the position.
+     * 
+     * @param x The world x-coordinate
+     * @param y The world y-coordinate
+     */
+    public void requestChunksAround(float x, float y) {
+        if (worker.isShutdown()) {
+            return;
+        }
+        
+        int centerChunkX = chunkCoord(x);
+        int centerChunkY = chunkCoord(y);
+        
+        for (int cx = centerChunkX - GENERATION_RADIUS_CHUNKS; cx <= centerChunkX + GENERATION_RADIUS_CHUNKS; cx++) {
+            for (int cy = centerChunkY - GENERATION_RADIUS_CHUNKS; cy <= centerChunkY + GENERATION_RADIUS_CHUNKS; cy++) {
+                long key = chunkKey(cx, cy);
+                boolean generated = generatedChunks.contains(key);
+                if (generated && !hasStoneTilesOutsideExclusion(deferredStoneTiles.get(key), x, y)) {
+                    continue;
+                }
+                if (!pendingChunks.add(key)) {
+                    continue;
+                }
+                
+                final int chunkX = cx;
+                final int chunkY = cy;
+                try {
+                    worker.execute(() -> {
+                        ChunkPlan plan;
+                        try {
+                            plan = generated ? planDeferredStones(chunkX, chunkY, x, y) : planChunk(chunkX, chunkY, x, y);
+                        } catch (Exception e) {
+                            System.err.println("[ChunkGeneration] Error generating chunk " + chunkX + "," + chunkY + ": " + e.getMessage());
+                            pendingChunks.remove(key);
+                            return;
+                        }
+                        applyOnTickThread(plan, key);
+                    });
+                } catch (RejectedExecutionException e) {
+                    // Server is shutting down
+                    pendingChunks.remove(key);
+                    return;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Applies a chunk plan where WorldState is mutated: on the tick thread, or
+     * right away on the worker when the server runs without a tick loop and
+     * handles every message on its connection threads.
+     */
+    private void applyOnTickThread(ChunkPlan plan, long key) {
+        ServerTickLoop tickLoop = server.getTickLoop();
+        if (tickLoop == null || !tickLoop.submit(() -> apply(plan, key))) {
+            apply(plan, key);
+        }
+    }
+    
+    private void apply(ChunkPlan plan, long key) {
+        if (isOffTickThread()) {
+            // The tick loop started after refusing the plan, so hand it over again
+            try {
+                worker.execute(() -> applyOnTickThread(plan, key));
+            } catch (RejectedExecutionException e) {
+                // Server is shutting down
+                pendingChunks.remove(key);
+            }
+            return;
+        }
+        try {
+            applyChunk(plan);
+        } catch (Exception e) {
+            System.err.println("[ChunkGeneration] Error generating chunk " + plan.chunkX + "," + plan.chunkY + ": " + e.getMessage());
+        } finally {
+            pendingChunks.remove(key);
+        }
+    }
+    
+    private boolean isOffTickThread() {
+        ServerTickLoop tickLoop = server.getTickLoop();
+        return tickLoop != null && tickLoop.isRunning() && !tickLoop.isTickThread();
+    }
+    
+    /**
+     * Trees and stones planned for one chunk, not yet added to the world.
+     */
+    static final class ChunkPlan {
+        final int chunkX, chunkY;
+        final float playerX, playerY;
+        final List<WorldState.TreePlan> trees = new ArrayList<>();
+        final List<StoneState> stones = new ArrayList<>();
+        final LongHashSet deferredStoneTiles = new LongHashSet();
+        
+        ChunkPlan(int chunkX, int chunkY, float playerX, float playerY) {
+            this.chunkX = chunkX;
+            this.chunkY = chunkY;
+            this.playerX = playerX;
+            this.playerY = playerY;
+        }
+    }
+    
+    /**
+     * Generates all trees and stones in one chunk and pushes newly created
+     * entities to nearby clients, on the calling thread.
+     * 
+     * @param chunkX The chunk column
+     * @param chunkY The chunk row
+     * @param playerX The x-coordinate of the player that requested the chunk
+     * @param playerY The y-coordinate of the player that requested the chunk
+     * @return The number of new entities created
+     */
+    int generateChunk(int chunkX, int chunkY, float playerX, float playerY) {
+        ChunkPlan plan = planChunk(chunkX, chunkY, playerX, playerY);
+        return plan != null ? applyChunk(plan) : 0;
+    }
+    
+    /**
+     * Works out the trees and stones of one chunk from the seed and the biomes,
+     * without reading or changing the world's entities.
+     * 
+     * @return The plan, or null if the server has no world
+     */
+    ChunkPlan planChunk(int chunkX, int chunkY, float playerX, float playerY) {
+        WorldState worldState = server.getWorldState();
+        if (worldState == null) {
+            return null;
+        }
+        
+        ChunkPlan plan = new ChunkPlan(chunkX, chunkY, playerX, playerY);
+        int originX = chunkX * CHUNK_SIZE;
+        int originY = chunkY * CHUNK_SIZE;
+        
+        for (int tx = 0; tx < CHUNK_TILES; tx++) {
+            for (int ty = 0; ty < CHUNK_TILES; ty++) {
+                int x = originX + tx * TILE_SIZE;
+                int y = originY + ty * TILE_SIZE;
+                
+                // Nearly every tile fails both spawn rolls, which need no allocation
+                if (worldState.passesTreeSpawnRoll(x, y)) {
+                    plan.trees.add(worldState.planTreeAt(x, y));
+                }
+                if (worldState.passesStoneSpawnRoll(x, y)) {
+                    planStone(worldState, plan, x, y);
+                }
+            }
+        }
+        return plan;
+    }
+    
+    /**
+     * Plans only the stone tiles a generated chunk skipped because the player
+     * was too close, for a request from a new position.
+     * 
+     * @return The plan, or null if the server has no world
+     */
+    ChunkPlan planDeferredStones(int chunkX, int chunkY, float playerX, float playerY) {
+        WorldState worldState = server.getWorldState();
+        if (worldState == null) {
+            return null;
+        }
+        
+        ChunkPlan plan = new ChunkPlan(chunkX, chunkY, playerX, playerY);
+        long[] tiles = deferredStoneTiles.get(chunkKey(chunkX, chunkY));
+        if (tiles != null) {
+            for (long tile : tiles) {
+                planStone(worldState, plan, TileKey.x(tile), TileKey.y(tile));
+            }
+        }
+        return plan;
+    }
+    
+    private void planStone(WorldState worldState, ChunkPlan plan, int x, int y) {
+        StoneState stone = worldState.planStoneAt(x, y, plan.playerX, plan.playerY);
+        if (stone != null) {
+            plan.stones.add(stone);
+        } else if (isInStoneExclusion(x, y, plan.playerX, plan.playerY)) {
+            // May only have been skipped for being too close to the player
+            plan.deferredStoneTiles.add(TileKey.pack(x, y));
+        }
+    }
+    
+    /**
+     * Adds a chunk's planned trees and stones to the world, skipping tiles that
+     * are occupied or were cleared, and pushes the new entities to nearby clients.
+     * Must run on the thread that mutates WorldState.
+     * 
+     * Stone tiles skipped for being too close to the requesting player are
+     * recorded with the chunk, replacing any recorded before, so only those tiles
+     * are planned again once the player has moved on.
+     * 
+     * @param plan The plan from {@link #planChunk}
+     * @return The number of new entities created
+     */
+    int applyChunk(ChunkPlan plan) {
+        WorldState worldState = server.getWorldState();
+        if (worldState == null) {
+            return 0;
+        }
+        if (isOffTickThread()) {
+            throw new IllegalStateException("Chunks must be applied on the tick thread while the tick loop runs");
+        }
+        
+        List<NetworkMessage> created = new ArrayList<>();
+        for (WorldState.TreePlan treePlan : plan.trees) {
+            TreeState tree = worldState.placePlannedTree(treePlan);
+            if (tree != null) {
+                created.add(new TreeCreatedMessage("server", tree.getTreeId(), tree.getType(),
+                    tree.getX(), tree.getY(), tree.getHealth()));
+            }
+        }
+        for (StoneState plannedStone : plan.stones) {
+            StoneState stone = worldState.placePlannedStone(plannedStone);
+            if (stone != null) {
+                created.add(new StoneCreatedMessage("server", stone.getStoneId(),
+                    stone.getX(), stone.getY(), stone.getHealth()));
+            }
+        }
+        
+        long key = chunkKey(plan.chunkX, plan.chunkY);
+        if (plan.deferredStoneTiles.isEmpty()) {
+            deferredStoneTiles.remove(key);
+        } else {
+            deferredStoneTiles.put(key, plan.deferredStoneTiles.toArray());
+        }
+        generatedChunks.add(key);
+        
+        int originX = plan.chunkX * CHUNK_SIZE;
+        int originY = plan.chunkY * CHUNK_SIZE;
+        
+        if (!created.isEmpty()) {
+            pushToNearbyClients(created, originX + CHUNK_SIZE / 2.0f, originY + CHUNK_SIZE / 2.0f);
+        }
+        
+        return created.size();
+    }
+    
+    /**
+     * Sends newly created entities to every client whose player is near the chunk.
+     */
+    private void pushToNearbyClients(List<NetworkMessage> messages, float centerX, float centerY) {
+        float radiusSquared = PUSH_RADIUS * PUSH_RADIUS;
+        
+        for (ClientConnection client : server.getAllClients()) {
+            PlayerState player = client.getPlayerState();
+            if (player == null || !client.isAlive()) {
+                continue;
+            }
+            
+            float dx = player.getX() - centerX;
+            float dy = player.getY() - centerY;
+            if (dx * dx + dy * dy > radiusSquared) {
+                continue;
+            }
+            
+            try {
+                for (NetworkMessage message : messages) {
+                    client.sendMessage(message);
+                }
+            } catch (Exception e) {
+                System.err.println("[ChunkGeneration] Error sending new entities to client " +
+                                 client.getClientId() + ": " + e.getMessage());
+            }
+        }
+    }
+    
+    private static boolean hasStoneTilesOutsideExclusion(long[] tiles, float playerX, float playerY) {
+        if (tiles != null) {
+            for (long tile : tiles) {
+                if (!isInStoneExclusion(TileKey.x(tile), TileKey.y(tile), playerX, playerY)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    private static boolean isInStoneExclusion(int x, int y, float playerX, float playerY) {
+        // Stone candidates lie within half a tile of their tile origin
+        float half = TILE_SIZE / 2.0f;
+        float nearestX = Math.max(x - half, Math.min(playerX, x + half));
+        float nearestY = Math.max(y - half, Math.min(playerY, y + half));
+        float dx = playerX - nearestX;
+        float dy = playerY - nearestY;
+        return dx * dx + dy * dy < STONE_PLAYER_EXCLUSION * STONE_PLAYER_EXCLUSION;
+    }
+    
+    /**
+     * Forgets the last known chunk of a player, e.g. after disconnecting.
+     * @param playerId The player (client) ID
+     */
+    public void removePlayer(String playerId) {
+        if (playerId != null) {
+            lastPlayerChunks.remove(playerId);
+        }
+    }
+    
+    /**
+     * Checks whether a chunk has been generated.
+     * @param chunkX The chunk column
+     * @param chunkY The chunk row
+     * @return true if the chunk will not be generated again, apart from skipped stone tiles
+     */
+    public boolean isChunkGenerated(int chunkX, int chunkY) {
+        return generatedChunks.contains(chunkKey(chunkX, chunkY));
+    }
+    
+    /**
+     * Gets the number of stone tiles a generated chunk skipped because the player was too close.
+     * @param chunkX The chunk column
+     * @param chunkY The chunk row
+     * @return The skipped tile count
+     */
+    public int getDeferredStoneTileCount(int chunkX, int chunkY) {
+        long[] tiles = deferredStoneTiles.get(chunkKey(chunkX, chunkY));
+        return tiles != null ? tiles.length : 0;
+    }
+    
+    /**
+     * Gets the number of generated chunks.
+     * @return The generated chunk count
+     */
+    public int getGeneratedChunkCount() {
+        return generatedChunks.size();
+    }
+    
+    /**
+     * Gets the number of chunks queued or currently generating.
+     * @return The pending chunk count
+     */
+    public int getPendingChunkCount() {
+        return pendingChunks.size();
+    }
+    
+    /**
+     * Waits until all queued chunks have been generated.
+     * @param timeoutMillis Maximum time to wait
+     * @return true if the queue drained before the timeout
+     */
+    boolean awaitIdle(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!pendingChunks.isEmpty()) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+    
+    /**
+     * Stops the generation worker. Queued chunks are discarded.
+     */
+    public void shutdown() {
+        worker.shutdownNow();
+        try {
+            worker.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pendingChunks.clear();
+    }
+    
+    /**
+     * Converts a world coordinate to a chunk coordinate.
+     * @param value World coordinate in pixels
+     * @return The chunk coordinate
+     */
+    public static int chunkCoord(float value) {
+        return (int) Math.floor(value / CHUNK_SIZE);
+    }
+    
+    private static long chunkKey(int chunkX, int chunkY) {
+        return TileKey.pack(chunkX, chunkY);
+    }
+}
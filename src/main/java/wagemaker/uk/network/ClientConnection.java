@@ -1,15 +1,19 @@
 package wagemaker.uk.network;
 
-import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.net.Socket;
 import java.net.SocketException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+import wagemaker.uk.server.ServerConfig;
+import wagemaker.uk.world.PickupIndex;
 
 /**
  * ClientConnection manages an individual client's connection to the server.
@@ -19,32 +23,43 @@ public class ClientConnection implements Runnable {
     private static final long HEARTBEAT_INTERVAL = 5000; // 5 seconds
     private static final long CLIENT_TIMEOUT = 15000; // 15 seconds
     private static final int MESSAGE_RATE_LIMIT = 100; // messages per second
-    private static final int MAX_MESSAGE_SIZE = 65536; // 64KB max message size
+    static final int MAX_MESSAGE_SIZE = 65536; // 64KB max message size
     private static final float MAX_SPEED = 500.0f; // pixels per second
     private static final float UPDATE_RATE = 20.0f; // updates per second
     private static final float MAX_DISTANCE_PER_UPDATE = MAX_SPEED / UPDATE_RATE * 2; // ~50 pixels with buffer
     private static final float ATTACK_RANGE = 100.0f; // pixels
-    private static final float PICKUP_RANGE = 50.0f; // pixels
+    private static final float PICKUP_RANGE = PickupIndex.PICKUP_RANGE + 18.0f; // pixels per axis, with latency allowance
+    private static final float PLAYER_SIZE = 64.0f; // collision box, matches Player.wouldCollide
     private static final long PLAYER_ATTACK_COOLDOWN_MS = 500; // 500 milliseconds
     private static final float PLAYER_DAMAGE = 10.0f; // damage per attack
     private static final int MAX_GHOST_TREE_ATTACKS = 10; // Maximum ghost tree attacks before disconnect
     private static final long INVENTORY_SYNC_INTERVAL = 10000; // 10 seconds
+    private static final int OUTBOUND_BATCH_SIZE = 64; // messages written per flush
+    private static final long OUTBOUND_FLUSH_TIMEOUT = 250; // milliseconds to flush on disconnect
     
     private Socket socket;
-    private ObjectInputStream input;
-    private ObjectOutputStream output;
+    private OutboundTransport transport;
+    private final MessageTransport receiver; // Null when the NIO selector reads the messages
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private final OutboundMessageQueue outbound;
+    private final Executor writerExecutor;
     private String clientId;
     private PlayerState playerState;
     private GameServer server;
     private Thread receiveThread;
-    private long lastHeartbeat;
+    private volatile long lastHeartbeat;
     private long lastMessageTime;
     private int messageCount;
-    private boolean running;
+    private volatile boolean running;
     private Map<String, Long> playerAttackCooldowns;
     private Map<String, Integer> ghostTreeAttempts;
     private boolean isFirstPositionUpdate = true;
+    private int lastMovementSequence; // Latest client input sequence processed, 0 if unsequenced
+    private int lastCorrectionSequence; // Sequence acknowledged by the last position correction, 0 if none
+    private int skippedSinceCorrection; // Updates skipped until the client applied that correction
+    private long lastCorrectionTime; // When that correction was sent
     private long lastInventorySync;
+    private volatile WorldStreamer worldStreamer; // Initial world download in progress, if any
     
     /**
      * Creates a new ClientConnection.
@@ -54,6 +69,37 @@ public class ClientConnection implements Runnable {
      * @throws IOException if streams cannot be created
      */
     public ClientConnection(Socket socket, String clientId, GameServer server) throws IOException {
+        // Negotiate the wire protocol (binary, or Java serialization for legacy clients)
+        this(socket, clientId, server, ProtocolNegotiator.accept(socket, MAX_MESSAGE_SIZE));
+    }
+    
+    /**
+     * Creates a new ClientConnection over an already negotiated transport.
+     * @param socket The client's socket
+     * @param clientId The unique client identifier
+     * @param server The game server instance
+     * @param transport The transport used to exchange messages with the client
+     */
+    public ClientConnection(Socket socket, String clientId, GameServer server, MessageTransport transport) {
+        this(socket, clientId, server, transport, transport, server.getWriterExecutor());
+    }
+    
+    /**
+     * Creates a new ClientConnection whose messages are read elsewhere and passed
+     * to {@link #processMessage(NetworkMessage)}, so {@link #run()} is not used.
+     * @param socket The client's socket
+     * @param clientId The unique client identifier
+     * @param server The game server instance
+     * @param transport The transport used to send messages to the client
+     * @param writerExecutor The executor that runs this client's writer task
+     */
+    ClientConnection(Socket socket, String clientId, GameServer server, OutboundTransport transport, 
+                     Executor writerExecutor) {
+        this(socket, clientId, server, transport, null, writerExecutor);
+    }
+    
+    private ClientConnection(Socket socket, String clientId, GameServer server, OutboundTransport transport,
+                             MessageTransport receiver, Executor writerExecutor) {
         this.socket = socket;
         this.clientId = clientId;
         this.server = server;
@@ -65,10 +111,17 @@ public class ClientConnection implements Runnable {
         this.ghostTreeAttempts = new HashMap<>();
         this.lastInventorySync = System.currentTimeMillis();
         
-        // Create output stream first (important for ObjectStream protocol)
-        this.output = new ObjectOutputStream(socket.getOutputStream());
-        this.output.flush();
-        this.input = new ObjectInputStream(socket.getInputStream());
+        this.transport = transport;
+        this.receiver = receiver;
+        System.out.println("Client " + clientId + " using protocol: " + transport.getProtocolName());
+        
+        // Outbound messages are queued and written by a per-client writer task
+        this.writerExecutor = writerExecutor;
+        ServerConfig config = server.getConfig();
+        this.outbound = new OutboundMessageQueue(config.getOutboundQueueSize(),
+            config.isOutboundOverflowDisconnect() 
+                ? OutboundMessageQueue.OverflowPolicy.DISCONNECT 
+                : OutboundMessageQueue.OverflowPolicy.DROP_STALE_MOVEMENT);
         
         // Initialize player state
         this.playerState = new PlayerState();
@@ -84,53 +137,16 @@ public class ClientConnection implements Runnable {
     
     /**
      * Main run loop for handling client messages.
-     * This method is executed in a thread pool.
+     * This method is executed in a thread pool, for connections created with
+     * a {@link MessageTransport} to read from.
      */
     @Override
     public void run() {
+        if (receiver == null) {
+            throw new IllegalStateException("Client " + clientId + " has no transport to read from");
+        }
         try {
-            // Send connection accepted message with client ID and planting range
-            int plantingMaxRange = server.getConfig().getPlantingMaxRange();
-            sendMessage(new ConnectionAcceptedMessage("server", clientId, "Welcome to the server!", plantingMaxRange));
-            
-            // Send initial world state
-            WorldState snapshot = server.getWorldState().createSnapshot();
-            sendMessage(new WorldStateMessage("server", 
-                snapshot.getWorldSeed(),
-                snapshot.getPlayers(),
-                snapshot.getTrees(),
-                snapshot.getStones(),
-                snapshot.getItems(),
-                snapshot.getClearedPositions(),
-                snapshot.getRainZones()));
-            
-            // Send respawn state to synchronize pending respawn timers
-            server.sendRespawnStateToClient(this);
-            
-            // Add player to world state
-            server.getWorldState().addOrUpdatePlayer(playerState);
-            
-            // Request all existing clients to broadcast their character sprites to the new client
-            // This ensures the new client sees everyone's correct character sprites
-            System.out.println("[SERVER] Requesting all existing clients to send their character sprites to new client " + clientId);
-            
-            // Create a special message type to request character sprite broadcast
-            // We'll use a PlayerJoinMessage with a special marker to trigger the broadcast
-            wagemaker.uk.network.PlayerJoinMessage refreshRequest = 
-                new wagemaker.uk.network.PlayerJoinMessage(
-                    "server",
-                    "REFRESH_CHARACTER_SPRITES",
-                    clientId, // Put the new client ID in the characterSprite field as a marker
-                    0,
-                    0
-                );
-            server.broadcastToAllExcept(refreshRequest, clientId);
-            
-            // Notify other clients about new player
-            PlayerJoinMessage joinMessage = new PlayerJoinMessage(clientId, 
-                playerState.getPlayerName(), playerState.getCharacterSprite(), 
-                playerState.getX(), playerState.getY());
-            server.broadcastToAllExcept(joinMessage, clientId);
+            onConnected();
             
             // Start message receiving loop
             receiveMessages();
@@ -143,61 +159,120 @@ public class ClientConnection implements Runnable {
     }
     
     /**
-     * Receives and processes messages from the client.
+     * Sends the welcome message and world state to the client and announces
+     * the new player to everyone else. Called once before any message is processed.
+     */
+    void onConnected() {
+        // Send connection accepted message with client ID and planting range
+        int plantingMaxRange = server.getConfig().getPlantingMaxRange();
+        sendMessage(new ConnectionAcceptedMessage("server", clientId, "Welcome to the server!", plantingMaxRange));
+        
+        // Send initial world state, with only the players in this client's area of interest;
+        // the others are announced when they come into view. Trees, stones, items and
+        // cleared positions follow in chunks, nearest first, paced by the writer.
+        WorldState worldState = server.getWorldState();
+        Map<String, PlayerState> nearbyPlayers = new HashMap<>();
+        for (PlayerState other : worldState.getPlayers().values()) {
+            if (InterestManager.isWithinInterest(playerState.getX(), playerState.getY(), other.getX(), other.getY())) {
+                nearbyPlayers.put(other.getPlayerId(), other);
+            }
+        }
+        if (!transport.supportsWorldStreaming()) {
+            // Legacy clients have no WorldChunkMessage, so they get the whole world at once
+            WorldState snapshot = worldState.createSnapshot();
+            sendMessage(new WorldStateMessage("server", 
+                snapshot.getWorldSeed(),
+                nearbyPlayers,
+                snapshot.getTrees(),
+                snapshot.getStones(),
+                snapshot.getItems(),
+                snapshot.getClearedPositions(),
+                snapshot.getRainZones()));
+        } else {
+            WorldStreamer streamer = new WorldStreamer(this, server, playerState.getX(), playerState.getY());
+            sendMessage(new WorldStateMessage("server", 
+                worldState.getWorldSeed(),
+                nearbyPlayers,
+                new ArrayList<>(worldState.getRainZones()),
+                streamer.getChunkCount()));
+            if (!streamer.isComplete()) {
+                worldStreamer = streamer;
+                streamer.requestMoreChunks();
+            }
+        }
+        
+        // Send respawn state to synchronize pending respawn timers
+        server.sendRespawnStateToClient(this);
+        
+        // With a tick loop, the player joins the world on the tick thread
+        ServerTickLoop tickLoop = server.getTickLoop();
+        if (tickLoop == null || !tickLoop.submit(this::joinWorld)) {
+            joinWorld();
+        }
+    }
+    
+    /**
+     * Adds the player to the world state and announces them to everyone else.
+     */
+    private void joinWorld() {
+        if (!running) {
+            return;
+        }
+        
+        // Add player to world state
+        server.getWorldState().addOrUpdatePlayer(playerState);
+        
+        // Subscribe to the surrounding area (the snapshot and join message cover the initial view)
+        server.getInterestManager().updateClient(this, playerState.getX(), playerState.getY());
+        
+        // Request all existing clients to broadcast their character sprites to the new client
+        // This ensures the new client sees everyone's correct character sprites
+        System.out.println("[SERVER] Requesting all existing clients to send their character sprites to new client " + clientId);
+        
+        // Create a special message type to request character sprite broadcast
+        // We'll use a PlayerJoinMessage with a special marker to trigger the broadcast
+        wagemaker.uk.network.PlayerJoinMessage refreshRequest = 
+            new wagemaker.uk.network.PlayerJoinMessage(
+                "server",
+                "REFRESH_CHARACTER_SPRITES",
+                clientId, // Put the new client ID in the characterSprite field as a marker
+                0,
+                0
+            );
+        server.broadcastToAllExcept(refreshRequest, clientId);
+        
+        // Notify nearby clients about new player
+        PlayerJoinMessage joinMessage = new PlayerJoinMessage(clientId, 
+            playerState.getPlayerName(), playerState.getCharacterSprite(), 
+            playerState.getX(), playerState.getY());
+        server.broadcastToInterestedExcept(joinMessage, playerState.getX(), playerState.getY(), clientId);
+    }
+    
+    /**
+     * Receives and processes messages from the client. Oversized messages and
+     * objects that are not messages are logged and dropped, except that an
+     * oversized message from a legacy client ends the connection, because its
+     * serialization stream cannot be read past the point where reading stopped.
      */
     private void receiveMessages() {
         while (running && !socket.isClosed()) {
             try {
-                // Check for timeout
-                if (System.currentTimeMillis() - lastHeartbeat > CLIENT_TIMEOUT) {
-                    System.out.println("Client " + clientId + " timed out");
-                    logSecurityViolation("Connection timeout");
+                if (!checkConnection()) {
                     break;
                 }
                 
-                // Check if inventory sync is needed
-                long syncTime = System.currentTimeMillis();
-                if (syncTime - lastInventorySync >= INVENTORY_SYNC_INTERVAL) {
-                    sendInventorySync();
-                    lastInventorySync = syncTime;
-                }
+                // Read message (the transport rejects objects that are not NetworkMessages
+                // and messages larger than MAX_MESSAGE_SIZE before decoding them)
+                NetworkMessage message = receiver.receive();
                 
-                // Check rate limiting
-                long currentTime = System.currentTimeMillis();
-                if (currentTime - lastMessageTime > 1000) {
-                    // Reset counter every second
-                    messageCount = 0;
-                    lastMessageTime = currentTime;
-                }
+                processMessage(message);
                 
-                if (messageCount >= MESSAGE_RATE_LIMIT) {
-                    System.out.println("Client " + clientId + " exceeded rate limit");
-                    logSecurityViolation("Rate limit exceeded: " + messageCount + " messages/sec");
+            } catch (MessageTooLargeException e) {
+                reportOversizedMessage();
+                if (!e.isFrameSkipped()) {
+                    // Legacy stream is mid-object and cannot be resynchronized
                     break;
                 }
-                
-                // Read message with size validation
-                Object obj = input.readObject();
-                
-                // Validate message type
-                if (!(obj instanceof NetworkMessage)) {
-                    System.err.println("Invalid message type from " + clientId);
-                    logSecurityViolation("Invalid message type: " + obj.getClass().getName());
-                    continue;
-                }
-                
-                NetworkMessage message = (NetworkMessage) obj;
-                
-                // Validate message size (approximate check using serialization)
-                if (!validateMessageSize(message)) {
-                    System.err.println("Message too large from " + clientId);
-                    logSecurityViolation("Message size exceeds limit");
-                    continue;
-                }
-                
-                messageCount++;
-                handleMessage(message);
-                
             } catch (SocketException e) {
                 // Socket closed, exit gracefully
                 break;
@@ -210,16 +285,147 @@ public class ClientConnection implements Runnable {
                     System.err.println("IO error receiving message from " + clientId + ": " + e.getMessage());
                 }
                 break;
+            } catch (InvalidMessageTypeException e) {
+                reportInvalidMessageType(e);
             } catch (ClassNotFoundException e) {
-                System.err.println("Unknown message type from " + clientId + ": " + e.getMessage());
-                logSecurityViolation("Unknown message class: " + e.getMessage());
+                reportUnknownMessageClass(e);
             } catch (Exception e) {
-                System.err.println("Unexpected error from " + clientId + ": " + e.getMessage());
-                logSecurityViolation("Unexpected error: " + e.getMessage());
+                reportUnexpectedError(e);
+            }
+        }
+    }
+    
+    /**
+     * Runs the checks made before each incoming message: heartbeat timeout,
+     * periodic inventory sync and the per-second rate limit.
+     * @return true if the connection may continue, false if it should be closed
+     */
+    boolean checkConnection() {
+        return checkHeartbeat() && checkRateLimit();
+    }
+    
+    /**
+     * Checks the heartbeat timeout and sends the periodic inventory sync.
+     * The NIO transport also calls this for idle clients.
+     * @return false if the client timed out
+     */
+    boolean checkHeartbeat() {
+        // Check for timeout
+        if (System.currentTimeMillis() - lastHeartbeat > CLIENT_TIMEOUT) {
+            System.out.println("Client " + clientId + " timed out");
+            logSecurityViolation("Connection timeout");
+            return false;
+        }
+        
+        // Check if inventory sync is needed
+        long syncTime = System.currentTimeMillis();
+        if (syncTime - lastInventorySync >= INVENTORY_SYNC_INTERVAL) {
+            sendInventorySync();
+            lastInventorySync = syncTime;
+        }
+        
+        return true;
+    }
+    
+    private boolean checkRateLimit() {
+        // Check rate limiting
+        long currentTime = System.currentTimeMillis();
+        if (currentTime - lastMessageTime > 1000) {
+            // Reset counter every second
+            messageCount = 0;
+            lastMessageTime = currentTime;
+        }
+        
+        if (messageCount >= MESSAGE_RATE_LIMIT) {
+            System.out.println("Client " + clientId + " exceeded rate limit");
+            logSecurityViolation("Rate limit exceeded: " + messageCount + " messages/sec");
+            return false;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Counts a received message against the rate limit and handles it.
+     * @param message The decoded message
+     */
+    void processMessage(NetworkMessage message) {
+        messageCount++;
+        
+        // Heartbeats and pings are answered at once; everything else is applied by the tick loop
+        ServerTickLoop tickLoop = server.getTickLoop();
+        MessageType type = message.getType();
+        if (tickLoop == null || type == MessageType.HEARTBEAT || type == MessageType.PING) {
+            handleMessage(message);
+            return;
+        }
+        
+        lastHeartbeat = System.currentTimeMillis();
+        if (!tickLoop.submit(() -> handleQueuedMessage(message))) {
+            handleMessage(message);
+        }
+    }
+    
+    /**
+     * Handles a message on the tick thread. A handler that drops the client only
+     * clears the running flag, so the connection is closed off the tick thread.
+     * @param message The message to handle
+     */
+    private void handleQueuedMessage(NetworkMessage message) {
+        if (!running) {
+            return;
+        }
+        
+        try {
+            handleMessage(message);
+        } catch (Exception e) {
+            reportUnexpectedError(e);
+        }
+        
+        if (!running) {
+            try {
+                writerExecutor.execute(this::close);
+            } catch (RejectedExecutionException e) {
+                transport.close();
             }
         }
     }
     
+    /**
+     * Logs a message rejected for exceeding MAX_MESSAGE_SIZE.
+     */
+    void reportOversizedMessage() {
+        System.err.println("Message too large from " + clientId);
+        logSecurityViolation("Message size exceeds limit");
+    }
+    
+    /**
+     * Logs a received object that is not a NetworkMessage.
+     * @param e The rejection
+     */
+    void reportInvalidMessageType(InvalidMessageTypeException e) {
+        System.err.println("Invalid message type from " + clientId);
+        logSecurityViolation("Invalid message type: " + e.getReceivedClassName());
+    }
+    
+    /**
+     * Logs a message whose class could not be resolved.
+     * @param e The resolution failure
+     */
+    void reportUnknownMessageClass(ClassNotFoundException e) {
+        System.err.println("Unknown message type from " + clientId + ": " + e.getMessage());
+        logSecurityViolation("Unknown message class: " + e.getMessage());
+    }
+    
+    /**
+     * Logs an unexpected error raised while handling a message.
+     * @param e The error
+     */
+    void reportUnexpectedError(Exception e) {
+        System.err.println("Unexpected error from " + clientId + ": " + e.getMessage());
+        logSecurityViolation("Unexpected error: " + e.getMessage());
+    }
+    
     /**
      * Handles an incoming message from the client.
      * @param message The message to handle
@@ -232,92 +438,94 @@ public class ClientConnection implements Runnable {
             case HEARTBEAT:
                 // Just update heartbeat timestamp (already done above)
                 break;
-                
+            
             case PLAYER_MOVEMENT:
                 handlePlayerMovement((PlayerMovementMessage) message);
                 break;
-                
+            
             case ATTACK_ACTION:
                 handleAttackAction((AttackActionMessage) message);
                 break;
-                
+            
             case ITEM_PICKUP:
                 handleItemPickup((ItemPickupMessage) message);
                 break;
-                
+            
             case PING:
                 handlePing((PingMessage) message);
                 break;
-                
+            
             case PLAYER_HEALTH_UPDATE:
                 handlePlayerHealthUpdate((PlayerHealthUpdateMessage) message);
                 break;
-                
+            
             case PLAYER_HUNGER_UPDATE:
                 handlePlayerHungerUpdate((PlayerHungerUpdateMessage) message);
                 break;
-                
+            
             case ITEM_CONSUMPTION:
                 handleItemConsumption((ItemConsumptionMessage) message);
                 break;
-                
+            
             case INVENTORY_UPDATE:
                 handleInventoryUpdate((InventoryUpdateMessage) message);
                 break;
-                
+            
             case BAMBOO_PLANT:
                 handleBambooPlant((BambooPlantMessage) message);
                 break;
-                
+            
             case BAMBOO_TRANSFORM:
                 handleBambooTransform((BambooTransformMessage) message);
                 break;
-                
+            
             case TREE_PLANT:
                 handleTreePlant((TreePlantMessage) message);
                 break;
-                
+            
             case TREE_TRANSFORM:
                 handleTreeTransform((TreeTransformMessage) message);
                 break;
-                
+            
             case BANANA_TREE_PLANT:
                 handleBananaTreePlant((BananaTreePlantMessage) message);
                 break;
-                
+            
             case BANANA_TREE_TRANSFORM:
                 handleBananaTreeTransform((BananaTreeTransformMessage) message);
                 break;
-                
+            
             case APPLE_TREE_PLANT:
                 handleAppleTreePlant((AppleTreePlantMessage) message);
                 break;
-                
+            
             case APPLE_TREE_TRANSFORM:
                 handleAppleTreeTransform((AppleTreeTransformMessage) message);
                 break;
-                
+            
             case PLAYER_RESPAWN:
                 handlePlayerRespawn((PlayerRespawnMessage) message);
                 break;
-                
+            
             case PLAYER_FALL:
                 handlePlayerFall((PlayerFallMessage) message);
                 break;
-                
+            
             case PLAYER_INFO:
                 handlePlayerInfo((PlayerInfoMessage) message);
                 break;
-                
+            
             case RESOURCE_RESPAWN:
             case RESPAWN_STATE:
             case FREE_WORLD_ACTIVATION:
+            case PLAYER_VISIBILITY:
+            case WORLD_CHUNK:
                 // These messages are server-to-client only
                 // Clients should not send these to the server
                 System.err.println("Client " + clientId + " sent server-only message: " + message.getType());
                 logSecurityViolation("Attempted to send server-only message: " + message.getType());
                 break;
-                
+            
             default:
                 System.out.println("Unhandled message type from " + clientId + ": " + message.getType());
                 break;
@@ -349,23 +557,56 @@ public class ClientConnection implements Runnable {
             return;
         }
         
+        // Drop updates older than one already processed; corrections acknowledge the latest sequence
+        int sequence = message.getSequence();
+        int updatesCovered = 1;
+        if (sequence != 0) {
+            if (lastMovementSequence != 0 && sequence - lastMovementSequence <= 0) {
+                return;
+            }
+            lastMovementSequence = sequence;
+            
+            if (lastCorrectionSequence != 0) {
+                if (message.getCorrectionSequence() - lastCorrectionSequence < 0) {
+                    // Sent from the rejected position before the client applied the correction.
+                    // The client replays these steps on top of it, so the next update carries them.
+                    skippedSinceCorrection++;
+                    return;
+                }
+                // Skipped updates still count against the update rate, so a stream of stale
+                // updates cannot buy a longer jump than the time since the correction allows
+                long sinceCorrection = System.currentTimeMillis() - lastCorrectionTime;
+                long intervalsSinceCorrection = (long) (sinceCorrection * UPDATE_RATE / 1000);
+                updatesCovered += (int) Math.min(skippedSinceCorrection, intervalsSinceCorrection);
+                skippedSinceCorrection = 0;
+            }
+        }
+        
         // Validate position (speed check) - skip for first position update to allow saved position loading
         if (!isFirstPositionUpdate) {
             float dx = message.getX() - playerState.getX();
             float dy = message.getY() - playerState.getY();
             float distance = (float) Math.sqrt(dx * dx + dy * dy);
+            float maxDistance = MAX_DISTANCE_PER_UPDATE * updatesCovered;
             
-            if (distance > MAX_DISTANCE_PER_UPDATE) {
+            if (distance > maxDistance) {
                 // Possible cheating or desync, send correction
                 System.out.println("Invalid movement from " + clientId + ", distance: " + distance + 
-                                 " (max: " + MAX_DISTANCE_PER_UPDATE + ")");
+                                 " (max: " + maxDistance + ")");
                 logSecurityViolation("Speed check failed: distance=" + distance);
                 
                 // Send position correction to client
-                String reason = "Speed check failed: moved " + String.format("%.1f", distance) + " pixels";
-                sendMessage(new PositionCorrectionMessage("server", clientId,
-                    playerState.getX(), playerState.getY(), 
-                    playerState.getDirection(), reason));
+                sendPositionCorrection("Speed check failed: moved " + String.format("%.1f", distance) + " pixels");
+                return;
+            }
+            
+            // Collision check - reject moves into a tree trunk or stone, but never trap a player already inside one
+            WorldState worldState = server.getWorldState();
+            if (worldState.collidesWithStaticObject(message.getX(), message.getY(), PLAYER_SIZE, PLAYER_SIZE)
+                    && !worldState.collidesWithStaticObject(playerState.getX(), playerState.getY(), PLAYER_SIZE, PLAYER_SIZE)) {
+                System.out.println("Blocked movement from " + clientId + " into an obstacle at (" +
+                                 message.getX() + ", " + message.getY() + ")");
+                sendPositionCorrection("Collision check failed");
                 return;
             }
         } else {
@@ -384,14 +625,41 @@ public class ClientConnection implements Runnable {
         // Update in world state
         server.getWorldState().addOrUpdatePlayer(playerState);
         
+        // Follow the player with their area of interest (sends enter/leave notifications)
+        server.updateClientInterest(this);
+        
         // Update player sand area and process queued spawns
         server.getWorldState().updatePlayerSandArea(message.getX(), message.getY());
         
-        // Generate chunks around this player's new position
-        server.generateChunksAroundPlayers();
+        // Generate any chunks this player has just come within range of
+        server.generateChunksAroundPlayer(clientId, message.getX(), message.getY());
         
-        // Broadcast to other clients
-        server.broadcastToAllExcept(message, clientId);
+        // Stamp the relayed sample with server time so receivers interpolate on one clock
+        message.timestamp = System.currentTimeMillis();
+        message.setSequence(0); // Only meaningful to this connection
+        message.setCorrectionSequence(0);
+        
+        // Broadcast to other clients, or leave it to the tick loop to relay the latest position once per tick
+        ServerTickLoop tickLoop = server.getTickLoop();
+        if (tickLoop != null && tickLoop.isTickThread()) {
+            tickLoop.onPlayerMoved(message);
+        } else {
+            server.broadcastToInterestedExcept(message, message.getX(), message.getY(), clientId);
+        }
+    }
+    
+    /**
+     * Moves the client back to the server's position for the player. Later updates the
+     * client sent before applying the correction are skipped, see handlePlayerMovement.
+     * @param reason Why the client's position was rejected
+     */
+    private void sendPositionCorrection(String reason) {
+        lastCorrectionSequence = lastMovementSequence;
+        skippedSinceCorrection = 0;
+        lastCorrectionTime = System.currentTimeMillis();
+        sendMessage(new PositionCorrectionMessage("server", clientId,
+            playerState.getX(), playerState.getY(),
+            playerState.getDirection(), reason, lastMovementSequence));
     }
     
     /**
@@ -758,24 +1026,24 @@ public class ClientConnection implements Runnable {
             
             // Plant sapling immediately for SmallTree, AppleTree, BananaTree, BambooTree
             if (tree.getType() == TreeType.SMALL) {
-                server.getWorldState().getTrees().remove(targetId);
+                server.getWorldState().removeTreeWithoutClearing(targetId);
                 System.out.println("[DEBUG] Planting SmallTree sapling at key: " + targetId + " pos:(" + quantizedX + "," + quantizedY + ")");
                 TreePlantMessage plantMsg = new TreePlantMessage("server", targetId, quantizedX, quantizedY);
                 server.broadcastToAll(plantMsg);
                 server.getWorldState().getPlantedTrees().put(targetId, new PlantedTreeState(targetId, quantizedX, quantizedY, 0.0f));
                 System.out.println("[DEBUG] PlantedTrees now contains: " + server.getWorldState().getPlantedTrees().containsKey(targetId));
             } else if (tree.getType() == TreeType.APPLE) {
-                server.getWorldState().getTrees().remove(targetId);
+                server.getWorldState().removeTreeWithoutClearing(targetId);
                 AppleTreePlantMessage plantMsg = new AppleTreePlantMessage("server", targetId, quantizedX, quantizedY);
                 server.broadcastToAll(plantMsg);
                 server.getWorldState().getPlantedAppleTrees().put(targetId, new PlantedAppleTreeState(targetId, quantizedX, quantizedY, 0.0f));
             } else if (tree.getType() == TreeType.BANANA) {
-                server.getWorldState().getTrees().remove(targetId);
+                server.getWorldState().removeTreeWithoutClearing(targetId);
                 BananaTreePlantMessage plantMsg = new BananaTreePlantMessage("server", targetId, quantizedX, quantizedY);
                 server.broadcastToAll(plantMsg);
                 server.getWorldState().getPlantedBananaTrees().put(targetId, new PlantedBananaTreeState(targetId, quantizedX, quantizedY, 0.0f));
             } else if (tree.getType() == TreeType.BAMBOO) {
-                server.getWorldState().getTrees().remove(targetId);
+                server.getWorldState().removeTreeWithoutClearing(targetId);
                 BambooPlantMessage plantMsg = new BambooPlantMessage("server", targetId, quantizedX, quantizedY);
                 server.broadcastToAll(plantMsg);
                 server.getWorldState().getPlantedBamboos().put(targetId, new PlantedBambooState(targetId, quantizedX, quantizedY, 0.0f));
@@ -794,7 +1062,7 @@ public class ClientConnection implements Runnable {
         } else {
             // Broadcast health update
             TreeHealthUpdateMessage healthMsg = new TreeHealthUpdateMessage("server", targetId, newHealth);
-            server.broadcastToAll(healthMsg);
+            server.broadcastToInterested(healthMsg, tree.getX(), tree.getY());
         }
     }
     
@@ -851,7 +1119,7 @@ public class ClientConnection implements Runnable {
         } else {
             // Broadcast health update
             StoneHealthUpdateMessage healthMsg = new StoneHealthUpdateMessage("server", targetId, newHealth);
-            server.broadcastToAll(healthMsg);
+            server.broadcastToInterested(healthMsg, stone.getX(), stone.getY());
         }
     }
     
@@ -888,12 +1156,12 @@ public class ClientConnection implements Runnable {
             return;
         }
         
-        // Validate pickup distance
-        float dx = item.getX() - playerState.getX();
-        float dy = item.getY() - playerState.getY();
-        float distance = (float) Math.sqrt(dx * dx + dy * dy);
-        
-        if (distance > PICKUP_RANGE) {
+        // Validate pickup distance, measured between centres like the client's pickup check
+        if (!PickupIndex.isInRange(playerState.getX(), playerState.getY(), item.getType(),
+                                   item.getX(), item.getY(), PICKUP_RANGE)) {
+            float dx = item.getX() - playerState.getX();
+            float dy = item.getY() - playerState.getY();
+            float distance = (float) Math.sqrt(dx * dx + dy * dy);
             System.out.println("Pickup out of range from " + clientId + ": distance=" + distance);
             logSecurityViolation("Pickup range check failed: distance=" + distance);
             return;
@@ -1084,7 +1352,7 @@ public class ClientConnection implements Runnable {
                 PlayerHealthUpdateMessage healthMsg = new PlayerHealthUpdateMessage("server", clientId, newHealth);
                 server.broadcastToAll(healthMsg);
                 break;
-                
+            
             case BANANA:
                 playerState.setBananaCount(itemCount - 1);
                 // Reduce 5% hunger (minimum 0%)
@@ -1427,20 +1695,139 @@ public class ClientConnection implements Runnable {
     }
     
     /**
-     * Sends a message to this client.
+     * Queues a message for this client. The calling thread never writes to the
+     * socket, so a slow client cannot stall a broadcast to the other clients.
      * @param message The message to send
      */
     public void sendMessage(NetworkMessage message) {
+        if (!running) {
+            return;
+        }
+        
+        switch (outbound.offer(message)) {
+            case START_WRITER:
+                // Messages sent during a tick are flushed together when the tick ends
+                ServerTickLoop tickLoop = server.getTickLoop();
+                if (tickLoop == null || !tickLoop.deferWriter(this)) {
+                    startWriter();
+                }
+                break;
+            case OVERFLOW:
+                System.err.println("[SECURITY] Outbound queue overflow for client " + clientId + 
+                                 " (" + outbound.getCapacity() + " messages pending), disconnecting");
+                running = false;
+                transport.close();
+                break;
+            default:
+                break;
+        }
+    }
+    
+    /**
+     * Starts the writer task for messages already queued.
+     */
+    void startWriter() {
+        try {
+            writerExecutor.execute(this::drainOutbound);
+        } catch (RejectedExecutionException e) {
+            // Server is shutting down
+            outbound.releaseWriter();
+        }
+    }
+    
+    /**
+     * Restarts a writer that parked on a full transport buffer.
+     */
+    private void resumeWriter() {
+        try {
+            writerExecutor.execute(() -> {
+                continueWorldStream();
+                drainOutbound();
+            });
+        } catch (RejectedExecutionException e) {
+            // Server is shutting down
+            outbound.releaseWriter();
+        }
+    }
+    
+    /**
+     * Writer task: writes queued messages in batches with one flush per batch,
+     * until the queue is empty.
+     */
+    private void drainOutbound() {
+        List<NetworkMessage> batch = new ArrayList<>(OUTBOUND_BATCH_SIZE);
         try {
-            synchronized (output) {
-                output.writeObject(message);
-                output.flush();
-                output.reset(); // Prevent memory leaks from object caching
+            while (outbound.drainTo(batch, OUTBOUND_BATCH_SIZE) > 0) {
+                // A ReentrantLock rather than a monitor: a virtual thread blocked in a
+                // socket write while holding a monitor would pin its carrier thread
+                sendLock.lock();
+                try {
+                    for (NetworkMessage message : batch) {
+                        transport.write(message);
+                    }
+                    transport.flush();
+                } finally {
+                    sendLock.unlock();
+                }
+                batch.clear();
+                // Park while the transport's buffer is full, keeping the writer claimed so
+                // new messages wait in the bounded outbound queue under its overflow policy
+                if (transport.deferUntilWritable(this::resumeWriter)) {
+                    return;
+                }
+                continueWorldStream();
             }
         } catch (IOException e) {
             System.err.println("Error sending message to " + clientId + ": " + e.getMessage());
             running = false;
+            outbound.clear();
+            outbound.releaseWriter();
+        } catch (RuntimeException e) {
+            System.err.println("Unexpected error sending message to " + clientId + ": " + e.getMessage());
+            running = false;
+            outbound.clear();
+            outbound.releaseWriter();
+        }
+    }
+    
+    /**
+     * Queues the next chunks of the initial world download once the previous
+     * ones have been written.
+     */
+    private void continueWorldStream() {
+        WorldStreamer streamer = worldStreamer;
+        if (streamer == null) {
+            return;
         }
+        if (streamer.isComplete()) {
+            worldStreamer = null;
+        } else {
+            streamer.requestMoreChunks();
+        }
+    }
+    
+    /**
+     * Gets the number of messages waiting to be written to this client.
+     * @return The current outbound queue depth
+     */
+    public int getOutboundQueueDepth() {
+        return outbound.size();
+    }
+    
+    /**
+     * Gets the deepest this client's outbound queue has been.
+     * @return The maximum outbound queue depth observed
+     */
+    public int getOutboundQueueHighWaterMark() {
+        return outbound.getHighWaterMark();
+    }
+    
+    /**
+     * Gets the number of stale movement updates dropped for this client.
+     * @return The dropped message count
+     */
+    public long getDroppedOutboundCount() {
+        return outbound.getDroppedCount();
     }
     
     /**
@@ -1452,6 +1839,14 @@ public class ClientConnection implements Runnable {
                (System.currentTimeMillis() - lastHeartbeat < CLIENT_TIMEOUT);
     }
     
+    /**
+     * Checks whether the connection has been asked to stop, e.g. by a message handler.
+     * @return true until the connection is closed
+     */
+    boolean isRunning() {
+        return running;
+    }
+    
     /**
      * Closes the client connection and cleans up resources.
      */
@@ -1481,28 +1876,6 @@ public class ClientConnection implements Runnable {
         return Math.round(position);
     }
     
-    /**
-     * Validates the size of a message.
-     * @param message The message to validate
-     * @return true if the message size is acceptable, false otherwise
-     */
-    private boolean validateMessageSize(NetworkMessage message) {
-        try {
-            // Estimate message size using serialization
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ObjectOutputStream oos = new ObjectOutputStream(baos);
-            oos.writeObject(message);
-            oos.flush();
-            int size = baos.size();
-            oos.close();
-            
-            return size <= MAX_MESSAGE_SIZE;
-        } catch (IOException e) {
-            System.err.println("Error validating message size: " + e.getMessage());
-            return false;
-        }
-    }
-    
     /**
      * Logs a security violation for this client.
      * @param violation Description of the violation
@@ -2019,24 +2392,21 @@ public class ClientConnection implements Runnable {
     private void cleanup() {
         running = false;
         
-        // Remove player from world state
-        server.getWorldState().removePlayer(clientId);
-        
-        // Notify other clients
-        PlayerLeaveMessage leaveMsg = new PlayerLeaveMessage(clientId, playerState.getPlayerName());
-        server.broadcastToAllExcept(leaveMsg, clientId);
-        
-        // Close streams and socket
-        try {
-            if (input != null) input.close();
-        } catch (IOException e) {
-            // Ignore
+        // With a tick loop, the player leaves the world on the tick thread after
+        // any of their commands that are already queued
+        ServerTickLoop tickLoop = server.getTickLoop();
+        if (tickLoop == null || !tickLoop.submit(this::leaveWorld)) {
+            leaveWorld();
         }
         
+        // Give the writer a moment to deliver queued messages, then close streams and socket
         try {
-            if (output != null) output.close();
-        } catch (IOException e) {
-            // Ignore
+            outbound.awaitWriterIdle(OUTBOUND_FLUSH_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (transport != null) {
+            transport.close();
         }
         
         try {
@@ -2051,6 +2421,24 @@ public class ClientConnection implements Runnable {
         server.disconnectClient(clientId);
     }
     
+    /**
+     * Removes the player from the world state and tells everyone else they left.
+     */
+    private void leaveWorld() {
+        ServerTickLoop tickLoop = server.getTickLoop();
+        if (tickLoop != null && tickLoop.isTickThread()) {
+            tickLoop.forgetPlayer(clientId);
+        }
+        
+        // Remove player from world state
+        server.getWorldState().removePlayer(clientId);
+        server.getInterestManager().removeClient(this);
+        
+        // Notify other clients
+        PlayerLeaveMessage leaveMsg = new PlayerLeaveMessage(clientId, playerState.getPlayerName());
+        server.broadcastToAllExcept(leaveMsg, clientId);
+    }
+    
     /**
      * Gets the client ID.
      * @return The client ID
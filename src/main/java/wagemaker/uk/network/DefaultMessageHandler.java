@@ -22,159 +22,167 @@ public class DefaultMessageHandler implements MessageHandler {
                 case CONNECTION_ACCEPTED:
                     handleConnectionAccepted((ConnectionAcceptedMessage) message);
                     break;
-                    
+                
                 case CONNECTION_REJECTED:
                     handleConnectionRejected((ConnectionRejectedMessage) message);
                     break;
-                    
+                
                 case WORLD_STATE:
                     handleWorldState((WorldStateMessage) message);
                     break;
-                    
+                
                 case WORLD_STATE_UPDATE:
                     handleWorldStateUpdate((WorldStateUpdateMessage) message);
                     break;
-                    
+                
                 case PLAYER_MOVEMENT:
                     handlePlayerMovement((PlayerMovementMessage) message);
                     break;
-                    
+                
                 case PLAYER_JOIN:
                     handlePlayerJoin((PlayerJoinMessage) message);
                     break;
-                    
+                
                 case PLAYER_LEAVE:
                     handlePlayerLeave((PlayerLeaveMessage) message);
                     break;
-                    
+                
                 case PLAYER_HEALTH_UPDATE:
                     handlePlayerHealthUpdate((PlayerHealthUpdateMessage) message);
                     break;
-                    
+                
                 case PLAYER_HUNGER_UPDATE:
                     handlePlayerHungerUpdate((PlayerHungerUpdateMessage) message);
                     break;
-                    
+                
                 case ITEM_CONSUMPTION:
                     handleItemConsumption((ItemConsumptionMessage) message);
                     break;
-                    
+                
                 case TREE_HEALTH_UPDATE:
                     handleTreeHealthUpdate((TreeHealthUpdateMessage) message);
                     break;
-                    
+                
                 case TREE_DESTROYED:
                     handleTreeDestroyed((TreeDestroyedMessage) message);
                     break;
-                    
+                
                 case TREE_REMOVAL:
                     handleTreeRemoval((TreeRemovalMessage) message);
                     break;
-                    
+                
                 case STONE_HEALTH_UPDATE:
                     handleStoneHealthUpdate((StoneHealthUpdateMessage) message);
                     break;
-                    
+                
                 case STONE_DESTROYED:
                     handleStoneDestroyed((StoneDestroyedMessage) message);
                     break;
-                    
+                
                 case ITEM_SPAWN:
                     handleItemSpawn((ItemSpawnMessage) message);
                     break;
-                    
+                
                 case ITEM_PICKUP:
                     handleItemPickup((ItemPickupMessage) message);
                     break;
-                    
+                
                 case ATTACK_ACTION:
                     handleAttackAction((AttackActionMessage) message);
                     break;
-                    
+                
                 case HEARTBEAT:
                     handleHeartbeat((HeartbeatMessage) message);
                     break;
-                    
+                
                 case POSITION_CORRECTION:
                     handlePositionCorrection((PositionCorrectionMessage) message);
                     break;
-                    
+                
                 case PING:
                     handlePing((PingMessage) message);
                     break;
-                    
+                
                 case PONG:
                     handlePong((PongMessage) message);
                     break;
-                    
+                
                 case INVENTORY_SYNC:
                     handleInventorySync((InventorySyncMessage) message);
                     break;
-                    
+                
                 case BAMBOO_PLANT:
                     handleBambooPlant((BambooPlantMessage) message);
                     break;
-                    
+                
                 case BAMBOO_TRANSFORM:
                     handleBambooTransform((BambooTransformMessage) message);
                     break;
-                    
+                
                 case TREE_PLANT:
                     handleTreePlant((TreePlantMessage) message);
                     break;
-                    
+                
                 case TREE_TRANSFORM:
                     handleTreeTransform((TreeTransformMessage) message);
                     break;
-                    
+                
                 case BANANA_TREE_PLANT:
                     handleBananaTreePlant((BananaTreePlantMessage) message);
                     break;
-                    
+                
                 case BANANA_TREE_TRANSFORM:
                     handleBananaTreeTransform((BananaTreeTransformMessage) message);
                     break;
-                    
+                
                 case APPLE_TREE_PLANT:
                     handleAppleTreePlant((AppleTreePlantMessage) message);
                     break;
-                    
+                
                 case APPLE_TREE_TRANSFORM:
                     handleAppleTreeTransform((AppleTreeTransformMessage) message);
                     break;
-                    
+                
                 case TREE_CREATED:
                     handleTreeCreated((TreeCreatedMessage) message);
                     break;
-                    
+                
                 case STONE_CREATED:
                     handleStoneCreated((StoneCreatedMessage) message);
                     break;
-                    
+                
                 case RESOURCE_RESPAWN:
                     handleResourceRespawn((ResourceRespawnMessage) message);
                     break;
-                    
+                
                 case RESPAWN_STATE:
                     handleRespawnState((RespawnStateMessage) message);
                     break;
-                    
+                
                 case PLAYER_RESPAWN:
                     handlePlayerRespawn((PlayerRespawnMessage) message);
                     break;
-                    
+                
                 case PLAYER_FALL:
                     handlePlayerFall((PlayerFallMessage) message);
                     break;
-                    
+                
                 case FREE_WORLD_ACTIVATION:
                     handleFreeWorldActivation((FreeWorldActivationMessage) message);
                     break;
-                    
+                
                 case PLAYER_INFO:
                     handlePlayerInfo((PlayerInfoMessage) message);
                     break;
-                    
+                
+                case PLAYER_VISIBILITY:
+                    handlePlayerVisibility((PlayerVisibilityMessage) message);
+                    break;
+                
+                case WORLD_CHUNK:
+                    handleWorldChunk((WorldChunkMessage) message);
+                    break;
+                
                 default:
                     System.err.println("Unknown message type: " + message.getType());
             }
@@ -213,6 +221,9 @@ public class DefaultMessageHandler implements MessageHandler {
         System.out.println("  Players: " + message.getPlayers().size());
         System.out.println("  Trees: " + message.getTrees().size());
         System.out.println("  Items: " + message.getItems().size());
+        if (message.getStreamedChunkCount() > 0) {
+            System.out.println("  Chunks to follow: " + message.getStreamedChunkCount());
+        }
     }
     
     /**
@@ -549,4 +560,23 @@ public class DefaultMessageHandler implements MessageHandler {
         System.out.println("Player info update: " + message.getPlayerName() + 
                          ", sprite: " + message.getCharacterSprite());
     }
+    
+    /**
+     * Handles PLAYER_VISIBILITY message.
+     * Override this method to add or remove remote players as they come into or go out of view.
+     */
+    protected void handlePlayerVisibility(PlayerVisibilityMessage message) {
+        System.out.println("Player " + message.getPlayerId() + 
+                         (message.isVisible() ? " came into view" : " went out of view"));
+    }
+    
+    /**
+     * Handles WORLD_CHUNK message containing part of the initial world download.
+     * Override this method to apply the chunk to the game.
+     */
+    protected void handleWorldChunk(WorldChunkMessage message) {
+        if (message.isLastChunk()) {
+            System.out.println("Received last world chunk (" + message.getChunkCount() + " chunks)");
+        }
+    }
 }
@@ -1,10 +1,11 @@
 package wagemaker.uk.network;
 
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.net.Socket;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -13,8 +14,8 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public class GameClient {
     private Socket socket;
-    private ObjectOutputStream outputStream;
-    private ObjectInputStream inputStream;
+    private MessageTransport transport;
+    private boolean useLegacyProtocol;
     private Thread receiveThread;
     private String clientId;
     private AtomicBoolean connected;
@@ -24,18 +25,17 @@ public class GameClient {
     private long lastPositionUpdateTime;
     private static final long POSITION_UPDATE_INTERVAL_MS = 50; // 20 updates per second
     
-    // Message queue for thread-safe sending
-    private ConcurrentLinkedQueue<NetworkMessage> sendQueue;
+    // Message queue for thread-safe sending; the send thread blocks until messages arrive
+    private LinkedBlockingQueue<NetworkMessage> sendQueue;
     private Thread sendThread;
     
+    // Heartbeat and ping share one timer thread
+    private ScheduledExecutorService timer;
+    
     // Heartbeat system
-    private Thread heartbeatThread;
-    private long lastHeartbeatTime;
     private static final long HEARTBEAT_INTERVAL_MS = 5000; // 5 seconds
     
     // Latency measurement system
-    private Thread pingThread;
-    private long lastPingTime;
     private static final long PING_INTERVAL_MS = 2000; // 2 seconds
     private static final int LATENCY_HISTORY_SIZE = 10;
     private long[] latencyHistory;
@@ -58,16 +58,14 @@ public class GameClient {
      */
     public GameClient() {
         this.connected = new AtomicBoolean(false);
-        this.sendQueue = new ConcurrentLinkedQueue<>();
+        this.sendQueue = new LinkedBlockingQueue<>();
         this.lastPositionUpdateTime = 0;
-        this.lastHeartbeatTime = 0;
         this.reconnectAttempts = 0;
         this.intentionalDisconnect = false;
         this.latencyHistory = new long[LATENCY_HISTORY_SIZE];
         this.latencyHistoryIndex = 0;
         this.currentLatency = 0;
         this.averageLatency = 0;
-        this.lastPingTime = 0;
     }
     
     /**
@@ -90,15 +88,21 @@ public class GameClient {
         }
         
         try {
-            // Establish socket connection
+            // Establish socket connection and negotiate the wire protocol
             socket = new Socket(serverAddress, port);
-            
-            // Create output stream first (required for ObjectInputStream handshake)
-            outputStream = new ObjectOutputStream(socket.getOutputStream());
-            outputStream.flush();
-            
-            // Create input stream
-            inputStream = new ObjectInputStream(socket.getInputStream());
+            if (!useLegacyProtocol) {
+                transport = ProtocolNegotiator.connectBinary(socket);
+                if (transport == null) {
+                    // Server predates the binary protocol - reconnect using Java serialization
+                    System.out.println("Server does not support the binary protocol, falling back to legacy protocol");
+                    useLegacyProtocol = true;
+                    socket.close();
+                    socket = new Socket(serverAddress, port);
+                }
+            }
+            if (useLegacyProtocol) {
+                transport = ProtocolNegotiator.connectLegacy(socket);
+            }
             
             connected.set(true);
             
@@ -114,13 +118,11 @@ public class GameClient {
             // Start message sending thread
             startSendThread();
             
-            // Start heartbeat thread
-            startHeartbeatThread();
-            
-            // Start ping thread for latency measurement
-            startPingThread();
+            // Start heartbeats and pings for latency measurement
+            startTimer();
             
-            System.out.println("Connected to server at " + serverAddress + ":" + port);
+            System.out.println("Connected to server at " + serverAddress + ":" + port + 
+                             " (protocol: " + transport.getProtocolName() + ")");
             
         } catch (IOException e) {
             // Clean up on connection failure
@@ -155,11 +157,8 @@ public class GameClient {
         if (sendThread != null && sendThread.isAlive()) {
             sendThread.interrupt();
         }
-        if (heartbeatThread != null && heartbeatThread.isAlive()) {
-            heartbeatThread.interrupt();
-        }
-        if (pingThread != null && pingThread.isAlive()) {
-            pingThread.interrupt();
+        if (timer != null) {
+            timer.shutdownNow();
         }
         
         // Clean up resources
@@ -199,7 +198,7 @@ public class GameClient {
     
     /**
      * Sends a message to the server.
-     * Messages are queued and sent by a dedicated thread.
+     * Messages are queued and sent by a dedicated thread, which wakes up as soon as one is queued.
      * @param message The message to send
      */
     public void sendMessage(NetworkMessage message) {
@@ -224,14 +223,8 @@ public class GameClient {
             while (connected.get() && !Thread.currentThread().isInterrupted()) {
                 try {
                     // Read message from server
-                    Object obj = inputStream.readObject();
-                    
-                    if (obj instanceof NetworkMessage) {
-                        NetworkMessage message = (NetworkMessage) obj;
-                        handleIncomingMessage(message);
-                    } else {
-                        System.err.println("Received unknown object type: " + obj.getClass().getName());
-                    }
+                    NetworkMessage message = transport.receive();
+                    handleIncomingMessage(message);
                     
                 } catch (IOException e) {
                     if (connected.get()) {
@@ -251,21 +244,25 @@ public class GameClient {
     
     /**
      * Starts the thread that sends queued messages to the server.
+     * The thread blocks until a message is queued, then writes everything
+     * queued by that time and flushes it to the socket once.
      */
     private void startSendThread() {
         sendThread = new Thread(() -> {
             while (connected.get() && !Thread.currentThread().isInterrupted()) {
                 try {
-                    NetworkMessage message = sendQueue.poll();
-                    
-                    if (message != null) {
-                        outputStream.writeObject(message);
-                        outputStream.flush();
-                    } else {
-                        // No messages to send, sleep briefly
-                        Thread.sleep(10);
+                    NetworkMessage message = sendQueue.take();
+                    MessageTransport current = transport;
+                    if (current == null) {
+                        break;
                     }
                     
+                    do {
+                        current.write(message);
+                        message = sendQueue.poll();
+                    } while (message != null);
+                    current.flush();
+                    
                 } catch (IOException e) {
                     if (connected.get()) {
                         System.err.println("Failed to send message: " + e.getMessage());
@@ -309,15 +306,32 @@ public class GameClient {
      * @param isMoving Whether the player is currently moving
      */
     public void sendPlayerMovement(float x, float y, Direction direction, boolean isMoving) {
+        sendPlayerMovement(x, y, direction, isMoving, 0, 0);
+    }
+    
+    /**
+     * Sends a numbered player movement update to the server with throttling and quantization.
+     * The server acknowledges the sequence number in position corrections, so the client
+     * can replay the movement it predicted after that update.
+     * @param x The player's x position
+     * @param y The player's y position
+     * @param direction The player's facing direction
+     * @param isMoving Whether the player is currently moving
+     * @param sequence The client's input sequence number for this position, or 0 for none
+     * @param correctionSequence The sequence acknowledged by the last correction applied, or 0 for none
+     * @return true if the update was sent, false if it was throttled or the client ID is not set
+     */
+    public boolean sendPlayerMovement(float x, float y, Direction direction, boolean isMoving,
+                                      int sequence, int correctionSequence) {
         // Don't send if client ID not set yet
         if (clientId == null) {
-            return;
+            return false;
         }
         
         // Throttle position updates to 20 per second
         long currentTime = System.currentTimeMillis();
         if (currentTime - lastPositionUpdateTime < POSITION_UPDATE_INTERVAL_MS) {
-            return; // Skip this update
+            return false; // Skip this update
         }
         
         lastPositionUpdateTime = currentTime;
@@ -326,8 +340,10 @@ public class GameClient {
         float quantizedX = quantizePosition(x);
         float quantizedY = quantizePosition(y);
         
-        PlayerMovementMessage message = new PlayerMovementMessage(clientId, quantizedX, quantizedY, direction, isMoving);
+        PlayerMovementMessage message = new PlayerMovementMessage(clientId, quantizedX, quantizedY, direction, isMoving,
+            sequence, correctionSequence);
         sendMessage(message);
+        return true;
     }
     
     /**
@@ -514,34 +530,31 @@ public class GameClient {
     public void sendHeartbeat() {
         HeartbeatMessage message = new HeartbeatMessage(clientId);
         sendMessage(message);
-        lastHeartbeatTime = System.currentTimeMillis();
     }
     
     /**
-     * Starts the heartbeat thread that sends periodic heartbeat messages.
+     * Starts the timer thread that sends periodic heartbeats, and pings for latency measurement.
      */
-    private void startHeartbeatThread() {
-        heartbeatThread = new Thread(() -> {
-            while (connected.get() && !Thread.currentThread().isInterrupted()) {
-                try {
-                    long currentTime = System.currentTimeMillis();
-                    
-                    // Send heartbeat if interval has passed
-                    if (currentTime - lastHeartbeatTime >= HEARTBEAT_INTERVAL_MS) {
-                        sendHeartbeat();
-                    }
-                    
-                    // Sleep for a short time
-                    Thread.sleep(1000);
-                    
-                } catch (InterruptedException e) {
-                    break;
-                }
-            }
-        }, "GameClient-Heartbeat");
-        
-        heartbeatThread.setDaemon(true);
-        heartbeatThread.start();
+    private void startTimer() {
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GameClient-Timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleAtFixedRate(this::sendHeartbeatIfConnected, 0, HEARTBEAT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        timer.scheduleAtFixedRate(this::sendPingIfConnected, 0, PING_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+    
+    private void sendHeartbeatIfConnected() {
+        if (connected.get()) {
+            sendHeartbeat();
+        }
+    }
+    
+    private void sendPingIfConnected() {
+        if (connected.get()) {
+            sendPing();
+        }
     }
     
     /**
@@ -550,7 +563,6 @@ public class GameClient {
     public void sendPing() {
         PingMessage message = new PingMessage(clientId);
         sendMessage(message);
-        lastPingTime = System.currentTimeMillis();
     }
     
     /**
@@ -600,33 +612,6 @@ public class GameClient {
         return averageLatency;
     }
     
-    /**
-     * Starts the ping thread that sends periodic ping messages for latency measurement.
-     */
-    private void startPingThread() {
-        pingThread = new Thread(() -> {
-            while (connected.get() && !Thread.currentThread().isInterrupted()) {
-                try {
-                    long currentTime = System.currentTimeMillis();
-                    
-                    // Send ping if interval has passed
-                    if (currentTime - lastPingTime >= PING_INTERVAL_MS) {
-                        sendPing();
-                    }
-                    
-                    // Sleep for a short time
-                    Thread.sleep(500);
-                    
-                } catch (InterruptedException e) {
-                    break;
-                }
-            }
-        }, "GameClient-Ping");
-        
-        pingThread.setDaemon(true);
-        pingThread.start();
-    }
-    
     /**
      * Attempts to reconnect to the server after connection loss.
      */
@@ -744,24 +729,31 @@ public class GameClient {
         }
     }
     
+    /**
+     * Forces the legacy Java serialization protocol for future connections.
+     * By default the binary protocol is requested and the client falls back
+     * automatically when the server does not support it.
+     * @param useLegacyProtocol true to always use the legacy protocol
+     */
+    public void setUseLegacyProtocol(boolean useLegacyProtocol) {
+        this.useLegacyProtocol = useLegacyProtocol;
+    }
+    
+    /**
+     * Gets the name of the wire protocol used by the current connection.
+     * @return The protocol name, or null if not connected
+     */
+    public String getProtocolName() {
+        MessageTransport current = transport;
+        return current != null ? current.getProtocolName() : null;
+    }
+    
     /**
      * Cleans up network resources.
      */
     private void cleanup() {
-        try {
-            if (inputStream != null) {
-                inputStream.close();
-            }
-        } catch (IOException e) {
-            // Ignore
-        }
-        
-        try {
-            if (outputStream != null) {
-                outputStream.close();
-            }
-        } catch (IOException e) {
-            // Ignore
+        if (transport != null) {
+            transport.close();
         }
         
         try {
@@ -772,8 +764,7 @@ public class GameClient {
             // Ignore
         }
         
-        inputStream = null;
-        outputStream = null;
+        transport = null;
         socket = null;
     }
 }
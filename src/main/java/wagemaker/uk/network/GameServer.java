@@ -16,14 +16,17 @@ import wagemaker.uk.server.ServerConfig;
 public class GameServer {
     private static final int DEFAULT_PORT = 25565;
     private static final int DEFAULT_MAX_CLIENTS = 20;
-    private static final int THREAD_POOL_SIZE = 10;
     
     private int maxClients;
     
     private ServerSocket serverSocket;
+    private NioServerTransport nioTransport;
+    private volatile ServerTickLoop tickLoop;
     private Map<String, ClientConnection> connectedClients;
     private WorldState worldState;
     private RespawnManager respawnManager;
+    private ChunkGenerationManager chunkGenerationManager;
+    private InterestManager interestManager;
     private ExecutorService clientThreadPool;
     private Thread acceptThread;
     private boolean running;
@@ -61,20 +64,45 @@ public class GameServer {
      * @param worldSeed The world seed (0 for random)
      */
     public GameServer(int port, int maxClients, long worldSeed) {
+        this(port, maxClients, worldSeed, loadConfig());
+    }
+    
+    /**
+     * Creates a new GameServer with an already loaded configuration.
+     * @param port The port to bind to
+     * @param maxClients The maximum number of concurrent clients
+     * @param worldSeed The world seed (0 for random)
+     * @param config The server configuration (planting range, transport, etc.)
+     */
+    public GameServer(int port, int maxClients, long worldSeed, ServerConfig config) {
         this.port = port;
         this.maxClients = maxClients;
         this.connectedClients = new ConcurrentHashMap<>();
-        this.clientThreadPool = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
         this.running = false;
+        this.config = config;
         
-        // Load server configuration
-        this.config = ServerConfig.load();
-        System.out.println("Server configuration loaded successfully");
+        if (config.isVirtualThreadTransport()) {
+            // Blocking socket reads park the virtual thread instead of holding a platform thread
+            this.clientThreadPool = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("ClientConnection-", 0).factory());
+        } else {
+            // One thread per blocking connection; the number of connections is capped by maxClients
+            this.clientThreadPool = Executors.newCachedThreadPool();
+        }
         
         // Initialize world state with specified or random seed
         long seed = (worldSeed == 0) ? System.currentTimeMillis() : worldSeed;
         this.worldState = new WorldState(seed);
         System.out.println("World initialized with seed: " + seed);
+        
+        this.chunkGenerationManager = new ChunkGenerationManager(this);
+        this.interestManager = new InterestManager();
+    }
+    
+    private static ServerConfig loadConfig() {
+        ServerConfig config = ServerConfig.load();
+        System.out.println("Server configuration loaded successfully");
+        return config;
     }
     
     /**
@@ -96,10 +124,23 @@ public class GameServer {
         }
         
         this.port = port;
+        
+        if (config.isNioTransport()) {
+            // Selector thread accepts and reads all clients itself
+            this.nioTransport = new NioServerTransport(this, config.getNioWorkerThreads());
+            nioTransport.start(port);
+            this.running = true;
+            System.out.println("GameServer started on port " + port + " (NIO transport, " + 
+                             config.getNioWorkerThreads() + " worker threads)");
+            System.out.println("Server IP: " + getPublicIPv4());
+            return;
+        }
+        
         this.serverSocket = new ServerSocket(port);
         this.running = true;
         
-        System.out.println("GameServer started on port " + port);
+        System.out.println("GameServer started on port " + port + 
+                         (config.isVirtualThreadTransport() ? " (virtual threads)" : ""));
         System.out.println("Server IP: " + getPublicIPv4());
         
         // Start accepting clients in a separate thread
@@ -118,6 +159,12 @@ public class GameServer {
         System.out.println("Stopping GameServer...");
         running = false;
         
+        // Stop the tick loop so disconnects below are applied immediately
+        if (tickLoop != null) {
+            tickLoop.stop();
+            tickLoop = null;
+        }
+        
         // Disconnect all clients
         for (ClientConnection client : connectedClients.values()) {
             try {
@@ -128,6 +175,15 @@ public class GameServer {
         }
         connectedClients.clear();
         
+        // Stop background chunk generation
+        chunkGenerationManager.shutdown();
+        
+        // Stop the NIO selector and workers
+        if (nioTransport != null) {
+            nioTransport.stop();
+            nioTransport = null;
+        }
+        
         // Close server socket
         try {
             if (serverSocket != null && !serverSocket.isClosed()) {
@@ -203,6 +259,37 @@ public class GameServer {
         return config;
     }
     
+    /**
+     * Starts a fixed-rate tick loop that applies client commands on a single
+     * thread and relays movement once per tick. Without it, messages are
+     * handled on the connection threads as they arrive.
+     * @param tickRate Ticks per second
+     */
+    public void startTickLoop(int tickRate) {
+        if (tickLoop != null) {
+            return;
+        }
+        ServerTickLoop loop = new ServerTickLoop(this, tickRate);
+        loop.start();
+        tickLoop = loop;
+    }
+    
+    /**
+     * Gets the tick loop.
+     * @return The tick loop, or null if messages are handled as they arrive
+     */
+    public ServerTickLoop getTickLoop() {
+        return tickLoop;
+    }
+    
+    /**
+     * Gets the executor that runs the per-client outbound writer tasks.
+     * @return The client thread pool
+     */
+    Executor getWriterExecutor() {
+        return clientThreadPool;
+    }
+    
     /**
      * Gets the public IPv4 address of this server.
      * Attempts to determine the external IP address for clients to connect to.
@@ -264,8 +351,8 @@ public class GameServer {
                 if (connectedClients.size() >= maxClients) {
                     System.out.println("[SECURITY] Max clients reached (" + maxClients + 
                                      "), rejecting connection from " + clientSocket.getInetAddress());
-                    sendRejectionMessage(clientSocket, "Server is full");
-                    clientSocket.close();
+                    // Negotiating the rejection must not hold up the next accept
+                    rejectConnectionAsync(clientSocket, "Server is full");
                     continue;
                 }
                 
@@ -310,7 +397,7 @@ public class GameServer {
             
             System.out.println("Client connected: " + clientId + 
                              " (Total clients: " + connectedClients.size() + ")");
-            
+                             
         } catch (IOException e) {
             System.err.println("Error setting up client connection: " + e.getMessage());
             try {
@@ -321,6 +408,69 @@ public class GameServer {
         }
     }
     
+    /**
+     * Registers a client whose transport was set up by the NIO selector.
+     * @param clientConnection The new client connection
+     */
+    void registerClient(ClientConnection clientConnection) {
+        connectedClients.put(clientConnection.getClientId(), clientConnection);
+        System.out.println("Client connected: " + clientConnection.getClientId() + 
+                         " (Total clients: " + connectedClients.size() + ")");
+    }
+    
+    /**
+     * Serves a legacy Java serialization client on the blocking client pool.
+     * The NIO transport hands these connections over because serialized
+     * messages have no length prefix to frame them by.
+     * 
+     * @param clientSocket The client socket, already switched to blocking mode
+     * @param header Bytes the selector read before detecting the legacy protocol
+     * @param registered Run once the client is registered, or when setting it up fails
+     */
+    void handleLegacyConnection(Socket clientSocket, byte[] header, Runnable registered) {
+        clientThreadPool.execute(() -> {
+            try {
+                String clientId = UUID.randomUUID().toString();
+                System.out.println("New client connecting: " + clientId + 
+                                 " from " + clientSocket.getInetAddress());
+                
+                InputStream in = new SequenceInputStream(new ByteArrayInputStream(header), clientSocket.getInputStream());
+                MessageTransport transport = new ObjectStreamTransport(in, clientSocket.getOutputStream(), 
+                    ClientConnection.MAX_MESSAGE_SIZE);
+                ClientConnection clientConnection = new ClientConnection(clientSocket, clientId, this, transport);
+                
+                registerClient(clientConnection);
+                registered.run();
+                clientConnection.run();
+                
+            } catch (IOException e) {
+                registered.run();
+                System.err.println("Error setting up client connection: " + e.getMessage());
+                try {
+                    clientSocket.close();
+                } catch (IOException ex) {
+                    // Ignore
+                }
+            }
+        });
+    }
+    
+    /**
+     * Rejects a connection without blocking the caller.
+     * @param clientSocket The client socket, in blocking mode
+     * @param reason The reason for rejection
+     */
+    void rejectConnectionAsync(Socket clientSocket, String reason) {
+        clientThreadPool.execute(() -> {
+            sendRejectionMessage(clientSocket, reason);
+            try {
+                clientSocket.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+        });
+    }
+    
     /**
      * Sends a rejection message to a client and closes the connection.
      * @param clientSocket The client socket
@@ -328,9 +478,9 @@ public class GameServer {
      */
     private void sendRejectionMessage(Socket clientSocket, String reason) {
         try {
-            ObjectOutputStream out = new ObjectOutputStream(clientSocket.getOutputStream());
-            out.writeObject(new ConnectionRejectedMessage("server", reason));
-            out.flush();
+            // Negotiate first so the rejection arrives in the client's own protocol
+            MessageTransport transport = ProtocolNegotiator.accept(clientSocket);
+            transport.send(new ConnectionRejectedMessage("server", reason));
         } catch (IOException e) {
             System.err.println("Error sending rejection message: " + e.getMessage());
         }
@@ -342,7 +492,9 @@ public class GameServer {
      */
     public void disconnectClient(String clientId) {
         ClientConnection client = connectedClients.remove(clientId);
+        chunkGenerationManager.removePlayer(clientId);
         if (client != null) {
+            interestManager.removeClient(client);
             try {
                 client.close();
                 System.out.println("Client disconnected: " + clientId + 
@@ -475,6 +627,86 @@ public class GameServer {
         }
     }
     
+    /**
+     * Broadcasts a message to the clients whose area of interest contains a position.
+     * Use this for frequent updates about something at a known place in the world.
+     * @param message The message to broadcast
+     * @param x The world x-coordinate the message is about
+     * @param y The world y-coordinate the message is about
+     */
+    public void broadcastToInterested(NetworkMessage message, float x, float y) {
+        broadcastToInterestedExcept(message, x, y, null);
+    }
+    
+    /**
+     * Broadcasts a message to the clients whose area of interest contains a position,
+     * except the specified one.
+     * @param message The message to broadcast
+     * @param x The world x-coordinate the message is about
+     * @param y The world y-coordinate the message is about
+     * @param excludeClientId The client ID to exclude from the broadcast, or null
+     */
+    public void broadcastToInterestedExcept(NetworkMessage message, float x, float y, String excludeClientId) {
+        if (message == null) {
+            return;
+        }
+        
+        List<String> failedClients = new ArrayList<>();
+        
+        for (ClientConnection client : interestManager.getInterestedClients(x, y)) {
+            if (client.getClientId().equals(excludeClientId)) {
+                continue;
+            }
+            
+            try {
+                if (client.isAlive()) {
+                    client.sendMessage(message);
+                } else {
+                    failedClients.add(client.getClientId());
+                }
+            } catch (Exception e) {
+                System.err.println("Error broadcasting to client " + 
+                                 client.getClientId() + ": " + e.getMessage());
+                failedClients.add(client.getClientId());
+            }
+        }
+        
+        // Clean up failed clients
+        for (String clientId : failedClients) {
+            disconnectClient(clientId);
+        }
+    }
+    
+    /**
+     * Moves a client's area of interest to its player's current position and
+     * tells both sides about players that came into or went out of view.
+     * @param client The client whose player moved
+     */
+    public void updateClientInterest(ClientConnection client) {
+        PlayerState player = client.getPlayerState();
+        InterestManager.InterestChange change = interestManager.updateClient(client, player.getX(), player.getY());
+        if (change == null) {
+            return;
+        }
+        
+        for (ClientConnection other : change.getEntered()) {
+            other.sendMessage(PlayerVisibilityMessage.entered(player));
+            client.sendMessage(PlayerVisibilityMessage.entered(other.getPlayerState()));
+        }
+        for (ClientConnection other : change.getLeft()) {
+            other.sendMessage(PlayerVisibilityMessage.left(player));
+            client.sendMessage(PlayerVisibilityMessage.left(other.getPlayerState()));
+        }
+    }
+    
+    /**
+     * Gets the interest manager that decides which clients receive positional updates.
+     * @return The interest manager
+     */
+    public InterestManager getInterestManager() {
+        return interestManager;
+    }
+    
     /**
      * Broadcasts a resource respawn event to all connected clients.
      * Called by the respawn manager when a resource respawns.
@@ -520,9 +752,30 @@ public class GameServer {
     }
     
     /**
-     * Generates chunks around all players.
-     * Called when players move to ensure trees/stones exist in their vicinity.
-     * Only generates entities that don't already exist.
+     * Gets the chunk generation manager that populates the world around players.
+     * @return The chunk generation manager
+     */
+    public ChunkGenerationManager getChunkGenerationManager() {
+        return chunkGenerationManager;
+    }
+    
+    /**
+     * Queues generation of the chunks around a player that has moved.
+     * Does nothing unless the player crossed into a new chunk; chunks are planned
+     * on a background worker and added to the world by the tick loop, if running,
+     * and new entities are pushed to nearby clients.
+     * 
+     * @param playerId The player (client) ID
+     * @param x The player's world x-coordinate
+     * @param y The player's world y-coordinate
+     */
+    public void generateChunksAroundPlayer(String playerId, float x, float y) {
+        chunkGenerationManager.onPlayerMoved(playerId, x, y);
+    }
+    
+    /**
+     * Queues generation of the chunks around all players.
+     * Only chunks that have not been generated yet are queued.
      */
     public void generateChunksAroundPlayers() {
         if (worldState == null) {
@@ -534,40 +787,8 @@ public class GameServer {
             return;
         }
         
-        // Generate chunks around each player
         for (PlayerState player : players.values()) {
-            generateChunksAroundPosition(player.getX(), player.getY());
-        }
-    }
-    
-    /**
-     * Generates chunks around a specific position.
-     * Creates trees and stones in a grid pattern around the position.
-     * This method only populates the server's WorldState - clients receive
-     * the full WorldState when they connect via WorldStateMessage.
-     * 
-     * @param centerX The center X coordinate
-     * @param centerY The center Y coordinate
-     */
-    private void generateChunksAroundPosition(float centerX, float centerY) {
-        // Generate in a 3x3 chunk area around player (approximately 1920x1920 pixels)
-        int chunkSize = 64; // Same as grass tile size
-        int chunksRadius = 15; // Generate 15 chunks in each direction (960 pixels)
-        
-        int startX = ((int)centerX / chunkSize - chunksRadius) * chunkSize;
-        int startY = ((int)centerY / chunkSize - chunksRadius) * chunkSize;
-        int endX = ((int)centerX / chunkSize + chunksRadius) * chunkSize;
-        int endY = ((int)centerY / chunkSize + chunksRadius) * chunkSize;
-        
-        for (int x = startX; x <= endX; x += chunkSize) {
-            for (int y = startY; y <= endY; y += chunkSize) {
-                // Generate tree at this position (if it should exist)
-                // This populates the server's WorldState only
-                worldState.generateTreeAt(x, y);
-                
-                // Generate stone at this position (if it should exist)
-                worldState.generateStoneAt(x, y, centerX, centerY);
-            }
+            chunkGenerationManager.requestChunksAround(player.getX(), player.getY());
         }
     }
 }
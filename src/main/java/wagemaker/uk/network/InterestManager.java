@@ -0,0 +1,203 @@
+package wagemaker.uk.network;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which clients are interested in which parts of the world.
+ * 
+ * The world is divided into square cells. Each client subscribes to the block
+ * of cells within {@link #INTEREST_RADIUS_CELLS} of the cell its player stands
+ * in, so the clients interested in an event at a position are simply the
+ * subscribers of that position's cell. Subscriptions only change when a player
+ * crosses into another cell; the change reports which other players came into
+ * or went out of view, which is symmetric because every client uses the same radius.
+ */
+public class InterestManager {
+    
+    /** Size of an interest cell in pixels. */
+    public static final int CELL_SIZE = 1024;
+    
+    /** Cells within this many cells of the player's cell are of interest (at least 2048px). */
+    public static final int INTEREST_RADIUS_CELLS = 2;
+    
+    /**
+     * Players that came into or went out of view of a client after it moved
+     * to another cell.
+     */
+    public static final class InterestChange {
+        private final Set<ClientConnection> entered;
+        private final Set<ClientConnection> left;
+        
+        InterestChange(Set<ClientConnection> entered, Set<ClientConnection> left) {
+            this.entered = entered;
+            this.left = left;
+        }
+        
+        /**
+         * Gets the clients that can now see the moved client, and that it can now see.
+         * @return The clients that came into view
+         */
+        public Set<ClientConnection> getEntered() {
+            return entered;
+        }
+        
+        /**
+         * Gets the clients that can no longer see the moved client, and that it can no longer see.
+         * @return The clients that went out of view
+         */
+        public Set<ClientConnection> getLeft() {
+            return left;
+        }
+    }
+    
+    private final Map<Long, Set<ClientConnection>> subscribers;
+    private final Map<ClientConnection, Long> clientCells;
+    
+    /**
+     * Creates an empty interest manager.
+     */
+    public InterestManager() {
+        this.subscribers = new ConcurrentHashMap<>();
+        this.clientCells = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Places a client at a position, or moves it there.
+     * @param client The client whose player moved
+     * @param x The player's world x-coordinate
+     * @param y The player's world y-coordinate
+     * @return The players that came into or went out of view, or null if the
+     *         player is still in the same cell
+     */
+    public synchronized InterestChange updateClient(ClientConnection client, float x, float y) {
+        long newCell = cellKey(cellCoord(x), cellCoord(y));
+        Long oldCell = clientCells.put(client, newCell);
+        if (oldCell != null && oldCell == newCell) {
+            return null;
+        }
+        
+        Set<ClientConnection> before = oldCell == null ? Collections.emptySet() : snapshot(oldCell);
+        if (oldCell != null) {
+            setSubscribed(client, oldCell, false);
+        }
+        setSubscribed(client, newCell, true);
+        Set<ClientConnection> after = snapshot(newCell);
+        
+        Set<ClientConnection> entered = new HashSet<>(after);
+        entered.removeAll(before);
+        entered.remove(client);
+        Set<ClientConnection> left = new HashSet<>(before);
+        left.removeAll(after);
+        left.remove(client);
+        return new InterestChange(entered, left);
+    }
+    
+    /**
+     * Removes a client from every cell it was subscribed to.
+     * @param client The client to remove
+     */
+    public synchronized void removeClient(ClientConnection client) {
+        Long cell = clientCells.remove(client);
+        if (cell != null) {
+            setSubscribed(client, cell, false);
+        }
+    }
+    
+    /**
+     * Gets the clients interested in an event at a position.
+     * @param x The world x-coordinate of the event
+     * @param y The world y-coordinate of the event
+     * @return The interested clients (a live view; do not modify)
+     */
+    public Set<ClientConnection> getInterestedClients(float x, float y) {
+        Set<ClientConnection> clients = subscribers.get(cellKey(cellCoord(x), cellCoord(y)));
+        return clients != null ? clients : Collections.emptySet();
+    }
+    
+    /**
+     * Checks whether a client is interested in a position.
+     * @param client The client
+     * @param x The world x-coordinate
+     * @param y The world y-coordinate
+     * @return true if the position lies within the client's area of interest
+     */
+    public boolean isInterested(ClientConnection client, float x, float y) {
+        Long cell = clientCells.get(client);
+        if (cell == null) {
+            return false;
+        }
+        return Math.abs(cellX(cell) - cellCoord(x)) <= INTEREST_RADIUS_CELLS
+            && Math.abs(cellY(cell) - cellCoord(y)) <= INTEREST_RADIUS_CELLS;
+    }
+    
+    /**
+     * Checks whether two positions are close enough for players at one to be
+     * interested in the other.
+     * @param x1 The first world x-coordinate
+     * @param y1 The first world y-coordinate
+     * @param x2 The second world x-coordinate
+     * @param y2 The second world y-coordinate
+     * @return true if the positions' cells are within the interest radius
+     */
+    public static boolean isWithinInterest(float x1, float y1, float x2, float y2) {
+        return Math.abs(cellCoord(x1) - cellCoord(x2)) <= INTEREST_RADIUS_CELLS
+            && Math.abs(cellCoord(y1) - cellCoord(y2)) <= INTEREST_RADIUS_CELLS;
+    }
+    
+    /**
+     * Gets the number of cells with at least one subscriber.
+     * @return The subscribed cell count
+     */
+    public int getSubscribedCellCount() {
+        return subscribers.size();
+    }
+    
+    private Set<ClientConnection> snapshot(long cell) {
+        Set<ClientConnection> clients = subscribers.get(cell);
+        return clients != null ? new HashSet<>(clients) : Collections.emptySet();
+    }
+    
+    private void setSubscribed(ClientConnection client, long centerCell, boolean subscribe) {
+        int centerX = cellX(centerCell);
+        int centerY = cellY(centerCell);
+        for (int cx = centerX - INTEREST_RADIUS_CELLS; cx <= centerX + INTEREST_RADIUS_CELLS; cx++) {
+            for (int cy = centerY - INTEREST_RADIUS_CELLS; cy <= centerY + INTEREST_RADIUS_CELLS; cy++) {
+                long key = cellKey(cx, cy);
+                if (subscribe) {
+                    subscribers.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(client);
+                } else {
+                    // Drop empty cells so the index does not grow with every cell ever visited
+                    subscribers.computeIfPresent(key, (k, clients) -> {
+                        clients.remove(client);
+                        return clients.isEmpty() ? null : clients;
+                    });
+                }
+            }
+        }
+    }
+    
+    /**
+     * Converts a world coordinate to a cell coordinate.
+     * @param value World coordinate in pixels
+     * @return The cell coordinate
+     */
+    public static int cellCoord(float value) {
+        return (int) Math.floor(value / CELL_SIZE);
+    }
+    
+    private static long cellKey(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+    
+    private static int cellX(long key) {
+        return (int) (key >> 32);
+    }
+    
+    private static int cellY(long key) {
+        return (int) key;
+    }
+}
@@ -0,0 +1,29 @@
+package wagemaker.uk.network;
+
+/**
+ * Thrown by a {@link MessageTransport} when an incoming object was decoded but
+ * is not a {@link NetworkMessage}. The stream is still in step, so the object
+ * can be dropped and the next message read.
+ */
+public class InvalidMessageTypeException extends ClassNotFoundException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final String receivedClassName;
+    
+    /**
+     * @param receivedClassName The class of the object that was received
+     */
+    public InvalidMessageTypeException(String receivedClassName) {
+        super("Invalid message type: " + receivedClassName);
+        this.receivedClassName = receivedClassName;
+    }
+    
+    /**
+     * Gets the class of the rejected object.
+     * @return The fully qualified class name
+     */
+    public String getReceivedClassName() {
+        return receivedClassName;
+    }
+}
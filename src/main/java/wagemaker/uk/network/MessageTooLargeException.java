@@ -0,0 +1,54 @@
+package wagemaker.uk.network;
+
+import java.io.IOException;
+
+/**
+ * Thrown by a {@link MessageTransport} when an incoming message exceeds the
+ * transport's size limit. The oversized message is never deserialized.
+ */
+public class MessageTooLargeException extends IOException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final int size;
+    private final int limit;
+    private final boolean frameSkipped;
+    
+    /**
+     * @param size The size of the message in bytes (at least this many bytes were read)
+     * @param limit The maximum allowed message size in bytes
+     * @param frameSkipped true if the message was discarded and the stream can keep
+     *                     being read, false if the stream is no longer usable
+     */
+    public MessageTooLargeException(int size, int limit, boolean frameSkipped) {
+        super("Message of " + size + " bytes exceeds limit of " + limit + " bytes");
+        this.size = size;
+        this.limit = limit;
+        this.frameSkipped = frameSkipped;
+    }
+    
+    /**
+     * Gets the size of the rejected message.
+     * @return The message size in bytes
+     */
+    public int getSize() {
+        return size;
+    }
+    
+    /**
+     * Gets the size limit that was exceeded.
+     * @return The limit in bytes
+     */
+    public int getLimit() {
+        return limit;
+    }
+    
+    /**
+     * Checks whether the oversized message was skipped so the next message can be read.
+     * Length-prefixed transports can skip a frame; stream transports cannot.
+     * @return true if the transport is still usable
+     */
+    public boolean isFrameSkipped() {
+        return frameSkipped;
+    }
+}
@@ -0,0 +1,20 @@
+package wagemaker.uk.network;
+
+import java.io.IOException;
+
+/**
+ * A connected message stream using one of the supported wire protocols.
+ * 
+ * Implementations are not thread-safe: callers must serialize calls to
+ * the sending methods and read from a single thread.
+ */
+public interface MessageTransport extends OutboundTransport {
+    
+    /**
+     * Blocks until the next message arrives.
+     * @return The received message
+     * @throws IOException if the connection fails or the data is malformed
+     * @throws ClassNotFoundException if a serialized message has an unknown class
+     */
+    NetworkMessage receive() throws IOException, ClassNotFoundException;
+}
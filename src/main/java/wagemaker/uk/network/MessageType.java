@@ -43,5 +43,7 @@ public enum MessageType {
     PLAYER_RESPAWN,
     FREE_WORLD_ACTIVATION,
     PLAYER_FALL,
-    PLAYER_INFO
+    PLAYER_INFO,
+    PLAYER_VISIBILITY,
+    WORLD_CHUNK
 }
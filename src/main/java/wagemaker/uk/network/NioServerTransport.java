@@ -0,0 +1,789 @@
+package wagemaker.uk.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Non-blocking server transport: one selector thread accepts connections and
+ * reads and writes every socket, while a small fixed pool of workers decodes
+ * and handles the messages. Selected with {@code server.transport=nio}.
+ * 
+ * Only the length-prefixed binary protocol can be framed without blocking.
+ * Legacy Java serialization clients are detected during the handshake and
+ * handed over to the blocking thread-per-client path.
+ * 
+ * Messages from one client are handled strictly in order, one at a time, so
+ * ClientConnection needs no extra locking compared to the blocking mode.
+ */
+public class NioServerTransport {
+    
+    private static final long SELECT_TIMEOUT_MS = 1000;
+    private static final long HEARTBEAT_CHECK_INTERVAL_MS = 1000;
+    private static final long HANDSHAKE_TIMEOUT_MS = 10000;
+    private static final int INITIAL_READ_BUFFER_SIZE = 8192;
+    private static final int WORKER_QUEUE_CAPACITY = 1024;
+    
+    // Reading pauses while this many frames from one client are waiting for a worker
+    private static final int MAX_QUEUED_FRAMES = 256;
+    private static final int RESUME_QUEUED_FRAMES = 64;
+    
+    // Writers park while this many bytes to one client are waiting for the socket,
+    // so the client's bounded outbound queue and its overflow policy take over
+    static final int MAX_QUEUED_WRITE_BYTES = 256 * 1024;
+    private static final int RESUME_QUEUED_WRITE_BYTES = 64 * 1024;
+    
+    private static final long INCOMPLETE = -1;
+    
+    private final GameServer server;
+    private final int workerThreads;
+    private final Queue<Runnable> selectorTasks;
+    private final List<LegacyHandoff> legacyHandoffs;
+    private final Set<Connection> connections;
+    private final AtomicInteger handshakingConnections; // Accepted but not yet registered as clients
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private ThreadPoolExecutor workers;
+    private Thread selectorThread;
+    private volatile boolean running;
+    private long lastHeartbeatCheck;
+    
+    /**
+     * Creates the transport. Nothing is opened until {@link #start(int)}.
+     * @param server The game server that owns the client connections
+     * @param workerThreads Number of threads that decode and handle messages
+     */
+    public NioServerTransport(GameServer server, int workerThreads) {
+        this.server = server;
+        this.workerThreads = workerThreads;
+        this.selectorTasks = new ConcurrentLinkedQueue<>();
+        this.legacyHandoffs = new ArrayList<>();
+        this.connections = ConcurrentHashMap.newKeySet();
+        this.handshakingConnections = new AtomicInteger();
+    }
+    
+    /**
+     * Binds the port and starts the selector thread and worker pool.
+     * @param port The port to listen on
+     * @throws IOException if the port cannot be bound
+     */
+    public void start(int port) throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.bind(new InetSocketAddress(port));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            serverChannel.close();
+            selector.close();
+            throw e;
+        }
+        
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(WORKER_QUEUE_CAPACITY),
+            runnable -> new Thread(runnable, "NioWorker-" + threadNumber.incrementAndGet()),
+            // Each connection has at most one task queued, so this only triggers with
+            // more than WORKER_QUEUE_CAPACITY busy clients; the selector then helps out
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        
+        running = true;
+        lastHeartbeatCheck = System.currentTimeMillis();
+        selectorThread = new Thread(this::selectLoop, "NioSelectorThread");
+        selectorThread.start();
+    }
+    
+    /**
+     * Stops accepting, closes every channel and shuts the workers down.
+     * Client connections should be closed by the server beforehand.
+     */
+    public void stop() {
+        running = false;
+        if (selector != null) {
+            selector.wakeup();
+        }
+        
+        if (selectorThread != null) {
+            try {
+                selectorThread.join(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        for (Connection connection : connections) {
+            connection.closeChannel();
+        }
+        connections.clear();
+        
+        try {
+            if (serverChannel != null) {
+                serverChannel.close();
+            }
+            if (selector != null) {
+                selector.close();
+            }
+        } catch (IOException e) {
+            System.err.println("[NIO] Error closing selector: " + e.getMessage());
+        }
+        
+        if (workers != null) {
+            workers.shutdown();
+            try {
+                if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+                    workers.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                workers.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * Gets the number of open channels, including those still negotiating.
+     * @return The open connection count
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+    
+    private void selectLoop() {
+        System.out.println("[NIO] Server accepting connections...");
+        
+        while (running) {
+            try {
+                if (legacyHandoffs.isEmpty()) {
+                    selector.select(SELECT_TIMEOUT_MS);
+                } else {
+                    // Flush cancelled keys so the channels can switch back to blocking mode
+                    selector.selectNow();
+                    completeLegacyHandoffs();
+                }
+                
+                Runnable task;
+                while ((task = selectorTasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (CancelledKeyException e) {
+                        // Channel was closed by a worker in the meantime
+                    }
+                }
+                
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handleKey(key);
+                }
+                
+                long now = System.currentTimeMillis();
+                if (now - lastHeartbeatCheck >= HEARTBEAT_CHECK_INTERVAL_MS) {
+                    lastHeartbeatCheck = now;
+                    for (Connection connection : connections) {
+                        connection.checkHeartbeat();
+                    }
+                }
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("[NIO] Selector error: " + e.getMessage());
+                }
+            } catch (Exception e) {
+                System.err.println("[NIO] Unexpected selector error: " + e.getMessage());
+            }
+        }
+        
+        System.out.println("[NIO] Server stopped accepting connections");
+    }
+    
+    private void handleKey(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        
+        if (key.isAcceptable()) {
+            acceptConnection();
+            return;
+        }
+        
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                connection.read();
+            }
+            if (key.isValid() && key.isWritable()) {
+                connection.write();
+            }
+        } catch (IOException e) {
+            connection.fail(e);
+        } catch (CancelledKeyException e) {
+            connection.disconnect();
+        }
+    }
+    
+    private void acceptConnection() {
+        SocketChannel channel;
+        try {
+            channel = serverChannel.accept();
+        } catch (IOException e) {
+            if (running) {
+                System.err.println("Error accepting client: " + e.getMessage());
+            }
+            return;
+        }
+        if (channel == null) {
+            return;
+        }
+        
+        // Check if we've reached max clients, counting connections still negotiating
+        if (server.getConnectedClientCount() + handshakingConnections.get() >= server.getMaxClients()) {
+            System.out.println("[SECURITY] Max clients reached (" + server.getMaxClients() +
+                             "), rejecting connection from " + channel.socket().getInetAddress());
+            // Accepted channels start in blocking mode, so the usual rejection path works
+            server.rejectConnectionAsync(channel.socket(), "Server is full");
+            return;
+        }
+        
+        try {
+            channel.configureBlocking(false);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            connections.add(connection);
+            connection.startHandshake();
+        } catch (IOException e) {
+            System.err.println("Error setting up client connection: " + e.getMessage());
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                // Ignore
+            }
+        }
+    }
+    
+    private void completeLegacyHandoffs() {
+        for (LegacyHandoff handoff : legacyHandoffs) {
+            try {
+                handoff.channel.configureBlocking(true);
+                server.handleLegacyConnection(handoff.channel.socket(), handoff.header, handoff.registered);
+            } catch (IOException e) {
+                handoff.registered.run();
+                System.err.println("Error setting up client connection: " + e.getMessage());
+                try {
+                    handoff.channel.close();
+                } catch (IOException ex) {
+                    // Ignore
+                }
+            }
+        }
+        legacyHandoffs.clear();
+    }
+    
+    /**
+     * Runs a task on the selector thread, which owns all interest-set changes.
+     */
+    private void runOnSelector(Runnable task) {
+        selectorTasks.add(task);
+        selector.wakeup();
+    }
+    
+    /**
+     * Reads an unsigned varint, or returns INCOMPLETE if the buffer ends first.
+     */
+    private static long readVarInt(ByteBuffer buffer) throws StreamCorruptedException {
+        long value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (!buffer.hasRemaining()) {
+                return INCOMPLETE;
+            }
+            int b = buffer.get() & 0xFF;
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Varint too long");
+    }
+    
+    private static final class LegacyHandoff {
+        final SocketChannel channel;
+        final byte[] header;
+        final Runnable registered; // Ends the handshake once the client is registered or dropped
+        
+        LegacyHandoff(SocketChannel channel, byte[] header, Runnable registered) {
+            this.channel = channel;
+            this.header = header;
+            this.registered = registered;
+        }
+    }
+    
+    /**
+     * One client channel: read and write buffers owned by the selector thread,
+     * plus a serial task queue that runs on the worker pool.
+     */
+    private final class Connection {
+        
+        private final SocketChannel channel;
+        private final long acceptedTime;
+        private SelectionKey key;
+        private ByteBuffer readBuffer;
+        private boolean negotiated;
+        private long skipRemaining;
+        private int pendingFrameSize;
+        private ClientConnection client;
+        
+        private final Queue<ByteBuffer> writeQueue;
+        private final AtomicLong queuedWriteBytes;
+        private final AtomicReference<Runnable> writeResume; // Parked writer to wake, if any
+        private final AtomicBoolean writeRequested;
+        private final Queue<Runnable> tasks;
+        private final AtomicBoolean taskScheduled;
+        private final AtomicInteger queuedFrames;
+        private final AtomicBoolean readPaused;
+        private final AtomicBoolean closed;
+        private final AtomicBoolean handshaking;
+        
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+            this.acceptedTime = System.currentTimeMillis();
+            this.readBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER_SIZE);
+            this.writeQueue = new ConcurrentLinkedQueue<>();
+            this.queuedWriteBytes = new AtomicLong();
+            this.writeResume = new AtomicReference<>();
+            this.writeRequested = new AtomicBoolean(false);
+            this.tasks = new ConcurrentLinkedQueue<>();
+            this.taskScheduled = new AtomicBoolean(false);
+            this.queuedFrames = new AtomicInteger();
+            this.readPaused = new AtomicBoolean(false);
+            this.closed = new AtomicBoolean(false);
+            this.handshaking = new AtomicBoolean(false);
+        }
+        
+        // ---- Selector thread ----
+        
+        void read() throws IOException {
+            int read = channel.read(readBuffer);
+            if (read < 0) {
+                disconnect();
+                return;
+            }
+            
+            readBuffer.flip();
+            if (!negotiated && !readHandshake()) {
+                if (readBuffer != null) {
+                    readBuffer.compact();
+                }
+                return;
+            }
+            readFrames();
+            readBuffer.compact();
+            
+            if (pendingFrameSize > readBuffer.capacity()) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(pendingFrameSize, readBuffer.capacity() * 2));
+                readBuffer.flip();
+                larger.put(readBuffer);
+                readBuffer = larger;
+            }
+        }
+        
+        /**
+         * Consumes the protocol handshake.
+         * @return true once the binary protocol is negotiated and frames may follow
+         */
+        private boolean readHandshake() throws IOException {
+            byte[] magic = ProtocolNegotiator.MAGIC;
+            int available = Math.min(readBuffer.remaining(), magic.length);
+            for (int i = 0; i < available; i++) {
+                if (readBuffer.get(readBuffer.position() + i) != magic[i]) {
+                    handOffLegacy();
+                    return false;
+                }
+            }
+            if (readBuffer.remaining() <= magic.length) {
+                return false;
+            }
+            
+            readBuffer.position(readBuffer.position() + magic.length);
+            int clientVersion = readBuffer.get() & 0xFF;
+            if (clientVersion < 1) {
+                throw new StreamCorruptedException("Invalid binary protocol version: " + clientVersion);
+            }
+            int version = Math.min(clientVersion, BinaryMessageCodec.PROTOCOL_VERSION);
+            
+            byte[] reply = Arrays.copyOf(magic, magic.length + 1);
+            reply[magic.length] = (byte) version;
+            enqueueWrite(ByteBuffer.wrap(reply));
+            negotiated = true;
+            
+            String clientId = UUID.randomUUID().toString();
+            System.out.println("New client connecting: " + clientId +
+                             " from " + channel.socket().getInetAddress());
+            // Sends only frame and enqueue, so the writer tasks can share the workers
+            client = new ClientConnection(channel.socket(), clientId, server, new ConnectionTransport(this), workers);
+            server.registerClient(client);
+            endHandshake();
+            execute(() -> {
+                try {
+                    client.onConnected();
+                } catch (Exception e) {
+                    System.err.println("Error in client connection " + clientId + ": " + e.getMessage());
+                    client.close();
+                }
+            });
+            return true;
+        }
+        
+        private void handOffLegacy() {
+            byte[] header = new byte[readBuffer.remaining()];
+            readBuffer.get(header);
+            readBuffer = null;
+            connections.remove(this);
+            key.cancel();
+            legacyHandoffs.add(new LegacyHandoff(channel, header, this::endHandshake));
+        }
+        
+        private void readFrames() throws IOException {
+            pendingFrameSize = 0;
+            while (readBuffer.hasRemaining()) {
+                if (skipRemaining > 0) {
+                    int skip = (int) Math.min(skipRemaining, readBuffer.remaining());
+                    readBuffer.position(readBuffer.position() + skip);
+                    skipRemaining -= skip;
+                    continue;
+                }
+                
+                int frameStart = readBuffer.position();
+                long length = readVarInt(readBuffer);
+                if (length == INCOMPLETE) {
+                    readBuffer.position(frameStart);
+                    return;
+                }
+                if (length <= 0 || length > Integer.MAX_VALUE) {
+                    throw new StreamCorruptedException("Invalid frame length: " + length);
+                }
+                
+                if (length > ClientConnection.MAX_MESSAGE_SIZE) {
+                    // Drop the frame unread, exactly like the blocking BinaryTransport
+                    skipRemaining = length;
+                    execute(client::reportOversizedMessage);
+                    continue;
+                }
+                
+                if (readBuffer.remaining() < length) {
+                    pendingFrameSize = readBuffer.position() - frameStart + (int) length;
+                    readBuffer.position(frameStart);
+                    return;
+                }
+                
+                byte[] frame = new byte[(int) length];
+                readBuffer.get(frame);
+                dispatchFrame(frame);
+            }
+        }
+        
+        private void dispatchFrame(byte[] frame) {
+            if (queuedFrames.incrementAndGet() >= MAX_QUEUED_FRAMES) {
+                // Let TCP push back on the client until the workers catch up
+                readPaused.set(true);
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+                if (queuedFrames.get() <= RESUME_QUEUED_FRAMES && readPaused.compareAndSet(true, false)) {
+                    key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+                }
+            }
+            execute(() -> handleFrame(frame));
+        }
+        
+        void write() throws IOException {
+            ByteBuffer buffer;
+            while ((buffer = writeQueue.peek()) != null) {
+                channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    return; // Socket buffer full, wait for the next OP_WRITE
+                }
+                writeQueue.poll();
+                if (queuedWriteBytes.addAndGet(-buffer.limit()) <= RESUME_QUEUED_WRITE_BYTES) {
+                    resumeWriter();
+                }
+            }
+            
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            writeRequested.set(false);
+            // A sender may have queued data after the loop saw an empty queue
+            if (!writeQueue.isEmpty() && writeRequested.compareAndSet(false, true)) {
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+            }
+        }
+        
+        void checkHeartbeat() {
+            if (!negotiated && System.currentTimeMillis() - acceptedTime > HANDSHAKE_TIMEOUT_MS) {
+                System.out.println("[NIO] Protocol handshake timed out for " + channel.socket().getInetAddress());
+                closeChannel();
+                return;
+            }
+            if (client != null) {
+                execute(() -> {
+                    if (client.isRunning() && !client.checkHeartbeat()) {
+                        client.close();
+                    }
+                });
+            }
+        }
+        
+        void fail(IOException e) {
+            if (!closed.get() && (client == null || client.isRunning())) {
+                String id = client != null ? client.getClientId() : String.valueOf(channel.socket().getInetAddress());
+                System.err.println("IO error receiving message from " + id + ": " + e.getMessage());
+            }
+            disconnect();
+        }
+        
+        // ---- Any thread ----
+        
+        /**
+         * Counts this connection against maxClients until {@link #endHandshake()}.
+         */
+        void startHandshake() {
+            if (handshaking.compareAndSet(false, true)) {
+                handshakingConnections.incrementAndGet();
+            }
+        }
+        
+        /**
+         * Stops counting this connection as a handshake in progress, once it is
+         * registered as a client or closed.
+         */
+        void endHandshake() {
+            if (handshaking.compareAndSet(true, false)) {
+                handshakingConnections.decrementAndGet();
+            }
+        }
+        
+        void enqueueWrite(ByteBuffer buffer) throws IOException {
+            if (closed.get()) {
+                throw new SocketException("Socket closed");
+            }
+            queuedWriteBytes.addAndGet(buffer.remaining());
+            writeQueue.add(buffer);
+            if (writeRequested.compareAndSet(false, true)) {
+                runOnSelector(() -> {
+                    if (key.isValid()) {
+                        key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                    }
+                });
+            }
+        }
+        
+        /**
+         * Parks the caller while too much data is waiting for the socket.
+         * @param resume Run on the selector thread once the queue drains below the low-water mark
+         * @return true if parked, false if the caller may keep writing
+         */
+        boolean deferWrites(Runnable resume) {
+            if (queuedWriteBytes.get() < MAX_QUEUED_WRITE_BYTES || closed.get()) {
+                return false;
+            }
+            writeResume.set(resume);
+            // The selector may have drained the queue before resume was registered
+            if ((queuedWriteBytes.get() <= RESUME_QUEUED_WRITE_BYTES || closed.get())
+                    && writeResume.compareAndSet(resume, null)) {
+                return false;
+            }
+            return true;
+        }
+        
+        private void resumeWriter() {
+            Runnable resume = writeResume.getAndSet(null);
+            if (resume != null) {
+                resume.run();
+            }
+        }
+        
+        /**
+         * Closes the channel and then lets the client connection clean up on its worker.
+         */
+        void disconnect() {
+            closeChannel();
+            if (client != null) {
+                execute(() -> {
+                    if (client.isRunning()) {
+                        System.out.println("Client " + client.getClientId() + " disconnected");
+                        client.close();
+                    }
+                });
+            }
+        }
+        
+        void closeChannel() {
+            endHandshake();
+            if (closed.compareAndSet(false, true)) {
+                connections.remove(this);
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    // Ignore
+                }
+                writeQueue.clear();
+                // A parked writer wakes up to find the channel closed
+                resumeWriter();
+            }
+        }
+        
+        // ---- Worker threads ----
+        
+        private void handleFrame(byte[] frame) {
+            if (queuedFrames.decrementAndGet() <= RESUME_QUEUED_FRAMES && readPaused.compareAndSet(true, false)) {
+                runOnSelector(() -> {
+                    if (key.isValid()) {
+                        key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+                    }
+                });
+            }
+            
+            if (!client.isRunning()) {
+                return;
+            }
+            if (!client.checkConnection()) {
+                client.close();
+                return;
+            }
+            
+            NetworkMessage message;
+            try {
+                message = BinaryMessageCodec.decode(frame);
+            } catch (ClassNotFoundException e) {
+                client.reportUnknownMessageClass(e);
+                return;
+            } catch (IOException e) {
+                System.err.println("IO error receiving message from " + client.getClientId() + ": " + e.getMessage());
+                client.close();
+                return;
+            }
+            
+            try {
+                client.processMessage(message);
+            } catch (Exception e) {
+                client.reportUnexpectedError(e);
+            }
+            
+            if (!client.isRunning()) {
+                client.close();
+            }
+        }
+        
+        /**
+         * Queues a task for this connection. Tasks run one at a time, in order,
+         * on the worker pool.
+         */
+        private void execute(Runnable task) {
+            tasks.add(task);
+            scheduleTasks();
+        }
+        
+        private void scheduleTasks() {
+            if (taskScheduled.compareAndSet(false, true)) {
+                try {
+                    workers.execute(this::runTasks);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                    taskScheduled.set(false);
+                }
+            }
+        }
+        
+        private void runTasks() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    System.err.println("[NIO] Error handling client task: " + e.getMessage());
+                }
+            }
+            taskScheduled.set(false);
+            if (!tasks.isEmpty()) {
+                scheduleTasks();
+            }
+        }
+    }
+    
+    /**
+     * OutboundTransport handed to ClientConnection. Messages are framed on the calling
+     * thread and each flush hands the accumulated frames to the selector as a single
+     * buffer; receiving is driven by the selector.
+     */
+    private static final class ConnectionTransport implements OutboundTransport {
+        
+        private final Connection connection;
+        private final ByteArrayOutputStream payloadBuffer;
+        private final DataOutputStream payloadOutput;
+        private final ByteArrayOutputStream frameBuffer;
+        private final DataOutputStream frameOutput;
+        
+        ConnectionTransport(Connection connection) {
+            this.connection = connection;
+            this.payloadBuffer = new ByteArrayOutputStream(256);
+            this.payloadOutput = new DataOutputStream(payloadBuffer);
+            this.frameBuffer = new ByteArrayOutputStream(256);
+            this.frameOutput = new DataOutputStream(frameBuffer);
+        }
+        
+        @Override
+        public void write(NetworkMessage message) throws IOException {
+            payloadBuffer.reset();
+            BinaryMessageCodec.encode(message, payloadOutput);
+            BinaryMessageCodec.writeVarInt(frameOutput, payloadBuffer.size());
+            payloadBuffer.writeTo(frameOutput);
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            if (frameBuffer.size() == 0) {
+                return;
+            }
+            ByteBuffer frames = ByteBuffer.wrap(frameBuffer.toByteArray());
+            frameBuffer.reset();
+            connection.enqueueWrite(frames);
+        }
+        
+        @Override
+        public boolean deferUntilWritable(Runnable resume) {
+            return connection.deferWrites(resume);
+        }
+        
+        @Override
+        public String getProtocolName() {
+            return "binary-v" + BinaryMessageCodec.PROTOCOL_VERSION + " (nio)";
+        }
+        
+        @Override
+        public void close() {
+            connection.closeChannel();
+        }
+    }
+}
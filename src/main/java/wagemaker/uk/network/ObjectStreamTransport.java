@@ -0,0 +1,154 @@
+package wagemaker.uk.network;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+/**
+ * Legacy transport using Java object serialization.
+ * Kept for clients and servers that predate the binary protocol.
+ * 
+ * The serialization stream has no length prefix, so the size limit is enforced
+ * by counting the bytes consumed while reading each message. Reading stops as
+ * soon as the limit is passed, before the object graph is materialized, and
+ * the stream cannot be resumed afterwards. A server therefore disconnects a
+ * legacy client that sends an oversized message, where it used to read the
+ * whole object and drop it.
+ */
+public class ObjectStreamTransport implements MessageTransport {
+    
+    private final ObjectOutputStream output;
+    private final ObjectInputStream input;
+    private final SizeLimitedInputStream limiter;
+    
+    /**
+     * Creates the object streams, accepting incoming messages of any size.
+     * 
+     * @param in The socket input stream
+     * @param out The socket output stream
+     * @throws IOException if the stream headers cannot be exchanged
+     */
+    public ObjectStreamTransport(InputStream in, OutputStream out) throws IOException {
+        this(in, out, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Creates the object streams. The output stream header is written before the
+     * input stream is opened, so both peers can construct their streams without deadlocking.
+     * 
+     * @param in The socket input stream
+     * @param out The socket output stream
+     * @param maxMessageSize Largest number of bytes a single incoming message may consume
+     * @throws IOException if the stream headers cannot be exchanged
+     */
+    public ObjectStreamTransport(InputStream in, OutputStream out, int maxMessageSize) throws IOException {
+        this.output = new ObjectOutputStream(out);
+        this.output.flush();
+        this.limiter = new SizeLimitedInputStream(in, maxMessageSize);
+        this.input = new ObjectInputStream(limiter);
+    }
+    
+    @Override
+    public void write(NetworkMessage message) throws IOException {
+        output.writeObject(message);
+        output.reset(); // Prevent memory leaks from object caching
+    }
+    
+    @Override
+    public void flush() throws IOException {
+        output.flush();
+    }
+    
+    @Override
+    public NetworkMessage receive() throws IOException, ClassNotFoundException {
+        limiter.startMessage();
+        Object obj = input.readObject();
+        if (!(obj instanceof NetworkMessage)) {
+            throw new InvalidMessageTypeException(obj.getClass().getName());
+        }
+        return (NetworkMessage) obj;
+    }
+    
+    @Override
+    public boolean supportsWorldStreaming() {
+        return false;
+    }
+    
+    @Override
+    public String getProtocolName() {
+        return "java-serialization";
+    }
+    
+    @Override
+    public void close() {
+        try {
+            input.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+        try {
+            output.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+    }
+    
+    /**
+     * Counts the bytes pulled from the socket since the current message started
+     * and fails once they exceed the limit. ObjectInputStream reads ahead in small
+     * blocks, so the count is accurate to within one block.
+     */
+    private static final class SizeLimitedInputStream extends FilterInputStream {
+        
+        private final int limit;
+        private long count;
+        private boolean limited;
+        
+        SizeLimitedInputStream(InputStream in, int limit) {
+            super(in);
+            this.limit = limit;
+        }
+        
+        void startMessage() {
+            count = 0;
+            limited = true;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                consumed(1);
+            }
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                consumed(read);
+            }
+            return read;
+        }
+        
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            if (skipped > 0) {
+                consumed(skipped);
+            }
+            return skipped;
+        }
+        
+        private void consumed(long bytes) throws IOException {
+            count += bytes;
+            if (limited && count > limit) {
+                throw new MessageTooLargeException((int) Math.min(count, Integer.MAX_VALUE), limit, false);
+            }
+        }
+    }
+}
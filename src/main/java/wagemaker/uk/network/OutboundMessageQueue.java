@@ -0,0 +1,301 @@
+package wagemaker.uk.network;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded queue of messages waiting to be written to one client.
+ * 
+ * Broadcasting threads only append to the queue; a single writer per client
+ * drains it, so a client with a full TCP window no longer stalls the thread
+ * that triggered the broadcast. The queue also tracks whether a writer is
+ * currently active, so callers know when they need to start one.
+ * 
+ * With {@link OverflowPolicy#DROP_STALE_MOVEMENT}, a queued movement update is
+ * replaced when a newer one from the same player arrives, and on overflow the
+ * oldest queued movement update is dropped. Other messages are never dropped;
+ * if the queue is full of them the client is too slow and must be disconnected.
+ */
+public class OutboundMessageQueue {
+    
+    /**
+     * What to do when a message is offered to a full queue.
+     */
+    public enum OverflowPolicy {
+        /** Drop superseded and oldest movement updates, disconnect if none are queued. */
+        DROP_STALE_MOVEMENT,
+        /** Disconnect the client as soon as the queue is full. */
+        DISCONNECT
+    }
+    
+    /**
+     * Result of offering a message.
+     */
+    public enum OfferResult {
+        /** Queued, and a writer is already draining the queue. */
+        QUEUED,
+        /** Queued, and the caller must start a writer. */
+        START_WRITER,
+        /** The queue is full and the policy requires disconnecting the client. */
+        OVERFLOW
+    }
+    
+    /**
+     * Queue entry. Superseded movement updates are cleared in place rather than
+     * removed from the middle of the deque.
+     */
+    private static final class Slot {
+        NetworkMessage message;
+        
+        Slot(NetworkMessage message) {
+            this.message = message;
+        }
+    }
+    
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final ArrayDeque<Slot> slots;
+    private final Map<String, Slot> queuedMovement;
+    private final ReentrantLock lock;
+    private final Condition writerIdle;
+    private int size;
+    private int highWaterMark;
+    private long droppedCount;
+    private boolean writerActive;
+    
+    /**
+     * Creates an outbound queue.
+     * @param capacity Maximum number of queued messages
+     * @param policy What to do when the queue is full
+     */
+    public OutboundMessageQueue(int capacity, OverflowPolicy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.policy = policy;
+        this.slots = new ArrayDeque<>();
+        this.queuedMovement = new HashMap<>();
+        this.lock = new ReentrantLock();
+        this.writerIdle = lock.newCondition();
+    }
+    
+    /**
+     * Appends a message.
+     * @param message The message to send
+     * @return Whether the caller must start a writer, or must disconnect the client
+     */
+    public OfferResult offer(NetworkMessage message) {
+        lock.lock();
+        try {
+            String movementKey = movementKey(message);
+            if (movementKey != null) {
+                Slot stale = queuedMovement.remove(movementKey);
+                if (stale != null) {
+                    stale.message = null;
+                    size--;
+                    droppedCount++;
+                }
+            }
+            
+            if (size >= capacity && !dropOldestMovement()) {
+                return OfferResult.OVERFLOW;
+            }
+            
+            Slot slot = new Slot(message);
+            slots.addLast(slot);
+            size++;
+            if (movementKey != null) {
+                queuedMovement.put(movementKey, slot);
+            }
+            highWaterMark = Math.max(highWaterMark, size);
+            if (slots.size() - size > capacity) {
+                slots.removeIf(queued -> queued.message == null);
+            }
+            
+            if (writerActive) {
+                return OfferResult.QUEUED;
+            }
+            writerActive = true;
+            return OfferResult.START_WRITER;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Moves up to maxMessages queued messages into the given list. When the queue
+     * is empty the calling writer is marked as finished, atomically with the check,
+     * so a concurrent offer will start a new writer.
+     * 
+     * @param out The list to add messages to
+     * @param maxMessages Maximum number of messages to move
+     * @return The number of messages moved; 0 means the writer must stop
+     */
+    public int drainTo(List<NetworkMessage> out, int maxMessages) {
+        lock.lock();
+        try {
+            int drained = 0;
+            while (drained < maxMessages && !slots.isEmpty()) {
+                Slot slot = slots.pollFirst();
+                if (slot.message == null) {
+                    continue; // Superseded movement update
+                }
+                String movementKey = movementKey(slot.message);
+                if (movementKey != null) {
+                    queuedMovement.remove(movementKey, slot);
+                }
+                out.add(slot.message);
+                size--;
+                drained++;
+            }
+            if (drained == 0) {
+                writerActive = false;
+                writerIdle.signalAll();
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Makes the caller the writer if no writer is active.
+     * @return true if the caller must now drain the queue
+     */
+    public boolean claimWriter() {
+        lock.lock();
+        try {
+            if (writerActive) {
+                return false;
+            }
+            writerActive = true;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Marks the writer as finished without draining, e.g. after a write error.
+     */
+    public void releaseWriter() {
+        lock.lock();
+        try {
+            writerActive = false;
+            writerIdle.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Waits for the active writer, if any, to finish.
+     * @param timeoutMillis Maximum time to wait
+     * @return true if no writer is active
+     */
+    public boolean awaitWriterIdle(long timeoutMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (writerActive) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = writerIdle.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Discards every queued message.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            slots.clear();
+            queuedMovement.clear();
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Gets the number of messages waiting to be written.
+     * @return The current queue depth
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Gets the deepest the queue has been.
+     * @return The maximum queue depth observed
+     */
+    public int getHighWaterMark() {
+        lock.lock();
+        try {
+            return highWaterMark;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Gets the number of movement updates dropped as stale.
+     * @return The dropped message count
+     */
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return droppedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Gets the maximum number of queued messages.
+     * @return The queue capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    private boolean dropOldestMovement() {
+        if (policy != OverflowPolicy.DROP_STALE_MOVEMENT) {
+            return false;
+        }
+        for (Slot slot : slots) {
+            if (slot.message instanceof PlayerMovementMessage) {
+                queuedMovement.remove(movementKey(slot.message), slot);
+                slot.message = null;
+                size--;
+                droppedCount++;
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private String movementKey(NetworkMessage message) {
+        if (policy != OverflowPolicy.DROP_STALE_MOVEMENT || !(message instanceof PlayerMovementMessage)) {
+            return null;
+        }
+        return message.getSenderId();
+    }
+}
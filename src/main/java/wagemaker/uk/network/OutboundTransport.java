@@ -0,0 +1,68 @@
+package wagemaker.uk.network;
+
+import java.io.IOException;
+
+/**
+ * The sending side of a connected message stream. Transports whose incoming
+ * messages are read by someone else, such as the NIO selector, implement only
+ * this; blocking transports implement {@link MessageTransport}.
+ * 
+ * Implementations are not thread-safe: callers must serialize calls to
+ * the sending methods.
+ */
+public interface OutboundTransport {
+    
+    /**
+     * Writes a message and flushes it to the socket.
+     * @param message The message to send
+     * @throws IOException if the connection fails
+     */
+    default void send(NetworkMessage message) throws IOException {
+        write(message);
+        flush();
+    }
+    
+    /**
+     * Buffers a message without flushing, so several messages can share one flush.
+     * @param message The message to write
+     * @throws IOException if the connection fails
+     */
+    void write(NetworkMessage message) throws IOException;
+    
+    /**
+     * Flushes all written messages to the socket.
+     * @throws IOException if the connection fails
+     */
+    void flush() throws IOException;
+    
+    /**
+     * Checks whether flushed data is piling up faster than the socket takes it.
+     * Blocking transports push back inside {@link #flush()} and never defer.
+     * 
+     * @param resume Run once the buffered data has drained, if this returns true
+     * @return true if the caller should stop writing until resume runs
+     */
+    default boolean deferUntilWritable(Runnable resume) {
+        return false;
+    }
+    
+    /**
+     * Checks whether the peer understands the chunked initial world download.
+     * Legacy serialization clients predate WorldChunkMessage and need the whole world at once.
+     * @return true if the world may be streamed in chunks
+     */
+    default boolean supportsWorldStreaming() {
+        return true;
+    }
+    
+    /**
+     * Gets a short name for the wire protocol, used in log messages.
+     * @return The protocol name
+     */
+    String getProtocolName();
+    
+    /**
+     * Closes the underlying streams. The socket itself is closed by the owner.
+     */
+    void close();
+}
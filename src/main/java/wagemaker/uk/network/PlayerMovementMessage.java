@@ -10,6 +10,8 @@ public class PlayerMovementMessage extends NetworkMessage {
     private float y;
     private Direction direction;
     private boolean isMoving;
+    private int sequence; // Client input sequence number, 0 if unsequenced
+    private int correctionSequence; // Sequence acknowledged by the last correction the client applied, 0 if none
     
     public PlayerMovementMessage() {
         super();
@@ -23,6 +25,17 @@ public class PlayerMovementMessage extends NetworkMessage {
         this.isMoving = isMoving;
     }
     
+    public PlayerMovementMessage(String senderId, float x, float y, Direction direction, boolean isMoving, int sequence) {
+        this(senderId, x, y, direction, isMoving);
+        this.sequence = sequence;
+    }
+    
+    public PlayerMovementMessage(String senderId, float x, float y, Direction direction, boolean isMoving,
+                                 int sequence, int correctionSequence) {
+        this(senderId, x, y, direction, isMoving, sequence);
+        this.correctionSequence = correctionSequence;
+    }
+    
     @Override
     public MessageType getType() {
         return MessageType.PLAYER_MOVEMENT;
@@ -43,4 +56,31 @@ public class PlayerMovementMessage extends NetworkMessage {
     public boolean isMoving() {
         return isMoving;
     }
+    
+    /**
+     * Gets the sending client's input sequence number for this position.
+     * Only meaningful from client to server; relayed copies carry 0.
+     * @return The sequence number, or 0 if the sender does not number its updates
+     */
+    public int getSequence() {
+        return sequence;
+    }
+    
+    public void setSequence(int sequence) {
+        this.sequence = sequence;
+    }
+    
+    /**
+     * Gets the sequence acknowledged by the last position correction the client
+     * applied before sending this update. The server skips updates sent before
+     * its latest correction reached the client.
+     * @return The acknowledged sequence, or 0 if the client has not been corrected
+     */
+    public int getCorrectionSequence() {
+        return correctionSequence;
+    }
+    
+    public void setCorrectionSequence(int correctionSequence) {
+        this.correctionSequence = correctionSequence;
+    }
 }
@@ -0,0 +1,113 @@
+package wagemaker.uk.network;
+
+/**
+ * Message sent when another player enters or leaves a client's area of interest.
+ * Unlike PlayerJoinMessage and PlayerLeaveMessage, the player has not joined or
+ * left the server; the client only starts or stops receiving their updates.
+ */
+public class PlayerVisibilityMessage extends NetworkMessage {
+    private static final long serialVersionUID = 1L;
+    
+    private String playerId;
+    private String playerName;
+    private String characterSprite;
+    private float x;
+    private float y;
+    private Direction direction;
+    private float health;
+    private boolean visible;
+    
+    /**
+     * Default constructor for serialization.
+     */
+    public PlayerVisibilityMessage() {
+        super();
+    }
+    
+    /**
+     * Creates a message announcing that a player came into view.
+     * @param player The current state of the player
+     * @return The visibility message
+     */
+    public static PlayerVisibilityMessage entered(PlayerState player) {
+        return new PlayerVisibilityMessage(player.getPlayerId(), player.getPlayerName(),
+            player.getCharacterSprite(), player.getX(), player.getY(), player.getDirection(),
+            player.getHealth(), true);
+    }
+    
+    /**
+     * Creates a message announcing that a player went out of view.
+     * @param player The current state of the player
+     * @return The visibility message
+     */
+    public static PlayerVisibilityMessage left(PlayerState player) {
+        return new PlayerVisibilityMessage(player.getPlayerId(), player.getPlayerName(),
+            player.getCharacterSprite(), player.getX(), player.getY(), player.getDirection(),
+            player.getHealth(), false);
+    }
+    
+    /**
+     * Creates a new player visibility message.
+     * @param playerId The unique ID of the player
+     * @param playerName The name of the player
+     * @param characterSprite The character sprite filename
+     * @param x The player's x position
+     * @param y The player's y position
+     * @param direction The direction the player is facing
+     * @param health The player's health
+     * @param visible true if the player came into view, false if they went out of view
+     */
+    public PlayerVisibilityMessage(String playerId, String playerName, String characterSprite,
+                                   float x, float y, Direction direction, float health, boolean visible) {
+        super("server");
+        this.playerId = playerId;
+        this.playerName = playerName;
+        this.characterSprite = characterSprite;
+        this.x = x;
+        this.y = y;
+        this.direction = direction;
+        this.health = health;
+        this.visible = visible;
+    }
+    
+    @Override
+    public MessageType getType() {
+        return MessageType.PLAYER_VISIBILITY;
+    }
+    
+    public String getPlayerId() {
+        return playerId;
+    }
+    
+    public String getPlayerName() {
+        return playerName;
+    }
+    
+    public String getCharacterSprite() {
+        return characterSprite;
+    }
+    
+    public float getX() {
+        return x;
+    }
+    
+    public float getY() {
+        return y;
+    }
+    
+    public Direction getDirection() {
+        return direction;
+    }
+    
+    public float getHealth() {
+        return health;
+    }
+    
+    /**
+     * Checks whether the player came into view.
+     * @return true if entered, false if left
+     */
+    public boolean isVisible() {
+        return visible;
+    }
+}
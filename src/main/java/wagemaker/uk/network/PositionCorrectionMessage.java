@@ -2,7 +2,7 @@ package wagemaker.uk.network;
 
 /**
  * Message sent by the server to correct a client's position when desynchronization is detected.
- * The client should smoothly interpolate to the corrected position.
+ * The client replays its movement after the acknowledged sequence on top of the corrected position.
  */
 public class PositionCorrectionMessage extends NetworkMessage {
     private static final long serialVersionUID = 1L;
@@ -12,6 +12,7 @@ public class PositionCorrectionMessage extends NetworkMessage {
     private float correctedY;
     private Direction correctedDirection;
     private String reason;
+    private int acknowledgedSequence; // Last client input sequence the correction applies to, 0 if unknown
     
     public PositionCorrectionMessage() {
         super();
@@ -26,6 +27,12 @@ public class PositionCorrectionMessage extends NetworkMessage {
         this.reason = reason;
     }
     
+    public PositionCorrectionMessage(String senderId, String playerId, float correctedX, float correctedY, Direction correctedDirection,
+                                     String reason, int acknowledgedSequence) {
+        this(senderId, playerId, correctedX, correctedY, correctedDirection, reason);
+        this.acknowledgedSequence = acknowledgedSequence;
+    }
+    
     @Override
     public MessageType getType() {
         return MessageType.POSITION_CORRECTION;
@@ -70,4 +77,17 @@ public class PositionCorrectionMessage extends NetworkMessage {
     public void setReason(String reason) {
         this.reason = reason;
     }
+    
+    /**
+     * Gets the last movement sequence number the server processed before this correction.
+     * The corrected position is the server's position after that update.
+     * @return The acknowledged sequence number, or 0 if the client does not number its updates
+     */
+    public int getAcknowledgedSequence() {
+        return acknowledgedSequence;
+    }
+    
+    public void setAcknowledgedSequence(int acknowledgedSequence) {
+        this.acknowledgedSequence = acknowledgedSequence;
+    }
 }
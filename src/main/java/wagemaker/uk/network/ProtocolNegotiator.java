@@ -0,0 +1,138 @@
+package wagemaker.uk.network;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.Arrays;
+
+/**
+ * Chooses the wire protocol for a new connection.
+ * 
+ * Binary clients open the connection by sending {@link #MAGIC} followed by
+ * their protocol version, and the server answers with the same magic and the
+ * version it will use. Legacy clients start with a Java serialization stream
+ * header instead, which the server detects by peeking at the first bytes and
+ * then serves with {@link ObjectStreamTransport}. A binary client talking to a
+ * legacy server sees a serialization header in reply and reconnects in legacy mode.
+ */
+public final class ProtocolNegotiator {
+    
+    /** Bytes that open a binary protocol handshake ("WDLN"). */
+    static final byte[] MAGIC = {'W', 'D', 'L', 'N'};
+    
+    private static final int HANDSHAKE_TIMEOUT_MS = 10000;
+    private static final int BUFFER_SIZE = 8192;
+    
+    private ProtocolNegotiator() {
+    }
+    
+    /**
+     * Server side: detects the client's protocol and creates the matching transport
+     * without an incoming message size limit.
+     * @param socket The accepted client socket
+     * @return The transport for this client
+     * @throws IOException if the handshake fails or times out
+     */
+    public static MessageTransport accept(Socket socket) throws IOException {
+        return accept(socket, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Server side: detects the client's protocol and creates the matching transport.
+     * @param socket The accepted client socket
+     * @param maxMessageSize Largest incoming message in bytes; larger messages are
+     *                       rejected by the transport before they are decoded
+     * @return The transport for this client
+     * @throws IOException if the handshake fails or times out
+     */
+    public static MessageTransport accept(Socket socket, int maxMessageSize) throws IOException {
+        int previousTimeout = socket.getSoTimeout();
+        socket.setSoTimeout(HANDSHAKE_TIMEOUT_MS);
+        try {
+            BufferedInputStream in = new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE);
+            OutputStream out = socket.getOutputStream();
+            
+            in.mark(MAGIC.length);
+            byte[] header = readBytes(in, MAGIC.length);
+            if (!Arrays.equals(header, MAGIC)) {
+                // Legacy client - replay the serialization header to the object stream
+                in.reset();
+                return new ObjectStreamTransport(in, out, maxMessageSize);
+            }
+            
+            int clientVersion = in.read();
+            if (clientVersion < 1) {
+                throw new IOException("Invalid binary protocol version: " + clientVersion);
+            }
+            int version = Math.min(clientVersion, BinaryMessageCodec.PROTOCOL_VERSION);
+            out.write(MAGIC);
+            out.write(version);
+            out.flush();
+            return new BinaryTransport(in, out, maxMessageSize);
+        } finally {
+            if (!socket.isClosed()) {
+                socket.setSoTimeout(previousTimeout);
+            }
+        }
+    }
+    
+    /**
+     * Client side: requests the binary protocol.
+     * @param socket The connected socket
+     * @return The binary transport, or null if the server only speaks the legacy
+     *         protocol (the socket must then be closed and a new one opened)
+     * @throws IOException if the handshake fails or times out
+     */
+    public static MessageTransport connectBinary(Socket socket) throws IOException {
+        int previousTimeout = socket.getSoTimeout();
+        socket.setSoTimeout(HANDSHAKE_TIMEOUT_MS);
+        try {
+            OutputStream out = socket.getOutputStream();
+            out.write(MAGIC);
+            out.write(BinaryMessageCodec.PROTOCOL_VERSION);
+            out.flush();
+            
+            BufferedInputStream in = new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE);
+            byte[] header = readBytes(in, MAGIC.length);
+            if (!Arrays.equals(header, MAGIC)) {
+                return null;
+            }
+            
+            int version = in.read();
+            if (version != BinaryMessageCodec.PROTOCOL_VERSION) {
+                throw new IOException("Unsupported binary protocol version from server: " + version);
+            }
+            return new BinaryTransport(in, out);
+        } finally {
+            if (!socket.isClosed()) {
+                socket.setSoTimeout(previousTimeout);
+            }
+        }
+    }
+    
+    /**
+     * Client side: opens the legacy Java serialization protocol.
+     * @param socket The connected socket
+     * @return The legacy transport
+     * @throws IOException if the stream headers cannot be exchanged
+     */
+    public static MessageTransport connectLegacy(Socket socket) throws IOException {
+        return new ObjectStreamTransport(socket.getInputStream(), socket.getOutputStream());
+    }
+    
+    private static byte[] readBytes(InputStream in, int count) throws IOException {
+        byte[] bytes = new byte[count];
+        int offset = 0;
+        while (offset < count) {
+            int read = in.read(bytes, offset, count - offset);
+            if (read < 0) {
+                throw new EOFException("Connection closed during protocol handshake");
+            }
+            offset += read;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,283 @@
+package wagemaker.uk.network;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-rate simulation loop for the authoritative server.
+ * 
+ * Connection threads no longer change the world themselves: they queue each
+ * received message as a command, and the tick thread applies the queued
+ * commands in arrival order, so WorldState is mutated from one thread.
+ * Background work follows the same rule: the chunk generation worker only
+ * plans chunks and submits the results as commands. Other threads may read
+ * WorldState but must not change it while the loop runs.
+ * 
+ * Player movement is not relayed per packet; each tick sends the latest
+ * movement of every player that moved, and the messages a tick produces for a
+ * client are written together with a single flush. Outbound traffic therefore
+ * scales with the tick rate rather than with the inbound packet rate.
+ */
+public class ServerTickLoop {
+    
+    private final GameServer server;
+    private final int tickRate;
+    private final long tickPeriodNanos;
+    private final Queue<Runnable> commands;
+    private final ScheduledExecutorService scheduler;
+    
+    // Only touched by the tick thread
+    private final Map<String, PlayerMovementMessage> movedPlayers;
+    private final List<ClientConnection> deferredWriters;
+    
+    private volatile Thread tickThread;
+    private volatile boolean running;
+    private volatile long tickCount;
+    private volatile long commandsProcessed;
+    private volatile long lastTickNanos;
+    private volatile long maxTickNanos;
+    private volatile long overrunCount;
+    
+    /**
+     * Creates a tick loop for the given server. Call {@link #start()} to run it.
+     * @param server The game server whose world is simulated
+     * @param tickRate Ticks per second
+     */
+    public ServerTickLoop(GameServer server, int tickRate) {
+        if (tickRate < 1) {
+            throw new IllegalArgumentException("Tick rate must be at least 1");
+        }
+        this.server = server;
+        this.tickRate = tickRate;
+        this.tickPeriodNanos = TimeUnit.SECONDS.toNanos(1) / tickRate;
+        this.commands = new ConcurrentLinkedQueue<>();
+        this.movedPlayers = new LinkedHashMap<>();
+        this.deferredWriters = new ArrayList<>();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ServerTick");
+            thread.setDaemon(true);
+            tickThread = thread;
+            return thread;
+        });
+    }
+    
+    /**
+     * Starts ticking at the configured rate.
+     */
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        scheduler.scheduleAtFixedRate(this::tick, tickPeriodNanos, tickPeriodNanos, TimeUnit.NANOSECONDS);
+        System.out.println("[ServerTick] Tick loop started at " + tickRate + " Hz");
+    }
+    
+    /**
+     * Stops the tick loop. Commands still queued are discarded.
+     */
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(2, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        commands.clear();
+        System.out.println("[ServerTick] Tick loop stopped after " + tickCount + " ticks");
+    }
+    
+    /**
+     * Queues a command to run on the tick thread during the next tick.
+     * @param command The command to run
+     * @return false if the loop is not running and the command was not queued
+     */
+    public boolean submit(Runnable command) {
+        if (!running) {
+            return false;
+        }
+        commands.add(command);
+        return true;
+    }
+    
+    /**
+     * Checks whether the caller is the tick thread.
+     * @return true if called from within a tick
+     */
+    public boolean isTickThread() {
+        return Thread.currentThread() == tickThread;
+    }
+    
+    /**
+     * Records an accepted movement update to relay at the end of the tick.
+     * A later update from the same player in the same tick replaces it.
+     * Must be called on the tick thread.
+     * @param message The movement message from the player
+     */
+    void onPlayerMoved(PlayerMovementMessage message) {
+        movedPlayers.put(message.getSenderId(), message);
+    }
+    
+    /**
+     * Drops a player's pending movement update, e.g. after the player left.
+     * Must be called on the tick thread.
+     * @param playerId The player (client) ID
+     */
+    void forgetPlayer(String playerId) {
+        movedPlayers.remove(playerId);
+    }
+    
+    /**
+     * Holds back starting a client's writer until the end of the tick, so all
+     * messages the tick produces for that client share one flush.
+     * @param client The client whose outbound queue needs a writer
+     * @return true if the writer will be started by the tick; false if the
+     *         caller is not the tick thread and must start it itself
+     */
+    boolean deferWriter(ClientConnection client) {
+        if (!isTickThread()) {
+            return false;
+        }
+        deferredWriters.add(client);
+        return true;
+    }
+    
+    /**
+     * Runs one tick: applies the queued commands, relays movement and starts
+     * the writers of every client that was sent something.
+     */
+    void tick() {
+        long startTime = System.nanoTime();
+        
+        // Only run the commands queued before this tick started, so a flood of
+        // new packets cannot keep the tick from finishing
+        int pending = commands.size();
+        for (int i = 0; i < pending; i++) {
+            Runnable command = commands.poll();
+            if (command == null) {
+                break;
+            }
+            try {
+                command.run();
+            } catch (Exception e) {
+                System.err.println("[ServerTick] Error processing command: " + e.getMessage());
+            }
+        }
+        commandsProcessed += pending;
+        
+        try {
+            broadcastMovement();
+        } catch (Exception e) {
+            System.err.println("[ServerTick] Error broadcasting movement: " + e.getMessage());
+        }
+        startDeferredWriters();
+        
+        long elapsed = System.nanoTime() - startTime;
+        lastTickNanos = elapsed;
+        maxTickNanos = Math.max(maxTickNanos, elapsed);
+        if (elapsed > tickPeriodNanos) {
+            overrunCount++;
+        }
+        tickCount++;
+    }
+    
+    private void broadcastMovement() {
+        if (movedPlayers.isEmpty()) {
+            return;
+        }
+        for (PlayerMovementMessage message : movedPlayers.values()) {
+            server.broadcastToInterestedExcept(message, message.getX(), message.getY(), message.getSenderId());
+        }
+        movedPlayers.clear();
+    }
+    
+    private void startDeferredWriters() {
+        for (ClientConnection client : deferredWriters) {
+            try {
+                client.startWriter();
+            } catch (RejectedExecutionException e) {
+                // Server is shutting down
+            }
+        }
+        deferredWriters.clear();
+    }
+    
+    /**
+     * Gets the configured tick rate.
+     * @return Ticks per second
+     */
+    public int getTickRate() {
+        return tickRate;
+    }
+    
+    /**
+     * Gets the number of completed ticks.
+     * @return The tick count
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+    
+    /**
+     * Gets the number of commands applied so far.
+     * @return The processed command count
+     */
+    public long getCommandsProcessed() {
+        return commandsProcessed;
+    }
+    
+    /**
+     * Gets the number of commands waiting for the next tick.
+     * @return The queued command count
+     */
+    public int getQueuedCommandCount() {
+        return commands.size();
+    }
+    
+    /**
+     * Gets how long the last tick took.
+     * @return The duration in nanoseconds
+     */
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+    
+    /**
+     * Gets the longest tick so far.
+     * @return The duration in nanoseconds
+     */
+    public long getMaxTickNanos() {
+        return maxTickNanos;
+    }
+    
+    /**
+     * Gets the number of ticks that took longer than the tick period.
+     * @return The overrun count
+     */
+    public long getOverrunCount() {
+        return overrunCount;
+    }
+    
+    /**
+     * Checks if the tick loop is running.
+     * @return true if ticking
+     */
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,102 @@
+package wagemaker.uk.network;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Message carrying the trees, stones, items and cleared positions of one
+ * spatial chunk of the world during a joining client's initial download.
+ * Chunks are sent nearest-first after the WorldStateMessage that announces them.
+ */
+public class WorldChunkMessage extends NetworkMessage {
+    private static final long serialVersionUID = 1L;
+    
+    private int chunkX;
+    private int chunkY;
+    private int chunkIndex;
+    private int chunkCount;
+    private Map<String, TreeState> trees;
+    private Map<String, StoneState> stones;
+    private Map<String, ItemState> items;
+    private Set<String> clearedPositions;
+    
+    /**
+     * Default constructor for serialization.
+     */
+    public WorldChunkMessage() {
+        super();
+    }
+    
+    /**
+     * Creates a world chunk message.
+     * @param senderId The sender ID
+     * @param chunkX The chunk x-coordinate
+     * @param chunkY The chunk y-coordinate
+     * @param chunkIndex Position of this chunk in the download, from 0
+     * @param chunkCount Total number of chunks in the download
+     * @param trees The trees in the chunk
+     * @param stones The stones in the chunk
+     * @param items The items in the chunk
+     * @param clearedPositions The cleared positions in the chunk
+     */
+    public WorldChunkMessage(String senderId, int chunkX, int chunkY, int chunkIndex, int chunkCount,
+                             Map<String, TreeState> trees,
+                             Map<String, StoneState> stones,
+                             Map<String, ItemState> items,
+                             Set<String> clearedPositions) {
+        super(senderId);
+        this.chunkX = chunkX;
+        this.chunkY = chunkY;
+        this.chunkIndex = chunkIndex;
+        this.chunkCount = chunkCount;
+        this.trees = trees;
+        this.stones = stones;
+        this.items = items;
+        this.clearedPositions = clearedPositions;
+    }
+    
+    @Override
+    public MessageType getType() {
+        return MessageType.WORLD_CHUNK;
+    }
+    
+    public int getChunkX() {
+        return chunkX;
+    }
+    
+    public int getChunkY() {
+        return chunkY;
+    }
+    
+    public int getChunkIndex() {
+        return chunkIndex;
+    }
+    
+    public int getChunkCount() {
+        return chunkCount;
+    }
+    
+    /**
+     * Checks if this is the last chunk of the download.
+     * @return true if no more chunks follow
+     */
+    public boolean isLastChunk() {
+        return chunkIndex == chunkCount - 1;
+    }
+    
+    public Map<String, TreeState> getTrees() {
+        return trees;
+    }
+    
+    public Map<String, StoneState> getStones() {
+        return stones;
+    }
+    
+    public Map<String, ItemState> getItems() {
+        return items;
+    }
+    
+    public Set<String> getClearedPositions() {
+        return clearedPositions;
+    }
+}
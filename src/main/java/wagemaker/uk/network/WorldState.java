@@ -1,7 +1,12 @@
 package wagemaker.uk.network;
 
+import wagemaker.uk.biome.BiomeQueryService;
+import wagemaker.uk.biome.BiomeType;
 import wagemaker.uk.weather.RainConfig;
 import wagemaker.uk.weather.RainZone;
+import wagemaker.uk.world.CollisionGrid;
+import wagemaker.uk.world.SpatialHashGrid;
+import wagemaker.uk.world.TileKey;
 import wagemaker.uk.world.WorldSaveData;
 
 import java.io.Serializable;
@@ -37,6 +42,12 @@ public class WorldState implements Serializable {
     private int currentPlayerSandAreaX;
     private int currentPlayerSandAreaY;
     
+    // Spatial indexes over trees, stones and items, rebuilt lazily from the maps when invalidated
+    private transient volatile SpatialHashGrid<TreeState> treeIndex;
+    private transient volatile SpatialHashGrid<StoneState> stoneIndex;
+    private transient volatile SpatialHashGrid<ItemState> itemIndex;
+    
+    
     public WorldState() {
         this.players = new ConcurrentHashMap<>();
         this.trees = new ConcurrentHashMap<>();
@@ -56,10 +67,25 @@ public class WorldState implements Serializable {
     }
     
     public WorldState(long worldSeed) {
+        this(worldSeed, true);
+    }
+    
+    /**
+     * Creates a world state for the given seed.
+     * Pass false for generateInitialTrees when the maps are about to be filled from
+     * another source (a snapshot, a network message or a save), so the 5000x5000
+     * spawn area is not generated only to be overwritten.
+     * 
+     * @param worldSeed The world seed
+     * @param generateInitialTrees true to generate the initial trees around spawn
+     */
+    public WorldState(long worldSeed, boolean generateInitialTrees) {
         this();
         this.worldSeed = worldSeed;
-        // Generate initial trees around spawn point
-        generateInitialTrees();
+        if (generateInitialTrees) {
+            // Generate initial trees around spawn point
+            generateInitialTrees();
+        }
         // Initialize rain zones
         initializeRainZones();
     }
@@ -94,23 +120,9 @@ public class WorldState implements Serializable {
     private void generateInitialTrees() {
         java.util.Random random = new java.util.Random();
         
-        // Create a temporary BiomeManager for biome queries during initial generation
-        // This ensures server-side tree generation respects biome boundaries
-        wagemaker.uk.biome.BiomeManager biomeManager = null;
-        boolean useBiomeAwareness = true;
-        
-        try {
-            biomeManager = new wagemaker.uk.biome.BiomeManager();
-            biomeManager.initialize();
-            System.out.println("BiomeManager initialized successfully in WorldState (thread: " + Thread.currentThread().getName() + ")");
-        } catch (Exception e) {
-            // BiomeManager initialization failed (likely due to OpenGL context issues on background thread)
-            // Fall back to generating trees without biome awareness
-            System.err.println("BiomeManager initialization failed in WorldState, generating trees without biome awareness: " + e.getMessage());
-            e.printStackTrace();
-            useBiomeAwareness = false;
-            biomeManager = null;
-        }
+        // Biome queries go through the shared, GL-free biome service so server-side
+        // generation respects biome boundaries on any thread
+        BiomeQueryService biomeQuery = BiomeQueryService.getInstance();
         
         // Generate trees in a 5000x5000 area around spawn (-2500 to +2500)
         // This gives players plenty of trees to explore
@@ -122,8 +134,6 @@ public class WorldState implements Serializable {
         
         for (int x = minX; x <= maxX; x += gridSize) {
             for (int y = minY; y <= maxY; y += gridSize) {
-                String key = x + "," + y;
-                
                 // STEP 1: Set deterministic random seed (same as client-side generation)
                 random.setSeed(worldSeed + x * 31L + y * 17L);
                 
@@ -148,11 +158,8 @@ public class WorldState implements Serializable {
                         treeY = y + offsetY;
                         
                         // Check biome type first to determine minimum distance
-                        wagemaker.uk.biome.BiomeType biomeCheck = null;
-                        if (useBiomeAwareness && biomeManager != null) {
-                            biomeCheck = biomeManager.getBiomeAtPosition(treeX, treeY);
-                        }
-                        float minDistance = (biomeCheck == wagemaker.uk.biome.BiomeType.SAND) ? 50f : 192f;
+                        BiomeType biomeCheck = biomeQuery.getBiomeAtPosition(treeX, treeY);
+                        float minDistance = (biomeCheck == BiomeType.SAND) ? 50f : 192f;
                         
                         // Check if any tree is too close (192px for grass, 50px for sand)
                         if (!isTreeTooClose(treeX, treeY, minDistance)) {
@@ -176,47 +183,30 @@ public class WorldState implements Serializable {
                     // This ensures server generates the same biome-specific trees as clients
                     TreeType treeType = null;
                     
-                    if (useBiomeAwareness && biomeManager != null) {
-                        wagemaker.uk.biome.BiomeType biome = biomeManager.getBiomeAtPosition(treeX, treeY);
-                        
-                        // STEP 5: Generate tree based on biome type (SAME LOGIC AS CLIENT)
-                        if (biome == wagemaker.uk.biome.BiomeType.SAND) {
-                            // Sand biomes: bamboo trees with 30% spawn rate (reduced by 70%)
-                            if (random.nextFloat() < 0.3f) {
-                                treeType = TreeType.BAMBOO;
-                            }
-                        } else {
-                            // Grass biomes: adjusted tree type distribution
-                            // SmallTree: 42.5% (increased by 30% from 32.5%)
-                            // AppleTree: 12.5% (reduced by 50% from 25%)
-                            // CoconutTree: 32.5% (unchanged)
-                            // BananaTree: 12.5% (reduced by 50% from 25%)
-                            float treeTypeRoll = random.nextFloat();
-                            
-                            if (treeTypeRoll < 0.425f) {
-                                treeType = TreeType.SMALL;
-                            } else if (treeTypeRoll < 0.55f) {
-                                treeType = TreeType.APPLE;
-                            } else if (treeTypeRoll < 0.875f) {
-                                treeType = TreeType.COCONUT;
-                            } else {
-                                treeType = TreeType.BANANA;
-                            }
+                    BiomeType biome = biomeQuery.getBiomeAtPosition(treeX, treeY);
+                    
+                    // STEP 5: Generate tree based on biome type (SAME LOGIC AS CLIENT)
+                    if (biome == BiomeType.SAND) {
+                        // Sand biomes: bamboo trees with 30% spawn rate (reduced by 70%)
+                        if (random.nextFloat() < 0.3f) {
+                            treeType = TreeType.BAMBOO;
                         }
                     } else {
-                        // Fallback: generate trees without biome awareness (all types equally)
+                        // Grass biomes: adjusted tree type distribution
+                        // SmallTree: 42.5% (increased by 30% from 32.5%)
+                        // AppleTree: 12.5% (reduced by 50% from 25%)
+                        // CoconutTree: 32.5% (unchanged)
+                        // BananaTree: 12.5% (reduced by 50% from 25%)
                         float treeTypeRoll = random.nextFloat();
                         
-                        if (treeTypeRoll < 0.2f) {
+                        if (treeTypeRoll < 0.425f) {
                             treeType = TreeType.SMALL;
-                        } else if (treeTypeRoll < 0.4f) {
+                        } else if (treeTypeRoll < 0.55f) {
                             treeType = TreeType.APPLE;
-                        } else if (treeTypeRoll < 0.6f) {
+                        } else if (treeTypeRoll < 0.875f) {
                             treeType = TreeType.COCONUT;
-                        } else if (treeTypeRoll < 0.8f) {
-                            treeType = TreeType.BANANA;
                         } else {
-                            treeType = TreeType.BAMBOO;
+                            treeType = TreeType.BANANA;
                         }
                     }
                     
@@ -226,47 +216,39 @@ public class WorldState implements Serializable {
                     }
                     
                     // Create tree state with full health and randomized position
+                    String key = TileKey.toId(TileKey.pack(x, y));
                     TreeState tree = new TreeState(key, treeType, treeX, treeY, 100.0f, true);
                     this.trees.put(key, tree);
+                    treeIndex().put(key, treeX, treeY, tree);
                 }
             }
         }
         
-        // Clean up temporary BiomeManager
-        if (biomeManager != null) {
-            biomeManager.dispose();
-        }
-        
-        if (useBiomeAwareness) {
-            System.out.println("Generated " + trees.size() + " initial biome-specific trees for world seed: " + worldSeed);
-        } else {
-            System.out.println("Generated " + trees.size() + " initial trees (without biome awareness) for world seed: " + worldSeed);
-        }
+        System.out.println("Generated " + trees.size() + " initial biome-specific trees for world seed: " + worldSeed);
     }
     
     /**
      * Checks if there's a tree nearby within the specified distance.
+     * Only the spatial index buckets around the position are visited.
      */
     private boolean isTreeNearby(int x, int y, int minDistance) {
-        for (TreeState tree : trees.values()) {
-            if (!tree.isExists()) {
-                continue;
+        return treeIndex().anyNear(x, y, minDistance, (id, tree) -> {
+            if (!tree.isExists() || trees.get(id) != tree) {
+                return false;
             }
             
             float dx = tree.getX() - x;
             float dy = tree.getY() - y;
             float distance = (float) Math.sqrt(dx * dx + dy * dy);
             
-            if (distance < minDistance) {
-                return true;
-            }
-        }
-        return false;
+            return distance < minDistance;
+        });
     }
     
     /**
      * Checks if a tree position is too close to any existing tree.
      * Uses float coordinates for precise overlap detection.
+     * Only the spatial index buckets around the position are visited.
      * 
      * @param x The x-coordinate to check
      * @param y The y-coordinate to check
@@ -274,20 +256,17 @@ public class WorldState implements Serializable {
      * @return true if too close to another tree, false otherwise
      */
     private boolean isTreeTooClose(float x, float y, float minDistance) {
-        for (TreeState tree : trees.values()) {
-            if (!tree.isExists()) {
-                continue;
+        return treeIndex().anyNear(x, y, minDistance, (id, tree) -> {
+            if (!tree.isExists() || trees.get(id) != tree) {
+                return false;
             }
             
             float dx = tree.getX() - x;
             float dy = tree.getY() - y;
             float distance = (float) Math.sqrt(dx * dx + dy * dy);
             
-            if (distance < minDistance) {
-                return true;
-            }
-        }
-        return false;
+            return distance < minDistance;
+        });
     }
     
     /**
@@ -299,120 +278,142 @@ public class WorldState implements Serializable {
      * @return The generated TreeState, or null if no tree should exist at this position
      */
     public TreeState generateTreeAt(int x, int y) {
-        String key = x + "," + y;
+        String key = TileKey.toId(TileKey.pack(x, y));
         
         // Check if tree already exists
         if (trees.containsKey(key)) {
             return trees.get(key);
         }
         
-        // Check if position has a planted sapling
-        if (plantedTrees.containsKey(key) || plantedBamboos.containsKey(key) || 
-            plantedBananaTrees.containsKey(key) || plantedAppleTrees.containsKey(key)) {
-            System.out.println("[DEBUG] Skipping generation at " + key + " - sapling exists");
-            return null;
-        }
+        TreePlan plan = planTreeAt(x, y);
+        return plan != null ? placePlannedTree(plan) : null;
+    }
+    
+    /**
+     * The tree {@link #generateTreeAt} would place at a tile, worked out from the
+     * seed and the biomes alone. Holds every candidate position the generator may
+     * try; which one is used depends on the trees around it when it is placed.
+     */
+    static final class TreePlan {
+        private static final int MAX_ATTEMPTS = 5;
         
-        // Check if position was cleared (prevents immediate regeneration)
-        if (clearedPositions.contains(key)) {
-            System.out.println("[DEBUG] Skipping generation at " + key + " - position cleared");
-            return null;
-        }
+        final String key;
+        private final float[] treeX = new float[MAX_ATTEMPTS];
+        private final float[] treeY = new float[MAX_ATTEMPTS];
+        private final float[] minDistance = new float[MAX_ATTEMPTS];
+        private final TreeType[] treeType = new TreeType[MAX_ATTEMPTS]; // null if that candidate spawns nothing
         
+        private TreePlan(String key) {
+            this.key = key;
+        }
+    }
+    
+    /**
+     * Plans the tree for a tile without reading or changing the world, so the
+     * noise and biome work can run off the thread that mutates WorldState.
+     * 
+     * @param x The x-coordinate (aligned to the 64px grid)
+     * @param y The y-coordinate (aligned to the 64px grid)
+     * @return The plan, or null if the tile fails the spawn roll
+     */
+    TreePlan planTreeAt(int x, int y) {
         // Use deterministic random seed (same as client-side generation)
         java.util.Random random = new java.util.Random();
         random.setSeed(worldSeed + x * 31L + y * 17L);
         
         // Check spawn probability (2% chance)
-        if (random.nextFloat() < 0.02f) {
+        if (random.nextFloat() >= 0.02f) {
+            return null;
+        }
+        
+        // Each attempt draws two offsets; the type roll is the draw after the attempt that is used
+        float[] draws = new float[2 * TreePlan.MAX_ATTEMPTS + 1];
+        for (int i = 0; i < draws.length; i++) {
+            draws[i] = random.nextFloat();
+        }
+        
+        TreePlan plan = new TreePlan(TileKey.toId(TileKey.pack(x, y)));
+        for (int attempt = 0; attempt < TreePlan.MAX_ATTEMPTS; attempt++) {
             // Add random offset to break grid pattern (±32px in each direction)
-            // Try multiple times to find a position without overlapping trees
-            float treeX = 0, treeY = 0;
-            boolean validPosition = false;
-            int maxAttempts = 5;
-            
-            for (int attempt = 0; attempt < maxAttempts; attempt++) {
-                float offsetX = (random.nextFloat() - 0.5f) * 64; // -32 to +32
-                float offsetY = (random.nextFloat() - 0.5f) * 64; // -32 to +32
-                treeX = x + offsetX;
-                treeY = y + offsetY;
-                
-                // Check biome type first to determine minimum distance
-                wagemaker.uk.biome.BiomeManager tempBiomeManager = new wagemaker.uk.biome.BiomeManager();
-                tempBiomeManager.initialize();
-                wagemaker.uk.biome.BiomeType biomeCheck = tempBiomeManager.getBiomeAtPosition(treeX, treeY);
-                tempBiomeManager.dispose();
-                
-                float minDistance = (biomeCheck == wagemaker.uk.biome.BiomeType.SAND) ? 50f : 192f;
-                
-                // Check if any tree is too close (192px for grass, 50px for sand)
-                if (!isTreeTooClose(treeX, treeY, minDistance)) {
-                    validPosition = true;
-                    break;
-                }
-            }
+            float treeX = x + (draws[2 * attempt] - 0.5f) * 64;
+            float treeY = y + (draws[2 * attempt + 1] - 0.5f) * 64;
+            plan.treeX[attempt] = treeX;
+            plan.treeY[attempt] = treeY;
             
-            // If no valid position found after attempts, skip this tree
-            if (!validPosition) {
-                return null;
-            }
+            // Biome type determines the minimum distance (192px for grass, 50px for sand)
+            BiomeType biome = BiomeQueryService.getInstance().getBiomeAtPosition(treeX, treeY);
+            plan.minDistance[attempt] = (biome == BiomeType.SAND) ? 50f : 192f;
             
             // Don't spawn trees too close to spawn point (within 200px)
             // This is deterministic based on coordinates only
             float distanceFromSpawn = (float) Math.sqrt(treeX * treeX + treeY * treeY);
             if (distanceFromSpawn < 200) {
-                return null;
+                continue;
             }
             
-            // Determine tree type using biome-aware logic (if available)
-            TreeType treeType = null;
-            
-            // Try to use biome manager for tree type determination
-            try {
-                wagemaker.uk.biome.BiomeManager biomeManager = new wagemaker.uk.biome.BiomeManager();
-                biomeManager.initialize();
-                wagemaker.uk.biome.BiomeType biome = biomeManager.getBiomeAtPosition(treeX, treeY);
-                biomeManager.dispose();
-                
-                if (biome == wagemaker.uk.biome.BiomeType.SAND) {
-                    // Sand biomes: bamboo trees with 30% spawn rate (reduced by 70%)
-                    if (random.nextFloat() < 0.3f) {
-                        treeType = TreeType.BAMBOO;
-                    }
-                } else {
-                    // Grass biomes: adjusted tree type distribution
-                    // SmallTree: 42.5% (increased by 30% from 32.5%)
-                    // AppleTree: 12.5% (reduced by 50% from 25%)
-                    // CoconutTree: 32.5% (unchanged)
-                    // BananaTree: 12.5% (reduced by 50% from 25%)
-                    float treeTypeRoll = random.nextFloat();
-                    if (treeTypeRoll < 0.425f) {
-                        treeType = TreeType.SMALL;
-                    } else if (treeTypeRoll < 0.55f) {
-                        treeType = TreeType.APPLE;
-                    } else if (treeTypeRoll < 0.875f) {
-                        treeType = TreeType.COCONUT;
-                    } else {
-                        treeType = TreeType.BANANA;
-                    }
+            float typeRoll = draws[2 * attempt + 2];
+            if (biome == BiomeType.SAND) {
+                // Sand biomes: bamboo trees with 30% spawn rate (reduced by 70%)
+                if (typeRoll < 0.3f) {
+                    plan.treeType[attempt] = TreeType.BAMBOO;
                 }
-            } catch (Exception e) {
-                // Fallback: generate without biome awareness
-                float treeTypeRoll = random.nextFloat();
-                if (treeTypeRoll < 0.2f) {
-                    treeType = TreeType.SMALL;
-                } else if (treeTypeRoll < 0.4f) {
-                    treeType = TreeType.APPLE;
-                } else if (treeTypeRoll < 0.6f) {
-                    treeType = TreeType.COCONUT;
-                } else if (treeTypeRoll < 0.8f) {
-                    treeType = TreeType.BANANA;
+            } else {
+                // Grass biomes: adjusted tree type distribution
+                // SmallTree: 42.5% (increased by 30% from 32.5%)
+                // AppleTree: 12.5% (reduced by 50% from 25%)
+                // CoconutTree: 32.5% (unchanged)
+                // BananaTree: 12.5% (reduced by 50% from 25%)
+                if (typeRoll < 0.425f) {
+                    plan.treeType[attempt] = TreeType.SMALL;
+                } else if (typeRoll < 0.55f) {
+                    plan.treeType[attempt] = TreeType.APPLE;
+                } else if (typeRoll < 0.875f) {
+                    plan.treeType[attempt] = TreeType.COCONUT;
                 } else {
-                    treeType = TreeType.BAMBOO;
+                    plan.treeType[attempt] = TreeType.BANANA;
                 }
             }
+        }
+        return plan;
+    }
+    
+    /**
+     * Places a planned tree unless its tile already has a tree or a sapling, was
+     * cleared, or every candidate position is too close to another tree. Must run
+     * on the thread that mutates WorldState.
+     * 
+     * @param plan The plan from {@link #planTreeAt}
+     * @return The new tree, or null if none was placed
+     */
+    TreeState placePlannedTree(TreePlan plan) {
+        String key = plan.key;
+        if (trees.containsKey(key)) {
+            return null;
+        }
+        
+        // Check if position has a planted sapling
+        if (plantedTrees.containsKey(key) || plantedBamboos.containsKey(key) || 
+            plantedBananaTrees.containsKey(key) || plantedAppleTrees.containsKey(key)) {
+            System.out.println("[DEBUG] Skipping generation at " + key + " - sapling exists");
+            return null;
+        }
+        
+        // Check if position was cleared (prevents immediate regeneration)
+        if (clearedPositions.contains(key)) {
+            System.out.println("[DEBUG] Skipping generation at " + key + " - position cleared");
+            return null;
+        }
+        
+        // Use the first candidate position without overlapping trees
+        for (int attempt = 0; attempt < TreePlan.MAX_ATTEMPTS; attempt++) {
+            float treeX = plan.treeX[attempt];
+            float treeY = plan.treeY[attempt];
+            if (isTreeTooClose(treeX, treeY, plan.minDistance[attempt])) {
+                continue;
+            }
             
-            // If no tree type was selected (e.g., bamboo didn't pass 30% check), return null
+            // Near the spawn point, or no tree type was selected (e.g., bamboo didn't pass 30% check)
+            TreeType treeType = plan.treeType[attempt];
             if (treeType == null) {
                 return null;
             }
@@ -420,9 +421,11 @@ public class WorldState implements Serializable {
             // Create and store the tree with randomized position
             TreeState tree = new TreeState(key, treeType, treeX, treeY, 100.0f, true);
             this.trees.put(key, tree);
+            treeIndex().put(key, treeX, treeY, tree);
             return tree;
         }
         
+        // No valid position found after all attempts, skip this tree
         return null;
     }
     
@@ -435,60 +438,117 @@ public class WorldState implements Serializable {
      * @return The generated StoneState, or null if no stone should exist at this position
      */
     public StoneState generateStoneAt(int x, int y, float playerX, float playerY) {
-        String key = x + "," + y;
+        String key = TileKey.toId(TileKey.pack(x, y));
         
         // Check if stone already exists or was cleared
         if (stones.containsKey(key) || clearedPositions.contains(key)) {
             return stones.get(key);
         }
         
+        StoneState stone = planStoneAt(x, y, playerX, playerY);
+        return stone != null ? placePlannedStone(stone) : null;
+    }
+    
+    /**
+     * Works out the stone {@link #generateStoneAt} would place at a tile without
+     * reading or changing the world, so it can run off the thread that mutates
+     * WorldState.
+     * 
+     * @param x The x-coordinate (aligned to the 64px grid)
+     * @param y The y-coordinate (aligned to the 64px grid)
+     * @param playerX The x-coordinate of the player the stone must keep away from
+     * @param playerY The y-coordinate of the player the stone must keep away from
+     * @return The stone, not yet in the world, or null if the tile gets none
+     */
+    StoneState planStoneAt(int x, int y, float playerX, float playerY) {
         // Use deterministic random seed (same as client-side generation)
         java.util.Random random = new java.util.Random();
         random.setSeed(worldSeed + x * 37L + y * 23L);
         
         // Stone spawn probability: 0.002 (0.2%) - on sand biomes only
-        if (random.nextFloat() < 0.002f) {
-            // Add random offset to break grid pattern
-            float offsetX = (random.nextFloat() - 0.5f) * 64;
-            float offsetY = (random.nextFloat() - 0.5f) * 64;
-            float stoneX = x + offsetX;
-            float stoneY = y + offsetY;
-            
-            // Check distance from player (512px minimum) - skip if too close
-            float distFromPlayer = (float) Math.sqrt((stoneX - playerX) * (stoneX - playerX) + (stoneY - playerY) * (stoneY - playerY));
-            if (distFromPlayer < 512) {
-                return null;
-            }
-            
-            // Only spawn stones on sand biomes
-            try {
-                wagemaker.uk.biome.BiomeManager biomeManager = new wagemaker.uk.biome.BiomeManager();
-                biomeManager.initialize();
-                wagemaker.uk.biome.BiomeType biome = biomeManager.getBiomeAtPosition(stoneX, stoneY);
-                biomeManager.dispose();
-                
-                if (biome != wagemaker.uk.biome.BiomeType.SAND) {
-                    return null;
-                }
-            } catch (Exception e) {
-                return null;
-            }
-            
-            // Don't spawn stones too close to spawn point (within 200px)
-            float distanceFromSpawn = (float) Math.sqrt(stoneX * stoneX + stoneY * stoneY);
-            if (distanceFromSpawn < 200) {
-                return null;
-            }
-            
-            // Create and store the stone
-            StoneState stone = new StoneState(key, stoneX, stoneY, 50.0f);
-            this.stones.put(key, stone);
-            return stone;
+        if (random.nextFloat() >= 0.002f) {
+            return null;
         }
         
-        return null;
+        // Add random offset to break grid pattern
+        float offsetX = (random.nextFloat() - 0.5f) * 64;
+        float offsetY = (random.nextFloat() - 0.5f) * 64;
+        float stoneX = x + offsetX;
+        float stoneY = y + offsetY;
+        
+        // Check distance from player (512px minimum) - skip if too close
+        float distFromPlayer = (float) Math.sqrt((stoneX - playerX) * (stoneX - playerX) + (stoneY - playerY) * (stoneY - playerY));
+        if (distFromPlayer < 512) {
+            return null;
+        }
+        
+        // Only spawn stones on sand biomes
+        BiomeType biome = BiomeQueryService.getInstance().getBiomeAtPosition(stoneX, stoneY);
+        if (biome != BiomeType.SAND) {
+            return null;
+        }
+        
+        // Don't spawn stones too close to spawn point (within 200px)
+        float distanceFromSpawn = (float) Math.sqrt(stoneX * stoneX + stoneY * stoneY);
+        if (distanceFromSpawn < 200) {
+            return null;
+        }
+        
+        return new StoneState(TileKey.toId(TileKey.pack(x, y)), stoneX, stoneY, 50.0f);
     }
-
+    
+    /**
+     * Places a planned stone unless its tile already has one or was cleared.
+     * Must run on the thread that mutates WorldState.
+     * 
+     * @param stone The stone from {@link #planStoneAt}
+     * @return The stone, or null if it was not placed
+     */
+    StoneState placePlannedStone(StoneState stone) {
+        String key = stone.getStoneId();
+        if (stones.containsKey(key) || clearedPositions.contains(key)) {
+            return null;
+        }
+        this.stones.put(key, stone);
+        stoneIndex().put(key, stone.getX(), stone.getY(), stone);
+        return stone;
+    }
+    
+    /**
+     * Checks the spawn roll {@link #generateTreeAt} makes for a tile, without
+     * allocating. A tile that fails it never gets a generated tree.
+     * 
+     * @param x The x-coordinate (aligned to the 64px grid)
+     * @param y The y-coordinate (aligned to the 64px grid)
+     * @return true if the tile passes the 2% tree spawn chance
+     */
+    boolean passesTreeSpawnRoll(int x, int y) {
+        return firstRandomFloat(worldSeed + x * 31L + y * 17L) < 0.02f;
+    }
+    
+    /**
+     * Checks the spawn roll {@link #generateStoneAt} makes for a tile, without
+     * allocating. A tile that fails it never gets a generated stone.
+     * 
+     * @param x The x-coordinate (aligned to the 64px grid)
+     * @param y The y-coordinate (aligned to the 64px grid)
+     * @return true if the tile passes the 0.2% stone spawn chance
+     */
+    boolean passesStoneSpawnRoll(int x, int y) {
+        return firstRandomFloat(worldSeed + x * 37L + y * 23L) < 0.002f;
+    }
+    
+    /**
+     * Computes the first nextFloat() of a java.util.Random with the given seed,
+     * following the generator's specified algorithm, without creating one.
+     */
+    static float firstRandomFloat(long seed) {
+        long mask = (1L << 48) - 1;
+        long scrambled = (seed ^ 0x5DEECE66DL) & mask;
+        long next = (scrambled * 0x5DEECE66DL + 0xBL) & mask;
+        return (int) (next >>> (48 - 24)) / ((float) (1 << 24));
+    }
+    
     
     /**
      * Creates a complete snapshot of the current world state.
@@ -497,7 +557,9 @@ public class WorldState implements Serializable {
      * @return A deep copy of the current world state
      */
     public WorldState createSnapshot() {
-        WorldState snapshot = new WorldState(this.worldSeed);
+        // Copy only the authoritative maps - regenerating the spawn area here would cost
+        // a full world generation per join and leave stray trees in the snapshot
+        WorldState snapshot = new WorldState(this.worldSeed, false);
         
         // Deep copy players
         for (Map.Entry<String, PlayerState> entry : this.players.entrySet()) {
@@ -622,6 +684,7 @@ public class WorldState implements Serializable {
         }
         
         snapshot.lastUpdateTimestamp = this.lastUpdateTimestamp;
+        snapshot.invalidateSpatialIndexes();
         
         return snapshot;
     }
@@ -693,9 +756,11 @@ public class WorldState implements Serializable {
                 if (!tree.isExists()) {
                     // Tree was destroyed, remove it
                     this.trees.remove(entry.getKey());
+                    treeIndex().remove(entry.getKey());
                     this.clearedPositions.add(entry.getKey());
                 } else {
                     this.trees.put(entry.getKey(), tree);
+                    treeIndex().put(entry.getKey(), tree.getX(), tree.getY(), tree);
                 }
             }
         }
@@ -707,8 +772,10 @@ public class WorldState implements Serializable {
                 if (item.isCollected()) {
                     // Item was collected, remove it
                     this.items.remove(entry.getKey());
+                    itemIndex().remove(entry.getKey());
                 } else {
                     this.items.put(entry.getKey(), item);
+                    itemIndex().put(entry.getKey(), item.getX(), item.getY(), item);
                 }
             }
         }
@@ -740,6 +807,7 @@ public class WorldState implements Serializable {
     
     public void setTrees(Map<String, TreeState> trees) {
         this.trees = trees;
+        this.treeIndex = null;
     }
     
     public Map<String, StoneState> getStones() {
@@ -748,6 +816,7 @@ public class WorldState implements Serializable {
     
     public void setStones(Map<String, StoneState> stones) {
         this.stones = stones;
+        this.stoneIndex = null;
     }
     
     public Map<String, ItemState> getItems() {
@@ -756,6 +825,7 @@ public class WorldState implements Serializable {
     
     public void setItems(Map<String, ItemState> items) {
         this.items = items;
+        this.itemIndex = null;
     }
     
     public Set<String> getClearedPositions() {
@@ -841,6 +911,7 @@ public class WorldState implements Serializable {
     public void addOrUpdateTree(TreeState tree) {
         if (tree != null) {
             this.trees.put(tree.getTreeId(), tree);
+            treeIndex().put(tree.getTreeId(), tree.getX(), tree.getY(), tree);
             this.lastUpdateTimestamp = System.currentTimeMillis();
         }
     }
@@ -849,8 +920,20 @@ public class WorldState implements Serializable {
      * Removes a tree from the world state (marks it as destroyed).
      */
     public void removeTree(String treeId) {
-        this.trees.remove(treeId);
+        // Cleared before removal, so a generator never sees the tile both empty and uncleared
         this.clearedPositions.add(treeId);
+        this.trees.remove(treeId);
+        treeIndex().remove(treeId);
+        this.lastUpdateTimestamp = System.currentTimeMillis();
+    }
+    
+    /**
+     * Removes a tree without marking its position cleared, for a tree that is
+     * replaced in place by a sapling or respawned.
+     */
+    public void removeTreeWithoutClearing(String treeId) {
+        this.trees.remove(treeId);
+        treeIndex().remove(treeId);
         this.lastUpdateTimestamp = System.currentTimeMillis();
     }
     
@@ -860,6 +943,7 @@ public class WorldState implements Serializable {
     public void addOrUpdateStone(StoneState stone) {
         if (stone != null) {
             this.stones.put(stone.getStoneId(), stone);
+            stoneIndex().put(stone.getStoneId(), stone.getX(), stone.getY(), stone);
             this.lastUpdateTimestamp = System.currentTimeMillis();
         }
     }
@@ -869,10 +953,14 @@ public class WorldState implements Serializable {
      */
     public void removeStone(String stoneId) {
         System.out.println("[WorldState] removeStone called for: " + stoneId);
+        // Add to cleared positions to prevent immediate regeneration, before the
+        // stone disappears so a generator never sees the tile empty and uncleared
+        if (this.stones.containsKey(stoneId)) {
+            clearedPositions.add(stoneId);
+        }
         StoneState stone = this.stones.remove(stoneId);
+        stoneIndex().remove(stoneId);
         if (stone != null) {
-            // Add to cleared positions to prevent immediate regeneration
-            clearedPositions.add(stoneId);
             System.out.println("[WorldState] Stone removed and position cleared: " + stoneId);
             
             int stoneAreaX = (int)stone.getX() / 512;
@@ -890,6 +978,7 @@ public class WorldState implements Serializable {
     public void addOrUpdateItem(ItemState item) {
         if (item != null) {
             this.items.put(item.getItemId(), item);
+            itemIndex().put(item.getItemId(), item.getX(), item.getY(), item);
             this.lastUpdateTimestamp = System.currentTimeMillis();
         }
     }
@@ -899,9 +988,159 @@ public class WorldState implements Serializable {
      */
     public void removeItem(String itemId) {
         this.items.remove(itemId);
+        itemIndex().remove(itemId);
         this.lastUpdateTimestamp = System.currentTimeMillis();
     }
     
+    // Spatial queries
+    
+    /**
+     * Gets the trees within a radius of a position.
+     * Only the spatial index buckets overlapping the radius are visited.
+     * 
+     * @param x The x-coordinate of the query centre
+     * @param y The y-coordinate of the query centre
+     * @param radius The query radius in pixels
+     * @return The trees whose position lies within the radius
+     */
+    public List<TreeState> getTreesNear(float x, float y, float radius) {
+        List<TreeState> result = new ArrayList<>();
+        treeIndex().collectWithin(x, y, radius, result);
+        result.removeIf(tree -> trees.get(tree.getTreeId()) != tree);
+        return result;
+    }
+    
+    /**
+     * Gets the stones within a radius of a position.
+     * Only the spatial index buckets overlapping the radius are visited.
+     * 
+     * @param x The x-coordinate of the query centre
+     * @param y The y-coordinate of the query centre
+     * @param radius The query radius in pixels
+     * @return The stones whose position lies within the radius
+     */
+    public List<StoneState> getStonesNear(float x, float y, float radius) {
+        List<StoneState> result = new ArrayList<>();
+        stoneIndex().collectWithin(x, y, radius, result);
+        result.removeIf(stone -> stones.get(stone.getStoneId()) != stone);
+        return result;
+    }
+    
+    /**
+     * Gets the items within a radius of a position.
+     * Only the spatial index buckets overlapping the radius are visited.
+     * 
+     * @param x The x-coordinate of the query centre
+     * @param y The y-coordinate of the query centre
+     * @param radius The query radius in pixels
+     * @return The items whose position lies within the radius
+     */
+    public List<ItemState> getItemsNear(float x, float y, float radius) {
+        List<ItemState> result = new ArrayList<>();
+        itemIndex().collectWithin(x, y, radius, result);
+        result.removeIf(item -> items.get(item.getItemId()) != item);
+        return result;
+    }
+    
+    /**
+     * Checks whether a box overlaps the trunk of a tree or a stone.
+     * Uses the same collision boxes as the client, and only visits the
+     * spatial index buckets around the box.
+     * 
+     * @param x The x-coordinate of the box
+     * @param y The y-coordinate of the box
+     * @param width The width of the box
+     * @param height The height of the box
+     * @return true if the box is blocked by a tree or stone
+     */
+    public boolean collidesWithStaticObject(float x, float y, float width, float height) {
+        float centerX = x + width / 2;
+        float centerY = y + height / 2;
+        float radius = Math.max(width, height) / 2 + CollisionGrid.QUERY_MARGIN;
+        boolean blockedByTree = treeIndex().anyNear(centerX, centerY, radius, (id, tree) ->
+            tree.isExists() && trees.get(id) == tree
+                && CollisionGrid.forTree(tree.getType(), tree.getX(), tree.getY()).overlaps(x, y, width, height));
+        if (blockedByTree) {
+            return true;
+        }
+        return stoneIndex().anyNear(centerX, centerY, radius, (id, stone) ->
+            stones.get(id) == stone
+                && CollisionGrid.forStone(stone.getX(), stone.getY()).overlaps(x, y, width, height));
+    }
+    
+    /**
+     * Gets the tree spatial index, building it from the tree map if needed.
+     */
+    private SpatialHashGrid<TreeState> treeIndex() {
+        SpatialHashGrid<TreeState> index = treeIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = treeIndex;
+                if (index == null) {
+                    index = new SpatialHashGrid<>();
+                    for (Map.Entry<String, TreeState> entry : trees.entrySet()) {
+                        TreeState tree = entry.getValue();
+                        index.put(entry.getKey(), tree.getX(), tree.getY(), tree);
+                    }
+                    treeIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+    
+    /**
+     * Gets the stone spatial index, building it from the stone map if needed.
+     */
+    private SpatialHashGrid<StoneState> stoneIndex() {
+        SpatialHashGrid<StoneState> index = stoneIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = stoneIndex;
+                if (index == null) {
+                    index = new SpatialHashGrid<>();
+                    for (Map.Entry<String, StoneState> entry : stones.entrySet()) {
+                        StoneState stone = entry.getValue();
+                        index.put(entry.getKey(), stone.getX(), stone.getY(), stone);
+                    }
+                    stoneIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+    
+    /**
+     * Gets the item spatial index, building it from the item map if needed.
+     */
+    private SpatialHashGrid<ItemState> itemIndex() {
+        SpatialHashGrid<ItemState> index = itemIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = itemIndex;
+                if (index == null) {
+                    index = new SpatialHashGrid<>();
+                    for (Map.Entry<String, ItemState> entry : items.entrySet()) {
+                        ItemState item = entry.getValue();
+                        index.put(entry.getKey(), item.getX(), item.getY(), item);
+                    }
+                    itemIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+    
+    /**
+     * Drops the spatial indexes so they are rebuilt from the maps on next use.
+     * Called after the entity maps are replaced or bulk-copied.
+     */
+    private void invalidateSpatialIndexes() {
+        this.treeIndex = null;
+        this.stoneIndex = null;
+        this.itemIndex = null;
+    }
+    
     // World Save/Load Methods
     
     /**
@@ -1304,6 +1543,7 @@ public class WorldState implements Serializable {
             
             // Update timestamp
             this.lastUpdateTimestamp = System.currentTimeMillis();
+            invalidateSpatialIndexes();
             
             // Validate restored state
             if (!validateRestoredState()) {
@@ -1384,6 +1624,8 @@ public class WorldState implements Serializable {
             this.rainZones = new ArrayList<>();
         }
         
+        invalidateSpatialIndexes();
+        
         // Keep players collection but don't clear it - multiplayer clients should remain
         // Only clear if this is a singleplayer restore
         if (this.players != null && this.players.size() <= 1) {
@@ -1523,6 +1765,7 @@ public class WorldState implements Serializable {
             this.clearedPositions.addAll(rollbackState.clearedPositions);
             this.rainZones = new ArrayList<>(rollbackState.rainZones);
             this.lastUpdateTimestamp = rollbackState.lastUpdateTimestamp;
+            invalidateSpatialIndexes();
             
             // Don't rollback players in multiplayer scenarios
             if (this.players.size() <= 1) {
@@ -1548,6 +1791,7 @@ public class WorldState implements Serializable {
             
             if (distance > 1024) {
                 this.stones.put(entry.getKey(), stone);
+                stoneIndex().put(entry.getKey(), stone.getX(), stone.getY(), stone);
                 return true;
             }
             return false;
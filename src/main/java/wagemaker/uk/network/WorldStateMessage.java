@@ -2,6 +2,8 @@ package wagemaker.uk.network;
 
 import wagemaker.uk.weather.RainZone;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -9,6 +11,10 @@ import java.util.Set;
 /**
  * Message containing the complete world state snapshot.
  * Sent to clients when they first connect to synchronize the world.
+ * 
+ * When the world is streamed, this message only carries the seed, players and
+ * rain zones, and the trees, stones, items and cleared positions follow in
+ * {@link #getStreamedChunkCount()} WorldChunkMessages.
  */
 public class WorldStateMessage extends NetworkMessage {
     private static final long serialVersionUID = 1L;
@@ -20,6 +26,7 @@ public class WorldStateMessage extends NetworkMessage {
     private Map<String, ItemState> items;
     private Set<String> clearedPositions;
     private List<RainZone> rainZones;
+    private int streamedChunkCount;
     
     public WorldStateMessage() {
         super();
@@ -42,6 +49,15 @@ public class WorldStateMessage extends NetworkMessage {
         this.rainZones = rainZones;
     }
     
+    public WorldStateMessage(String senderId, long worldSeed, 
+                            Map<String, PlayerState> players,
+                            List<RainZone> rainZones,
+                            int streamedChunkCount) {
+        this(senderId, worldSeed, players, new HashMap<>(), new HashMap<>(), new HashMap<>(),
+             new HashSet<>(), rainZones);
+        this.streamedChunkCount = streamedChunkCount;
+    }
+    
     @Override
     public MessageType getType() {
         return MessageType.WORLD_STATE;
@@ -74,4 +90,12 @@ public class WorldStateMessage extends NetworkMessage {
     public List<RainZone> getRainZones() {
         return rainZones;
     }
+    
+    /**
+     * Gets the number of WorldChunkMessages that follow this message.
+     * @return The chunk count, or 0 if this message holds the whole world
+     */
+    public int getStreamedChunkCount() {
+        return streamedChunkCount;
+    }
 }
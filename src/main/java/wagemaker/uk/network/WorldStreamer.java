@@ -0,0 +1,220 @@
+package wagemaker.uk.network;
+
+import wagemaker.uk.world.LongHashSet;
+import wagemaker.uk.world.LongObjectHashMap;
+import wagemaker.uk.world.TileKey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streams the world to a joining client as spatial chunks, nearest-first.
+ * 
+ * Instead of one WorldStateMessage holding every tree, stone, item and cleared
+ * position, the world is split into {@link #CHUNK_SIZE} square chunks sent in
+ * order of distance from the player. Only a few chunks are queued for the
+ * client at a time: the client's writer asks for more after each flushed batch,
+ * so the download is paced by the TCP connection instead of filling the
+ * outbound queue. Each chunk is read from the live world when it is sent, after
+ * any earlier changes were broadcast, so it never overwrites a newer update.
+ */
+public class WorldStreamer {
+    
+    /** Size of a download chunk in pixels. */
+    public static final int CHUNK_SIZE = 1024;
+    
+    /** Chunks (and other messages) allowed in the client's outbound queue before waiting. */
+    static final int MAX_QUEUED_MESSAGES = 8;
+    
+    private final ClientConnection client;
+    private final GameServer server;
+    private final long[] chunkKeys; // Nearest first
+    private final LongObjectHashMap<Set<String>> clearedByChunk;
+    private final AtomicBoolean refillPending;
+    private int nextChunk; // Guarded by this
+    private volatile boolean complete;
+    
+    /**
+     * Plans the download of the given world around a position.
+     * @param client The joining client
+     * @param server The game server
+     * @param originX The x-coordinate the nearest chunks are measured from
+     * @param originY The y-coordinate the nearest chunks are measured from
+     */
+    public WorldStreamer(ClientConnection client, GameServer server, float originX, float originY) {
+        this.client = client;
+        this.server = server;
+        this.refillPending = new AtomicBoolean();
+        
+        WorldState worldState = server.getWorldState();
+        LongHashSet keys = new LongHashSet();
+        for (TreeState tree : worldState.getTrees().values()) {
+            keys.add(chunkKey(tree.getX(), tree.getY()));
+        }
+        for (StoneState stone : worldState.getStones().values()) {
+            keys.add(chunkKey(stone.getX(), stone.getY()));
+        }
+        for (ItemState item : worldState.getItems().values()) {
+            keys.add(chunkKey(item.getX(), item.getY()));
+        }
+        
+        // Cleared positions are "x,y" keys; they only grow, so group them once up front.
+        // Any key that is not a position goes with the chunk around the origin.
+        int originChunkX = chunkCoord(originX);
+        int originChunkY = chunkCoord(originY);
+        long originKey = chunkKey(originX, originY);
+        this.clearedByChunk = new LongObjectHashMap<>();
+        for (String position : worldState.getClearedPositions()) {
+            long key = originKey;
+            if (TileKey.isTileId(position)) {
+                long tile = TileKey.parse(position);
+                key = chunkKey(TileKey.x(tile), TileKey.y(tile));
+            } else {
+                String[] coords = position.split(",");
+                if (coords.length == 2) {
+                    try {
+                        key = chunkKey(Float.parseFloat(coords[0]), Float.parseFloat(coords[1]));
+                    } catch (NumberFormatException e) {
+                        // Not a position key
+                    }
+                }
+            }
+            Set<String> group = clearedByChunk.get(key);
+            if (group == null) {
+                group = new HashSet<>();
+                clearedByChunk.put(key, group);
+            }
+            group.add(position);
+            keys.add(key);
+        }
+        
+        this.chunkKeys = Arrays.stream(keys.toArray()).boxed()
+            .sorted((a, b) -> Long.compare(
+                distanceSquared(a, originChunkX, originChunkY), distanceSquared(b, originChunkX, originChunkY)))
+            .mapToLong(Long::longValue)
+            .toArray();
+        this.complete = chunkKeys.length == 0;
+    }
+    
+    /**
+     * Gets the number of chunks in the download.
+     * @return The chunk count
+     */
+    public int getChunkCount() {
+        return chunkKeys.length;
+    }
+    
+    /**
+     * Checks whether every chunk has been queued for the client.
+     * @return true if the download has been fully queued
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+    
+    /**
+     * Queues more chunks if the client's outbound queue has room. Called after
+     * the WorldStateMessage was queued and after each batch the client's writer
+     * flushes. With a tick loop the chunks are read on the tick thread, so they
+     * are consistent with the broadcasts around them.
+     */
+    void requestMoreChunks() {
+        if (complete || client.getOutboundQueueDepth() >= MAX_QUEUED_MESSAGES
+                || !refillPending.compareAndSet(false, true)) {
+            return;
+        }
+        ServerTickLoop tickLoop = server.getTickLoop();
+        if (tickLoop == null || !tickLoop.submit(this::refill)) {
+            refill();
+        }
+    }
+    
+    private void refill() {
+        try {
+            synchronized (this) {
+                while (nextChunk < chunkKeys.length && client.getOutboundQueueDepth() < MAX_QUEUED_MESSAGES) {
+                    client.sendMessage(buildChunk(nextChunk));
+                    nextChunk++;
+                }
+                if (nextChunk >= chunkKeys.length) {
+                    complete = true;
+                }
+            }
+        } finally {
+            refillPending.set(false);
+        }
+    }
+    
+    private WorldChunkMessage buildChunk(int index) {
+        long key = chunkKeys[index];
+        int chunkX = TileKey.x(key);
+        int chunkY = TileKey.y(key);
+        float centerX = (chunkX + 0.5f) * CHUNK_SIZE;
+        float centerY = (chunkY + 0.5f) * CHUNK_SIZE;
+        float radius = CHUNK_SIZE * 0.7072f; // Circle around the square chunk
+        
+        // Copy the live entities here (on the tick thread when there is one): the
+        // writer serializes the chunk later, while the tick keeps changing them
+        WorldState worldState = server.getWorldState();
+        Map<String, TreeState> trees = new HashMap<>();
+        for (TreeState tree : worldState.getTreesNear(centerX, centerY, radius)) {
+            if (chunkKey(tree.getX(), tree.getY()) == key) {
+                trees.put(tree.getTreeId(), new TreeState(tree.getTreeId(), tree.getType(),
+                    tree.getX(), tree.getY(), tree.getHealth(), tree.isExists()));
+            }
+        }
+        Map<String, StoneState> stones = new HashMap<>();
+        for (StoneState stone : worldState.getStonesNear(centerX, centerY, radius)) {
+            if (chunkKey(stone.getX(), stone.getY()) == key) {
+                stones.put(stone.getStoneId(), new StoneState(stone.getStoneId(),
+                    stone.getX(), stone.getY(), stone.getHealth()));
+            }
+        }
+        Map<String, ItemState> items = new HashMap<>();
+        for (ItemState item : worldState.getItemsNear(centerX, centerY, radius)) {
+            if (chunkKey(item.getX(), item.getY()) == key) {
+                items.put(item.getItemId(), new ItemState(item.getItemId(), item.getType(),
+                    item.getX(), item.getY(), item.isCollected()));
+            }
+        }
+        Set<String> cleared = clearedByChunk.get(key);
+        if (cleared == null) {
+            cleared = new HashSet<>();
+        }
+        
+        return new WorldChunkMessage("server", chunkX, chunkY, index, chunkKeys.length,
+            trees, stones, items, cleared);
+    }
+    
+    /**
+     * Lists the chunk coordinates of the download in sending order, for diagnostics.
+     * @return The chunk coordinates as {x, y} pairs
+     */
+    List<int[]> getChunkOrder() {
+        List<int[]> order = new ArrayList<>(chunkKeys.length);
+        for (long key : chunkKeys) {
+            order.add(new int[] {TileKey.x(key), TileKey.y(key)});
+        }
+        return order;
+    }
+    
+    private static long distanceSquared(long key, int originChunkX, int originChunkY) {
+        long dx = TileKey.x(key) - originChunkX;
+        long dy = TileKey.y(key) - originChunkY;
+        return dx * dx + dy * dy;
+    }
+    
+    private static int chunkCoord(float value) {
+        return (int) Math.floor(value / CHUNK_SIZE);
+    }
+    
+    private static long chunkKey(float x, float y) {
+        return TileKey.pack(chunkCoord(x), chunkCoord(y));
+    }
+}
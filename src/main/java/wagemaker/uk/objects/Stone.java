@@ -1,7 +1,9 @@
 package wagemaker.uk.objects;
 
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import wagemaker.uk.gdx.SpriteAtlas;
+import wagemaker.uk.gdx.WorldSprite;
+import wagemaker.uk.world.CollisionGrid;
 
 /**
  * Stone object that can be destroyed to collect pebbles.
@@ -9,9 +11,9 @@ import com.badlogic.gdx.graphics.Texture;
  * 
  * Sprite coordinates in assets.png: 384, 0, 64, 64 (TBD - placeholder coordinates)
  */
-public class Stone {
+public class Stone implements WorldSprite {
     private float x, y;
-    private Texture texture;
+    private TextureRegion texture;
     private float health = 50;
     private float timeSinceLastAttack = 0;
 
@@ -22,22 +24,10 @@ public class Stone {
     }
 
     private void createTexture() {
-        Texture spriteSheet = new Texture("sprites/assets.png");
-        Pixmap pixmap = new Pixmap(128, 128, Pixmap.Format.RGBA8888);
-        spriteSheet.getTextureData().prepare();
-        Pixmap sheetPixmap = spriteSheet.getTextureData().consumePixmap();
-        
-        // TODO: Update sprite coordinates when final stone sprite is added to assets.png
-        // Current placeholder coordinates: 384, 0, 64, 64
-        pixmap.drawPixmap(sheetPixmap, 0, 0, 64, 192, 128, 128);
-        
-        texture = new Texture(pixmap);
-        pixmap.dispose();
-        sheetPixmap.dispose();
-        spriteSheet.dispose();
+        texture = SpriteAtlas.region(SpriteAtlas.Sprite.STONE);
     }
 
-    public Texture getTexture() {
+    public TextureRegion getTexture() {
         return texture;
     }
 
@@ -54,16 +44,7 @@ public class Stone {
      * Collision box is offset to the right to reduce left-side collision.
      */
     public boolean collidesWith(float playerX, float playerY, float playerWidth, float playerHeight) {
-        // Collision box: 24x48 pixels, offset 20px from left edge
-        float stoneCollisionX = x + 8;  // Offset from left (minimal left collision)
-        float stoneCollisionY = y + 8;   // Center vertically (64-48)/2 = 8
-        float stoneCollisionWidth = 24;
-        float stoneCollisionHeight = 48;
-        
-        return playerX < stoneCollisionX + stoneCollisionWidth && 
-               playerX + playerWidth > stoneCollisionX && 
-               playerY < stoneCollisionY + stoneCollisionHeight && 
-               playerY + playerHeight > stoneCollisionY;
+        return CollisionGrid.forStone(x, y).overlaps(playerX, playerY, playerWidth, playerHeight);
     }
 
     /**
@@ -132,8 +113,6 @@ public class Stone {
      * Disposes of texture resources.
      */
     public void dispose() {
-        if (texture != null) {
-            texture.dispose();
-        }
+        // The texture region is shared through the SpriteAtlas
     }
 }
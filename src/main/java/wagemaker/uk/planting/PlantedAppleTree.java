@@ -1,57 +1,26 @@
 package wagemaker.uk.planting;
 
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import wagemaker.uk.gdx.SpriteAtlas;
+import wagemaker.uk.gdx.WorldSprite;
 
-public class PlantedAppleTree {
+public class PlantedAppleTree implements WorldSprite {
     private float x, y;
     private float growthTimer;
     private static final float GROWTH_DURATION = 120.0f;
-    
-    private static Texture sharedTexture = null;
-    private static int instanceCount = 0;
+    private final TextureRegion texture;
 
     public PlantedAppleTree(float x, float y) {
         this.x = snapToTileGrid(x);
         this.y = snapToTileGrid(y);
         this.growthTimer = 0.0f;
-        
-        if (sharedTexture == null) {
-            createSharedTexture();
-        }
-        instanceCount++;
+        this.texture = SpriteAtlas.region(SpriteAtlas.Sprite.APPLE_SAPLING);
     }
 
     private float snapToTileGrid(float coordinate) {
         return (float) (Math.floor(coordinate / 64.0) * 64.0);
     }
 
-    private static synchronized void createSharedTexture() {
-        if (sharedTexture != null) {
-            return;
-        }
-        
-        try {
-            Texture spriteSheet = new Texture("sprites/assets.png");
-            Pixmap pixmap = new Pixmap(64, 64, Pixmap.Format.RGBA8888);
-            spriteSheet.getTextureData().prepare();
-            Pixmap sheetPixmap = spriteSheet.getTextureData().consumePixmap();
-            
-            // AppleSapling coordinates: 192 from left, 254 from top, 64x64 size
-            pixmap.drawPixmap(sheetPixmap, 0, 0, 192, 254, 64, 64);
-            
-            sharedTexture = new Texture(pixmap);
-            pixmap.dispose();
-            sheetPixmap.dispose();
-            spriteSheet.dispose();
-            
-            System.out.println("[PlantedAppleTree] Shared texture created successfully");
-        } catch (Exception e) {
-            System.err.println("[PlantedAppleTree] Failed to create shared texture: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
     public boolean update(float deltaTime) {
         growthTimer += deltaTime;
         return growthTimer >= GROWTH_DURATION;
@@ -77,24 +46,11 @@ public class PlantedAppleTree {
         this.growthTimer = growthTimer;
     }
 
-    public Texture getTexture() {
-        return sharedTexture;
+    public TextureRegion getTexture() {
+        return texture;
     }
 
     public void dispose() {
-        instanceCount--;
-        
-        if (instanceCount <= 0 && sharedTexture != null) {
-            System.out.println("[PlantedAppleTree] All instances disposed, keeping shared texture for reuse");
-        }
-    }
-    
-    public static void disposeSharedTexture() {
-        if (sharedTexture != null) {
-            sharedTexture.dispose();
-            sharedTexture = null;
-            instanceCount = 0;
-            System.out.println("[PlantedAppleTree] Shared texture disposed");
-        }
+        // The texture region is shared through the SpriteAtlas
     }
 }
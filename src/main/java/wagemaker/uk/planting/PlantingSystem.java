@@ -6,7 +6,8 @@ import wagemaker.uk.inventory.InventoryManager;
 import wagemaker.uk.player.Player;
 import wagemaker.uk.trees.BambooTree;
 import wagemaker.uk.trees.SmallTree;
-import java.util.Map;
+import wagemaker.uk.world.LongObjectHashMap;
+import wagemaker.uk.world.TileKey;
 
 /**
  * Core planting logic and validation system.
@@ -39,8 +40,8 @@ public class PlantingSystem {
      */
     public PlantedBamboo attemptPlant(float targetX, float targetY, InventoryManager inventoryManager,
                                       BiomeManager biomeManager,
-                                      Map<String, PlantedBamboo> plantedBamboos,
-                                      Map<String, BambooTree> bambooTrees) {
+                                      LongObjectHashMap<PlantedBamboo> plantedBamboos,
+                                      LongObjectHashMap<BambooTree> bambooTrees) {
         
         // Validation 1: Check if player has baby bamboo in inventory
         if (inventoryManager == null) {
@@ -87,8 +88,8 @@ public class PlantingSystem {
      * @return true if tile is valid for planting, false otherwise
      */
     private boolean isValidPlantingLocation(float x, float y, BiomeManager biomeManager,
-                                           Map<String, PlantedBamboo> plantedBamboos,
-                                           Map<String, BambooTree> bambooTrees) {
+                                           LongObjectHashMap<PlantedBamboo> plantedBamboos,
+                                           LongObjectHashMap<BambooTree> bambooTrees) {
         
         // Check if biome manager is available
         if (biomeManager == null) {
@@ -105,12 +106,12 @@ public class PlantingSystem {
         String tileKey = generatePlantedBambooKey(x, y);
         
         // Check if tile is occupied by planted bamboo
-        if (plantedBamboos != null && plantedBamboos.containsKey(tileKey)) {
+        if (plantedBamboos != null && plantedBamboos.containsKey(TileKey.findKey(tileKey))) {
             return false; // Tile already has planted bamboo
         }
         
         // Check if tile is occupied by bamboo tree
-        if (bambooTrees != null && bambooTrees.containsKey(tileKey)) {
+        if (bambooTrees != null && bambooTrees.containsKey(TileKey.findKey(tileKey))) {
             return false; // Tile already has bamboo tree
         }
         
@@ -157,7 +158,7 @@ public class PlantingSystem {
      * @param plantedTrees Map to add the planted tree to
      * @return Unique ID of the planted tree, or null if planting failed
      */
-    public String plantTree(float x, float y, Map<String, PlantedTree> plantedTrees) {
+    public String plantTree(float x, float y, LongObjectHashMap<PlantedTree> plantedTrees) {
         if (plantedTrees == null) {
             return null;
         }
@@ -170,13 +171,13 @@ public class PlantingSystem {
         String plantedTreeId = generatePlantedTreeKey(tileX, tileY);
         
         // Check if tile is already occupied
-        if (plantedTrees.containsKey(plantedTreeId)) {
+        if (plantedTrees.containsKey(TileKey.findKey(plantedTreeId))) {
             return null; // Tile already has a planted tree
         }
         
         // Create and add planted tree
         PlantedTree plantedTree = new PlantedTree(tileX, tileY);
-        plantedTrees.put(plantedTreeId, plantedTree);
+        plantedTrees.put(TileKey.keyOf(plantedTreeId), plantedTree);
         
         System.out.println("Baby tree planted at tile: (" + tileX + ", " + tileY + ") with ID: " + plantedTreeId);
         
@@ -223,7 +224,7 @@ public class PlantingSystem {
      * @param plantedBananaTrees Map to add the planted banana tree to
      * @return Unique ID of the planted banana tree, or null if planting failed
      */
-    public String plantBananaTree(float x, float y, Map<String, PlantedBananaTree> plantedBananaTrees) {
+    public String plantBananaTree(float x, float y, LongObjectHashMap<PlantedBananaTree> plantedBananaTrees) {
         if (plantedBananaTrees == null) {
             return null;
         }
@@ -233,12 +234,12 @@ public class PlantingSystem {
         
         String plantedBananaTreeId = generatePlantedBananaTreeKey(tileX, tileY);
         
-        if (plantedBananaTrees.containsKey(plantedBananaTreeId)) {
+        if (plantedBananaTrees.containsKey(TileKey.findKey(plantedBananaTreeId))) {
             return null;
         }
         
         PlantedBananaTree plantedBananaTree = new PlantedBananaTree(tileX, tileY);
-        plantedBananaTrees.put(plantedBananaTreeId, plantedBananaTree);
+        plantedBananaTrees.put(TileKey.keyOf(plantedBananaTreeId), plantedBananaTree);
         
         System.out.println("Banana tree planted at tile: (" + tileX + ", " + tileY + ") with ID: " + plantedBananaTreeId);
         
@@ -285,7 +286,7 @@ public class PlantingSystem {
      * @param plantedAppleTrees Map to add the planted apple tree to
      * @return Unique ID of the planted apple tree, or null if planting failed
      */
-    public String plantAppleTree(float x, float y, Map<String, PlantedAppleTree> plantedAppleTrees) {
+    public String plantAppleTree(float x, float y, LongObjectHashMap<PlantedAppleTree> plantedAppleTrees) {
         if (plantedAppleTrees == null) {
             return null;
         }
@@ -295,12 +296,12 @@ public class PlantingSystem {
         
         String plantedAppleTreeId = generatePlantedAppleTreeKey(tileX, tileY);
         
-        if (plantedAppleTrees.containsKey(plantedAppleTreeId)) {
+        if (plantedAppleTrees.containsKey(TileKey.findKey(plantedAppleTreeId))) {
             return null;
         }
         
         PlantedAppleTree plantedAppleTree = new PlantedAppleTree(tileX, tileY);
-        plantedAppleTrees.put(plantedAppleTreeId, plantedAppleTree);
+        plantedAppleTrees.put(TileKey.keyOf(plantedAppleTreeId), plantedAppleTree);
         
         System.out.println("Apple tree planted at tile: (" + tileX + ", " + tileY + ") with ID: " + plantedAppleTreeId);
         
@@ -39,6 +39,11 @@ import wagemaker.uk.client.PlayerConfig;
 import wagemaker.uk.weather.PuddleCollisionSystem;
 import wagemaker.uk.weather.FallAnimationSystem;
 import wagemaker.uk.weather.PuddleManager;
+import wagemaker.uk.world.CollisionGrid;
+import wagemaker.uk.world.LongHashSet;
+import wagemaker.uk.world.LongObjectHashMap;
+import wagemaker.uk.world.PickupIndex;
+import wagemaker.uk.world.TileKey;
 import java.util.Map;
 import java.util.Random;
 
@@ -68,6 +73,8 @@ public class Player {
     private String playerId; // Unique identifier for multiplayer
     private GameClient gameClient; // Reference for sending network updates
     private boolean isLocalPlayer = true; // Distinguish local vs remote players
+    private final PredictedMovementHistory movementHistory = new PredictedMovementHistory(); // Unacknowledged multiplayer movement
+    private final float[] reconciledPosition = new float[2];
     private Map<String, RemotePlayer> remotePlayers; // Reference to remote players for PvP
     private float lastPlayerAttackTime = 0; // Client-side attack cooldown tracking
     private static final float PLAYER_ATTACK_COOLDOWN = 0.5f; // 0.5 seconds between player attacks
@@ -82,36 +89,38 @@ public class Player {
     private TextureRegion idleLeftFrame;
     private TextureRegion idleRightFrame;
     private OrthographicCamera camera;
-    private Map<String, SmallTree> trees;
-    private Map<String, AppleTree> appleTrees;
-    private Map<String, CoconutTree> coconutTrees;
-    private Map<String, BambooTree> bambooTrees;
-    private Map<String, BananaTree> bananaTrees;
-    private Map<String, Apple> apples;
-    private Map<String, AppleSapling> appleSaplings;
-    private Map<String, Banana> bananas;
-    private Map<String, BananaSapling> bananaSaplings;
-    private Map<String, wagemaker.uk.items.BambooStack> bambooStacks;
-    private Map<String, wagemaker.uk.items.BambooSapling> bambooSaplings;
-    private Map<String, TreeSapling> treeSaplings;
-    private Map<String, WoodStack> woodStacks;
-    private Map<String, Pebble> pebbles;
-    private Map<String, PalmFiber> palmFibers;
+    private LongObjectHashMap<SmallTree> trees;
+    private LongObjectHashMap<AppleTree> appleTrees;
+    private LongObjectHashMap<CoconutTree> coconutTrees;
+    private LongObjectHashMap<BambooTree> bambooTrees;
+    private LongObjectHashMap<BananaTree> bananaTrees;
+    private LongObjectHashMap<Apple> apples;
+    private LongObjectHashMap<AppleSapling> appleSaplings;
+    private LongObjectHashMap<Banana> bananas;
+    private LongObjectHashMap<BananaSapling> bananaSaplings;
+    private LongObjectHashMap<wagemaker.uk.items.BambooStack> bambooStacks;
+    private LongObjectHashMap<wagemaker.uk.items.BambooSapling> bambooSaplings;
+    private LongObjectHashMap<TreeSapling> treeSaplings;
+    private LongObjectHashMap<WoodStack> woodStacks;
+    private LongObjectHashMap<Pebble> pebbles;
+    private LongObjectHashMap<PalmFiber> palmFibers;
     private Random random = new Random();
-    private Map<String, Stone> stones;
+    private LongObjectHashMap<Stone> stones;
     private Cactus cactus; // Single cactus reference
+    private CollisionGrid collisionGrid; // Trunks of every tree and stone, for movement checks
+    private PickupIndex pickupIndex; // Dropped items of every type, for pickup checks
     private Object gameInstance; // Reference to MyGdxGame for cactus respawning
-    private Map<String, Boolean> clearedPositions;
+    private LongHashSet clearedPositions;
     private GameMenu gameMenu;
     private InventoryManager inventoryManager;
     
     // Planting system fields
     private PlantingSystem plantingSystem;
     private BiomeManager biomeManager;
-    private Map<String, PlantedBamboo> plantedBamboos;
-    private Map<String, PlantedTree> plantedTrees;
-    private Map<String, wagemaker.uk.planting.PlantedBananaTree> plantedBananaTrees;
-    private Map<String, wagemaker.uk.planting.PlantedAppleTree> plantedAppleTrees;
+    private LongObjectHashMap<PlantedBamboo> plantedBamboos;
+    private LongObjectHashMap<PlantedTree> plantedTrees;
+    private LongObjectHashMap<wagemaker.uk.planting.PlantedBananaTree> plantedBananaTrees;
+    private LongObjectHashMap<wagemaker.uk.planting.PlantedAppleTree> plantedAppleTrees;
     
     // Targeting system fields
     private TargetingSystem targetingSystem;
@@ -142,72 +151,72 @@ public class Player {
         this.fallAnimationSystem = new FallAnimationSystem();
     }
     
-    public void setTrees(Map<String, SmallTree> trees) {
+    public void setTrees(LongObjectHashMap<SmallTree> trees) {
         this.trees = trees;
         updateTargetingValidator();
     }
     
-    public void setAppleTrees(Map<String, AppleTree> appleTrees) {
+    public void setAppleTrees(LongObjectHashMap<AppleTree> appleTrees) {
         this.appleTrees = appleTrees;
         updateTargetingValidator();
     }
     
-    public void setCoconutTrees(Map<String, CoconutTree> coconutTrees) {
+    public void setCoconutTrees(LongObjectHashMap<CoconutTree> coconutTrees) {
         this.coconutTrees = coconutTrees;
         updateTargetingValidator();
     }
     
-    public void setBambooTrees(Map<String, BambooTree> bambooTrees) {
+    public void setBambooTrees(LongObjectHashMap<BambooTree> bambooTrees) {
         this.bambooTrees = bambooTrees;
         updateTargetingValidator();
     }
     
-    public void setBananaTrees(Map<String, BananaTree> bananaTrees) {
+    public void setBananaTrees(LongObjectHashMap<BananaTree> bananaTrees) {
         this.bananaTrees = bananaTrees;
         updateTargetingValidator();
     }
     
-    public void setApples(Map<String, Apple> apples) {
+    public void setApples(LongObjectHashMap<Apple> apples) {
         this.apples = apples;
     }
     
-    public void setAppleSaplings(Map<String, AppleSapling> appleSaplings) {
+    public void setAppleSaplings(LongObjectHashMap<AppleSapling> appleSaplings) {
         this.appleSaplings = appleSaplings;
     }
     
-    public void setBananas(Map<String, Banana> bananas) {
+    public void setBananas(LongObjectHashMap<Banana> bananas) {
         this.bananas = bananas;
     }
     
-    public void setBananaSaplings(Map<String, BananaSapling> bananaSaplings) {
+    public void setBananaSaplings(LongObjectHashMap<BananaSapling> bananaSaplings) {
         this.bananaSaplings = bananaSaplings;
     }
     
-    public void setBambooStacks(Map<String, wagemaker.uk.items.BambooStack> bambooStacks) {
+    public void setBambooStacks(LongObjectHashMap<wagemaker.uk.items.BambooStack> bambooStacks) {
         this.bambooStacks = bambooStacks;
     }
     
-    public void setBambooSaplings(Map<String, wagemaker.uk.items.BambooSapling> bambooSaplings) {
+    public void setBambooSaplings(LongObjectHashMap<wagemaker.uk.items.BambooSapling> bambooSaplings) {
         this.bambooSaplings = bambooSaplings;
     }
     
-    public void setTreeSaplings(Map<String, TreeSapling> treeSaplings) {
+    public void setTreeSaplings(LongObjectHashMap<TreeSapling> treeSaplings) {
         this.treeSaplings = treeSaplings;
     }
     
-    public void setWoodStacks(Map<String, WoodStack> woodStacks) {
+    public void setWoodStacks(LongObjectHashMap<WoodStack> woodStacks) {
         this.woodStacks = woodStacks;
     }
     
-    public void setPebbles(Map<String, Pebble> pebbles) {
+    public void setPebbles(LongObjectHashMap<Pebble> pebbles) {
         this.pebbles = pebbles;
     }
     
-    public void setPalmFibers(Map<String, PalmFiber> palmFibers) {
+    public void setPalmFibers(LongObjectHashMap<PalmFiber> palmFibers) {
         this.palmFibers = palmFibers;
     }
     
-    public void setStones(Map<String, Stone> stones) {
+    public void setStones(LongObjectHashMap<Stone> stones) {
         this.stones = stones;
     }
     
@@ -215,11 +224,29 @@ public class Player {
         this.cactus = cactus;
     }
     
+    /**
+     * Sets the grid of tree and stone colliders that movement is checked against.
+     * The grid must be kept up to date with the tree and stone maps.
+     * @param collisionGrid The collision grid
+     */
+    public void setCollisionGrid(CollisionGrid collisionGrid) {
+        this.collisionGrid = collisionGrid;
+    }
+    
+    /**
+     * Sets the index of dropped items that pickups are checked against.
+     * The index must be kept up to date with the item maps.
+     * @param pickupIndex The pickup index
+     */
+    public void setPickupIndex(PickupIndex pickupIndex) {
+        this.pickupIndex = pickupIndex;
+    }
+    
     public void setGameInstance(Object gameInstance) {
         this.gameInstance = gameInstance;
     }
     
-    public void setClearedPositions(Map<String, Boolean> clearedPositions) {
+    public void setClearedPositions(LongHashSet clearedPositions) {
         this.clearedPositions = clearedPositions;
     }
     
@@ -241,22 +268,22 @@ public class Player {
         updateTargetingValidator();
     }
     
-    public void setPlantedBamboos(Map<String, PlantedBamboo> plantedBamboos) {
+    public void setPlantedBamboos(LongObjectHashMap<PlantedBamboo> plantedBamboos) {
         this.plantedBamboos = plantedBamboos;
         updateTargetingValidator();
     }
     
-    public void setPlantedTrees(Map<String, PlantedTree> plantedTrees) {
+    public void setPlantedTrees(LongObjectHashMap<PlantedTree> plantedTrees) {
         this.plantedTrees = plantedTrees;
         updateTargetingValidator();
     }
     
-    public void setPlantedBananaTrees(Map<String, wagemaker.uk.planting.PlantedBananaTree> plantedBananaTrees) {
+    public void setPlantedBananaTrees(LongObjectHashMap<wagemaker.uk.planting.PlantedBananaTree> plantedBananaTrees) {
         this.plantedBananaTrees = plantedBananaTrees;
         updateTargetingValidator();
     }
     
-    public void setPlantedAppleTrees(Map<String, wagemaker.uk.planting.PlantedAppleTree> plantedAppleTrees) {
+    public void setPlantedAppleTrees(LongObjectHashMap<wagemaker.uk.planting.PlantedAppleTree> plantedAppleTrees) {
         this.plantedAppleTrees = plantedAppleTrees;
         updateTargetingValidator();
     }
@@ -469,7 +496,10 @@ public class Player {
             }
         }
         
-        // Apply movement
+        // Apply movement, remembering the step for reconciliation with the server
+        if (gameClient != null && gameClient.isConnected() && isLocalPlayer) {
+            movementHistory.record(newX - x, newY - y);
+        }
         x = newX;
         y = newY;
         
@@ -493,7 +523,10 @@ public class Player {
         // Send position updates to server in multiplayer mode (client-side prediction)
         if (gameClient != null && gameClient.isConnected() && isLocalPlayer) {
             wagemaker.uk.network.Direction networkDirection = convertToNetworkDirection(currentDirection);
-            gameClient.sendPlayerMovement(x, y, networkDirection, isMoving);
+            if (gameClient.sendPlayerMovement(x, y, networkDirection, isMoving,
+                    movementHistory.getPendingSequence(), movementHistory.getCorrectionSequence())) {
+                movementHistory.commitSequence();
+            }
         }
 
         // Handle inventory navigation or targeting input (only when menu is not open)
@@ -569,35 +602,8 @@ public class Player {
         // Update hunger system
         updateHunger(deltaTime);
         
-        // Check for apple pickups
-        checkApplePickups();
-        
-        // Check for apple sapling pickups
-        checkAppleSaplingPickups();
-        
-        // Check for banana pickups
-        checkBananaPickups();
-        
-        // Check for banana sapling pickups
-        checkBananaSaplingPickups();
-        
-        // Check for bamboo stack pickups
-        checkBambooStackPickups();
-        
-        // Check for baby bamboo pickups
-        checkBambooSaplingPickups();
-        
-        // Check for baby tree pickups
-        checkTreeSaplingPickups();
-        
-        // Check for wood stack pickups
-        checkWoodStackPickups();
-        
-        // Check for pebble pickups
-        checkPebblePickups();
-        
-        // Check for palm fiber pickups
-        checkPalmFiberPickups();
+        // Check for item pickups
+        checkItemPickups();
         
         // Track previous health for change detection
         previousHealth = health;
@@ -759,49 +765,9 @@ public class Player {
     }
 
     private boolean wouldCollide(float newX, float newY) {
-        // Check collision with regular trees
-        if (trees != null) {
-            for (SmallTree tree : trees.values()) {
-                if (tree.collidesWith(newX, newY, 64, 64)) {
-                    return true;
-                }
-            }
-        }
-        
-        // Check collision with apple trees
-        if (appleTrees != null) {
-            for (AppleTree appleTree : appleTrees.values()) {
-                if (appleTree.collidesWith(newX, newY, 64, 64)) {
-                    return true;
-                }
-            }
-        }
-        
-        // Check collision with coconut trees
-        if (coconutTrees != null) {
-            for (CoconutTree coconutTree : coconutTrees.values()) {
-                if (coconutTree.collidesWith(newX, newY, 64, 64)) {
-                    return true;
-                }
-            }
-        }
-        
-        // Check collision with bamboo trees
-        if (bambooTrees != null) {
-            for (BambooTree bambooTree : bambooTrees.values()) {
-                if (bambooTree.collidesWith(newX, newY, 64, 64)) {
-                    return true;
-                }
-            }
-        }
-        
-        // Check collision with banana trees
-        if (bananaTrees != null) {
-            for (BananaTree bananaTree : bananaTrees.values()) {
-                if (bananaTree.collidesWith(newX, newY, 64, 64)) {
-                    return true;
-                }
-            }
+        // Check collision with trees and stones near the new position
+        if (collisionGrid != null && collisionGrid.collides(newX, newY, 64, 64)) {
+            return true;
         }
         
         // Check collision with cactus
@@ -811,21 +777,32 @@ public class Player {
             }
         }
         
-        // Check collision with stones
-        if (stones != null) {
-            for (Stone stone : stones.values()) {
-                if (stone.collidesWith(newX, newY, 64, 64)) {
-                    return true;
-                }
-            }
-        }
-        
         return false;
     }
     
     public void setPosition(float newX, float newY) {
         this.x = newX;
         this.y = newY;
+        movementHistory.clear(); // Predicted steps no longer apply after a jump
+    }
+    
+    /**
+     * Applies a server position correction, replaying the movement predicted
+     * since the last update the server processed so unacknowledged input is kept.
+     * 
+     * @param acknowledgedSequence The last movement sequence the server processed, or 0 if unknown
+     * @param correctedX The server's X position
+     * @param correctedY The server's Y position
+     */
+    public void reconcilePosition(int acknowledgedSequence, float correctedX, float correctedY) {
+        if (acknowledgedSequence == 0) {
+            // Server does not number updates - nothing to replay
+            setPosition(correctedX, correctedY);
+            return;
+        }
+        movementHistory.reconcile(acknowledgedSequence, correctedX, correctedY, this::wouldCollide, reconciledPosition);
+        this.x = reconciledPosition[0];
+        this.y = reconciledPosition[1];
     }
 
     private void attackNearbyTargets(boolean treeOnly) {
@@ -857,14 +834,16 @@ public class Player {
         // Attack trees within range (individual collision)
         if (trees != null) {
             SmallTree targetTree = null;
+            long targetTile = 0;
             String targetKey = null;
             
-            for (Map.Entry<String, SmallTree> entry : trees.entrySet()) {
-                SmallTree tree = entry.getValue();
+            for (long key : trees.keys()) {
+                SmallTree tree = trees.get(key);
                 
                 if (tree.isInAttackRange(x, y)) {
                     targetTree = tree;
-                    targetKey = entry.getKey();
+                    targetTile = key;
+                    targetKey = TileKey.idOf(key);
                     break;
                 }
             }
@@ -893,18 +872,18 @@ public class Player {
                         
                         switch (dropType) {
                             case 0: // 2x TreeSapling
-                                treeSaplings.put(targetKey + "-item1", new TreeSapling(treeX, treeY));
-                                treeSaplings.put(targetKey + "-item2", new TreeSapling(treeX + 8, treeY));
+                                treeSaplings.put(TileKey.keyOf(targetKey + "-item1"), new TreeSapling(treeX, treeY));
+                                treeSaplings.put(TileKey.keyOf(targetKey + "-item2"), new TreeSapling(treeX + 8, treeY));
                                 System.out.println("Dropped 2x TreeSapling at: " + treeX + ", " + treeY);
                                 break;
                             case 1: // 2x WoodStack
-                                woodStacks.put(targetKey + "-item1", new WoodStack(treeX, treeY));
-                                woodStacks.put(targetKey + "-item2", new WoodStack(treeX + 8, treeY));
+                                woodStacks.put(TileKey.keyOf(targetKey + "-item1"), new WoodStack(treeX, treeY));
+                                woodStacks.put(TileKey.keyOf(targetKey + "-item2"), new WoodStack(treeX + 8, treeY));
                                 System.out.println("Dropped 2x WoodStack at: " + treeX + ", " + treeY);
                                 break;
                             case 2: // 1x TreeSapling + 1x WoodStack
-                                treeSaplings.put(targetKey + "-item1", new TreeSapling(treeX, treeY));
-                                woodStacks.put(targetKey + "-item2", new WoodStack(treeX + 8, treeY));
+                                treeSaplings.put(TileKey.keyOf(targetKey + "-item1"), new TreeSapling(treeX, treeY));
+                                woodStacks.put(TileKey.keyOf(targetKey + "-item2"), new WoodStack(treeX + 8, treeY));
                                 System.out.println("Dropped 1x TreeSapling + 1x WoodStack at: " + treeX + ", " + treeY);
                                 break;
                         }
@@ -925,8 +904,8 @@ public class Player {
                         }
                         
                         targetTree.dispose();
-                        trees.remove(targetKey);
-                        clearedPositions.put(targetKey, true);
+                        trees.remove(targetTile);
+                        clearedPositions.add(targetTile);
                         System.out.println("Tree removed from world");
                     }
                 }
@@ -936,14 +915,16 @@ public class Player {
         // Attack apple trees within range (individual collision)
         if (appleTrees != null && !attackedSomething) {
             AppleTree targetAppleTree = null;
+            long targetTile = 0;
             String targetKey = null;
             
-            for (Map.Entry<String, AppleTree> entry : appleTrees.entrySet()) {
-                AppleTree appleTree = entry.getValue();
+            for (long key : appleTrees.keys()) {
+                AppleTree appleTree = appleTrees.get(key);
                 
                 if (appleTree.isInAttackRange(x, y)) {
                     targetAppleTree = appleTree;
-                    targetKey = entry.getKey();
+                    targetTile = key;
+                    targetKey = TileKey.idOf(key);
                     break;
                 }
             }
@@ -966,10 +947,10 @@ public class Player {
                     
                     if (destroyed) {
                         // Spawn Apple at tree position
-                        apples.put(targetKey, new Apple(targetAppleTree.getX(), targetAppleTree.getY()));
+                        apples.put(targetTile, new Apple(targetAppleTree.getX(), targetAppleTree.getY()));
                         
                         // Spawn AppleSapling offset by 8 pixels horizontally
-                        appleSaplings.put(targetKey + "-applesapling", 
+                        appleSaplings.put(TileKey.keyOf(targetKey + "-applesapling"), 
                             new AppleSapling(targetAppleTree.getX() + 8, targetAppleTree.getY()));
                         
                         System.out.println("Apple tree destroyed! Apple dropped at: " + 
@@ -993,8 +974,8 @@ public class Player {
                         }
                         
                         targetAppleTree.dispose();
-                        appleTrees.remove(targetKey);
-                        clearedPositions.put(targetKey, true);
+                        appleTrees.remove(targetTile);
+                        clearedPositions.add(targetTile);
                     }
                 }
             }
@@ -1003,14 +984,16 @@ public class Player {
         // Attack coconut trees within range (individual collision)
         if (coconutTrees != null && !attackedSomething) {
             CoconutTree targetCoconutTree = null;
+            long targetTile = 0;
             String targetKey = null;
             
-            for (Map.Entry<String, CoconutTree> entry : coconutTrees.entrySet()) {
-                CoconutTree coconutTree = entry.getValue();
+            for (long key : coconutTrees.keys()) {
+                CoconutTree coconutTree = coconutTrees.get(key);
                 
                 if (coconutTree.isInAttackRange(x, y)) {
                     targetCoconutTree = coconutTree;
-                    targetKey = entry.getKey();
+                    targetTile = key;
+                    targetKey = TileKey.idOf(key);
                     break;
                 }
             }
@@ -1048,12 +1031,12 @@ public class Player {
                         }
                         
                         // Spawn palm fiber at tree position
-                        palmFibers.put(targetKey, new PalmFiber(targetCoconutTree.getX(), targetCoconutTree.getY()));
+                        palmFibers.put(targetTile, new PalmFiber(targetCoconutTree.getX(), targetCoconutTree.getY()));
                         System.out.println("PalmFiber dropped at: " + targetCoconutTree.getX() + ", " + targetCoconutTree.getY());
                         
                         targetCoconutTree.dispose();
-                        coconutTrees.remove(targetKey);
-                        clearedPositions.put(targetKey, true);
+                        coconutTrees.remove(targetTile);
+                        clearedPositions.add(targetTile);
                         System.out.println("Coconut tree removed from world");
                     }
                 }
@@ -1063,14 +1046,16 @@ public class Player {
         // Attack bamboo trees within range (individual collision)
         if (bambooTrees != null && !attackedSomething) {
             BambooTree targetBambooTree = null;
+            long targetTile = 0;
             String targetKey = null;
             
-            for (Map.Entry<String, BambooTree> entry : bambooTrees.entrySet()) {
-                BambooTree bambooTree = entry.getValue();
+            for (long key : bambooTrees.keys()) {
+                BambooTree bambooTree = bambooTrees.get(key);
                 
                 if (bambooTree.isInAttackRange(x, y)) {
                     targetBambooTree = bambooTree;
-                    targetKey = entry.getKey();
+                    targetTile = key;
+                    targetKey = TileKey.idOf(key);
                     break;
                 }
             }
@@ -1100,24 +1085,24 @@ public class Player {
                         
                         if (dropRoll < 0.33f) {
                             // Drop 1 BambooStack + 1 BambooSapling (original behavior)
-                            bambooStacks.put(targetKey + "-bamboostack", 
+                            bambooStacks.put(TileKey.keyOf(targetKey + "-bamboostack"), 
                                 new BambooStack(targetBambooTree.getX(), targetBambooTree.getY()));
-                            bambooSaplings.put(targetKey + "-babybamboo", 
+                            bambooSaplings.put(TileKey.keyOf(targetKey + "-babybamboo"), 
                                 new BambooSapling(targetBambooTree.getX() + 8, targetBambooTree.getY()));
                             System.out.println("BambooStack dropped at: " + targetBambooTree.getX() + ", " + targetBambooTree.getY());
                             System.out.println("BambooSapling dropped at: " + (targetBambooTree.getX() + 8) + ", " + targetBambooTree.getY());
                         } else if (dropRoll < 0.66f) {
                             // Drop 2 BambooStack
-                            bambooStacks.put(targetKey + "-bamboostack1", 
+                            bambooStacks.put(TileKey.keyOf(targetKey + "-bamboostack1"), 
                                 new BambooStack(targetBambooTree.getX(), targetBambooTree.getY()));
-                            bambooStacks.put(targetKey + "-bamboostack2", 
+                            bambooStacks.put(TileKey.keyOf(targetKey + "-bamboostack2"), 
                                 new BambooStack(targetBambooTree.getX() + 8, targetBambooTree.getY()));
                             System.out.println("2x BambooStack dropped at: " + targetBambooTree.getX() + ", " + targetBambooTree.getY());
                         } else {
                             // Drop 2 BambooSapling
-                            bambooSaplings.put(targetKey + "-babybamboo1", 
+                            bambooSaplings.put(TileKey.keyOf(targetKey + "-babybamboo1"), 
                                 new BambooSapling(targetBambooTree.getX(), targetBambooTree.getY()));
-                            bambooSaplings.put(targetKey + "-babybamboo2", 
+                            bambooSaplings.put(TileKey.keyOf(targetKey + "-babybamboo2"), 
                                 new BambooSapling(targetBambooTree.getX() + 8, targetBambooTree.getY()));
                             System.out.println("2x BambooSapling dropped at: " + targetBambooTree.getX() + ", " + targetBambooTree.getY());
                         }
@@ -1138,8 +1123,8 @@ public class Player {
                         }
                         
                         targetBambooTree.dispose();
-                        bambooTrees.remove(targetKey);
-                        clearedPositions.put(targetKey, true);
+                        bambooTrees.remove(targetTile);
+                        clearedPositions.add(targetTile);
                     }
                 }
             }
@@ -1148,14 +1133,16 @@ public class Player {
         // Attack banana trees within range (individual collision)
         if (bananaTrees != null && !attackedSomething) {
             BananaTree targetBananaTree = null;
+            long targetTile = 0;
             String targetKey = null;
             
-            for (Map.Entry<String, BananaTree> entry : bananaTrees.entrySet()) {
-                BananaTree bananaTree = entry.getValue();
+            for (long key : bananaTrees.keys()) {
+                BananaTree bananaTree = bananaTrees.get(key);
                 
                 if (bananaTree.isInAttackRange(x, y)) {
                     targetBananaTree = bananaTree;
-                    targetKey = entry.getKey();
+                    targetTile = key;
+                    targetKey = TileKey.idOf(key);
                     break;
                 }
             }
@@ -1178,10 +1165,10 @@ public class Player {
                     
                     if (destroyed) {
                         // Spawn Banana at tree position
-                        bananas.put(targetKey, new Banana(targetBananaTree.getX(), targetBananaTree.getY()));
+                        bananas.put(targetTile, new Banana(targetBananaTree.getX(), targetBananaTree.getY()));
                         
                         // Spawn BananaSapling offset by 8 pixels horizontally
-                        bananaSaplings.put(targetKey + "-bananasapling", 
+                        bananaSaplings.put(TileKey.keyOf(targetKey + "-bananasapling"), 
                             new BananaSapling(targetBananaTree.getX() + 8, targetBananaTree.getY()));
                         
                         System.out.println("Banana tree destroyed! Banana dropped at: " + 
@@ -1205,8 +1192,8 @@ public class Player {
                         }
                         
                         targetBananaTree.dispose();
-                        bananaTrees.remove(targetKey);
-                        clearedPositions.put(targetKey, true);
+                        bananaTrees.remove(targetTile);
+                        clearedPositions.add(targetTile);
                     }
                 }
             }
@@ -1259,14 +1246,16 @@ public class Player {
         // Attack stones within range (individual collision)
         if (stones != null && !attackedSomething) {
             Stone targetStone = null;
+            long targetTile = 0;
             String targetKey = null;
             
-            for (Map.Entry<String, Stone> entry : stones.entrySet()) {
-                Stone stone = entry.getValue();
+            for (long key : stones.keys()) {
+                Stone stone = stones.get(key);
                 
                 if (stone.isInAttackRange(x, y)) {
                     targetStone = stone;
-                    targetKey = entry.getKey();
+                    targetTile = key;
+                    targetKey = TileKey.idOf(key);
                     break;
                 }
             }
@@ -1289,7 +1278,7 @@ public class Player {
                     
                     if (destroyed) {
                         // Spawn pebble at stone position
-                        pebbles.put(targetKey + "-pebble", new Pebble(targetStone.getX(), targetStone.getY()));
+                        pebbles.put(TileKey.keyOf(targetKey + "-pebble"), new Pebble(targetStone.getX(), targetStone.getY()));
                         System.out.println("Pebble dropped at: " + targetStone.getX() + ", " + targetStone.getY());
                         
                         // Register for respawn before removing
@@ -1321,8 +1310,8 @@ public class Player {
                             targetStone.dispose();
                         }
                         
-                        stones.remove(targetKey);
-                        clearedPositions.put(targetKey, true);
+                        stones.remove(targetTile);
+                        clearedPositions.add(targetTile);
                         System.out.println("Stone removed from world");
                     }
                 }
@@ -1619,7 +1608,7 @@ public class Player {
             float tileX = (float) (Math.floor(targetX / 64.0) * 64.0);
             float tileY = (float) (Math.floor(targetY / 64.0) * 64.0);
             String key = "planted-bamboo-" + (int)tileX + "-" + (int)tileY;
-            plantedBamboos.put(key, plantedBamboo);
+            plantedBamboos.put(TileKey.keyOf(key), plantedBamboo);
             System.out.println("Planted bamboo added to game world at: " + key);
             
             // Send planting message to server in multiplayer
@@ -1634,7 +1623,7 @@ public class Player {
                     System.err.println("Failed to send planting message to server: " + e.getMessage());
                     
                     // Remove planted bamboo from local state
-                    plantedBamboos.remove(key);
+                    plantedBamboos.remove(TileKey.findKey(key));
                     plantedBamboo.dispose();
                     
                     // Restore inventory (add baby bamboo back)
@@ -1674,7 +1663,7 @@ public class Player {
             boolean removed = inventoryManager.getCurrentInventory().removeTreeSapling(1);
             if (!removed) {
                 // Failed to remove item - rollback planting
-                plantedTrees.remove(plantedTreeId);
+                plantedTrees.remove(TileKey.findKey(plantedTreeId));
                 System.out.println("Tree planting failed: could not deduct baby tree from inventory");
                 return;
             }
@@ -1685,7 +1674,7 @@ public class Player {
             if (gameClient != null && gameClient.isConnected()) {
                 try {
                     // Extract coordinates from planted tree
-                    PlantedTree plantedTree = plantedTrees.get(plantedTreeId);
+                    PlantedTree plantedTree = plantedTrees.get(TileKey.findKey(plantedTreeId));
                     if (plantedTree != null) {
                         gameClient.sendTreePlant(plantedTreeId, plantedTree.getX(), plantedTree.getY());
                         
@@ -1697,7 +1686,7 @@ public class Player {
                     System.err.println("Failed to send tree planting message to server: " + e.getMessage());
                     
                     // Remove planted tree from local state
-                    PlantedTree plantedTree = plantedTrees.remove(plantedTreeId);
+                    PlantedTree plantedTree = plantedTrees.remove(TileKey.findKey(plantedTreeId));
                     if (plantedTree != null) {
                         plantedTree.dispose();
                     }
@@ -1745,7 +1734,7 @@ public class Player {
             boolean removed = inventoryManager.getCurrentInventory().removeBananaSapling(1);
             if (!removed) {
                 // Failed to remove item - rollback planting
-                plantedBananaTrees.remove(plantedBananaTreeId);
+                plantedBananaTrees.remove(TileKey.findKey(plantedBananaTreeId));
                 System.out.println("Banana tree planting failed: could not deduct banana sapling from inventory");
                 return;
             }
@@ -1756,7 +1745,7 @@ public class Player {
             if (gameClient != null && gameClient.isConnected()) {
                 try {
                     // Extract coordinates from planted banana tree
-                    wagemaker.uk.planting.PlantedBananaTree plantedBananaTree = plantedBananaTrees.get(plantedBananaTreeId);
+                    wagemaker.uk.planting.PlantedBananaTree plantedBananaTree = plantedBananaTrees.get(TileKey.findKey(plantedBananaTreeId));
                     if (plantedBananaTree != null) {
                         gameClient.sendBananaTreePlant(plantedBananaTreeId, plantedBananaTree.getX(), plantedBananaTree.getY());
                         
@@ -1768,7 +1757,7 @@ public class Player {
                     System.err.println("Failed to send banana tree planting message to server: " + e.getMessage());
                     
                     // Remove planted banana tree from local state
-                    wagemaker.uk.planting.PlantedBananaTree plantedBananaTree = plantedBananaTrees.remove(plantedBananaTreeId);
+                    wagemaker.uk.planting.PlantedBananaTree plantedBananaTree = plantedBananaTrees.remove(TileKey.findKey(plantedBananaTreeId));
                     if (plantedBananaTree != null) {
                         plantedBananaTree.dispose();
                     }
@@ -1816,7 +1805,7 @@ public class Player {
             boolean removed = inventoryManager.getCurrentInventory().removeAppleSapling(1);
             if (!removed) {
                 // Failed to remove item - rollback planting
-                plantedAppleTrees.remove(plantedAppleTreeId);
+                plantedAppleTrees.remove(TileKey.findKey(plantedAppleTreeId));
                 System.out.println("Apple tree planting failed: could not deduct apple sapling from inventory");
                 return;
             }
@@ -1827,7 +1816,7 @@ public class Player {
             if (gameClient != null && gameClient.isConnected()) {
                 try {
                     // Extract coordinates from planted apple tree
-                    wagemaker.uk.planting.PlantedAppleTree plantedAppleTree = plantedAppleTrees.get(plantedAppleTreeId);
+                    wagemaker.uk.planting.PlantedAppleTree plantedAppleTree = plantedAppleTrees.get(TileKey.findKey(plantedAppleTreeId));
                     if (plantedAppleTree != null) {
                         gameClient.sendAppleTreePlant(plantedAppleTreeId, plantedAppleTree.getX(), plantedAppleTree.getY());
                         
@@ -1839,7 +1828,7 @@ public class Player {
                     System.err.println("Failed to send apple tree planting message to server: " + e.getMessage());
                     
                     // Remove planted apple tree from local state
-                    wagemaker.uk.planting.PlantedAppleTree plantedAppleTree = plantedAppleTrees.remove(plantedAppleTreeId);
+                    wagemaker.uk.planting.PlantedAppleTree plantedAppleTree = plantedAppleTrees.remove(TileKey.findKey(plantedAppleTreeId));
                     if (plantedAppleTree != null) {
                         plantedAppleTree.dispose();
                     }
@@ -2148,23 +2137,52 @@ public class Player {
         }
     }
     
-    private void checkApplePickups() {
-        if (apples != null) {
-            // Check all apples for pickup
-            for (Map.Entry<String, Apple> entry : apples.entrySet()) {
-                Apple apple = entry.getValue();
-                String appleKey = entry.getKey();
-                
-                // Check if player is close enough to pick up apple (32px range)
-                float dx = Math.abs((x + 32) - (apple.getX() + 12)); // Player center to apple center
-                float dy = Math.abs((y + 32) - (apple.getY() + 12)); // Apple is 24x24, so center is +12
-                
-                if (dx <= 32 && dy <= 32) {
-                    // Pick up the apple
-                    pickupApple(appleKey);
-                    break; // Only pick up one apple per frame
-                }
-            }
+    /**
+     * Picks up the nearest dropped item of any type within range of the player.
+     * Only the pickup index buckets around the player are visited.
+     */
+    private void checkItemPickups() {
+        if (pickupIndex == null) {
+            return;
+        }
+        
+        PickupIndex.Candidate item = pickupIndex.findNearest(x, y);
+        if (item == null) {
+            return;
+        }
+        
+        // Only pick up one item per frame
+        switch (item.getType()) {
+            case APPLE:
+                pickupApple(item.getKey());
+                break;
+            case APPLE_SAPLING:
+                pickupAppleSapling(item.getKey());
+                break;
+            case BANANA:
+                pickupBanana(item.getKey());
+                break;
+            case BANANA_SAPLING:
+                pickupBananaSapling(item.getKey());
+                break;
+            case BAMBOO_STACK:
+                pickupBambooStack(item.getKey());
+                break;
+            case BABY_BAMBOO:
+                pickupBambooSapling(item.getKey());
+                break;
+            case BABY_TREE:
+                pickupTreeSapling(item.getKey());
+                break;
+            case WOOD_STACK:
+                pickupWoodStack(item.getKey());
+                break;
+            case PEBBLE:
+                pickupPebble(item.getKey());
+                break;
+            case PALM_FIBER:
+                pickupPalmFiber(item.getKey());
+                break;
         }
     }
     
@@ -2181,35 +2199,14 @@ public class Player {
             }
             
             // Remove apple from game
-            if (apples.containsKey(appleKey)) {
-                Apple apple = apples.get(appleKey);
+            Apple apple = apples.remove(TileKey.findKey(appleKey));
+            if (apple != null) {
                 apple.dispose();
-                apples.remove(appleKey);
                 System.out.println("Apple removed from game");
             }
         }
     }
     
-    private void checkAppleSaplingPickups() {
-        if (appleSaplings != null) {
-            // Check all apple saplings for pickup
-            for (Map.Entry<String, AppleSapling> entry : appleSaplings.entrySet()) {
-                AppleSapling appleSapling = entry.getValue();
-                String appleSaplingKey = entry.getKey();
-                
-                // Check if player is close enough to pick up apple sapling (32px range)
-                float dx = Math.abs((x + 32) - (appleSapling.getX() + 16)); // Player center to apple sapling center
-                float dy = Math.abs((y + 32) - (appleSapling.getY() + 16)); // AppleSapling is 32x32, so center is +16
-                
-                if (dx <= 32 && dy <= 32) {
-                    // Pick up the apple sapling
-                    pickupAppleSapling(appleSaplingKey);
-                    break; // Only pick up one apple sapling per frame
-                }
-            }
-        }
-    }
-    
     private void pickupAppleSapling(String appleSaplingKey) {
         // Send pickup request to server in multiplayer mode
         if (gameClient != null && gameClient.isConnected() && isLocalPlayer) {
@@ -2223,53 +2220,14 @@ public class Player {
             }
             
             // Remove apple sapling from game
-            if (appleSaplings.containsKey(appleSaplingKey)) {
-                AppleSapling appleSapling = appleSaplings.get(appleSaplingKey);
+            AppleSapling appleSapling = appleSaplings.remove(TileKey.findKey(appleSaplingKey));
+            if (appleSapling != null) {
                 appleSapling.dispose();
-                appleSaplings.remove(appleSaplingKey);
                 System.out.println("AppleSapling removed from game");
             }
         }
     }
     
-    private void checkBananaPickups() {
-        if (bananas != null) {
-            // Check all bananas for pickup
-            for (Map.Entry<String, Banana> entry : bananas.entrySet()) {
-                Banana banana = entry.getValue();
-                String bananaKey = entry.getKey();
-                
-                // Check if player is close enough to pick up banana (32px range)
-                float dx = Math.abs((x + 32) - (banana.getX() + 16)); // Player center to banana center
-                float dy = Math.abs((y + 32) - (banana.getY() + 16)); // Banana is 32x32, so center is +16
-                
-                if (dx <= 32 && dy <= 32) {
-                    // Pick up the banana
-                    pickupBanana(bananaKey);
-                    break; // Only pick up one banana per frame
-                }
-            }
-        }
-    }
-    
-    private void checkBananaSaplingPickups() {
-        if (bananaSaplings != null) {
-            for (Map.Entry<String, BananaSapling> entry : bananaSaplings.entrySet()) {
-                BananaSapling bananaSapling = entry.getValue();
-                String bananaSaplingKey = entry.getKey();
-                
-                // Check if player is close enough to pick up (32px range)
-                float dx = Math.abs((x + 32) - (bananaSapling.getX() + 16)); // BananaSapling is 32x32, so center is +16
-                float dy = Math.abs((y + 32) - (bananaSapling.getY() + 16));
-                
-                if (dx <= 32 && dy <= 32) {
-                    pickupBananaSapling(bananaSaplingKey);
-                    break;
-                }
-            }
-        }
-    }
-    
     private void pickupBananaSapling(String bananaSaplingKey) {
         // Send pickup request to server in multiplayer mode
         if (gameClient != null && gameClient.isConnected() && isLocalPlayer) {
@@ -2283,10 +2241,9 @@ public class Player {
             }
             
             // Remove banana sapling from game
-            if (bananaSaplings.containsKey(bananaSaplingKey)) {
-                BananaSapling bananaSapling = bananaSaplings.get(bananaSaplingKey);
+            BananaSapling bananaSapling = bananaSaplings.remove(TileKey.findKey(bananaSaplingKey));
+            if (bananaSapling != null) {
                 bananaSapling.dispose();
-                bananaSaplings.remove(bananaSaplingKey);
                 System.out.println("BananaSapling removed from game");
             }
         }
@@ -2305,35 +2262,14 @@ public class Player {
             }
             
             // Remove banana from game
-            if (bananas.containsKey(bananaKey)) {
-                Banana banana = bananas.get(bananaKey);
+            Banana banana = bananas.remove(TileKey.findKey(bananaKey));
+            if (banana != null) {
                 banana.dispose();
-                bananas.remove(bananaKey);
                 System.out.println("Banana removed from game");
             }
         }
     }
     
-    private void checkBambooStackPickups() {
-        if (bambooStacks != null) {
-            // Check all bamboo stacks for pickup
-            for (Map.Entry<String, BambooStack> entry : bambooStacks.entrySet()) {
-                BambooStack bambooStack = entry.getValue();
-                String bambooStackKey = entry.getKey();
-                
-                // Check if player is close enough to pick up bamboo stack (32px range)
-                float dx = Math.abs((x + 32) - (bambooStack.getX() + 16)); // Player center to bamboo stack center
-                float dy = Math.abs((y + 32) - (bambooStack.getY() + 16)); // BambooStack is 32x32, so center is +16
-                
-                if (dx <= 32 && dy <= 32) {
-                    // Pick up the bamboo stack
-                    pickupBambooStack(bambooStackKey);
-                    break; // Only pick up one bamboo stack per frame
-                }
-            }
-        }
-    }
-    
     private void pickupBambooStack(String bambooStackKey) {
         // Send pickup request to server in multiplayer mode
         if (gameClient != null && gameClient.isConnected() && isLocalPlayer) {
@@ -2347,35 +2283,14 @@ public class Player {
             }
             
             // Remove bamboo stack from game
-            if (bambooStacks.containsKey(bambooStackKey)) {
-                BambooStack bambooStack = bambooStacks.get(bambooStackKey);
+            BambooStack bambooStack = bambooStacks.remove(TileKey.findKey(bambooStackKey));
+            if (bambooStack != null) {
                 bambooStack.dispose();
-                bambooStacks.remove(bambooStackKey);
                 System.out.println("BambooStack removed from game");
             }
         }
     }
     
-    private void checkBambooSaplingPickups() {
-        if (bambooSaplings != null) {
-            // Check all baby bamboos for pickup
-            for (Map.Entry<String, BambooSapling> entry : bambooSaplings.entrySet()) {
-                BambooSapling bambooSapling = entry.getValue();
-                String bambooSaplingKey = entry.getKey();
-                
-                // Check if player is close enough to pick up baby bamboo (32px range)
-                float dx = Math.abs((x + 32) - (bambooSapling.getX() + 16)); // Player center to baby bamboo center
-                float dy = Math.abs((y + 32) - (bambooSapling.getY() + 16)); // BambooSapling is 32x32, so center is +16
-                
-                if (dx <= 32 && dy <= 32) {
-                    // Pick up the baby bamboo
-                    pickupBambooSapling(bambooSaplingKey);
-                    break; // Only pick up one baby bamboo per frame
-                }
-            }
-        }
-    }
-    
     private void pickupBambooSapling(String bambooSaplingKey) {
         // Send pickup request to server in multiplayer mode
         if (gameClient != null && gameClient.isConnected() && isLocalPlayer) {
@@ -2389,35 +2304,14 @@ public class Player {
             }
             
             // Remove baby bamboo from game
-            if (bambooSaplings.containsKey(bambooSaplingKey)) {
-                BambooSapling bambooSapling = bambooSaplings.get(bambooSaplingKey);
+            BambooSapling bambooSapling = bambooSaplings.remove(TileKey.findKey(bambooSaplingKey));
+            if (bambooSapling != null) {
                 bambooSapling.dispose();
-                bambooSaplings.remove(bambooSaplingKey);
                 System.out.println("BambooSapling removed from game");
             }
         }
     }
     
-    private void checkTreeSaplingPickups() {
-        if (treeSaplings != null) {
-            // Check all baby trees for pickup
-            for (Map.Entry<String, TreeSapling> entry : treeSaplings.entrySet()) {
-                TreeSapling treeSapling = entry.getValue();
-                String treeSaplingKey = entry.getKey();
-                
-                // Check if player is close enough to pick up baby tree (32px range)
-                float dx = Math.abs((x + 32) - (treeSapling.getX() + 16)); // Player center to baby tree center
-                float dy = Math.abs((y + 32) - (treeSapling.getY() + 16)); // TreeSapling is 32x32, so center is +16
-                
-                if (dx <= 32 && dy <= 32) {
-                    // Pick up the baby tree
-                    pickupTreeSapling(treeSaplingKey);
-                    break; // Only pick up one baby tree per frame
-                }
-            }
-        }
-    }
-    
     private void pickupTreeSapling(String treeSaplingKey) {
         // Send pickup request to server in multiplayer mode
         if (gameClient != null && gameClient.isConnected() && isLocalPlayer) {
@@ -2431,35 +2325,14 @@ public class Player {
             }
             
             // Remove baby tree from game
-            if (treeSaplings.containsKey(treeSaplingKey)) {
-                TreeSapling treeSapling = treeSaplings.get(treeSaplingKey);
+            TreeSapling treeSapling = treeSaplings.remove(TileKey.findKey(treeSaplingKey));
+            if (treeSapling != null) {
                 treeSapling.dispose();
-                treeSaplings.remove(treeSaplingKey);
                 System.out.println("TreeSapling removed from game");
             }
         }
     }
     
-    private void checkWoodStackPickups() {
-        if (woodStacks != null) {
-            // Check all wood stacks for pickup
-            for (Map.Entry<String, WoodStack> entry : woodStacks.entrySet()) {
-                WoodStack woodStack = entry.getValue();
-                String woodStackKey = entry.getKey();
-                
-                // Check if player is close enough to pick up wood stack (32px range)
-                float dx = Math.abs((x + 32) - (woodStack.getX() + 16)); // Player center to wood stack center
-                float dy = Math.abs((y + 32) - (woodStack.getY() + 16)); // WoodStack is 32x32, so center is +16
-                
-                if (dx <= 32 && dy <= 32) {
-                    // Pick up the wood stack
-                    pickupWoodStack(woodStackKey);
-                    break; // Only pick up one wood stack per frame
-                }
-            }
-        }
-    }
-    
     private void pickupWoodStack(String woodStackKey) {
         // Send pickup request to server in multiplayer mode
         if (gameClient != null && gameClient.isConnected() && isLocalPlayer) {
@@ -2473,35 +2346,14 @@ public class Player {
             }
             
             // Remove wood stack from game
-            if (woodStacks.containsKey(woodStackKey)) {
-                WoodStack woodStack = woodStacks.get(woodStackKey);
+            WoodStack woodStack = woodStacks.remove(TileKey.findKey(woodStackKey));
+            if (woodStack != null) {
                 woodStack.dispose();
-                woodStacks.remove(woodStackKey);
                 System.out.println("WoodStack removed from game");
             }
         }
     }
 
-    private void checkPebblePickups() {
-        if (pebbles != null) {
-            // Check all pebbles for pickup
-            for (Map.Entry<String, Pebble> entry : pebbles.entrySet()) {
-                Pebble pebble = entry.getValue();
-                String pebbleKey = entry.getKey();
-                
-                // Check if player is close enough to pick up pebble (32px range)
-                float dx = Math.abs((x + 32) - (pebble.getX() + 16)); // Player center to pebble center
-                float dy = Math.abs((y + 32) - (pebble.getY() + 16)); // Pebble is 32x32, so center is +16
-                
-                if (dx <= 32 && dy <= 32) {
-                    // Pick up the pebble
-                    pickupPebble(pebbleKey);
-                    break; // Only pick up one pebble per frame
-                }
-            }
-        }
-    }
-    
     private void pickupPebble(String pebbleKey) {
         // Send pickup request to server in multiplayer mode
         if (gameClient != null && gameClient.isConnected() && isLocalPlayer) {
@@ -2515,35 +2367,14 @@ public class Player {
             }
             
             // Remove pebble from game
-            if (pebbles.containsKey(pebbleKey)) {
-                Pebble pebble = pebbles.get(pebbleKey);
+            Pebble pebble = pebbles.remove(TileKey.findKey(pebbleKey));
+            if (pebble != null) {
                 pebble.dispose();
-                pebbles.remove(pebbleKey);
                 System.out.println("Pebble removed from game");
             }
         }
     }
     
-    private void checkPalmFiberPickups() {
-        if (palmFibers != null) {
-            // Check all palm fibers for pickup
-            for (Map.Entry<String, PalmFiber> entry : palmFibers.entrySet()) {
-                PalmFiber palmFiber = entry.getValue();
-                String palmFiberKey = entry.getKey();
-                
-                // Check if player is close enough to pick up palm fiber (32px range)
-                float dx = Math.abs((x + 32) - (palmFiber.getX() + 16)); // Player center to palm fiber center
-                float dy = Math.abs((y + 32) - (palmFiber.getY() + 16)); // PalmFiber is 32x32, so center is +16
-                
-                if (dx <= 32 && dy <= 32) {
-                    // Pick up the palm fiber
-                    pickupPalmFiber(palmFiberKey);
-                    break; // Only pick up one palm fiber per frame
-                }
-            }
-        }
-    }
-    
     private void pickupPalmFiber(String palmFiberKey) {
         // Send pickup request to server in multiplayer mode
         if (gameClient != null && gameClient.isConnected() && isLocalPlayer) {
@@ -2557,10 +2388,9 @@ public class Player {
             }
             
             // Remove palm fiber from game
-            if (palmFibers.containsKey(palmFiberKey)) {
-                PalmFiber palmFiber = palmFibers.get(palmFiberKey);
+            PalmFiber palmFiber = palmFibers.remove(TileKey.findKey(palmFiberKey));
+            if (palmFiber != null) {
                 palmFiber.dispose();
-                palmFibers.remove(palmFiberKey);
                 System.out.println("PalmFiber removed from game");
             }
         }
@@ -0,0 +1,199 @@
+package wagemaker.uk.player;
+
+/**
+ * Small ring buffer of timestamped position samples for one remote player.
+ * 
+ * Samples carry the server time at which the movement was relayed. Rendering
+ * runs a fixed delay behind the newest sample and interpolates between the two
+ * samples around that point in time, so late or jittery packets do not show
+ * as stutter. When no newer sample has arrived yet, the position is
+ * extrapolated from the last two samples for a bounded time and then held.
+ * A sample far away from the previous one (a respawn) starts the buffer over,
+ * so the player jumps instead of gliding across the map.
+ * 
+ * Server and local clocks are related by the smallest delay among the stored
+ * samples, so the estimate follows clock drift and lasting latency changes as
+ * old samples are overwritten. Local times must come from a monotonic clock.
+ * All methods are synchronized because samples arrive on the network thread
+ * while the render thread samples positions.
+ */
+public class PositionSnapshotBuffer {
+    
+    /** Default number of samples kept per player (1.6s at 20 updates per second). */
+    public static final int DEFAULT_CAPACITY = 32;
+    
+    /** Default time rendering runs behind the newest sample. */
+    public static final long DEFAULT_INTERPOLATION_DELAY_MS = 100;
+    
+    /** Default longest time a position is extrapolated past the newest sample. */
+    public static final long DEFAULT_MAX_EXTRAPOLATION_MS = 100;
+    
+    /** Distance between consecutive samples treated as a jump rather than movement. */
+    public static final float TELEPORT_DISTANCE = 200f;
+    
+    private final long[] times;
+    private final float[] xs;
+    private final float[] ys;
+    private final long[] offsets; // Server time minus local arrival time of each sample
+    private final long interpolationDelayMillis;
+    private final long maxExtrapolationMillis;
+    private int head; // Index of the oldest sample
+    private int count;
+    private long clockOffset; // Estimated server time minus local time, the largest stored offset
+    
+    public PositionSnapshotBuffer() {
+        this(DEFAULT_CAPACITY, DEFAULT_INTERPOLATION_DELAY_MS, DEFAULT_MAX_EXTRAPOLATION_MS);
+    }
+    
+    /**
+     * Creates a snapshot buffer.
+     * 
+     * @param capacity Number of samples kept; the oldest is overwritten when full
+     * @param interpolationDelayMillis How far behind the newest sample positions are rendered
+     * @param maxExtrapolationMillis How long a position may be extrapolated past the newest sample
+     */
+    public PositionSnapshotBuffer(int capacity, long interpolationDelayMillis, long maxExtrapolationMillis) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Snapshot buffer needs at least 2 samples, got " + capacity);
+        }
+        this.times = new long[capacity];
+        this.xs = new float[capacity];
+        this.ys = new float[capacity];
+        this.offsets = new long[capacity];
+        this.interpolationDelayMillis = interpolationDelayMillis;
+        this.maxExtrapolationMillis = maxExtrapolationMillis;
+    }
+    
+    /**
+     * Adds a position sample. Samples older than the newest one are ignored.
+     * 
+     * @param serverTime The server timestamp of the sample in milliseconds
+     * @param x The X position
+     * @param y The Y position
+     * @param localTime The monotonic local time the sample was received, in milliseconds
+     * @return true if the sample was stored, false if it arrived out of order
+     */
+    public synchronized boolean add(long serverTime, float x, float y, long localTime) {
+        long offset = serverTime - localTime;
+        if (count > 0) {
+            int newest = index(count - 1);
+            if (serverTime <= times[newest]) {
+                return false;
+            }
+            float dx = x - xs[newest];
+            float dy = y - ys[newest];
+            if (dx * dx + dy * dy > TELEPORT_DISTANCE * TELEPORT_DISTANCE) {
+                clear();
+            } else if (serverTime - times[newest] > interpolationDelayMillis) {
+                // The player stood still since the last sample: start moving from there just before this one
+                store(serverTime - interpolationDelayMillis, xs[newest], ys[newest], offsets[newest]);
+            }
+        }
+        
+        store(serverTime, x, y, offset);
+        
+        // The least delayed stored sample gives the best estimate of the server clock
+        clockOffset = offsets[index(0)];
+        for (int i = 1; i < count; i++) {
+            clockOffset = Math.max(clockOffset, offsets[index(i)]);
+        }
+        return true;
+    }
+    
+    /**
+     * Drops all samples, e.g. when the player was moved without interpolation.
+     */
+    public synchronized void clear() {
+        head = 0;
+        count = 0;
+    }
+    
+    /**
+     * Computes the position to render at a local time.
+     * 
+     * @param localTime The monotonic local time in milliseconds
+     * @param out Receives the X position at index 0 and the Y position at index 1
+     * @return true if a position was written, false if the buffer is empty
+     */
+    public synchronized boolean sample(long localTime, float[] out) {
+        if (count == 0) {
+            return false;
+        }
+        long renderTime = localTime + clockOffset - interpolationDelayMillis;
+        
+        int newest = index(count - 1);
+        if (renderTime >= times[newest]) {
+            if (count == 1) {
+                out[0] = xs[newest];
+                out[1] = ys[newest];
+                return true;
+            }
+            // Extrapolate along the last segment, for a bounded time
+            int previous = index(count - 2);
+            long ahead = Math.min(renderTime - times[newest], maxExtrapolationMillis);
+            float t = (float) ahead / (times[newest] - times[previous]);
+            out[0] = xs[newest] + (xs[newest] - xs[previous]) * t;
+            out[1] = ys[newest] + (ys[newest] - ys[previous]) * t;
+            return true;
+        }
+        
+        int oldest = index(0);
+        if (renderTime <= times[oldest]) {
+            out[0] = xs[oldest];
+            out[1] = ys[oldest];
+            return true;
+        }
+        
+        // Find the newest sample at or before renderTime and interpolate to the one after it
+        for (int i = count - 2; i >= 0; i--) {
+            int from = index(i);
+            if (times[from] <= renderTime) {
+                int to = index(i + 1);
+                float t = (float) (renderTime - times[from]) / (times[to] - times[from]);
+                out[0] = xs[from] + (xs[to] - xs[from]) * t;
+                out[1] = ys[from] + (ys[to] - ys[from]) * t;
+                return true;
+            }
+        }
+        out[0] = xs[oldest];
+        out[1] = ys[oldest];
+        return true;
+    }
+    
+    /**
+     * Gets the number of stored samples.
+     * 
+     * @return The sample count
+     */
+    public synchronized int size() {
+        return count;
+    }
+    
+    /**
+     * Gets the time rendering runs behind the newest sample.
+     * 
+     * @return The interpolation delay in milliseconds
+     */
+    public long getInterpolationDelayMillis() {
+        return interpolationDelayMillis;
+    }
+    
+    private void store(long time, float x, float y, long offset) {
+        int slot;
+        if (count < times.length) {
+            slot = index(count);
+            count++;
+        } else {
+            slot = head;
+            head = index(1);
+        }
+        times[slot] = time;
+        xs[slot] = x;
+        ys[slot] = y;
+        offsets[slot] = offset;
+    }
+    
+    private int index(int offset) {
+        return (head + offset) % times.length;
+    }
+}
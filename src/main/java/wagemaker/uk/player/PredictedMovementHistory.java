@@ -0,0 +1,161 @@
+package wagemaker.uk.player;
+
+/**
+ * History of the local player's predicted movement in multiplayer.
+ * 
+ * Every frame's movement step is recorded under the sequence number of the
+ * next position update sent to the server. When the server corrects the
+ * player, it acknowledges the last update it processed; steps up to that
+ * update are dropped and the remaining ones are replayed on top of the
+ * corrected position, so input the server has not seen yet is not lost and
+ * the player is not pulled back by a round trip's worth of movement.
+ * 
+ * Steps are kept in a fixed ring, so with no corrections the oldest steps are
+ * simply overwritten. All methods are synchronized because corrections arrive
+ * on the network thread.
+ */
+public class PredictedMovementHistory {
+    
+    /** Default number of movement steps kept (a few seconds at 60 frames per second). */
+    public static final int DEFAULT_CAPACITY = 256;
+    
+    /**
+     * Collision test used while replaying steps.
+     */
+    public interface CollisionCheck {
+        /**
+         * @param x The X position to test
+         * @param y The Y position to test
+         * @return true if the player cannot stand at the position
+         */
+        boolean collides(float x, float y);
+    }
+    
+    private final int[] sequences;
+    private final float[] stepX;
+    private final float[] stepY;
+    private int head; // Index of the oldest step
+    private int count;
+    private int pendingSequence = 1;
+    private int correctionSequence; // Acknowledged by the last correction applied, 0 if none
+    
+    public PredictedMovementHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * Creates a movement history.
+     * 
+     * @param capacity Number of steps kept; the oldest is overwritten when full
+     */
+    public PredictedMovementHistory(int capacity) {
+        this.sequences = new int[capacity];
+        this.stepX = new float[capacity];
+        this.stepY = new float[capacity];
+    }
+    
+    /**
+     * Records one frame's movement step under the pending sequence number.
+     * 
+     * @param dx The horizontal step in pixels
+     * @param dy The vertical step in pixels
+     */
+    public synchronized void record(float dx, float dy) {
+        if (dx == 0 && dy == 0) {
+            return;
+        }
+        int slot;
+        if (count < sequences.length) {
+            slot = (head + count) % sequences.length;
+            count++;
+        } else {
+            slot = head;
+            head = (head + 1) % sequences.length;
+        }
+        sequences[slot] = pendingSequence;
+        stepX[slot] = dx;
+        stepY[slot] = dy;
+    }
+    
+    /**
+     * Gets the sequence number the next position update is sent with.
+     * 
+     * @return The pending sequence number, starting at 1
+     */
+    public synchronized int getPendingSequence() {
+        return pendingSequence;
+    }
+    
+    /**
+     * Marks the pending sequence as sent; later steps belong to the next one.
+     */
+    public synchronized void commitSequence() {
+        pendingSequence++;
+    }
+    
+    /**
+     * Gets the sequence acknowledged by the last correction applied. Position updates
+     * carry it so the server can skip the ones sent before the correction arrived.
+     * 
+     * @return The acknowledged sequence, or 0 if no correction has been applied
+     */
+    public synchronized int getCorrectionSequence() {
+        return correctionSequence;
+    }
+    
+    /**
+     * Rebuilds the predicted position from a server correction.
+     * 
+     * @param acknowledgedSequence The last sequence number the server processed
+     * @param correctedX The server's X position after that update
+     * @param correctedY The server's Y position after that update
+     * @param collisionCheck Collision test applied to each replayed step, or null
+     * @param out Receives the reconciled X position at index 0 and Y at index 1
+     * @return The number of steps replayed
+     */
+    public synchronized int reconcile(int acknowledgedSequence, float correctedX, float correctedY,
+                                      CollisionCheck collisionCheck, float[] out) {
+        correctionSequence = acknowledgedSequence;
+        
+        // Drop steps the server has already applied
+        while (count > 0 && sequences[head] - acknowledgedSequence <= 0) {
+            head = (head + 1) % sequences.length;
+            count--;
+        }
+        
+        // Replay the rest the same way Player.update applies them: horizontal, then vertical
+        float x = correctedX;
+        float y = correctedY;
+        for (int i = 0; i < count; i++) {
+            int slot = (head + i) % sequences.length;
+            float nextX = x + stepX[slot];
+            if (stepX[slot] != 0 && (collisionCheck == null || !collisionCheck.collides(nextX, y))) {
+                x = nextX;
+            }
+            float nextY = y + stepY[slot];
+            if (stepY[slot] != 0 && (collisionCheck == null || !collisionCheck.collides(x, nextY))) {
+                y = nextY;
+            }
+        }
+        out[0] = x;
+        out[1] = y;
+        return count;
+    }
+    
+    /**
+     * Drops all recorded steps, e.g. after a respawn or teleport.
+     */
+    public synchronized void clear() {
+        head = 0;
+        count = 0;
+    }
+    
+    /**
+     * Gets the number of recorded steps not yet acknowledged.
+     * 
+     * @return The step count
+     */
+    public synchronized int size() {
+        return count;
+    }
+}
@@ -41,10 +41,10 @@ public class RemotePlayer {
     private TextureRegion idleLeftFrame;
     private TextureRegion idleRightFrame;
     
-    // Position interpolation for smooth movement
-    private float targetX;
-    private float targetY;
-    private static final float INTERPOLATION_SPEED = 500f; // Units per second (faster than player speed for responsiveness)
+    // Position interpolation for smooth movement: rendered a fixed delay behind the server's samples
+    private static volatile long interpolationDelayMillis = PositionSnapshotBuffer.DEFAULT_INTERPOLATION_DELAY_MS;
+    private final PositionSnapshotBuffer snapshots;
+    private final float[] sampledPosition = new float[2];
     
     public RemotePlayer(String playerId, String playerName, String characterSprite, float x, float y, 
                        Direction direction, float health, boolean isMoving) {
@@ -54,8 +54,8 @@ public class RemotePlayer {
             ? characterSprite : "boy_navy_start.png";  // Default if not provided
         this.x = x;
         this.y = y;
-        this.targetX = x;
-        this.targetY = y;
+        this.snapshots = new PositionSnapshotBuffer(PositionSnapshotBuffer.DEFAULT_CAPACITY,
+            interpolationDelayMillis, PositionSnapshotBuffer.DEFAULT_MAX_EXTRAPOLATION_MS);
         this.currentDirection = direction != null ? direction : Direction.DOWN;
         this.health = health;
         this.hunger = 0; // Initialize hunger to 0
@@ -156,11 +156,43 @@ public class RemotePlayer {
     }
     
     /**
-     * Update player position and movement state.
+     * Sets how far behind the server's movement samples remote players are
+     * rendered. Applies to remote players created afterwards.
+     * 
+     * @param delayMillis The interpolation delay in milliseconds
+     */
+    public static void setInterpolationDelayMillis(long delayMillis) {
+        interpolationDelayMillis = Math.max(0, delayMillis);
+    }
+    
+    /**
+     * Update player position and movement state from a server-timestamped movement sample.
+     * The position is added to the snapshot buffer and reached smoothly.
+     * 
+     * @param serverTimestamp The server time of the sample in milliseconds
+     */
+    public void updatePosition(float x, float y, Direction direction, boolean moving, long serverTimestamp) {
+        snapshots.add(serverTimestamp, x, y, localTimeMillis());
+        updateMovementState(direction, moving);
+    }
+    
+    /**
+     * Move the player to a position without interpolation, e.g. on respawn or
+     * when the player comes back into view.
      */
     public void updatePosition(float x, float y, Direction direction, boolean moving) {
-        this.targetX = x;
-        this.targetY = y;
+        snapshots.clear();
+        this.x = x;
+        this.y = y;
+        updateMovementState(direction, moving);
+    }
+    
+    private static long localTimeMillis() {
+        // Monotonic, so wall clock adjustments do not shift the interpolation timeline
+        return System.nanoTime() / 1_000_000;
+    }
+    
+    private void updateMovementState(Direction direction, boolean moving) {
         this.isMoving = moving;
         
         if (direction != null && direction != this.currentDirection) {
@@ -200,24 +232,10 @@ public class RemotePlayer {
             return;
         }
         
-        // Interpolate position for smooth movement
-        float dx = targetX - x;
-        float dy = targetY - y;
-        float distance = (float) Math.sqrt(dx * dx + dy * dy);
-        
-        // If distance is large (more than 50 pixels), snap immediately to avoid lag
-        // This happens when updates are delayed or player moves quickly
-        if (distance > 50f) {
-            x = targetX;
-            y = targetY;
-        } else if (distance > 0.5f) {
-            // For small distances, use fast interpolation for smooth movement
-            float moveAmount = Math.min(INTERPOLATION_SPEED * deltaTime, distance);
-            x += (dx / distance) * moveAmount;
-            y += (dy / distance) * moveAmount;
-        } else {
-            x = targetX;
-            y = targetY;
+        // Interpolate position between buffered server samples
+        if (snapshots.sample(localTimeMillis(), sampledPosition)) {
+            x = sampledPosition[0];
+            y = sampledPosition[1];
         }
         
         // Update animation time
@@ -231,7 +249,7 @@ public class RemotePlayer {
     /**
      * Get the current animation frame.
      */
-    private TextureRegion getCurrentFrame() {
+    public TextureRegion getCurrentFrame() {
         // If falling, return fall animation frame from remote player's sprite sheet
         if (isFalling) {
             return getRemoteFallFrame();
@@ -63,7 +63,7 @@ public class DedicatedServerLauncher {
         ServerLogger logger = new ServerLogger(debug);
         
         // Create and start the server with configuration
-        GameServer server = new GameServer(port, maxClients, worldSeed);
+        GameServer server = new GameServer(port, maxClients, worldSeed, config);
         server.setMaxClients(maxClients);
         
         // Create and start server monitor
@@ -73,6 +73,11 @@ public class DedicatedServerLauncher {
         setupShutdownHook(server, logger, monitor);
         
         try {
+            // Apply client commands on a fixed-rate simulation tick
+            if (config.getTickRate() > 0) {
+                server.startTickLoop(config.getTickRate());
+            }
+            
             server.start();
             System.out.println();
             System.out.println("Server Information:");
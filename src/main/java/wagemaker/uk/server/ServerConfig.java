@@ -24,6 +24,22 @@ public class ServerConfig {
     private static final int MIN_PLANTING_RANGE = 64;
     private static final int MAX_PLANTING_RANGE = 1024;
     
+    // Network transport configuration
+    public static final String TRANSPORT_BLOCKING = "blocking";
+    public static final String TRANSPORT_NIO = "nio";
+    public static final String TRANSPORT_VIRTUAL = "virtual";
+    private static final String DEFAULT_TRANSPORT = TRANSPORT_BLOCKING;
+    private static final int DEFAULT_NIO_WORKER_THREADS = 4;
+    
+    // Outbound message queue configuration
+    public static final String OVERFLOW_DROP_MOVEMENT = "drop-movement";
+    public static final String OVERFLOW_DISCONNECT = "disconnect";
+    private static final int DEFAULT_OUTBOUND_QUEUE_SIZE = 1024;
+    private static final String DEFAULT_OUTBOUND_OVERFLOW = OVERFLOW_DROP_MOVEMENT;
+    
+    // Simulation tick configuration
+    private static final int DEFAULT_TICK_RATE = 20;
+    
     // Configuration properties
     private int port;
     private int maxClients;
@@ -33,6 +49,11 @@ public class ServerConfig {
     private int rateLimit;
     private boolean debug;
     private int plantingMaxRange;
+    private String transport;
+    private int nioWorkerThreads;
+    private int outboundQueueSize;
+    private String outboundOverflow;
+    private int tickRate;
     
     /**
      * Creates a ServerConfig with default values.
@@ -46,6 +67,11 @@ public class ServerConfig {
         this.rateLimit = DEFAULT_RATE_LIMIT;
         this.debug = DEFAULT_DEBUG;
         this.plantingMaxRange = DEFAULT_PLANTING_RANGE;
+        this.transport = DEFAULT_TRANSPORT;
+        this.nioWorkerThreads = DEFAULT_NIO_WORKER_THREADS;
+        this.outboundQueueSize = DEFAULT_OUTBOUND_QUEUE_SIZE;
+        this.outboundOverflow = DEFAULT_OUTBOUND_OVERFLOW;
+        this.tickRate = DEFAULT_TICK_RATE;
     }
     
     /**
@@ -87,6 +113,11 @@ public class ServerConfig {
             config.rateLimit = parseIntProperty(props, "server.rate-limit", DEFAULT_RATE_LIMIT, 10, 10000);
             config.debug = parseBooleanProperty(props, "server.debug", DEFAULT_DEBUG);
             config.plantingMaxRange = parseIntProperty(props, "planting.max.range", DEFAULT_PLANTING_RANGE, MIN_PLANTING_RANGE, MAX_PLANTING_RANGE);
+            config.transport = parseTransportProperty(props, "server.transport", DEFAULT_TRANSPORT);
+            config.nioWorkerThreads = parseIntProperty(props, "server.nio.worker-threads", DEFAULT_NIO_WORKER_THREADS, 1, 64);
+            config.outboundQueueSize = parseIntProperty(props, "server.outbound-queue-size", DEFAULT_OUTBOUND_QUEUE_SIZE, 16, 65536);
+            config.outboundOverflow = parseOverflowProperty(props, "server.outbound-overflow", DEFAULT_OUTBOUND_OVERFLOW);
+            config.tickRate = parseIntProperty(props, "server.tick-rate", DEFAULT_TICK_RATE, 0, 128);
             
             System.out.println("Configuration loaded from: " + configFile);
             config.logPlantingRangeConfig();
@@ -145,6 +176,33 @@ public class ServerConfig {
             writer.write("# Default: 512 (8 tiles at 64px per tile)\n");
             writer.write("# Range: 64-1024 (1-16 tiles)\n");
             writer.write("planting.max.range=" + DEFAULT_PLANTING_RANGE + "\n");
+            writer.write("\n");
+            writer.write("# Network transport (blocking/nio/virtual)\n");
+            writer.write("# blocking: one thread per connected client\n");
+            writer.write("# nio: a single selector thread plus a small worker pool, for large player counts\n");
+            writer.write("# virtual: one Java virtual thread per connected client, for large player counts\n");
+            writer.write("# Default: blocking\n");
+            writer.write("server.transport=" + DEFAULT_TRANSPORT + "\n");
+            writer.write("\n");
+            writer.write("# Worker threads that process client messages when server.transport=nio (1-64)\n");
+            writer.write("# Default: 4\n");
+            writer.write("server.nio.worker-threads=" + DEFAULT_NIO_WORKER_THREADS + "\n");
+            writer.write("\n");
+            writer.write("# Maximum messages queued for a single client before the overflow policy applies (16-65536)\n");
+            writer.write("# Default: 1024\n");
+            writer.write("server.outbound-queue-size=" + DEFAULT_OUTBOUND_QUEUE_SIZE + "\n");
+            writer.write("\n");
+            writer.write("# What to do when a client's outbound queue is full (drop-movement/disconnect)\n");
+            writer.write("# drop-movement: drop stale player movement updates, disconnect only if none are queued\n");
+            writer.write("# disconnect: disconnect the client immediately\n");
+            writer.write("# Default: drop-movement\n");
+            writer.write("server.outbound-overflow=" + DEFAULT_OUTBOUND_OVERFLOW + "\n");
+            writer.write("\n");
+            writer.write("# Simulation ticks per second for the dedicated server (0-128)\n");
+            writer.write("# Client commands are applied once per tick and movement is relayed once per tick\n");
+            writer.write("# 0: handle every message as soon as it arrives\n");
+            writer.write("# Default: 20\n");
+            writer.write("server.tick-rate=" + DEFAULT_TICK_RATE + "\n");
             
             System.out.println("Created default configuration file: " + configFile);
             
@@ -221,6 +279,51 @@ public class ServerConfig {
         return Boolean.parseBoolean(value.trim());
     }
     
+    /**
+     * Parses the network transport property.
+     * @param props The properties object
+     * @param key The property key
+     * @param defaultValue The default value if not found or invalid
+     * @return One of TRANSPORT_BLOCKING, TRANSPORT_NIO or TRANSPORT_VIRTUAL
+     */
+    private static String parseTransportProperty(Properties props, String key, String defaultValue) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        
+        String transport = value.trim().toLowerCase();
+        if (!transport.equals(TRANSPORT_BLOCKING) && !transport.equals(TRANSPORT_NIO) 
+                && !transport.equals(TRANSPORT_VIRTUAL)) {
+            System.err.println("Invalid transport for " + key + ": " + value + " (expected blocking, nio or virtual)");
+            System.err.println("Using default value: " + defaultValue);
+            return defaultValue;
+        }
+        return transport;
+    }
+    
+    /**
+     * Parses the outbound queue overflow policy property.
+     * @param props The properties object
+     * @param key The property key
+     * @param defaultValue The default value if not found or invalid
+     * @return One of OVERFLOW_DROP_MOVEMENT or OVERFLOW_DISCONNECT
+     */
+    private static String parseOverflowProperty(Properties props, String key, String defaultValue) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        
+        String policy = value.trim().toLowerCase();
+        if (!policy.equals(OVERFLOW_DROP_MOVEMENT) && !policy.equals(OVERFLOW_DISCONNECT)) {
+            System.err.println("Invalid overflow policy for " + key + ": " + value + " (expected drop-movement or disconnect)");
+            System.err.println("Using default value: " + defaultValue);
+            return defaultValue;
+        }
+        return policy;
+    }
+    
     // Getters
     
     public int getPort() {
@@ -255,6 +358,38 @@ public class ServerConfig {
         return plantingMaxRange;
     }
     
+    public String getTransport() {
+        return transport;
+    }
+    
+    public boolean isNioTransport() {
+        return TRANSPORT_NIO.equals(transport);
+    }
+    
+    public boolean isVirtualThreadTransport() {
+        return TRANSPORT_VIRTUAL.equals(transport);
+    }
+    
+    public int getNioWorkerThreads() {
+        return nioWorkerThreads;
+    }
+    
+    public int getOutboundQueueSize() {
+        return outboundQueueSize;
+    }
+    
+    public String getOutboundOverflow() {
+        return outboundOverflow;
+    }
+    
+    public boolean isOutboundOverflowDisconnect() {
+        return OVERFLOW_DISCONNECT.equals(outboundOverflow);
+    }
+    
+    public int getTickRate() {
+        return tickRate;
+    }
+    
     /**
      * Logs the active planting range configuration in both pixels and tiles.
      */
@@ -277,5 +412,8 @@ public class ServerConfig {
         System.out.println("  Rate Limit: " + rateLimit + " msg/s");
         System.out.println("  Debug Mode: " + debug);
         System.out.println("  Planting Max Range: " + plantingMaxRange + " pixels (" + (plantingMaxRange / 64) + " tiles)");
+        System.out.println("  Transport: " + transport + (isNioTransport() ? " (" + nioWorkerThreads + " worker threads)" : ""));
+        System.out.println("  Tick Rate: " + (tickRate > 0 ? tickRate + " Hz" : "disabled"));
+        System.out.println("  Outbound Queue: " + outboundQueueSize + " messages (overflow: " + outboundOverflow + ")");
     }
 }
@@ -1,6 +1,8 @@
 package wagemaker.uk.server;
 
+import wagemaker.uk.network.ClientConnection;
 import wagemaker.uk.network.GameServer;
+import wagemaker.uk.network.ServerTickLoop;
 
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -92,9 +94,42 @@ public class ServerMonitor {
             int maxClients = server.getMaxClients();
             
             logger.logServerStatus(connectedClients, maxClients);
+            logOutboundQueues();
+            logTickLoop();
             
         } catch (Exception e) {
             logger.logWarning("Error logging server status: " + e.getMessage());
         }
     }
+    
+    /**
+     * Logs the deepest per-client outbound queue and the stale movement updates
+     * dropped so far, to spot clients that cannot keep up.
+     */
+    private void logOutboundQueues() {
+        int maxDepth = 0;
+        int maxHighWaterMark = 0;
+        long dropped = 0;
+        for (ClientConnection client : server.getAllClients()) {
+            maxDepth = Math.max(maxDepth, client.getOutboundQueueDepth());
+            maxHighWaterMark = Math.max(maxHighWaterMark, client.getOutboundQueueHighWaterMark());
+            dropped += client.getDroppedOutboundCount();
+        }
+        logger.logInfo("Outbound queues: max depth " + maxDepth + ", high water mark " + maxHighWaterMark +
+                      ", dropped movement updates " + dropped);
+    }
+    
+    /**
+     * Logs tick loop timings, if the server runs one.
+     */
+    private void logTickLoop() {
+        ServerTickLoop tickLoop = server.getTickLoop();
+        if (tickLoop == null) {
+            return;
+        }
+        logger.logInfo(String.format("Tick loop: %d ticks at %d Hz, last %.2f ms, max %.2f ms, %d overruns, %d commands queued",
+            tickLoop.getTickCount(), tickLoop.getTickRate(),
+            tickLoop.getLastTickNanos() / 1_000_000.0, tickLoop.getMaxTickNanos() / 1_000_000.0,
+            tickLoop.getOverrunCount(), tickLoop.getQueuedCommandCount()));
+    }
 }
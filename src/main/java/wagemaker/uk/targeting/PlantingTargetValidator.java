@@ -12,7 +12,8 @@ import wagemaker.uk.trees.SmallTree;
 import wagemaker.uk.trees.AppleTree;
 import wagemaker.uk.trees.CoconutTree;
 import wagemaker.uk.trees.BananaTree;
-import java.util.Map;
+import wagemaker.uk.world.LongObjectHashMap;
+import wagemaker.uk.world.TileKey;
 
 /**
  * Validator for planting targets (bamboo and trees).
@@ -27,15 +28,15 @@ public class PlantingTargetValidator implements TargetValidator {
     
     private final InventoryManager inventoryManager;
     private final BiomeManager biomeManager;
-    private final Map<String, PlantedBamboo> plantedBamboos;
-    private final Map<String, BambooTree> bambooTrees;
-    private Map<String, PlantedTree> plantedTrees;
-    private Map<String, SmallTree> smallTrees;
-    private Map<String, AppleTree> appleTrees;
-    private Map<String, CoconutTree> coconutTrees;
-    private Map<String, BananaTree> bananaTrees;
-    private Map<String, PlantedBananaTree> plantedBananaTrees;
-    private Map<String, PlantedAppleTree> plantedAppleTrees;
+    private final LongObjectHashMap<PlantedBamboo> plantedBamboos;
+    private final LongObjectHashMap<BambooTree> bambooTrees;
+    private LongObjectHashMap<PlantedTree> plantedTrees;
+    private LongObjectHashMap<SmallTree> smallTrees;
+    private LongObjectHashMap<AppleTree> appleTrees;
+    private LongObjectHashMap<CoconutTree> coconutTrees;
+    private LongObjectHashMap<BananaTree> bananaTrees;
+    private LongObjectHashMap<PlantedBananaTree> plantedBananaTrees;
+    private LongObjectHashMap<PlantedAppleTree> plantedAppleTrees;
     
     /**
      * Creates a new PlantingTargetValidator.
@@ -47,8 +48,8 @@ public class PlantingTargetValidator implements TargetValidator {
      */
     public PlantingTargetValidator(InventoryManager inventoryManager,
                                    BiomeManager biomeManager,
-                                   Map<String, PlantedBamboo> plantedBamboos,
-                                   Map<String, BambooTree> bambooTrees) {
+                                   LongObjectHashMap<PlantedBamboo> plantedBamboos,
+                                   LongObjectHashMap<BambooTree> bambooTrees) {
         this.inventoryManager = inventoryManager;
         this.biomeManager = biomeManager;
         this.plantedBamboos = plantedBamboos;
@@ -64,9 +65,9 @@ public class PlantingTargetValidator implements TargetValidator {
      * @param coconutTrees Map of existing coconut trees
      * @param bananaTrees Map of existing banana trees
      */
-    public void setTreeMaps(Map<String, PlantedTree> plantedTrees, Map<String, SmallTree> smallTrees,
-                           Map<String, AppleTree> appleTrees, Map<String, CoconutTree> coconutTrees,
-                           Map<String, BananaTree> bananaTrees) {
+    public void setTreeMaps(LongObjectHashMap<PlantedTree> plantedTrees, LongObjectHashMap<SmallTree> smallTrees,
+                           LongObjectHashMap<AppleTree> appleTrees, LongObjectHashMap<CoconutTree> coconutTrees,
+                           LongObjectHashMap<BananaTree> bananaTrees) {
         this.plantedTrees = plantedTrees;
         this.smallTrees = smallTrees;
         this.appleTrees = appleTrees;
@@ -80,8 +81,8 @@ public class PlantingTargetValidator implements TargetValidator {
      * @param plantedBananaTrees Map of existing planted banana trees
      * @param plantedAppleTrees Map of existing planted apple trees
      */
-    public void setPlantedFruitTreeMaps(Map<String, PlantedBananaTree> plantedBananaTrees,
-                                        Map<String, PlantedAppleTree> plantedAppleTrees) {
+    public void setPlantedFruitTreeMaps(LongObjectHashMap<PlantedBananaTree> plantedBananaTrees,
+                                        LongObjectHashMap<PlantedAppleTree> plantedAppleTrees) {
         this.plantedBananaTrees = plantedBananaTrees;
         this.plantedAppleTrees = plantedAppleTrees;
     }
@@ -200,27 +201,27 @@ public class PlantingTargetValidator implements TargetValidator {
         String coordinateKey = (int)tileX + "," + (int)tileY;
         
         // Check for planted bamboo
-        if (plantedBamboos != null && plantedBamboos.containsKey(bambooKey)) {
+        if (plantedBamboos != null && plantedBamboos.containsKey(TileKey.findKey(bambooKey))) {
             // System.out.println("[VALIDATOR] Tile occupied by planted bamboo at: " + bambooKey);
             return true;
         }
         
         // Check for planted tree
-        if (plantedTrees != null && plantedTrees.containsKey(treeKey)) {
+        if (plantedTrees != null && plantedTrees.containsKey(TileKey.findKey(treeKey))) {
             // System.out.println("[VALIDATOR] Tile occupied by planted tree at: " + treeKey);
             return true;
         }
         
         // Check for planted banana tree
         String bananaTreeKey = "planted-banana-tree-" + (int)tileX + "-" + (int)tileY;
-        if (plantedBananaTrees != null && plantedBananaTrees.containsKey(bananaTreeKey)) {
+        if (plantedBananaTrees != null && plantedBananaTrees.containsKey(TileKey.findKey(bananaTreeKey))) {
             // System.out.println("[VALIDATOR] Tile occupied by planted banana tree at: " + bananaTreeKey);
             return true;
         }
         
         // Check for planted apple tree
         String appleTreeKey = "planted-apple-tree-" + (int)tileX + "-" + (int)tileY;
-        if (plantedAppleTrees != null && plantedAppleTrees.containsKey(appleTreeKey)) {
+        if (plantedAppleTrees != null && plantedAppleTrees.containsKey(TileKey.findKey(appleTreeKey))) {
             // System.out.println("[VALIDATOR] Tile occupied by planted apple tree at: " + appleTreeKey);
             return true;
         }
@@ -1,11 +1,14 @@
 package wagemaker.uk.trees;
 
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import wagemaker.uk.gdx.SpriteAtlas;
+import wagemaker.uk.gdx.WorldSprite;
+import wagemaker.uk.network.TreeType;
+import wagemaker.uk.world.CollisionGrid;
 
-public class AppleTree {
+public class AppleTree implements WorldSprite {
     private float x, y;
-    private Texture texture;
+    private TextureRegion texture;
     private float health = 100;
     private float timeSinceLastAttack = 0;
 
@@ -16,20 +19,10 @@ public class AppleTree {
     }
 
     private void createTexture() {
-        Texture spriteSheet = new Texture("sprites/assets.png");
-        Pixmap pixmap = new Pixmap(128, 128, Pixmap.Format.RGBA8888);
-        spriteSheet.getTextureData().prepare();
-        Pixmap sheetPixmap = spriteSheet.getTextureData().consumePixmap();
-        
-        pixmap.drawPixmap(sheetPixmap, 0, 0, 128, 0, 128, 128);
-        
-        texture = new Texture(pixmap);
-        pixmap.dispose();
-        sheetPixmap.dispose();
-        spriteSheet.dispose();
+        texture = SpriteAtlas.region(SpriteAtlas.Sprite.APPLE_TREE);
     }
 
-    public Texture getTexture() {
+    public TextureRegion getTexture() {
         return texture;
     }
 
@@ -44,14 +37,7 @@ public class AppleTree {
 
 
     public boolean collidesWith(float playerX, float playerY, float playerWidth, float playerHeight) {
-        // Collision box: 32px width (16px left, 16px right)
-        float treeCollisionX = x + 48;
-        float treeCollisionWidth = 32;
-        float treeCollisionY = y + 28;
-        float treeCollisionHeight = 52;
-        
-        return playerX < treeCollisionX + treeCollisionWidth && playerX + playerWidth > treeCollisionX && 
-               playerY < treeCollisionY + treeCollisionHeight && playerY + playerHeight > treeCollisionY;
+        return CollisionGrid.forTree(TreeType.APPLE, x, y).overlaps(playerX, playerY, playerWidth, playerHeight);
     }
 
     public boolean attack() {
@@ -99,6 +85,6 @@ public class AppleTree {
     }
 
     public void dispose() {
-        if (texture != null) texture.dispose();
+        // The texture region is shared through the SpriteAtlas
     }
 }
\ No newline at end of file
@@ -1,11 +1,14 @@
 package wagemaker.uk.trees;
 
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import wagemaker.uk.gdx.SpriteAtlas;
+import wagemaker.uk.gdx.WorldSprite;
+import wagemaker.uk.network.TreeType;
+import wagemaker.uk.world.CollisionGrid;
 
-public class BambooTree {
+public class BambooTree implements WorldSprite {
     private float x, y;
-    private Texture texture;
+    private TextureRegion texture;
     private float health = 100;
     private float timeSinceLastAttack = 0;
 
@@ -16,20 +19,10 @@ public class BambooTree {
     }
 
     private void createTexture() {
-        Texture spriteSheet = new Texture("sprites/assets.png");
-        Pixmap pixmap = new Pixmap(64, 128, Pixmap.Format.RGBA8888);
-        spriteSheet.getTextureData().prepare();
-        Pixmap sheetPixmap = spriteSheet.getTextureData().consumePixmap();
-        
-        pixmap.drawPixmap(sheetPixmap, 0, 0, 256, 0, 64, 128);
-        
-        texture = new Texture(pixmap);
-        pixmap.dispose();
-        sheetPixmap.dispose();
-        spriteSheet.dispose();
+        texture = SpriteAtlas.region(SpriteAtlas.Sprite.BAMBOO_TREE);
     }
 
-    public Texture getTexture() {
+    public TextureRegion getTexture() {
         return texture;
     }
 
@@ -42,14 +35,7 @@ public class BambooTree {
     }
 
     public boolean collidesWith(float playerX, float playerY, float playerWidth, float playerHeight) {
-        // Collision box: reduced by 8px left, 8px right, 16px top, 12px bottom
-        float treeCollisionX = x + 24;
-        float treeCollisionWidth = 16;
-        float treeCollisionY = y + 36;
-        float treeCollisionHeight = 60;
-        
-        return playerX < treeCollisionX + treeCollisionWidth && playerX + playerWidth > treeCollisionX && 
-               playerY < treeCollisionY + treeCollisionHeight && playerY + playerHeight > treeCollisionY;
+        return CollisionGrid.forTree(TreeType.BAMBOO, x, y).overlaps(playerX, playerY, playerWidth, playerHeight);
     }
 
     public boolean attack() {
@@ -97,6 +83,6 @@ public class BambooTree {
     }
 
     public void dispose() {
-        if (texture != null) texture.dispose();
+        // The texture region is shared through the SpriteAtlas
     }
 }
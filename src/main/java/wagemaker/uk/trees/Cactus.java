@@ -1,11 +1,14 @@
 package wagemaker.uk.trees;
 
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import wagemaker.uk.gdx.SpriteAtlas;
+import wagemaker.uk.gdx.WorldSprite;
+import wagemaker.uk.network.TreeType;
+import wagemaker.uk.world.CollisionGrid;
 
-public class Cactus {
+public class Cactus implements WorldSprite {
     private float x, y;
-    private Texture texture;
+    private TextureRegion texture;
     private float health = 200; // Double health compared to other trees
     private float timeSinceLastAttack = 0;
 
@@ -16,21 +19,10 @@ public class Cactus {
     }
 
     private void createTexture() {
-        Texture spriteSheet = new Texture("sprites/assets.png");
-        Pixmap pixmap = new Pixmap(64, 128, Pixmap.Format.RGBA8888);
-        spriteSheet.getTextureData().prepare();
-        Pixmap sheetPixmap = spriteSheet.getTextureData().consumePixmap();
-        
-        // Cactus coordinates: 0 from left, 192 from top, 64x128 size
-        pixmap.drawPixmap(sheetPixmap, 0, 0, 0, 192, 64, 128);
-        
-        texture = new Texture(pixmap);
-        pixmap.dispose();
-        sheetPixmap.dispose();
-        spriteSheet.dispose();
+        texture = SpriteAtlas.region(SpriteAtlas.Sprite.CACTUS);
     }
 
-    public Texture getTexture() {
+    public TextureRegion getTexture() {
         return texture;
     }
 
@@ -43,19 +35,7 @@ public class Cactus {
     }
 
     public boolean collidesWith(float playerX, float playerY, float playerWidth, float playerHeight) {
-        // Collision box based on your specifications:
-        // 16px left from center, 16px right from center = 32px width
-        // 48px top down from center, 32px down up from center = 80px height
-        float cactusCenterX = x + 32; // Cactus center (64px wide / 2)
-        float cactusCenterY = y + 64; // Cactus center (128px tall / 2)
-        
-        float cactusCollisionX = cactusCenterX - 16; // 16px left from center (wider for easier collision)
-        float cactusCollisionWidth = 32; // 16px left + 16px right (wider for easier collision)
-        float cactusCollisionY = cactusCenterY - 40; // 40px down from center (lower collision box)
-        float cactusCollisionHeight = 80; // 40px down + 40px up
-        
-        return playerX < cactusCollisionX + cactusCollisionWidth && playerX + playerWidth > cactusCollisionX && 
-               playerY < cactusCollisionY + cactusCollisionHeight && playerY + playerHeight > cactusCollisionY;
+        return CollisionGrid.forTree(TreeType.CACTUS, x, y).overlaps(playerX, playerY, playerWidth, playerHeight);
     }
 
     public boolean attack() {
@@ -99,6 +79,6 @@ public class Cactus {
     }
 
     public void dispose() {
-        if (texture != null) texture.dispose();
+        // The texture region is shared through the SpriteAtlas
     }
 }
\ No newline at end of file
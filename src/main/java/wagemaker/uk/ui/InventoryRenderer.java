@@ -6,7 +6,9 @@ import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import wagemaker.uk.gdx.SpriteAtlas;
 import wagemaker.uk.inventory.Inventory;
 
 /**
@@ -15,16 +17,16 @@ import wagemaker.uk.inventory.Inventory;
  */
 public class InventoryRenderer {
     // Textures for item icons
-    private Texture appleIcon;
-    private Texture bananaIcon;
-    private Texture bambooSaplingIcon;
-    private Texture bambooStackIcon;
-    private Texture treeSaplingIcon;
-    private Texture woodStackIcon;
-    private Texture pebbleIcon;
-    private Texture palmFiberIcon;
-    private Texture appleSaplingIcon;
-    private Texture bananaSaplingIcon;
+    private TextureRegion appleIcon;
+    private TextureRegion bananaIcon;
+    private TextureRegion bambooSaplingIcon;
+    private TextureRegion bambooStackIcon;
+    private TextureRegion treeSaplingIcon;
+    private TextureRegion woodStackIcon;
+    private TextureRegion pebbleIcon;
+    private TextureRegion palmFiberIcon;
+    private TextureRegion appleSaplingIcon;
+    private TextureRegion bananaSaplingIcon;
     
     // Background and UI elements
     private Texture woodenBackground;
@@ -63,58 +65,39 @@ public class InventoryRenderer {
     }
     
     /**
-     * Load item icon textures from the sprite sheet.
-     * Uses the same extraction method as the item classes.
+     * Load item icons from the shared sprite atlas.
+     * Uses the same regions as the item classes.
      */
     private void loadItemIcons() {
-        // Load apple icon (0, 128, 64x64)
-        appleIcon = extractIconFromSpriteSheet(0, 128, 64, 64);
+        // Load apple icon
+        appleIcon = SpriteAtlas.region(SpriteAtlas.Sprite.APPLE);
         
-        // Load banana icon (64, 128, 64x64)
-        bananaIcon = extractIconFromSpriteSheet(64, 128, 64, 64);
+        // Load banana icon
+        bananaIcon = SpriteAtlas.region(SpriteAtlas.Sprite.BANANA);
         
-        // Load baby bamboo icon (192, 128, 64x64)
-        bambooSaplingIcon = extractIconFromSpriteSheet(192, 128, 64, 64);
+        // Load baby bamboo icon
+        bambooSaplingIcon = SpriteAtlas.region(SpriteAtlas.Sprite.BAMBOO_SAPLING);
         
-        // Load bamboo stack icon (128, 128, 64x64)
-        bambooStackIcon = extractIconFromSpriteSheet(128, 128, 64, 64);
+        // Load bamboo stack icon
+        bambooStackIcon = SpriteAtlas.region(SpriteAtlas.Sprite.BAMBOO_STACK);
         
-        // Load baby tree icon (384, 128, 64x64)
-        treeSaplingIcon = extractIconFromSpriteSheet(384, 128, 64, 64);
+        // Load baby tree icon
+        treeSaplingIcon = SpriteAtlas.region(SpriteAtlas.Sprite.TREE_SAPLING);
         
-        // Load wood stack icon (256, 128, 64x64)
-        woodStackIcon = extractIconFromSpriteSheet(256, 128, 64, 64);
+        // Load wood stack icon
+        woodStackIcon = SpriteAtlas.region(SpriteAtlas.Sprite.WOOD_STACK);
         
-        // Load pebble icon (320, 128, 64x64)
-        pebbleIcon = extractIconFromSpriteSheet(320, 128, 64, 64);
+        // Load pebble icon
+        pebbleIcon = SpriteAtlas.region(SpriteAtlas.Sprite.PEBBLE);
         
-        // Load palm fiber icon (448, 128, 64x64)
-        palmFiberIcon = extractIconFromSpriteSheet(448, 128, 64, 64);
+        // Load palm fiber icon
+        palmFiberIcon = SpriteAtlas.region(SpriteAtlas.Sprite.PALM_FIBER);
         
-        // Load apple sapling icon (192, 254, 64x64)
-        appleSaplingIcon = extractIconFromSpriteSheet(192, 254, 64, 64);
+        // Load apple sapling icon
+        appleSaplingIcon = SpriteAtlas.region(SpriteAtlas.Sprite.APPLE_SAPLING);
         
-        // Load banana sapling icon (192, 192, 64x64)
-        bananaSaplingIcon = extractIconFromSpriteSheet(192, 192, 64, 64);
-    }
-    
-    /**
-     * Extract an icon from the sprite sheet at the specified coordinates.
-     */
-    private Texture extractIconFromSpriteSheet(int srcX, int srcY, int width, int height) {
-        Texture spriteSheet = new Texture("sprites/assets.png");
-        Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
-        spriteSheet.getTextureData().prepare();
-        Pixmap sheetPixmap = spriteSheet.getTextureData().consumePixmap();
-        
-        pixmap.drawPixmap(sheetPixmap, 0, 0, srcX, srcY, width, height);
-        
-        Texture icon = new Texture(pixmap);
-        pixmap.dispose();
-        sheetPixmap.dispose();
-        spriteSheet.dispose();
-        
-        return icon;
+        // Load banana sapling icon
+        bananaSaplingIcon = SpriteAtlas.region(SpriteAtlas.Sprite.BANANA_SAPLING);
     }
     
     /**
@@ -218,7 +201,7 @@ public class InventoryRenderer {
      * @param y The Y position of the slot
      * @param isSelected Whether this slot is currently selected
      */
-    private void renderSlot(SpriteBatch batch, Texture icon, int count, float x, float y, boolean isSelected) {
+    private void renderSlot(SpriteBatch batch, TextureRegion icon, int count, float x, float y, boolean isSelected) {
         // Draw selection highlight if this slot is selected
         if (isSelected) {
             // Get the current projection matrix from the batch before ending it
@@ -270,16 +253,6 @@ public class InventoryRenderer {
      * Dispose of all textures and resources.
      */
     public void dispose() {
-        if (appleIcon != null) appleIcon.dispose();
-        if (bananaIcon != null) bananaIcon.dispose();
-        if (bambooSaplingIcon != null) bambooSaplingIcon.dispose();
-        if (bambooStackIcon != null) bambooStackIcon.dispose();
-        if (treeSaplingIcon != null) treeSaplingIcon.dispose();
-        if (woodStackIcon != null) woodStackIcon.dispose();
-        if (pebbleIcon != null) pebbleIcon.dispose();
-        if (palmFiberIcon != null) palmFiberIcon.dispose();
-        if (appleSaplingIcon != null) appleSaplingIcon.dispose();
-        if (bananaSaplingIcon != null) bananaSaplingIcon.dispose();
         if (woodenBackground != null) woodenBackground.dispose();
         if (slotBorder != null) slotBorder.dispose();
         if (countFont != null) countFont.dispose();
@@ -15,13 +15,14 @@ public class RainConfig {
     
     /**
      * Maximum number of rain particles that can be active simultaneously.
-     * Higher values create denser rain but may impact performance.
+     * Higher values create denser rain. Particles are stored in primitive
+     * arrays and drawn as one batched mesh, so thousands are affordable.
      * 
-     * Performance impact: High
-     * Recommended range: 100-300
-     * Default: 200
+     * Performance impact: Medium
+     * Recommended range: 200-8000
+     * Default: 2000
      */
-    public static final int MAX_PARTICLES = 200;
+    public static final int MAX_PARTICLES = 2000;
     
     /**
      * Minimum number of rain particles at lowest intensity.
@@ -0,0 +1,177 @@
+package wagemaker.uk.weather;
+
+/**
+ * Structure-of-arrays store for rain particles.
+ * Each particle property lives in its own primitive array, and active particles
+ * are kept packed at the front of the arrays: spawning takes the first free slot
+ * and recycling moves the last active particle into the freed slot. Spawning,
+ * recycling and counting are constant time, updating is a single loop over the
+ * active particles, and nothing is allocated after construction.
+ */
+public class RainParticleStore {
+    
+    /** Floats per vertex: x, y and packed color. */
+    public static final int VERTEX_SIZE = 3;
+    
+    /** Vertices per particle quad. */
+    public static final int VERTICES_PER_PARTICLE = 4;
+    
+    private final float[] x;
+    private final float[] y;
+    private final float[] velocity;
+    private final float[] length;
+    private final float[] alpha;
+    private final float[] color; // Packed ABGR color including alpha
+    private int activeCount;
+    
+    /**
+     * Creates a store for a fixed number of particles.
+     * 
+     * @param capacity The maximum number of active particles
+     */
+    public RainParticleStore(int capacity) {
+        this.x = new float[capacity];
+        this.y = new float[capacity];
+        this.velocity = new float[capacity];
+        this.length = new float[capacity];
+        this.alpha = new float[capacity];
+        this.color = new float[capacity];
+        this.activeCount = 0;
+    }
+    
+    /**
+     * Activates a particle in the first free slot.
+     * 
+     * @param startX Starting X position
+     * @param startY Starting Y position
+     * @param velocityY Falling speed in pixels per second
+     * @param particleLength Visual length of the raindrop in pixels
+     * @param particleAlpha Transparency (0.0-1.0)
+     * @param packedColor Packed color of the raindrop, including its alpha
+     * @return true if a particle was spawned, false if the store is full
+     */
+    public boolean spawn(float startX, float startY, float velocityY, float particleLength,
+                         float particleAlpha, float packedColor) {
+        if (activeCount >= x.length) {
+            return false;
+        }
+        int i = activeCount++;
+        x[i] = startX;
+        y[i] = startY;
+        velocity[i] = velocityY;
+        length[i] = particleLength;
+        alpha[i] = particleAlpha;
+        color[i] = packedColor;
+        return true;
+    }
+    
+    /**
+     * Moves every active particle down by its velocity and recycles those that
+     * have fallen below the bottom of the screen.
+     * 
+     * @param deltaTime Time elapsed since last update in seconds
+     * @param screenBottom The Y coordinate of the bottom of the screen
+     */
+    public void update(float deltaTime, float screenBottom) {
+        int i = 0;
+        while (i < activeCount) {
+            float newY = y[i] - velocity[i] * deltaTime;
+            if (newY <= screenBottom) {
+                // Fill the slot with the last active particle; it is updated on the next pass
+                int last = --activeCount;
+                x[i] = x[last];
+                y[i] = y[last];
+                velocity[i] = velocity[last];
+                length[i] = length[last];
+                alpha[i] = alpha[last];
+                color[i] = color[last];
+            } else {
+                y[i] = newY;
+                i++;
+            }
+        }
+    }
+    
+    /**
+     * Writes a quad for every active particle into a vertex array, in the
+     * layout given by {@link #VERTEX_SIZE} and {@link #VERTICES_PER_PARTICLE}.
+     * 
+     * @param vertices The vertex array, large enough for every active particle
+     * @param width The width of each raindrop in pixels
+     * @return The number of floats written
+     */
+    public int writeVertices(float[] vertices, float width) {
+        int v = 0;
+        for (int i = 0; i < activeCount; i++) {
+            float left = x[i];
+            float bottom = y[i];
+            float right = left + width;
+            float top = bottom + length[i];
+            float c = color[i];
+            
+            vertices[v++] = left;
+            vertices[v++] = bottom;
+            vertices[v++] = c;
+            
+            vertices[v++] = right;
+            vertices[v++] = bottom;
+            vertices[v++] = c;
+            
+            vertices[v++] = right;
+            vertices[v++] = top;
+            vertices[v++] = c;
+            
+            vertices[v++] = left;
+            vertices[v++] = top;
+            vertices[v++] = c;
+        }
+        return v;
+    }
+    
+    /**
+     * Deactivates every particle.
+     */
+    public void clear() {
+        activeCount = 0;
+    }
+    
+    // Getters for the particle at an index below getActiveCount()
+    
+    public float getX(int index) {
+        return x[index];
+    }
+    
+    public float getY(int index) {
+        return y[index];
+    }
+    
+    public float getVelocityY(int index) {
+        return velocity[index];
+    }
+    
+    public float getLength(int index) {
+        return length[index];
+    }
+    
+    public float getAlpha(int index) {
+        return alpha[index];
+    }
+    
+    /**
+     * Gets the number of active particles.
+     * 
+     * @return The active particle count
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+    
+    /**
+     * Gets the maximum number of active particles.
+     * 
+     * @return The store capacity
+     */
+    public int getCapacity() {
+        return x.length;
+    }
+}
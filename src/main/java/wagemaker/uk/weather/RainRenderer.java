@@ -1,49 +1,85 @@
 package wagemaker.uk.weather;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
 import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
- * Handles rendering of rain particles using LibGDX ShapeRenderer.
- * Uses object pooling for performance optimization.
- * Manages particle lifecycle: spawning, updating, rendering, and recycling.
+ * Handles rendering of rain particles.
+ * Particles live in a structure-of-arrays {@link RainParticleStore}, so spawning,
+ * updating and recycling allocate nothing and visit only the active particles.
+ * All raindrops are drawn with a single draw call from one batched mesh; if the
+ * mesh shader is unavailable the ShapeRenderer is used instead.
  * 
  * Configuration is centralized in RainConfig for easy tuning.
  */
 public class RainRenderer {
     
-    private List<RainParticle> particlePool;
+    private static final String VERTEX_SHADER =
+        "attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" +
+        "attribute vec4 " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" +
+        "uniform mat4 u_projTrans;\n" +
+        "uniform float u_intensity;\n" +
+        "varying vec4 v_color;\n" +
+        "void main() {\n" +
+        "    v_color = " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" +
+        "    v_color.a *= u_intensity;\n" +
+        "    gl_Position = u_projTrans * " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" +
+        "}\n";
+    
+    private static final String FRAGMENT_SHADER =
+        "#ifdef GL_ES\n" +
+        "precision mediump float;\n" +
+        "#endif\n" +
+        "varying vec4 v_color;\n" +
+        "void main() {\n" +
+        "    gl_FragColor = v_color;\n" +
+        "}\n";
+    
+    // Quads are indexed with shorts, so at most 65536 vertices
+    private static final int MAX_MESH_PARTICLES = 65536 / RainParticleStore.VERTICES_PER_PARTICLE;
+    
+    // Particle slots, capped so every active particle fits in the mesh
+    private static final int CAPACITY = Math.min(RainConfig.MAX_PARTICLES, MAX_MESH_PARTICLES);
+    
+    private RainParticleStore particles;
     private ShapeRenderer shapeRenderer;
     private Random random;
     private float currentIntensity; // 0.0-1.0, affects active particle count
     
+    // Batched mesh, created on first render
+    private Mesh mesh;
+    private ShaderProgram shader;
+    private float[] vertices;
+    private boolean meshUnavailable;
+    
     /**
      * Creates a new RainRenderer with the specified ShapeRenderer.
      * 
-     * @param shapeRenderer The ShapeRenderer to use for drawing rain particles
+     * @param shapeRenderer The ShapeRenderer to use if the batched mesh cannot be created
      */
     public RainRenderer(ShapeRenderer shapeRenderer) {
         this.shapeRenderer = shapeRenderer;
         this.random = new Random();
         this.currentIntensity = 0.0f;
-        this.particlePool = new ArrayList<>();
+        this.particles = new RainParticleStore(0);
     }
     
     /**
-     * Initializes the rain renderer by pre-allocating the particle pool.
+     * Initializes the rain renderer by pre-allocating the particle store.
      * This method should be called once during setup to avoid garbage collection
      * during gameplay.
      */
     public void initialize() {
-        // Pre-allocate MAX_PARTICLES for object pooling
-        particlePool.clear();
-        for (int i = 0; i < RainConfig.MAX_PARTICLES; i++) {
-            particlePool.add(new RainParticle());
-        }
+        // Pre-allocate MAX_PARTICLES slots, or as many as one mesh can draw
+        particles = new RainParticleStore(CAPACITY);
     }
     
     /**
@@ -56,19 +92,16 @@ public class RainRenderer {
     public void update(float deltaTime, OrthographicCamera camera, float intensity) {
         this.currentIntensity = intensity;
         
-        // Update existing particles
-        updateParticles(deltaTime, camera);
-        
-        // Spawn new particles if needed
-        int targetCount = getTargetParticleCount(intensity);
-        int activeCount = getActiveParticleCount();
+        // Update existing particles, recycling those that fell off screen
+        float cameraBottom = camera.position.y - camera.viewportHeight / 2;
+        particles.update(deltaTime, cameraBottom);
         
         // Spawn particles to reach target count
-        while (activeCount < targetCount) {
+        int targetCount = getTargetParticleCount(intensity);
+        while (particles.getActiveCount() < targetCount) {
             if (!spawnParticle(camera)) {
-                break; // Pool exhausted
+                break; // Store full
             }
-            activeCount++;
         }
     }
     
@@ -78,46 +111,115 @@ public class RainRenderer {
      * @param camera The camera used for projection
      */
     public void render(OrthographicCamera camera) {
-        if (currentIntensity <= RainConfig.MIN_RENDER_INTENSITY) {
+        if (currentIntensity <= RainConfig.MIN_RENDER_INTENSITY || particles.getActiveCount() == 0) {
             return; // No rain to render
         }
         
-        // Set up ShapeRenderer with camera projection
+        if (ensureMesh()) {
+            renderMesh(camera);
+        } else {
+            renderShapes(camera);
+        }
+    }
+    
+    /**
+     * Draws every raindrop as a quad of one indexed mesh, in a single draw call.
+     * The rain intensity scales each drop's alpha in the shader.
+     */
+    private void renderMesh(OrthographicCamera camera) {
+        int floatCount = particles.writeVertices(vertices, RainConfig.PARTICLE_WIDTH);
+        mesh.setVertices(vertices, 0, floatCount);
+        
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        shader.bind();
+        shader.setUniformMatrix("u_projTrans", camera.combined);
+        shader.setUniformf("u_intensity", currentIntensity);
+        mesh.render(shader, GL20.GL_TRIANGLES, 0, particles.getActiveCount() * 6);
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+    }
+    
+    /**
+     * Draws every raindrop as a ShapeRenderer rectangle.
+     */
+    private void renderShapes(OrthographicCamera camera) {
         shapeRenderer.setProjectionMatrix(camera.combined);
         shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
         
-        // Render each active particle
-        for (RainParticle particle : particlePool) {
-            if (particle.isActive()) {
-                // Set color with alpha based on particle properties
-                float alpha = particle.getAlpha() * currentIntensity;
-                shapeRenderer.setColor(
-                    RainConfig.RAIN_COLOR_RED,
-                    RainConfig.RAIN_COLOR_GREEN,
-                    RainConfig.RAIN_COLOR_BLUE,
-                    alpha
-                );
-                
-                // Draw particle as a vertical rectangle (raindrop)
-                float x = particle.getX();
-                float y = particle.getY();
-                float length = particle.getLength();
-                
-                shapeRenderer.rect(x, y, RainConfig.PARTICLE_WIDTH, length);
-            }
+        for (int i = 0, n = particles.getActiveCount(); i < n; i++) {
+            // Set color with alpha based on particle properties
+            float alpha = particles.getAlpha(i) * currentIntensity;
+            shapeRenderer.setColor(
+                RainConfig.RAIN_COLOR_RED,
+                RainConfig.RAIN_COLOR_GREEN,
+                RainConfig.RAIN_COLOR_BLUE,
+                alpha
+            );
+            
+            // Draw particle as a vertical rectangle (raindrop)
+            shapeRenderer.rect(particles.getX(i), particles.getY(i), RainConfig.PARTICLE_WIDTH, particles.getLength(i));
         }
         
         shapeRenderer.end();
     }
     
+    /**
+     * Creates the mesh and shader on first use.
+     * 
+     * @return true if the batched mesh can be used
+     */
+    private boolean ensureMesh() {
+        if (mesh != null) {
+            return true;
+        }
+        if (meshUnavailable) {
+            return false;
+        }
+        
+        ShaderProgram program = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        if (!program.isCompiled()) {
+            System.err.println("[RainRenderer] Rain shader failed to compile, falling back to ShapeRenderer: " + program.getLog());
+            program.dispose();
+            meshUnavailable = true;
+            return false;
+        }
+        
+        int vertexCount = CAPACITY * RainParticleStore.VERTICES_PER_PARTICLE;
+        short[] indices = new short[CAPACITY * 6];
+        for (int i = 0, v = 0; i < indices.length; i += 6, v += 4) {
+            indices[i] = (short) v;
+            indices[i + 1] = (short) (v + 1);
+            indices[i + 2] = (short) (v + 2);
+            indices[i + 3] = (short) (v + 2);
+            indices[i + 4] = (short) (v + 3);
+            indices[i + 5] = (short) v;
+        }
+        
+        shader = program;
+        mesh = new Mesh(false, vertexCount, indices.length,
+            new VertexAttribute(VertexAttributes.Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+            VertexAttribute.ColorPacked());
+        mesh.setIndices(indices);
+        vertices = new float[vertexCount * RainParticleStore.VERTEX_SIZE];
+        return true;
+    }
+    
     /**
      * Cleans up resources used by the renderer.
      * Note: ShapeRenderer is managed externally and should not be disposed here.
      */
     public void dispose() {
-        // Particle pool will be garbage collected
         // ShapeRenderer is managed by the main game class
-        particlePool.clear();
+        particles.clear();
+        if (mesh != null) {
+            mesh.dispose();
+            mesh = null;
+        }
+        if (shader != null) {
+            shader.dispose();
+            shader = null;
+        }
+        vertices = null;
     }
     
     /**
@@ -141,15 +243,9 @@ public class RainRenderer {
      * Spawns a new rain particle at the top of the screen with random properties.
      * 
      * @param camera The camera used to determine screen bounds
-     * @return true if a particle was spawned, false if pool is exhausted
+     * @return true if a particle was spawned, false if the store is full
      */
     private boolean spawnParticle(OrthographicCamera camera) {
-        // Find an inactive particle from the pool
-        RainParticle particle = getInactiveParticle();
-        if (particle == null) {
-            return false; // Pool exhausted
-        }
-        
         // Calculate screen bounds
         float screenWidth = camera.viewportWidth;
         float screenHeight = camera.viewportHeight;
@@ -168,68 +264,21 @@ public class RainRenderer {
         // Random length within range
         float length = RainConfig.MIN_PARTICLE_LENGTH + random.nextFloat() * (RainConfig.MAX_PARTICLE_LENGTH - RainConfig.MIN_PARTICLE_LENGTH);
         
-        // Reset particle with new properties
-        particle.reset(startX, startY, velocity, length);
-        
-        // Set random alpha within range
+        // Random alpha within range
         float alpha = RainConfig.MIN_ALPHA + random.nextFloat() * (RainConfig.MAX_ALPHA - RainConfig.MIN_ALPHA);
-        particle.setAlpha(alpha);
+        float packedColor = Color.toFloatBits(
+            RainConfig.RAIN_COLOR_RED, RainConfig.RAIN_COLOR_GREEN, RainConfig.RAIN_COLOR_BLUE, alpha);
         
-        return true;
+        return particles.spawn(startX, startY, velocity, length, alpha, packedColor);
     }
     
     /**
-     * Updates all active particles, animating their falling motion and recycling
-     * particles that have fallen off screen.
-     * 
-     * @param deltaTime Time elapsed since last update in seconds
-     * @param camera The camera used to determine screen bounds
-     */
-    private void updateParticles(float deltaTime, OrthographicCamera camera) {
-        float screenHeight = camera.viewportHeight;
-        float cameraBottom = camera.position.y - screenHeight / 2;
-        
-        for (RainParticle particle : particlePool) {
-            if (particle.isActive()) {
-                // Update particle position
-                particle.update(deltaTime);
-                
-                // Check if particle has fallen off screen
-                if (particle.isOffScreen(cameraBottom)) {
-                    // Recycle particle by marking it inactive
-                    particle.setActive(false);
-                }
-            }
-        }
-    }
-    
-    /**
-     * Finds an inactive particle from the pool for reuse.
-     * 
-     * @return An inactive particle, or null if all particles are active
-     */
-    private RainParticle getInactiveParticle() {
-        for (RainParticle particle : particlePool) {
-            if (!particle.isActive()) {
-                return particle;
-            }
-        }
-        return null; // Pool exhausted
-    }
-    
-    /**
-     * Counts the number of currently active particles.
+     * Gets the number of currently active particles.
      * 
      * @return The number of active particles
      */
-    private int getActiveParticleCount() {
-        int count = 0;
-        for (RainParticle particle : particlePool) {
-            if (particle.isActive()) {
-                count++;
-            }
-        }
-        return count;
+    public int getActiveParticleCount() {
+        return particles.getActiveCount();
     }
     
     /**
@@ -247,12 +296,12 @@ public class RainRenderer {
      * @return Total particle pool size
      */
     public int getPoolSize() {
-        return particlePool.size();
+        return particles.getCapacity();
     }
     
     @Override
     public String toString() {
         return String.format("RainRenderer[intensity=%.2f, active=%d/%d]",
-            currentIntensity, getActiveParticleCount(), particlePool.size());
+            currentIntensity, particles.getActiveCount(), particles.getCapacity());
     }
 }
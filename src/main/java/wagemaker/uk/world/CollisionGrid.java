@@ -0,0 +1,160 @@
+package wagemaker.uk.world;
+
+import wagemaker.uk.network.TreeType;
+
+/**
+ * Broad-phase index of the world's static colliders (tree trunks and stones).
+ * 
+ * Colliders are bucketed in a {@link SpatialHashGrid}, so a movement check only
+ * tests the colliders near the player instead of every tree and stone in the
+ * world. The collision boxes of each kind of object are defined here, and are
+ * shared by the client entities and the server's movement validation.
+ */
+public class CollisionGrid {
+    
+    /**
+     * How far a collider's box can reach from the position it is indexed at,
+     * or from its entity's position; covers the largest box and its offset.
+     */
+    public static final float QUERY_MARGIN = 128.0f;
+    
+    /**
+     * An axis-aligned collision box.
+     */
+    public static final class Collider {
+        private final float x, y, width, height;
+        
+        public Collider(float x, float y, float width, float height) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+        
+        public float getX() {
+            return x;
+        }
+        
+        public float getY() {
+            return y;
+        }
+        
+        public float getWidth() {
+            return width;
+        }
+        
+        public float getHeight() {
+            return height;
+        }
+        
+        /**
+         * Checks whether a box overlaps this collider.
+         * @param boxX The x-coordinate of the box
+         * @param boxY The y-coordinate of the box
+         * @param boxWidth The width of the box
+         * @param boxHeight The height of the box
+         * @return true if the boxes overlap
+         */
+        public boolean overlaps(float boxX, float boxY, float boxWidth, float boxHeight) {
+            return boxX < x + width && boxX + boxWidth > x &&
+                   boxY < y + height && boxY + boxHeight > y;
+        }
+    }
+    
+    /**
+     * Gets the trunk collision box of a tree.
+     * @param type The tree type
+     * @param treeX The tree's x-coordinate
+     * @param treeY The tree's y-coordinate
+     * @return The collision box
+     */
+    public static Collider forTree(TreeType type, float treeX, float treeY) {
+        switch (type) {
+            case APPLE:
+                // 32px wide trunk in the middle of the 128px sprite
+                return new Collider(treeX + 48, treeY + 28, 32, 52);
+            case COCONUT:
+                // Narrow trunk left of the centre of the 128px sprite
+                return new Collider(treeX + 48, treeY + 32, 12, 64);
+            case BAMBOO:
+                return new Collider(treeX + 24, treeY + 36, 16, 60);
+            case BANANA:
+                // Trunk left of centre, extending 16px below the sprite
+                return new Collider(treeX + 16, treeY - 16, 16, 84);
+            case CACTUS:
+                // 32x80 box around the centre of the 64x128 sprite, shifted down
+                return new Collider(treeX + 16, treeY + 24, 32, 80);
+            case SMALL:
+            default:
+                // 32px wide trunk centred in the 64px sprite
+                return new Collider(treeX + 16, treeY + 24, 32, 72);
+        }
+    }
+    
+    /**
+     * Gets the collision box of a stone.
+     * @param stoneX The stone's x-coordinate
+     * @param stoneY The stone's y-coordinate
+     * @return The collision box
+     */
+    public static Collider forStone(float stoneX, float stoneY) {
+        // 24x48 box, offset to the right to reduce left-side collision
+        return new Collider(stoneX + 8, stoneY + 8, 24, 48);
+    }
+    
+    private final SpatialHashGrid<Collider> grid;
+    
+    public CollisionGrid() {
+        this.grid = new SpatialHashGrid<>();
+    }
+    
+    /**
+     * Adds or replaces a collider.
+     * @param id Unique ID of the collider's object
+     * @param collider The collision box, or null to remove the collider
+     */
+    public void put(String id, Collider collider) {
+        if (collider == null) {
+            grid.remove(id);
+        } else {
+            grid.put(id, collider.x, collider.y, collider);
+        }
+    }
+    
+    /**
+     * Removes a collider.
+     * @param id Unique ID of the collider's object
+     */
+    public void remove(String id) {
+        grid.remove(id);
+    }
+    
+    /**
+     * Removes every collider.
+     */
+    public void clear() {
+        grid.clear();
+    }
+    
+    /**
+     * Gets the number of colliders.
+     * @return The collider count
+     */
+    public int size() {
+        return grid.size();
+    }
+    
+    /**
+     * Checks whether a box overlaps any collider.
+     * @param x The x-coordinate of the box
+     * @param y The y-coordinate of the box
+     * @param width The width of the box
+     * @param height The height of the box
+     * @return true if the box is blocked
+     */
+    public boolean collides(float x, float y, float width, float height) {
+        float radius = Math.max(width, height) / 2 + QUERY_MARGIN;
+        return grid.anyNear(x + width / 2, y + height / 2, radius,
+            (id, collider) -> collider.overlaps(x, y, width, height));
+    }
+}
@@ -0,0 +1,188 @@
+package wagemaker.uk.world;
+
+import java.util.Arrays;
+
+/**
+ * Set of primitive longs, such as {@link TileKey packed tile keys}, that does
+ * not box its elements.
+ * 
+ * Uses open addressing with linear probing in a power-of-two table. Not thread
+ * safe; callers confine each set to one thread.
+ */
+public class LongHashSet {
+    
+    private static final int MIN_CAPACITY = 16;
+    private static final long EMPTY = 0L;
+    
+    private long[] keys;
+    private int mask;
+    private int size; // Excluding the empty marker value
+    private boolean containsEmpty; // The empty marker value is tracked outside the table
+    
+    public LongHashSet() {
+        this(MIN_CAPACITY);
+    }
+    
+    /**
+     * Creates a set sized for an expected number of elements.
+     * @param expectedSize Number of elements the set should hold without growing
+     */
+    public LongHashSet(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+    
+    /**
+     * Adds a value.
+     * @param value The value
+     * @return true if the value was not present
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            boolean added = !containsEmpty;
+            containsEmpty = true;
+            return added;
+        }
+        int slot = slot(value);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = value;
+        size++;
+        if (size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+    
+    /**
+     * Checks whether a value is present.
+     * @param value The value
+     * @return true if the set contains the value
+     */
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return containsEmpty;
+        }
+        int slot = slot(value);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == value) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+    
+    /**
+     * Removes a value.
+     * @param value The value
+     * @return true if the value was present
+     */
+    public boolean remove(long value) {
+        if (value == EMPTY) {
+            boolean removed = containsEmpty;
+            containsEmpty = false;
+            return removed;
+        }
+        int slot = slot(value);
+        while (keys[slot] != value) {
+            if (keys[slot] == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        
+        // Shift later entries of the probe run back so lookups never stop early
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+        return true;
+    }
+    
+    /**
+     * Gets the number of values in the set.
+     * @return The size
+     */
+    public int size() {
+        return containsEmpty ? size + 1 : size;
+    }
+    
+    /**
+     * Checks whether the set is empty.
+     * @return true if the set has no values
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+    
+    /**
+     * Copies the values into a new array, in no particular order.
+     * @return The values
+     */
+    public long[] toArray() {
+        long[] result = new long[size()];
+        int i = 0;
+        if (containsEmpty) {
+            result[i++] = EMPTY;
+        }
+        for (long key : keys) {
+            if (key != EMPTY) {
+                result[i++] = key;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Removes every value, keeping the current table.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        containsEmpty = false;
+    }
+    
+    private int slot(long value) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+    
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        allocate(newCapacity);
+        for (long key : oldKeys) {
+            if (key != EMPTY) {
+                int slot = slot(key);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+    }
+    
+    static int tableSizeFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2 && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
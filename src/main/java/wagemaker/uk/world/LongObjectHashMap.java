@@ -0,0 +1,278 @@
+package wagemaker.uk.world;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Map from primitive longs, such as {@link TileKey packed tile keys}, to
+ * objects that does not box its keys.
+ * 
+ * Uses open addressing with linear probing in a power-of-two table; a slot is
+ * in use when its value is non-null, so null values cannot be stored. Not
+ * thread safe; callers confine each map to one thread.
+ * 
+ * @param <V> The value type
+ */
+public class LongObjectHashMap<V> {
+    
+    /**
+     * Callback for {@link #forEach(EntryConsumer)}.
+     * @param <V> The value type
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+    
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private Collection<V> valuesView;
+    
+    public LongObjectHashMap() {
+        this(16);
+    }
+    
+    /**
+     * Creates a map sized for an expected number of entries.
+     * @param expectedSize Number of entries the map should hold without growing
+     */
+    public LongObjectHashMap(int expectedSize) {
+        allocate(LongHashSet.tableSizeFor(expectedSize));
+    }
+    
+    /**
+     * Gets the value stored for a key.
+     * @param key The key
+     * @return The value, or null if the key is not present
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+    
+    /**
+     * Stores a value for a key, replacing any previous value.
+     * @param key The key
+     * @param value The value, must not be null
+     * @return The previous value, or null if the key was not present
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if (size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return null;
+    }
+    
+    /**
+     * Removes a key.
+     * @param key The key
+     * @return The removed value, or null if the key was not present
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int slot = slot(key);
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (values[slot] == null) {
+            return null;
+        }
+        V removed = (V) values[slot];
+        
+        // Shift later entries of the probe run back so lookups never stop early
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (values[next] != null) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[hole] = null;
+        size--;
+        return removed;
+    }
+    
+    /**
+     * Checks whether a key is present.
+     * @param key The key
+     * @return true if the map contains the key
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+    
+    /**
+     * Gets the number of entries in the map.
+     * @return The size
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Checks whether the map is empty.
+     * @return true if the map has no entries
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Visits every value in table order.
+     * @param action Applied to each value; must not modify the map
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        for (Object value : values) {
+            if (value != null) {
+                action.accept((V) value);
+            }
+        }
+    }
+    
+    /**
+     * Visits every entry in table order.
+     * @param action Applied to each key and value; must not modify the map
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> action) {
+        for (int slot = 0; slot < values.length; slot++) {
+            if (values[slot] != null) {
+                action.accept(keys[slot], (V) values[slot]);
+            }
+        }
+    }
+    
+    /**
+     * Copies the keys into a new array, in no particular order.
+     * @return The keys
+     */
+    public long[] keys() {
+        long[] result = new long[size];
+        int i = 0;
+        for (int slot = 0; slot < values.length; slot++) {
+            if (values[slot] != null) {
+                result[i++] = keys[slot];
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Gets a view of the values in table order. The view does not support
+     * removal, and the map must not be modified while iterating over it.
+     * @return The values
+     */
+    public Collection<V> values() {
+        if (valuesView == null) {
+            valuesView = new AbstractCollection<V>() {
+                @Override
+                public Iterator<V> iterator() {
+                    return new ValueIterator();
+                }
+                
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return valuesView;
+    }
+    
+    /**
+     * Removes every entry, keeping the current table.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+    
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+    
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+    
+    private final class ValueIterator implements Iterator<V> {
+        private final Object[] table = values;
+        private int next = advance(0);
+        
+        private int advance(int slot) {
+            while (slot < table.length && table[slot] == null) {
+                slot++;
+            }
+            return slot;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return next < table.length;
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            if (next >= table.length) {
+                throw new NoSuchElementException();
+            }
+            V value = (V) table[next];
+            next = advance(next + 1);
+            return value;
+        }
+    }
+    
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+}
@@ -0,0 +1,168 @@
+package wagemaker.uk.world;
+
+import wagemaker.uk.network.ItemType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spatial index of the dropped items a player can pick up, across every item type.
+ * 
+ * Items are bucketed in a {@link SpatialHashGrid} at their centre, so finding the
+ * item under the player visits only the buckets around them however many items
+ * are lying around the world. The pickup range is defined here and is shared by
+ * the client's pickup check and the server's pickup validation.
+ */
+public class PickupIndex {
+    
+    /** Size of the player's sprite; ranges are measured from its centre. */
+    public static final float PLAYER_SIZE = 64.0f;
+    
+    /** Largest distance, on each axis, between the player's centre and an item's centre for a pickup. */
+    public static final float PICKUP_RANGE = 32.0f;
+    
+    /**
+     * An item that can be picked up.
+     */
+    public static final class Candidate {
+        private final String key;
+        private final ItemType type;
+        private final float x, y;
+        
+        Candidate(String key, ItemType type, float x, float y) {
+            this.key = key;
+            this.type = type;
+            this.x = x;
+            this.y = y;
+        }
+        
+        /**
+         * Gets the key of the item in its item map.
+         * @return The item key
+         */
+        public String getKey() {
+            return key;
+        }
+        
+        public ItemType getType() {
+            return type;
+        }
+        
+        public float getX() {
+            return x;
+        }
+        
+        public float getY() {
+            return y;
+        }
+    }
+    
+    /**
+     * Gets the size an item is drawn at.
+     * @param type The item type
+     * @return The width and height in pixels
+     */
+    public static float itemSize(ItemType type) {
+        return type == ItemType.APPLE ? 24.0f : 32.0f;
+    }
+    
+    /**
+     * Checks whether an item is within a range of a player, measured between their centres on each axis.
+     * @param playerX The player's x-coordinate
+     * @param playerY The player's y-coordinate
+     * @param type The item type
+     * @param itemX The item's x-coordinate
+     * @param itemY The item's y-coordinate
+     * @param range The largest distance on each axis
+     * @return true if the item is in range
+     */
+    public static boolean isInRange(float playerX, float playerY, ItemType type,
+                                    float itemX, float itemY, float range) {
+        float half = itemSize(type) / 2;
+        float dx = Math.abs((playerX + PLAYER_SIZE / 2) - (itemX + half));
+        float dy = Math.abs((playerY + PLAYER_SIZE / 2) - (itemY + half));
+        return dx <= range && dy <= range;
+    }
+    
+    private final SpatialHashGrid<Candidate> grid;
+    private final List<Candidate> nearby;
+    
+    public PickupIndex() {
+        this.grid = new SpatialHashGrid<>();
+        this.nearby = new ArrayList<>();
+    }
+    
+    /**
+     * Adds or moves an item.
+     * @param key The key of the item in its item map
+     * @param type The item type
+     * @param x The item's x-coordinate
+     * @param y The item's y-coordinate
+     */
+    public void put(String key, ItemType type, float x, float y) {
+        float half = itemSize(type) / 2;
+        grid.put(indexId(type, key), x + half, y + half, new Candidate(key, type, x, y));
+    }
+    
+    /**
+     * Removes an item.
+     * @param key The key of the item in its item map
+     * @param type The item type
+     */
+    public void remove(String key, ItemType type) {
+        grid.remove(indexId(type, key));
+    }
+    
+    /**
+     * Removes every item.
+     */
+    public void clear() {
+        grid.clear();
+    }
+    
+    /**
+     * Gets the number of items.
+     * @return The item count
+     */
+    public int size() {
+        return grid.size();
+    }
+    
+    /**
+     * Finds the nearest item within pickup range of a player.
+     * @param playerX The player's x-coordinate
+     * @param playerY The player's y-coordinate
+     * @return The nearest item, or null if none is in range
+     */
+    public Candidate findNearest(float playerX, float playerY) {
+        float centerX = playerX + PLAYER_SIZE / 2;
+        float centerY = playerY + PLAYER_SIZE / 2;
+        // The corners of the square pickup range are sqrt(2) times its half-width away
+        nearby.clear();
+        grid.collectWithin(centerX, centerY, PICKUP_RANGE * 1.415f, nearby);
+        
+        Candidate nearest = null;
+        float nearestDistance = Float.MAX_VALUE;
+        for (int i = 0, n = nearby.size(); i < n; i++) {
+            Candidate candidate = nearby.get(i);
+            if (!isInRange(playerX, playerY, candidate.type, candidate.x, candidate.y, PICKUP_RANGE)) {
+                continue;
+            }
+            float half = itemSize(candidate.type) / 2;
+            float dx = centerX - (candidate.x + half);
+            float dy = centerY - (candidate.y + half);
+            float distance = dx * dx + dy * dy;
+            if (distance < nearestDistance) {
+                nearest = candidate;
+                nearestDistance = distance;
+            }
+        }
+        nearby.clear();
+        return nearest;
+    }
+    
+    // Keys are only unique within one item map
+    private static String indexId(ItemType type, String key) {
+        return type.name() + ":" + key;
+    }
+}
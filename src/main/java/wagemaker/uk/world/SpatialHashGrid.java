@@ -0,0 +1,236 @@
+package wagemaker.uk.world;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cell-bucketed spatial index for world entities keyed by their string id.
+ * 
+ * Entities are stored in square buckets of a fixed cell size, so proximity queries
+ * only visit the buckets overlapping the query area instead of every entity in the world.
+ * Reads are lock-free and may run concurrently with writes; writes are serialized
+ * so an entity is never present in two buckets at once.
+ * 
+ * @param <T> The entity type stored in the grid
+ */
+public class SpatialHashGrid<T> {
+    
+    /** Default bucket size in pixels (four 64px grass tiles). */
+    public static final float DEFAULT_CELL_SIZE = 256.0f;
+    
+    /**
+     * Callback for entities found by a proximity query.
+     * @param <T> The entity type
+     */
+    @FunctionalInterface
+    public interface EntryPredicate<T> {
+        /**
+         * @param id The entity id
+         * @param value The entity
+         * @return true to stop the query, false to keep visiting
+         */
+        boolean test(String id, T value);
+    }
+    
+    /**
+     * A stored entity together with the position it was indexed at.
+     */
+    private static final class Entry<T> {
+        final String id;
+        final float x;
+        final float y;
+        final T value;
+        final long cell;
+        
+        Entry(String id, float x, float y, T value, long cell) {
+            this.id = id;
+            this.x = x;
+            this.y = y;
+            this.value = value;
+            this.cell = cell;
+        }
+    }
+    
+    private final float cellSize;
+    private final Map<Long, Map<String, Entry<T>>> cells;
+    private final Map<String, Entry<T>> entries;
+    
+    /**
+     * Creates a grid with the default cell size.
+     */
+    public SpatialHashGrid() {
+        this(DEFAULT_CELL_SIZE);
+    }
+    
+    /**
+     * Creates a grid with the given cell size.
+     * @param cellSize Bucket size in pixels, should be close to the typical query radius
+     */
+    public SpatialHashGrid(float cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.cellSize = cellSize;
+        this.cells = new ConcurrentHashMap<>();
+        this.entries = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Inserts an entity or moves it to a new position.
+     * @param id The entity id
+     * @param x World x-coordinate
+     * @param y World y-coordinate
+     * @param value The entity
+     */
+    public synchronized void put(String id, float x, float y, T value) {
+        if (id == null || value == null) {
+            return;
+        }
+        
+        long cell = TileKey.pack(cellCoord(x), cellCoord(y));
+        Entry<T> previous = entries.get(id);
+        if (previous != null && previous.cell != cell) {
+            removeFromCell(previous);
+        }
+        
+        Entry<T> entry = new Entry<>(id, x, y, value, cell);
+        entries.put(id, entry);
+        cells.computeIfAbsent(cell, k -> new ConcurrentHashMap<>()).put(id, entry);
+    }
+    
+    /**
+     * Removes an entity from the grid.
+     * @param id The entity id
+     * @return The removed entity, or null if it was not indexed
+     */
+    public synchronized T remove(String id) {
+        if (id == null) {
+            return null;
+        }
+        
+        Entry<T> entry = entries.remove(id);
+        if (entry == null) {
+            return null;
+        }
+        
+        removeFromCell(entry);
+        return entry.value;
+    }
+    
+    /**
+     * Removes every entity from the grid.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        cells.clear();
+    }
+    
+    /**
+     * Gets the number of indexed entities.
+     * @return The entity count
+     */
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Checks whether an entity is indexed.
+     * @param id The entity id
+     * @return true if the id is present in the grid
+     */
+    public boolean contains(String id) {
+        return id != null && entries.containsKey(id);
+    }
+    
+    /**
+     * Visits every entity in the buckets overlapping the square of the given radius
+     * around (x, y), stopping at the first one the predicate accepts.
+     * Candidates are not distance filtered, so callers keep their own exact range test.
+     * 
+     * @param x Query centre x-coordinate
+     * @param y Query centre y-coordinate
+     * @param radius Query radius in pixels
+     * @param predicate Test applied to each candidate
+     * @return true if the predicate accepted any candidate
+     */
+    public boolean anyNear(float x, float y, float radius, EntryPredicate<T> predicate) {
+        int minCellX = cellCoord(x - radius);
+        int maxCellX = cellCoord(x + radius);
+        int minCellY = cellCoord(y - radius);
+        int maxCellY = cellCoord(y + radius);
+        
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cy = minCellY; cy <= maxCellY; cy++) {
+                Map<String, Entry<T>> bucket = cells.get(TileKey.pack(cx, cy));
+                if (bucket == null) {
+                    continue;
+                }
+                for (Entry<T> entry : bucket.values()) {
+                    if (predicate.test(entry.id, entry.value)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Collects every entity whose indexed position lies within the given radius of (x, y).
+     * 
+     * @param x Query centre x-coordinate
+     * @param y Query centre y-coordinate
+     * @param radius Query radius in pixels (inclusive)
+     * @param out Collection the matching entities are added to
+     * @return The number of entities added
+     */
+    public int collectWithin(float x, float y, float radius, Collection<? super T> out) {
+        int minCellX = cellCoord(x - radius);
+        int maxCellX = cellCoord(x + radius);
+        int minCellY = cellCoord(y - radius);
+        int maxCellY = cellCoord(y + radius);
+        float radiusSquared = radius * radius;
+        int added = 0;
+        
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cy = minCellY; cy <= maxCellY; cy++) {
+                Map<String, Entry<T>> bucket = cells.get(TileKey.pack(cx, cy));
+                if (bucket == null) {
+                    continue;
+                }
+                for (Entry<T> entry : bucket.values()) {
+                    float dx = entry.x - x;
+                    float dy = entry.y - y;
+                    if (dx * dx + dy * dy <= radiusSquared) {
+                        out.add(entry.value);
+                        added++;
+                    }
+                }
+            }
+        }
+        return added;
+    }
+    
+    /**
+     * Gets the bucket size in pixels.
+     * @return The cell size
+     */
+    public float getCellSize() {
+        return cellSize;
+    }
+    
+    private void removeFromCell(Entry<T> entry) {
+        Map<String, Entry<T>> bucket = cells.get(entry.cell);
+        if (bucket != null) {
+            bucket.remove(entry.id, entry);
+            if (bucket.isEmpty()) {
+                cells.remove(entry.cell, bucket);
+            }
+        }
+    }
+    
+    private int cellCoord(float value) {
+        return (int) Math.floor(value / cellSize);
+    }
+}
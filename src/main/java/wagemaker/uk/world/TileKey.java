@@ -0,0 +1,185 @@
+package wagemaker.uk.world;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Packs a pair of integer coordinates into a single long, so tiles, chunks and
+ * grid cells can be used as map keys without building "x,y" strings.
+ * 
+ * The x-coordinate is stored in the upper 32 bits and the y-coordinate in the
+ * lower 32 bits. Packing and unpacking are exact for every int pair.
+ * 
+ * Entity ids in saves and network messages stay in the "x,y" string form;
+ * {@link #toId(long)} and {@link #parse(String)} convert between the two.
+ * Maps keyed by entity id use {@link #keyOf(String)} and {@link #idOf(long)},
+ * which also accept ids that are not tile ids, such as "planted-tree-64-128".
+ */
+public final class TileKey {
+    
+    /** Column of aliases for ids that are not tile ids; no world position is this far out. */
+    private static final int ALIAS_X = Integer.MIN_VALUE;
+    
+    /** Key of a non-tile id that has no alias yet, so no map can contain it. */
+    private static final long UNKNOWN_ALIAS = pack(ALIAS_X, -1);
+    
+    private static final Map<String, Long> aliasKeys = new HashMap<>(); // Guarded by aliasKeys
+    private static final LongObjectHashMap<String> aliasIds = new LongObjectHashMap<>(); // Guarded by aliasKeys
+    
+    private TileKey() {
+    }
+    
+    /**
+     * Packs two coordinates into a key.
+     * @param x The x-coordinate
+     * @param y The y-coordinate
+     * @return The packed key
+     */
+    public static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * Gets the x-coordinate of a packed key.
+     * @param key The packed key
+     * @return The x-coordinate
+     */
+    public static int x(long key) {
+        return (int) (key >> 32);
+    }
+    
+    /**
+     * Gets the y-coordinate of a packed key.
+     * @param key The packed key
+     * @return The y-coordinate
+     */
+    public static int y(long key) {
+        return (int) key;
+    }
+    
+    /**
+     * Formats a packed key as the "x,y" id used by saves and network messages.
+     * @param key The packed key
+     * @return The string id
+     */
+    public static String toId(long key) {
+        return x(key) + "," + y(key);
+    }
+    
+    /**
+     * Checks whether a string id has the "x,y" form of a tile id, as written by
+     * {@link #toId(long)}: no leading zeros, plus signs or "-0".
+     * @param id The string id, may be null
+     * @return true if {@link #parse(String)} accepts the id
+     */
+    public static boolean isTileId(String id) {
+        if (id == null) {
+            return false;
+        }
+        int comma = id.indexOf(',');
+        return comma > 0 && isInt(id, 0, comma) && isInt(id, comma + 1, id.length());
+    }
+    
+    /**
+     * Parses an "x,y" string id into a packed key without allocating.
+     * @param id The string id
+     * @return The packed key
+     * @throws IllegalArgumentException if the id is not a tile id
+     */
+    public static long parse(String id) {
+        if (!isTileId(id)) {
+            throw new IllegalArgumentException("Not a tile id: " + id);
+        }
+        int comma = id.indexOf(',');
+        return pack(parseInt(id, 0, comma), parseInt(id, comma + 1, id.length()));
+    }
+    
+    /**
+     * Gets the map key for an entity id. A tile id gives its tile without
+     * allocating; any other id gets an alias key, assigned on first use and
+     * kept for the life of the process.
+     * @param id The entity id
+     * @return The key, which {@link #idOf(long)} turns back into the id
+     */
+    public static long keyOf(String id) {
+        if (isTileId(id)) {
+            long key = parse(id);
+            if (x(key) != ALIAS_X) {
+                return key;
+            }
+        }
+        synchronized (aliasKeys) {
+            Long alias = aliasKeys.get(id);
+            if (alias == null) {
+                alias = pack(ALIAS_X, aliasKeys.size());
+                aliasKeys.put(id, alias);
+                aliasIds.put(alias, id);
+            }
+            return alias;
+        }
+    }
+    
+    /**
+     * Gets the map key for an entity id to look up, without assigning an alias.
+     * An id that was never passed to {@link #keyOf(String)} cannot be in a map,
+     * so it gets a key that no map contains.
+     * @param id The entity id, may be null
+     * @return The key
+     */
+    public static long findKey(String id) {
+        if (isTileId(id)) {
+            long key = parse(id);
+            if (x(key) != ALIAS_X) {
+                return key;
+            }
+        }
+        synchronized (aliasKeys) {
+            Long alias = aliasKeys.get(id);
+            return alias != null ? alias : UNKNOWN_ALIAS;
+        }
+    }
+    
+    /**
+     * Gets the entity id of a map key from {@link #keyOf(String)}.
+     * @param key The key
+     * @return The entity id
+     */
+    public static String idOf(long key) {
+        if (x(key) != ALIAS_X) {
+            return toId(key);
+        }
+        synchronized (aliasKeys) {
+            String id = aliasIds.get(key);
+            return id != null ? id : toId(key);
+        }
+    }
+    
+    private static boolean isInt(String s, int start, int end) {
+        int digitsStart = start < end && s.charAt(start) == '-' ? start + 1 : start;
+        if (digitsStart >= end || end - digitsStart > 10) {
+            return false;
+        }
+        // Only the canonical form, so an id survives parse and toId unchanged
+        if (s.charAt(digitsStart) == '0' && (end - digitsStart > 1 || digitsStart > start)) {
+            return false;
+        }
+        long value = 0;
+        for (int i = digitsStart; i < end; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return digitsStart > start ? -value >= Integer.MIN_VALUE : value <= Integer.MAX_VALUE;
+    }
+    
+    private static int parseInt(String s, int start, int end) {
+        boolean negative = s.charAt(start) == '-';
+        long value = 0;
+        for (int i = negative ? start + 1 : start; i < end; i++) {
+            value = value * 10 + (s.charAt(i) - '0');
+        }
+        return (int) (negative ? -value : value);
+    }
+}
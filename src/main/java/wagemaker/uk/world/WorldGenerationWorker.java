@@ -0,0 +1,500 @@
+package wagemaker.uk.world;
+
+import wagemaker.uk.biome.BiomeQueryService;
+import wagemaker.uk.biome.BiomeType;
+import wagemaker.uk.network.TreeType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Generates the singleplayer world's trees and stones on a background thread.
+ * 
+ * The render thread requests chunks around the camera; the worker decides the
+ * tree and stone layout of each chunk and hands back plain descriptors through
+ * a bounded queue, which the render thread drains to create the entities. The
+ * worker keeps its own record of the placed layout for the spacing rules, so it
+ * never reads the render thread's entity maps.
+ * 
+ * Requests, resets and occupied positions are processed strictly in the order
+ * they were submitted on a single worker thread, so the generated layout
+ * depends only on the world seed and that order, never on thread timing.
+ */
+public class WorldGenerationWorker {
+    
+    /** Size of a generation cell in pixels (same as a grass tile). */
+    public static final int TILE_SIZE = 64;
+    
+    /** Number of tiles along each side of a chunk. */
+    public static final int CHUNK_TILES = 8;
+    
+    /** Size of a chunk in pixels. */
+    public static final int CHUNK_SIZE = TILE_SIZE * CHUNK_TILES;
+    
+    /** Capacity of the queue of finished entities; the worker waits while it is full. */
+    public static final int RESULT_QUEUE_CAPACITY = 256;
+    
+    // Stones are never generated within this distance of the player
+    private static final float STONE_PLAYER_EXCLUSION = 512.0f;
+    
+    /**
+     * A generated tree or stone, ready to be created on the render thread.
+     */
+    public static final class GeneratedEntity {
+        private final long tile;
+        private final String key;
+        private final TreeType treeType;
+        private final float x, y;
+        private final int epoch;
+        
+        GeneratedEntity(long tile, String key, TreeType treeType, float x, float y, int epoch) {
+            this.tile = tile;
+            this.key = key;
+            this.treeType = treeType;
+            this.x = x;
+            this.y = y;
+            this.epoch = epoch;
+        }
+        
+        /**
+         * Gets the packed key of the tile the entity was generated for.
+         * @return The tile key, see {@link TileKey}
+         */
+        public long getTile() {
+            return tile;
+        }
+        
+        /**
+         * Gets the key of the tile the entity was generated for.
+         * @return The tile key ("x,y")
+         */
+        public String getKey() {
+            return key;
+        }
+        
+        /**
+         * Gets the type of tree.
+         * @return The tree type, or null for a stone
+         */
+        public TreeType getTreeType() {
+            return treeType;
+        }
+        
+        public boolean isStone() {
+            return treeType == null;
+        }
+        
+        public float getX() {
+            return x;
+        }
+        
+        public float getY() {
+            return y;
+        }
+    }
+    
+    private final BiomeQueryService biomeQueryService;
+    private final BlockingQueue<GeneratedEntity> results;
+    private final Set<Long> requestedChunks;
+    private final AtomicInteger epoch;
+    private final ExecutorService worker;
+    
+    // Layout state, only touched on the worker thread
+    private final Random random;
+    private final SpatialHashGrid<float[]> treeLayout;
+    private final SpatialHashGrid<float[]> stoneLayout;
+    private final LongHashSet occupiedTreeTiles;
+    private final LongHashSet occupiedStoneTiles;
+    private long worldSeed;
+    private boolean skippedNearPlayer;
+    
+    /**
+     * Creates a generation worker with its own background thread.
+     */
+    public WorldGenerationWorker() {
+        this.biomeQueryService = BiomeQueryService.getInstance();
+        this.results = new ArrayBlockingQueue<>(RESULT_QUEUE_CAPACITY);
+        this.requestedChunks = ConcurrentHashMap.newKeySet();
+        this.epoch = new AtomicInteger();
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "WorldGenerationWorker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.random = new Random();
+        this.treeLayout = new SpatialHashGrid<>();
+        this.stoneLayout = new SpatialHashGrid<>();
+        this.occupiedTreeTiles = new LongHashSet();
+        this.occupiedStoneTiles = new LongHashSet();
+    }
+    
+    /**
+     * Starts a new layout for a world seed. Pending requests and undrained
+     * results of the previous layout are discarded.
+     * 
+     * @param seed The world seed
+     */
+    public void reset(long seed) {
+        int newEpoch = epoch.incrementAndGet();
+        requestedChunks.clear();
+        results.clear(); // Also releases a worker waiting on a full queue
+        submit(newEpoch, () -> {
+            worldSeed = seed;
+            treeLayout.clear();
+            stoneLayout.clear();
+            occupiedTreeTiles.clear();
+            occupiedStoneTiles.clear();
+        });
+    }
+    
+    /**
+     * Records a tree that exists in the world, e.g. loaded from a save, so that
+     * generation keeps its spacing from it and does not generate its tile again.
+     * 
+     * @param key The tile key of the tree
+     * @param x The tree's x-coordinate
+     * @param y The tree's y-coordinate
+     */
+    public void occupyTree(String key, float x, float y) {
+        int currentEpoch = epoch.get();
+        submit(currentEpoch, () -> {
+            // Only ids of the "x,y" tile form can match a generation tile
+            if (TileKey.isTileId(key)) {
+                occupiedTreeTiles.add(TileKey.parse(key));
+            }
+            treeLayout.put(key, x, y, new float[] {x, y});
+        });
+    }
+    
+    /**
+     * Records a stone that exists in the world, e.g. loaded from a save.
+     * 
+     * @param key The tile key of the stone
+     * @param x The stone's x-coordinate
+     * @param y The stone's y-coordinate
+     */
+    public void occupyStone(String key, float x, float y) {
+        int currentEpoch = epoch.get();
+        submit(currentEpoch, () -> {
+            if (TileKey.isTileId(key)) {
+                occupiedStoneTiles.add(TileKey.parse(key));
+            }
+            stoneLayout.put(key, x, y, new float[] {x, y});
+        });
+    }
+    
+    /**
+     * Queues generation for every chunk overlapping an area that has not been
+     * requested yet, nearest to the area's centre first.
+     * 
+     * @param left The left edge of the area
+     * @param bottom The bottom edge of the area
+     * @param right The right edge of the area
+     * @param top The top edge of the area
+     * @param playerX The player's x-coordinate, kept clear of new stones
+     * @param playerY The player's y-coordinate
+     */
+    public void requestArea(float left, float bottom, float right, float top, float playerX, float playerY) {
+        int minChunkX = chunkCoord(left);
+        int maxChunkX = chunkCoord(right);
+        int minChunkY = chunkCoord(bottom);
+        int maxChunkY = chunkCoord(top);
+        int centerChunkX = chunkCoord((left + right) / 2);
+        int centerChunkY = chunkCoord((bottom + top) / 2);
+        
+        // Rings of increasing distance from the centre chunk
+        int maxRing = Math.max(Math.max(centerChunkX - minChunkX, maxChunkX - centerChunkX),
+                               Math.max(centerChunkY - minChunkY, maxChunkY - centerChunkY));
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int cx = centerChunkX - ring; cx <= centerChunkX + ring; cx++) {
+                for (int cy = centerChunkY - ring; cy <= centerChunkY + ring; cy++) {
+                    boolean onRing = Math.abs(cx - centerChunkX) == ring || Math.abs(cy - centerChunkY) == ring;
+                    if (onRing && cx >= minChunkX && cx <= maxChunkX && cy >= minChunkY && cy <= maxChunkY) {
+                        requestChunk(cx, cy, playerX, playerY);
+                    }
+                }
+            }
+        }
+    }
+    
+    private void requestChunk(int chunkX, int chunkY, float playerX, float playerY) {
+        long key = TileKey.pack(chunkX, chunkY);
+        if (!requestedChunks.add(key)) {
+            return;
+        }
+        int currentEpoch = epoch.get();
+        submit(currentEpoch, () -> {
+            List<GeneratedEntity> generated = new ArrayList<>();
+            boolean complete = generateChunk(chunkX, chunkY, playerX, playerY, currentEpoch, generated);
+            if (!complete) {
+                // Stone tiles near the player were skipped; generate them again once the player moves on
+                requestedChunks.remove(key);
+            }
+            for (GeneratedEntity entity : generated) {
+                if (epoch.get() != currentEpoch) {
+                    return;
+                }
+                results.put(entity);
+            }
+        });
+    }
+    
+    /**
+     * Hands finished entities to the render thread.
+     * 
+     * @param consumer Receives each entity
+     * @param max Maximum number of entities to hand over
+     * @return The number of entities handed over
+     */
+    public int drain(Consumer<GeneratedEntity> consumer, int max) {
+        int currentEpoch = epoch.get();
+        int drained = 0;
+        while (drained < max) {
+            GeneratedEntity entity = results.poll();
+            if (entity == null) {
+                break;
+            }
+            if (entity.epoch == currentEpoch) {
+                consumer.accept(entity);
+                drained++;
+            }
+        }
+        return drained;
+    }
+    
+    /**
+     * Decides the trees and stones of one chunk, tile by tile in a fixed order.
+     * Runs on the worker thread.
+     * 
+     * @return false if stone tiles were skipped because the player was too close
+     */
+    boolean generateChunk(int chunkX, int chunkY, float playerX, float playerY,
+                          int generationEpoch, List<GeneratedEntity> out) {
+        int originX = chunkX * CHUNK_SIZE;
+        int originY = chunkY * CHUNK_SIZE;
+        skippedNearPlayer = false;
+        
+        for (int tx = 0; tx < CHUNK_TILES; tx++) {
+            for (int ty = 0; ty < CHUNK_TILES; ty++) {
+                int x = originX + tx * TILE_SIZE;
+                int y = originY + ty * TILE_SIZE;
+                long tile = TileKey.pack(x, y);
+                
+                if (!occupiedTreeTiles.contains(tile)) {
+                    GeneratedEntity tree = generateTreeAt(x, y, tile, generationEpoch);
+                    if (tree != null) {
+                        out.add(tree);
+                    }
+                }
+                
+                if (!occupiedStoneTiles.contains(tile)) {
+                    GeneratedEntity stone = generateStoneAt(x, y, tile, playerX, playerY, generationEpoch);
+                    if (stone != null) {
+                        out.add(stone);
+                    }
+                }
+            }
+        }
+        return !skippedNearPlayer;
+    }
+    
+    /**
+     * Decides whether a tile grows a tree, using the world seed and the position
+     * only for randomness; see the tree distribution in the generation rules.
+     */
+    private GeneratedEntity generateTreeAt(int x, int y, long tile, int generationEpoch) {
+        // Combines world seed with position using prime number multipliers
+        random.setSeed(worldSeed + x * 31L + y * 17L);
+        
+        // 0.5% spawn chance per tile
+        if (random.nextFloat() >= 0.005f) {
+            return null;
+        }
+        
+        // Random offset to break the grid pattern (±32px), retried to avoid overlapping trees
+        float treeX = 0, treeY = 0;
+        boolean validPosition = false;
+        for (int attempt = 0; attempt < 5; attempt++) {
+            float offsetX = (random.nextFloat() - 0.5f) * 64;
+            float offsetY = (random.nextFloat() - 0.5f) * 64;
+            treeX = x + offsetX;
+            treeY = y + offsetY;
+            
+            // 192px spacing on grass, 50px on sand
+            BiomeType biome = biomeQueryService.getBiomeAtPosition(treeX, treeY);
+            float minDistance = (biome == BiomeType.SAND) ? 50f : 192f;
+            if (!isTooClose(treeLayout, treeX, treeY, minDistance)) {
+                validPosition = true;
+                break;
+            }
+        }
+        if (!validPosition) {
+            return null;
+        }
+        
+        // Keep the spawn point clear
+        if (Math.sqrt(treeX * treeX + treeY * treeY) < 200) {
+            return null;
+        }
+        
+        TreeType type;
+        BiomeType biome = biomeQueryService.getBiomeAtPosition(treeX, treeY);
+        if (biome == BiomeType.SAND) {
+            // Sand biomes: bamboo trees with 30% spawn rate
+            if (random.nextFloat() >= 0.3f) {
+                return null;
+            }
+            type = TreeType.BAMBOO;
+        } else {
+            // Grass biomes: 42.5% small, 12.5% apple, 32.5% coconut, 12.5% banana
+            float roll = random.nextFloat();
+            if (roll < 0.425f) {
+                type = TreeType.SMALL;
+            } else if (roll < 0.55f) {
+                type = TreeType.APPLE;
+            } else if (roll < 0.875f) {
+                type = TreeType.COCONUT;
+            } else {
+                type = TreeType.BANANA;
+            }
+        }
+        
+        // The string id is only built for tiles that actually get a tree
+        String key = TileKey.toId(tile);
+        placeTree(tile, key, treeX, treeY);
+        return new GeneratedEntity(tile, key, type, treeX, treeY, generationEpoch);
+    }
+    
+    /**
+     * Decides whether a tile has a stone. Stones spawn only on sand, at least
+     * 100px from trees and other stones, and never next to the player; a tile
+     * skipped for the player is left undecided.
+     */
+    private GeneratedEntity generateStoneAt(int x, int y, long tile, float playerX, float playerY,
+                                            int generationEpoch) {
+        random.setSeed(worldSeed + x * 37L + y * 23L);
+        
+        // 0.1% spawn chance per tile
+        if (random.nextFloat() >= 0.001f) {
+            return null;
+        }
+        
+        float stoneX = x + (random.nextFloat() - 0.5f) * 64;
+        float stoneY = y + (random.nextFloat() - 0.5f) * 64;
+        
+        if (biomeQueryService.getBiomeAtPosition(stoneX, stoneY) != BiomeType.SAND) {
+            return null;
+        }
+        
+        // Keep the spawn point clear
+        if (Math.sqrt(stoneX * stoneX + stoneY * stoneY) < 200) {
+            return null;
+        }
+        
+        // Never place a stone on or next to the player
+        float dx = stoneX - playerX;
+        float dy = stoneY - playerY;
+        if (Math.sqrt(dx * dx + dy * dy) < STONE_PLAYER_EXCLUSION) {
+            skippedNearPlayer = true;
+            return null;
+        }
+        
+        if (isTooClose(treeLayout, stoneX, stoneY, 100f) || isTooClose(stoneLayout, stoneX, stoneY, 100f)) {
+            return null;
+        }
+        
+        String key = TileKey.toId(tile);
+        placeStone(tile, key, stoneX, stoneY);
+        return new GeneratedEntity(tile, key, null, stoneX, stoneY, generationEpoch);
+    }
+    
+    private void placeTree(long tile, String key, float x, float y) {
+        occupiedTreeTiles.add(tile);
+        treeLayout.put(key, x, y, new float[] {x, y});
+    }
+    
+    private void placeStone(long tile, String key, float x, float y) {
+        occupiedStoneTiles.add(tile);
+        stoneLayout.put(key, x, y, new float[] {x, y});
+    }
+    
+    private static boolean isTooClose(SpatialHashGrid<float[]> layout, float x, float y, float minDistance) {
+        return layout.anyNear(x, y, minDistance, (id, position) -> {
+            float dx = position[0] - x;
+            float dy = position[1] - y;
+            return Math.sqrt(dx * dx + dy * dy) < minDistance;
+        });
+    }
+    
+    private void submit(int taskEpoch, InterruptibleTask task) {
+        try {
+            worker.execute(() -> {
+                if (epoch.get() != taskEpoch) {
+                    return; // Superseded by a reset
+                }
+                try {
+                    task.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    System.err.println("[WorldGeneration] Error generating world: " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Worker has been shut down
+        }
+    }
+    
+    @FunctionalInterface
+    private interface InterruptibleTask {
+        void run() throws InterruptedException;
+    }
+    
+    /**
+     * Waits until every submitted request has been processed, or the result
+     * queue is full.
+     * 
+     * @param timeoutMillis Maximum time to wait
+     * @return true if the worker became idle before the timeout
+     */
+    boolean awaitIdle(long timeoutMillis) throws InterruptedException {
+        CountDownLatch idle = new CountDownLatch(1);
+        try {
+            worker.execute(idle::countDown);
+        } catch (RejectedExecutionException e) {
+            return true;
+        }
+        return idle.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Stops the worker thread. Queued requests are discarded.
+     */
+    public void shutdown() {
+        epoch.incrementAndGet();
+        worker.shutdownNow();
+        results.clear();
+        requestedChunks.clear();
+    }
+    
+    /**
+     * Converts a world coordinate to a chunk coordinate.
+     * @param value World coordinate in pixels
+     * @return The chunk coordinate
+     */
+    public static int chunkCoord(float value) {
+        return (int) Math.floor(value / CHUNK_SIZE);
+    }
+}
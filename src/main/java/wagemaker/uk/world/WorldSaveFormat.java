@@ -0,0 +1,1019 @@
+package wagemaker.uk.world;
+
+import wagemaker.uk.network.ItemState;
+import wagemaker.uk.network.ItemType;
+import wagemaker.uk.network.PlantedAppleTreeState;
+import wagemaker.uk.network.PlantedBambooState;
+import wagemaker.uk.network.PlantedBananaTreeState;
+import wagemaker.uk.network.PlantedTreeState;
+import wagemaker.uk.network.StoneState;
+import wagemaker.uk.network.TreeState;
+import wagemaker.uk.network.TreeType;
+import wagemaker.uk.respawn.RespawnEntry;
+import wagemaker.uk.respawn.ResourceType;
+import wagemaker.uk.weather.RainZone;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Reads and writes version 2 of the .wld save format.
+ * 
+ * Version 1 saves are one serialized WorldSaveData object graph. A version 2
+ * save starts with the magic bytes "WLD2" and a format version byte, followed
+ * by a sequence of sections: a header section holding the save metadata,
+ * player state and inventory, then world sections each holding up to
+ * {@link #SECTION_ENTITIES} entities of one type. Sections are columnar (all
+ * ids, then all x-coordinates, and so on), so similar values sit next to each
+ * other, and each one is compressed on its own with Deflate. Ids of the "x,y" tile form are stored as
+ * delta-encoded coordinates. A save is written section by section through one
+ * reused buffer, so writing never builds a serialized copy of the world.
+ * 
+ * Version 1 files start with the Java serialization stream header, which
+ * never matches the magic bytes, so {@link #isVersion2} tells the two apart.
+ */
+public final class WorldSaveFormat {
+    
+    /** Version of the file layout written by this class. */
+    public static final int FORMAT_VERSION = 2;
+    
+    /** Largest number of entities in one section. */
+    static final int SECTION_ENTITIES = 4096;
+    
+    private static final byte[] MAGIC = {'W', 'L', 'D', '2'};
+    
+    // Upper bound for a section, so a corrupt length fails instead of exhausting memory
+    private static final int MAX_SECTION_BYTES = 64 * 1024 * 1024;
+    
+    // Section tags
+    private static final int END = 0;
+    private static final int HEADER = 1;
+    private static final int TREES = 2;
+    private static final int STONES = 3;
+    private static final int ITEMS = 4;
+    private static final int PLANTED_TREES = 5;
+    private static final int PLANTED_BAMBOOS = 6;
+    private static final int PLANTED_BANANA_TREES = 7;
+    private static final int PLANTED_APPLE_TREES = 8;
+    private static final int CLEARED_POSITIONS = 9;
+    private static final int RAIN_ZONES = 10;
+    private static final int PENDING_RESPAWNS = 11;
+    
+    // Kinds in an id column
+    private static final int ID_NULL = 0;
+    private static final int ID_SAME_AS_KEY = 1;
+    private static final int ID_TILE = 2;
+    private static final int ID_TEXT = 3;
+    
+    private WorldSaveFormat() {
+    }
+    
+    /**
+     * Encodes one section's entities as columns.
+     * @param <T> The entry type
+     */
+    @FunctionalInterface
+    private interface SectionEncoder<T> {
+        void encode(List<T> entries, ColumnWriter out) throws IOException;
+    }
+    
+    /**
+     * Checks whether a stream starts with the version 2 magic bytes.
+     * The stream must support mark/reset; its position is left unchanged.
+     * 
+     * @param in The save file stream
+     * @return true for a version 2 save, false for anything else
+     * @throws IOException if the stream cannot be read
+     */
+    public static boolean isVersion2(InputStream in) throws IOException {
+        in.mark(MAGIC.length);
+        try {
+            byte[] start = new byte[MAGIC.length];
+            int read = 0;
+            while (read < start.length) {
+                int n = in.read(start, read, start.length - read);
+                if (n < 0) {
+                    return false;
+                }
+                read += n;
+            }
+            return Arrays.equals(start, MAGIC);
+        } finally {
+            in.reset();
+        }
+    }
+    
+    /**
+     * Writes a save in the version 2 format.
+     * 
+     * @param data The save data
+     * @param out The destination; buffered by the caller, not closed
+     * @throws IOException if writing fails
+     */
+    public static void write(WorldSaveData data, OutputStream out) throws IOException {
+        out.write(MAGIC);
+        out.write(FORMAT_VERSION);
+        
+        SectionWriter writer = new SectionWriter(out);
+        try {
+            writer.writeCollection(HEADER, Collections.singletonList(data), WorldSaveFormat::encodeHeader);
+            writer.writeMap(TREES, data.getTrees(), WorldSaveFormat::encodeTrees);
+            writer.writeMap(STONES, data.getStones(), WorldSaveFormat::encodeStones);
+            writer.writeMap(ITEMS, data.getItems(), WorldSaveFormat::encodeItems);
+            writer.writeMap(PLANTED_TREES, data.getPlantedTrees(), (entries, section) ->
+                encodePlanted(entries, section, PlantedTreeState::getPlantedTreeId, PlantedTreeState::getX,
+                    PlantedTreeState::getY, PlantedTreeState::getGrowthTimer));
+            writer.writeMap(PLANTED_BAMBOOS, data.getPlantedBamboos(), (entries, section) ->
+                encodePlanted(entries, section, PlantedBambooState::getPlantedBambooId, PlantedBambooState::getX,
+                    PlantedBambooState::getY, PlantedBambooState::getGrowthTimer));
+            writer.writeMap(PLANTED_BANANA_TREES, data.getPlantedBananaTrees(), (entries, section) ->
+                encodePlanted(entries, section, PlantedBananaTreeState::getPlantedBananaTreeId,
+                    PlantedBananaTreeState::getX, PlantedBananaTreeState::getY,
+                    PlantedBananaTreeState::getGrowthTimer));
+            writer.writeMap(PLANTED_APPLE_TREES, data.getPlantedAppleTrees(), (entries, section) ->
+                encodePlanted(entries, section, PlantedAppleTreeState::getPlantedAppleTreeId,
+                    PlantedAppleTreeState::getX, PlantedAppleTreeState::getY,
+                    PlantedAppleTreeState::getGrowthTimer));
+            writer.writeCollection(CLEARED_POSITIONS, data.getClearedPositions(),
+                (entries, section) -> writeIds(section, entries, null));
+            writer.writeCollection(RAIN_ZONES, data.getRainZones(), WorldSaveFormat::encodeRainZones);
+            writer.writeCollection(PENDING_RESPAWNS, data.getPendingRespawns(), WorldSaveFormat::encodeRespawns);
+        } finally {
+            writer.end();
+        }
+        out.write(END);
+        out.flush();
+    }
+    
+    /**
+     * Reads a version 2 save.
+     * 
+     * @param stream The save file stream, positioned at the magic bytes
+     * @return The save data
+     * @throws IOException if the file is not a version 2 save, is from a newer version or is corrupt
+     */
+    public static WorldSaveData read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a version 2 save file");
+        }
+        int formatVersion = in.readUnsignedByte();
+        if (formatVersion > FORMAT_VERSION) {
+            throw new IOException("Save file format " + formatVersion + " is newer than " + FORMAT_VERSION);
+        }
+        
+        WorldSaveData data = new WorldSaveData();
+        Inflater inflater = new Inflater();
+        try {
+            byte[] compressed = new byte[0];
+            byte[] raw = new byte[0];
+            while (true) {
+                int tag = in.readUnsignedByte();
+                if (tag == END) {
+                    break;
+                }
+                int count = readVarInt(in);
+                int rawLength = readVarInt(in);
+                int compressedLength = readVarInt(in);
+                // Every column holds at least one byte per entity
+                if (count < 0 || count > rawLength || rawLength < 0 || rawLength > MAX_SECTION_BYTES
+                        || compressedLength < 0 || compressedLength > MAX_SECTION_BYTES) {
+                    throw new IOException("Corrupt section header in save file");
+                }
+                if (compressed.length < compressedLength) {
+                    compressed = new byte[compressedLength];
+                }
+                if (raw.length < rawLength) {
+                    raw = new byte[rawLength];
+                }
+                in.readFully(compressed, 0, compressedLength);
+                
+                inflater.reset();
+                inflater.setInput(compressed, 0, compressedLength);
+                int inflated = 0;
+                try {
+                    while (inflated < rawLength && !inflater.finished()) {
+                        int n = inflater.inflate(raw, inflated, rawLength - inflated);
+                        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                            break;
+                        }
+                        inflated += n;
+                    }
+                } catch (DataFormatException e) {
+                    throw new IOException("Corrupt section in save file", e);
+                }
+                if (inflated != rawLength) {
+                    throw new IOException("Truncated section in save file");
+                }
+                
+                decodeSection(tag, count, new ColumnReader(raw, rawLength), data);
+            }
+        } finally {
+            inflater.end();
+        }
+        return data;
+    }
+    
+    private static void decodeSection(int tag, int count, ColumnReader in, WorldSaveData data) throws IOException {
+        switch (tag) {
+            case HEADER:
+                decodeHeader(in, data);
+                break;
+            case TREES:
+                if (data.getTrees() == null) {
+                    data.setTrees(new HashMap<>());
+                }
+                decodeTrees(count, in, data.getTrees());
+                break;
+            case STONES:
+                if (data.getStones() == null) {
+                    data.setStones(new HashMap<>());
+                }
+                decodeStones(count, in, data.getStones());
+                break;
+            case ITEMS:
+                if (data.getItems() == null) {
+                    data.setItems(new HashMap<>());
+                }
+                decodeItems(count, in, data.getItems());
+                break;
+            case PLANTED_TREES:
+                if (data.getPlantedTrees() == null) {
+                    data.setPlantedTrees(new HashMap<>());
+                }
+                decodePlanted(count, in, data.getPlantedTrees(), PlantedTreeState::new);
+                break;
+            case PLANTED_BAMBOOS:
+                if (data.getPlantedBamboos() == null) {
+                    data.setPlantedBamboos(new HashMap<>());
+                }
+                decodePlanted(count, in, data.getPlantedBamboos(), PlantedBambooState::new);
+                break;
+            case PLANTED_BANANA_TREES:
+                if (data.getPlantedBananaTrees() == null) {
+                    data.setPlantedBananaTrees(new HashMap<>());
+                }
+                decodePlanted(count, in, data.getPlantedBananaTrees(), PlantedBananaTreeState::new);
+                break;
+            case PLANTED_APPLE_TREES:
+                if (data.getPlantedAppleTrees() == null) {
+                    data.setPlantedAppleTrees(new HashMap<>());
+                }
+                decodePlanted(count, in, data.getPlantedAppleTrees(), PlantedAppleTreeState::new);
+                break;
+            case CLEARED_POSITIONS:
+                if (data.getClearedPositions() == null) {
+                    data.setClearedPositions(new HashSet<>());
+                }
+                data.getClearedPositions().addAll(Arrays.asList(readIds(in, count, null)));
+                break;
+            case RAIN_ZONES:
+                if (data.getRainZones() == null) {
+                    data.setRainZones(new ArrayList<>());
+                }
+                decodeRainZones(count, in, data.getRainZones());
+                break;
+            case PENDING_RESPAWNS:
+                if (data.getPendingRespawns() == null) {
+                    data.setPendingRespawns(new ArrayList<>());
+                }
+                decodeRespawns(count, in, data.getPendingRespawns());
+                break;
+            default:
+                // Section from a newer writer; already consumed, so skip it
+                break;
+        }
+    }
+    
+    /**
+     * Splits collections into sections and writes each one compressed.
+     */
+    private static final class SectionWriter {
+        private final OutputStream out;
+        private final ColumnWriter raw;
+        private final ColumnWriter compressed;
+        private final ColumnWriter sectionHeader;
+        private final Deflater deflater;
+        
+        SectionWriter(OutputStream out) {
+            this.out = out;
+            this.raw = new ColumnWriter(64 * 1024);
+            this.compressed = new ColumnWriter(16 * 1024);
+            this.sectionHeader = new ColumnWriter(16);
+            this.deflater = new Deflater(Deflater.BEST_SPEED);
+        }
+        
+        /**
+         * Writes a map's entries with non-null values; a null map writes no section.
+         */
+        <V> void writeMap(int tag, Map<String, V> map, SectionEncoder<Map.Entry<String, V>> encoder)
+                throws IOException {
+            if (map == null) {
+                return;
+            }
+            List<Map.Entry<String, V>> batch = new ArrayList<>(Math.min(map.size(), SECTION_ENTITIES));
+            boolean written = false;
+            for (Map.Entry<String, V> entry : map.entrySet()) {
+                if (entry.getValue() == null) {
+                    continue;
+                }
+                batch.add(entry);
+                if (batch.size() == SECTION_ENTITIES) {
+                    writeSection(tag, batch, encoder);
+                    batch.clear();
+                    written = true;
+                }
+            }
+            // An empty collection still gets a section, so it loads as empty rather than missing
+            if (!batch.isEmpty() || !written) {
+                writeSection(tag, batch, encoder);
+            }
+        }
+        
+        /**
+         * Writes a collection's non-null elements; a null collection writes no section.
+         */
+        <T> void writeCollection(int tag, Collection<T> values, SectionEncoder<T> encoder) throws IOException {
+            if (values == null) {
+                return;
+            }
+            List<T> batch = new ArrayList<>(Math.min(values.size(), SECTION_ENTITIES));
+            boolean written = false;
+            for (T value : values) {
+                if (value == null) {
+                    continue;
+                }
+                batch.add(value);
+                if (batch.size() == SECTION_ENTITIES) {
+                    writeSection(tag, batch, encoder);
+                    batch.clear();
+                    written = true;
+                }
+            }
+            if (!batch.isEmpty() || !written) {
+                writeSection(tag, batch, encoder);
+            }
+        }
+        
+        private <T> void writeSection(int tag, List<T> batch, SectionEncoder<T> encoder) throws IOException {
+            raw.reset();
+            encoder.encode(batch, raw);
+            
+            deflater.reset();
+            deflater.setInput(raw.buffer(), 0, raw.size());
+            deflater.finish();
+            compressed.reset();
+            while (!deflater.finished()) {
+                compressed.ensureCapacity(8192);
+                int n = deflater.deflate(compressed.buffer(), compressed.size(), 8192);
+                compressed.skip(n);
+            }
+            
+            sectionHeader.reset();
+            sectionHeader.writeByte(tag);
+            sectionHeader.writeVarInt(batch.size());
+            sectionHeader.writeVarInt(raw.size());
+            sectionHeader.writeVarInt(compressed.size());
+            out.write(sectionHeader.buffer(), 0, sectionHeader.size());
+            out.write(compressed.buffer(), 0, compressed.size());
+        }
+        
+        void end() {
+            deflater.end();
+        }
+    }
+    
+    // Header and entity columns
+    
+    private static void encodeHeader(List<WorldSaveData> entries, ColumnWriter out) {
+        WorldSaveData data = entries.get(0);
+        out.writeVarInt(data.getSaveFormatVersion());
+        out.writeLong(data.getWorldSeed());
+        out.writeLong(data.getSaveTimestamp());
+        writeNullableString(out, data.getSaveName());
+        writeNullableString(out, data.getGameMode());
+        out.writeFloat(data.getPlayerX());
+        out.writeFloat(data.getPlayerY());
+        out.writeFloat(data.getPlayerHealth());
+        out.writeVarInt(data.getAppleCount());
+        out.writeVarInt(data.getBananaCount());
+        out.writeVarInt(data.getAppleSaplingCount());
+        out.writeVarInt(data.getBananaSaplingCount());
+        out.writeVarInt(data.getBambooSaplingCount());
+        out.writeVarInt(data.getBambooStackCount());
+        out.writeVarInt(data.getTreeSaplingCount());
+        out.writeVarInt(data.getWoodStackCount());
+        out.writeVarInt(data.getPebbleCount());
+    }
+    
+    private static void decodeHeader(ColumnReader in, WorldSaveData data) throws IOException {
+        data.setSaveFormatVersion(in.readVarInt());
+        data.setWorldSeed(in.readLong());
+        data.setSaveTimestamp(in.readLong());
+        data.setSaveName(readNullableString(in));
+        data.setGameMode(readNullableString(in));
+        data.setPlayerX(in.readFloat());
+        data.setPlayerY(in.readFloat());
+        data.setPlayerHealth(in.readFloat());
+        data.setAppleCount(in.readVarInt());
+        data.setBananaCount(in.readVarInt());
+        data.setAppleSaplingCount(in.readVarInt());
+        data.setBananaSaplingCount(in.readVarInt());
+        data.setBambooSaplingCount(in.readVarInt());
+        data.setBambooStackCount(in.readVarInt());
+        data.setTreeSaplingCount(in.readVarInt());
+        data.setWoodStackCount(in.readVarInt());
+        data.setPebbleCount(in.readVarInt());
+    }
+    
+    private static void encodeTrees(List<Map.Entry<String, TreeState>> entries, ColumnWriter out)
+            throws IOException {
+        List<String> keys = keysOf(entries);
+        List<String> ids = new ArrayList<>(entries.size());
+        for (Map.Entry<String, TreeState> entry : entries) {
+            ids.add(entry.getValue().getTreeId());
+        }
+        writeIds(out, keys, null);
+        writeIds(out, ids, keys);
+        for (Map.Entry<String, TreeState> entry : entries) {
+            writeEnum(out, entry.getValue().getType());
+        }
+        for (Map.Entry<String, TreeState> entry : entries) {
+            out.writeFloat(entry.getValue().getX());
+        }
+        for (Map.Entry<String, TreeState> entry : entries) {
+            out.writeFloat(entry.getValue().getY());
+        }
+        for (Map.Entry<String, TreeState> entry : entries) {
+            out.writeFloat(entry.getValue().getHealth());
+        }
+        for (Map.Entry<String, TreeState> entry : entries) {
+            out.writeBoolean(entry.getValue().isExists());
+        }
+    }
+    
+    private static void decodeTrees(int count, ColumnReader in, Map<String, TreeState> trees) throws IOException {
+        String[] keys = readIds(in, count, null);
+        String[] ids = readIds(in, count, keys);
+        TreeType[] types = new TreeType[count];
+        for (int i = 0; i < count; i++) {
+            types[i] = readEnum(in, TreeType.values());
+        }
+        float[] xs = readFloats(in, count);
+        float[] ys = readFloats(in, count);
+        float[] healths = readFloats(in, count);
+        boolean[] exists = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            exists[i] = in.readBoolean();
+        }
+        for (int i = 0; i < count; i++) {
+            trees.put(keys[i], new TreeState(ids[i], types[i], xs[i], ys[i], healths[i], exists[i]));
+        }
+    }
+    
+    private static void encodeStones(List<Map.Entry<String, StoneState>> entries, ColumnWriter out)
+            throws IOException {
+        List<String> keys = keysOf(entries);
+        List<String> ids = new ArrayList<>(entries.size());
+        for (Map.Entry<String, StoneState> entry : entries) {
+            ids.add(entry.getValue().getStoneId());
+        }
+        writeIds(out, keys, null);
+        writeIds(out, ids, keys);
+        for (Map.Entry<String, StoneState> entry : entries) {
+            out.writeFloat(entry.getValue().getX());
+        }
+        for (Map.Entry<String, StoneState> entry : entries) {
+            out.writeFloat(entry.getValue().getY());
+        }
+        for (Map.Entry<String, StoneState> entry : entries) {
+            out.writeFloat(entry.getValue().getHealth());
+        }
+    }
+    
+    private static void decodeStones(int count, ColumnReader in, Map<String, StoneState> stones)
+            throws IOException {
+        String[] keys = readIds(in, count, null);
+        String[] ids = readIds(in, count, keys);
+        float[] xs = readFloats(in, count);
+        float[] ys = readFloats(in, count);
+        float[] healths = readFloats(in, count);
+        for (int i = 0; i < count; i++) {
+            stones.put(keys[i], new StoneState(ids[i], xs[i], ys[i], healths[i]));
+        }
+    }
+    
+    private static void encodeItems(List<Map.Entry<String, ItemState>> entries, ColumnWriter out)
+            throws IOException {
+        List<String> keys = keysOf(entries);
+        List<String> ids = new ArrayList<>(entries.size());
+        for (Map.Entry<String, ItemState> entry : entries) {
+            ids.add(entry.getValue().getItemId());
+        }
+        writeIds(out, keys, null);
+        writeIds(out, ids, keys);
+        for (Map.Entry<String, ItemState> entry : entries) {
+            writeEnum(out, entry.getValue().getType());
+        }
+        for (Map.Entry<String, ItemState> entry : entries) {
+            out.writeFloat(entry.getValue().getX());
+        }
+        for (Map.Entry<String, ItemState> entry : entries) {
+            out.writeFloat(entry.getValue().getY());
+        }
+        for (Map.Entry<String, ItemState> entry : entries) {
+            out.writeBoolean(entry.getValue().isCollected());
+        }
+    }
+    
+    private static void decodeItems(int count, ColumnReader in, Map<String, ItemState> items) throws IOException {
+        String[] keys = readIds(in, count, null);
+        String[] ids = readIds(in, count, keys);
+        ItemType[] types = new ItemType[count];
+        for (int i = 0; i < count; i++) {
+            types[i] = readEnum(in, ItemType.values());
+        }
+        float[] xs = readFloats(in, count);
+        float[] ys = readFloats(in, count);
+        boolean[] collected = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            collected[i] = in.readBoolean();
+        }
+        for (int i = 0; i < count; i++) {
+            items.put(keys[i], new ItemState(ids[i], types[i], xs[i], ys[i], collected[i]));
+        }
+    }
+    
+    /**
+     * Reads one field of a planted sapling state.
+     * @param <S> The planted state type
+     * @param <R> The field type
+     */
+    @FunctionalInterface
+    private interface Field<S, R> {
+        R get(S state);
+    }
+    
+    /**
+     * Creates a planted sapling state from its decoded columns.
+     * @param <S> The planted state type
+     */
+    @FunctionalInterface
+    private interface PlantedFactory<S> {
+        S create(String id, float x, float y, float growthTimer);
+    }
+    
+    private static <S> void encodePlanted(List<Map.Entry<String, S>> entries, ColumnWriter out,
+                                          Field<S, String> id, Field<S, Float> x, Field<S, Float> y,
+                                          Field<S, Float> growthTimer) throws IOException {
+        List<String> keys = keysOf(entries);
+        List<String> ids = new ArrayList<>(entries.size());
+        for (Map.Entry<String, S> entry : entries) {
+            ids.add(id.get(entry.getValue()));
+        }
+        writeIds(out, keys, null);
+        writeIds(out, ids, keys);
+        for (Map.Entry<String, S> entry : entries) {
+            out.writeFloat(x.get(entry.getValue()));
+        }
+        for (Map.Entry<String, S> entry : entries) {
+            out.writeFloat(y.get(entry.getValue()));
+        }
+        for (Map.Entry<String, S> entry : entries) {
+            out.writeFloat(growthTimer.get(entry.getValue()));
+        }
+    }
+    
+    private static <S> void decodePlanted(int count, ColumnReader in, Map<String, S> planted,
+                                          PlantedFactory<S> factory) throws IOException {
+        String[] keys = readIds(in, count, null);
+        String[] ids = readIds(in, count, keys);
+        float[] xs = readFloats(in, count);
+        float[] ys = readFloats(in, count);
+        float[] growthTimers = readFloats(in, count);
+        for (int i = 0; i < count; i++) {
+            planted.put(keys[i], factory.create(ids[i], xs[i], ys[i], growthTimers[i]));
+        }
+    }
+    
+    private static void encodeRainZones(List<RainZone> zones, ColumnWriter out) throws IOException {
+        List<String> ids = new ArrayList<>(zones.size());
+        for (RainZone zone : zones) {
+            ids.add(zone.getZoneId());
+        }
+        writeIds(out, ids, null);
+        for (RainZone zone : zones) {
+            out.writeFloat(zone.getCenterX());
+        }
+        for (RainZone zone : zones) {
+            out.writeFloat(zone.getCenterY());
+        }
+        for (RainZone zone : zones) {
+            out.writeFloat(zone.getRadius());
+        }
+        for (RainZone zone : zones) {
+            out.writeFloat(zone.getFadeDistance());
+        }
+        for (RainZone zone : zones) {
+            out.writeFloat(zone.getIntensity());
+        }
+    }
+    
+    private static void decodeRainZones(int count, ColumnReader in, List<RainZone> zones) throws IOException {
+        String[] ids = readIds(in, count, null);
+        float[] centerXs = readFloats(in, count);
+        float[] centerYs = readFloats(in, count);
+        float[] radii = readFloats(in, count);
+        float[] fadeDistances = readFloats(in, count);
+        float[] intensities = readFloats(in, count);
+        for (int i = 0; i < count; i++) {
+            zones.add(new RainZone(ids[i], centerXs[i], centerYs[i], radii[i], fadeDistances[i], intensities[i]));
+        }
+    }
+    
+    private static void encodeRespawns(List<RespawnEntry> entries, ColumnWriter out) throws IOException {
+        List<String> ids = new ArrayList<>(entries.size());
+        for (RespawnEntry entry : entries) {
+            ids.add(entry.getResourceId());
+        }
+        writeIds(out, ids, null);
+        for (RespawnEntry entry : entries) {
+            writeEnum(out, entry.getResourceType());
+        }
+        for (RespawnEntry entry : entries) {
+            writeEnum(out, entry.getTreeType());
+        }
+        for (RespawnEntry entry : entries) {
+            out.writeFloat(entry.getX());
+        }
+        for (RespawnEntry entry : entries) {
+            out.writeFloat(entry.getY());
+        }
+        long previous = 0;
+        for (RespawnEntry entry : entries) {
+            previous = writeDelta(out, entry.getDestructionTimestamp(), previous);
+        }
+        for (RespawnEntry entry : entries) {
+            out.writeSignedVarLong(entry.getRespawnDuration());
+        }
+    }
+    
+    private static void decodeRespawns(int count, ColumnReader in, List<RespawnEntry> entries) throws IOException {
+        String[] ids = readIds(in, count, null);
+        ResourceType[] resourceTypes = new ResourceType[count];
+        for (int i = 0; i < count; i++) {
+            resourceTypes[i] = readEnum(in, ResourceType.values());
+        }
+        TreeType[] treeTypes = new TreeType[count];
+        for (int i = 0; i < count; i++) {
+            treeTypes[i] = readEnum(in, TreeType.values());
+        }
+        float[] xs = readFloats(in, count);
+        float[] ys = readFloats(in, count);
+        long[] timestamps = new long[count];
+        long timestamp = 0;
+        for (int i = 0; i < count; i++) {
+            timestamp += in.readSignedVarLong();
+            timestamps[i] = timestamp;
+        }
+        for (int i = 0; i < count; i++) {
+            long duration = in.readSignedVarLong();
+            RespawnEntry entry = new RespawnEntry(ids[i], resourceTypes[i], xs[i], ys[i],
+                timestamps[i], duration, treeTypes[i]);
+            if (!entry.isValid()) {
+                System.err.println("[WorldSaveFormat] WARNING: Loaded corrupted respawn entry: " + entry);
+            }
+            entries.add(entry);
+        }
+    }
+    
+    // Column primitives
+    
+    private static <V> List<String> keysOf(List<Map.Entry<String, V>> entries) {
+        List<String> keys = new ArrayList<>(entries.size());
+        for (Map.Entry<String, V> entry : entries) {
+            keys.add(entry.getKey());
+        }
+        return keys;
+    }
+    
+    /**
+     * Writes a column of string ids: the kind of each id, then the coordinates of
+     * the tile ids, delta encoded, then the remaining ids as text.
+     * 
+     * @param reference Ids that equal the reference at the same index are stored as one kind byte, or null
+     */
+    private static void writeIds(ColumnWriter out, List<String> ids, List<String> reference) throws IOException {
+        int count = ids.size();
+        byte[] kinds = new byte[count];
+        for (int i = 0; i < count; i++) {
+            String id = ids.get(i);
+            if (id == null) {
+                kinds[i] = ID_NULL;
+            } else if (reference != null && id.equals(reference.get(i))) {
+                kinds[i] = ID_SAME_AS_KEY;
+            } else if (TileKey.isTileId(id)) {
+                kinds[i] = ID_TILE;
+            } else {
+                kinds[i] = ID_TEXT;
+            }
+        }
+        out.write(kinds);
+        
+        int previousX = 0;
+        int previousY = 0;
+        for (int i = 0; i < count; i++) {
+            if (kinds[i] == ID_TILE) {
+                long tile = TileKey.parse(ids.get(i));
+                out.writeSignedVarInt(TileKey.x(tile) - previousX);
+                out.writeSignedVarInt(TileKey.y(tile) - previousY);
+                previousX = TileKey.x(tile);
+                previousY = TileKey.y(tile);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (kinds[i] == ID_TEXT) {
+                out.writeUTF(ids.get(i));
+            }
+        }
+    }
+    
+    private static String[] readIds(ColumnReader in, int count, String[] reference) throws IOException {
+        byte[] kinds = new byte[count];
+        in.readFully(kinds);
+        String[] ids = new String[count];
+        
+        int x = 0;
+        int y = 0;
+        for (int i = 0; i < count; i++) {
+            if (kinds[i] == ID_TILE) {
+                x += in.readSignedVarInt();
+                y += in.readSignedVarInt();
+                ids[i] = TileKey.toId(TileKey.pack(x, y));
+            } else if (kinds[i] == ID_SAME_AS_KEY) {
+                if (reference == null) {
+                    throw new IOException("Corrupt id column in save file");
+                }
+                ids[i] = reference[i];
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (kinds[i] == ID_TEXT) {
+                ids[i] = in.readUTF();
+            }
+        }
+        return ids;
+    }
+    
+    private static float[] readFloats(ColumnReader in, int count) throws IOException {
+        float[] values = new float[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readFloat();
+        }
+        return values;
+    }
+    
+    private static void writeEnum(ColumnWriter out, Enum<?> value) {
+        out.writeVarInt(value == null ? 0 : value.ordinal() + 1);
+    }
+    
+    private static <E extends Enum<E>> E readEnum(ColumnReader in, E[] values) throws IOException {
+        int index = in.readVarInt();
+        if (index == 0) {
+            return null;
+        }
+        if (index > values.length) {
+            throw new IOException("Unknown enum constant " + (index - 1) + " in save file");
+        }
+        return values[index - 1];
+    }
+    
+    private static long writeDelta(ColumnWriter out, long value, long previous) {
+        out.writeSignedVarLong(value - previous);
+        return value;
+    }
+    
+    private static void writeNullableString(ColumnWriter out, String value) {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+    
+    private static String readNullableString(ColumnReader in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+    
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in save file");
+    }
+    
+    /**
+     * Growable big-endian byte buffer that section columns are encoded into.
+     * Unlike a DataOutputStream over a ByteArrayOutputStream, writes are plain
+     * array stores without locking or per-call stream overhead.
+     */
+    private static final class ColumnWriter {
+        private byte[] buffer;
+        private int size;
+        
+        ColumnWriter(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+        
+        void reset() {
+            size = 0;
+        }
+        
+        int size() {
+            return size;
+        }
+        
+        byte[] buffer() {
+            return buffer;
+        }
+        
+        void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+        
+        void skip(int count) {
+            size += count;
+        }
+        
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) value;
+        }
+        
+        void write(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+        
+        void writeBoolean(boolean value) {
+            writeByte(value ? 1 : 0);
+        }
+        
+        void writeInt(int value) {
+            ensureCapacity(4);
+            buffer[size++] = (byte) (value >>> 24);
+            buffer[size++] = (byte) (value >>> 16);
+            buffer[size++] = (byte) (value >>> 8);
+            buffer[size++] = (byte) value;
+        }
+        
+        void writeLong(long value) {
+            writeInt((int) (value >>> 32));
+            writeInt((int) value);
+        }
+        
+        void writeFloat(float value) {
+            writeInt(Float.floatToIntBits(value));
+        }
+        
+        void writeVarInt(int value) {
+            ensureCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+        
+        void writeSignedVarInt(int value) {
+            writeVarInt((value << 1) ^ (value >> 31));
+        }
+        
+        void writeSignedVarLong(long value) {
+            ensureCapacity(10);
+            long zigzag = (value << 1) ^ (value >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((zigzag & 0x7F) | 0x80);
+                zigzag >>>= 7;
+            }
+            buffer[size++] = (byte) zigzag;
+        }
+        
+        void writeUTF(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            write(bytes);
+        }
+    }
+    
+    /**
+     * Reads the columns of one inflated section.
+     */
+    private static final class ColumnReader {
+        private final byte[] buffer;
+        private final int limit;
+        private int position;
+        
+        ColumnReader(byte[] buffer, int limit) {
+            this.buffer = buffer;
+            this.limit = limit;
+        }
+        
+        private void require(int count) throws IOException {
+            if (count < 0 || limit - position < count) {
+                throw new IOException("Section in save file ends early");
+            }
+        }
+        
+        int readUnsignedByte() throws IOException {
+            require(1);
+            return buffer[position++] & 0xFF;
+        }
+        
+        void readFully(byte[] bytes) throws IOException {
+            require(bytes.length);
+            System.arraycopy(buffer, position, bytes, 0, bytes.length);
+            position += bytes.length;
+        }
+        
+        boolean readBoolean() throws IOException {
+            return readUnsignedByte() != 0;
+        }
+        
+        int readInt() throws IOException {
+            require(4);
+            int value = ((buffer[position] & 0xFF) << 24) | ((buffer[position + 1] & 0xFF) << 16)
+                | ((buffer[position + 2] & 0xFF) << 8) | (buffer[position + 3] & 0xFF);
+            position += 4;
+            return value;
+        }
+        
+        long readLong() throws IOException {
+            return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+        }
+        
+        float readFloat() throws IOException {
+            return Float.intBitsToFloat(readInt());
+        }
+        
+        int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readUnsignedByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint in save file");
+        }
+        
+        int readSignedVarInt() throws IOException {
+            int value = readVarInt();
+            return (value >>> 1) ^ -(value & 1);
+        }
+        
+        long readSignedVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 70; shift += 7) {
+                int b = readUnsignedByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return (value >>> 1) ^ -(value & 1);
+                }
+            }
+            throw new IOException("Malformed varint in save file");
+        }
+        
+        String readUTF() throws IOException {
+            int length = readVarInt();
+            require(length);
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
@@ -24,6 +24,9 @@ public class WorldSaveManager {
     private static final String SAVE_FILE_EXTENSION = ".wld";
     private static final String BACKUP_SUFFIX = ".backup";
     
+    // Smallest plausible save file; a compressed save of an empty world is only a few dozen bytes
+    private static final long MIN_SAVE_FILE_BYTES = 32;
+    
     // Save name validation pattern - alphanumeric, spaces, hyphens, underscores only
     private static final Pattern VALID_SAVE_NAME_PATTERN = Pattern.compile("^[a-zA-Z0-9\\s\\-_]{1,50}$");
     
@@ -282,12 +285,9 @@ public class WorldSaveManager {
                 return false;
             }
             
-            // Write save data to file
-            try (FileOutputStream fos = new FileOutputStream(saveFile);
-                 ObjectOutputStream oos = new ObjectOutputStream(fos)) {
-                
-                oos.writeObject(saveData);
-                oos.flush();
+            // Stream the save data to file in the compressed version 2 format
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(saveFile), 64 * 1024)) {
+                WorldSaveFormat.write(saveData, out);
             }
             
             System.out.println("World saved successfully: " + saveFile.getAbsolutePath());
@@ -337,17 +337,10 @@ public class WorldSaveManager {
             }
             
             // Load save data from file
-            WorldSaveData saveData;
-            try (FileInputStream fis = new FileInputStream(saveFile);
-                 ObjectInputStream ois = new ObjectInputStream(fis)) {
-                
-                Object obj = ois.readObject();
-                if (!(obj instanceof WorldSaveData)) {
-                    System.err.println("Save file contains invalid data type");
-                    return null;
-                }
-                
-                saveData = (WorldSaveData) obj;
+            WorldSaveData saveData = readSaveFile(saveFile);
+            if (saveData == null) {
+                System.err.println("Save file contains invalid data type");
+                return null;
             }
             
             // Validate loaded save data
@@ -670,26 +663,21 @@ public class WorldSaveManager {
                 return false;
             }
             
-            // Check file size (should be at least a few bytes for serialized data)
-            if (saveFile.length() < 100) {
+            // Check file size (should be at least a few bytes for save data)
+            if (saveFile.length() < MIN_SAVE_FILE_BYTES) {
                 System.err.println("Save file is too small, likely corrupted: " + saveFile.getAbsolutePath());
                 return false;
             }
             
-            // Try to read the file header to validate it's a proper serialized object
-            try (FileInputStream fis = new FileInputStream(saveFile);
-                 ObjectInputStream ois = new ObjectInputStream(fis)) {
-                
-                // Try to read the object without fully deserializing
-                Object obj = ois.readObject();
+            // Try to read the whole file in either format
+            try {
+                WorldSaveData saveData = readSaveFile(saveFile);
                 
-                if (!(obj instanceof WorldSaveData)) {
+                if (saveData == null) {
                     System.err.println("Save file does not contain WorldSaveData: " + saveFile.getAbsolutePath());
                     return false;
                 }
                 
-                WorldSaveData saveData = (WorldSaveData) obj;
-                
                 // Perform basic validation
                 if (!saveData.isValid()) {
                     System.err.println("Save data failed validation: " + saveFile.getAbsolutePath());
@@ -765,22 +753,14 @@ public class WorldSaveManager {
     private static boolean validateBackupFile(File backupFile) {
         try {
             // Check file size
-            if (backupFile.length() < 100) {
+            if (backupFile.length() < MIN_SAVE_FILE_BYTES) {
                 return false;
             }
             
             // Try to read the backup file
-            try (FileInputStream fis = new FileInputStream(backupFile);
-                 ObjectInputStream ois = new ObjectInputStream(fis)) {
-                
-                Object obj = ois.readObject();
-                
-                if (!(obj instanceof WorldSaveData)) {
-                    return false;
-                }
-                
-                WorldSaveData saveData = (WorldSaveData) obj;
-                return saveData.isValid();
+            try {
+                WorldSaveData saveData = readSaveFile(backupFile);
+                return saveData != null && saveData.isValid();
                 
             } catch (Exception e) {
                 return false;
@@ -790,4 +770,23 @@ public class WorldSaveManager {
             return false;
         }
     }
+    
+    /**
+     * Reads a save file in the version 2 format, or as a serialized object if it
+     * was written before version 2.
+     * 
+     * @param file The save or backup file
+     * @return The save data, or null if a version 1 file holds some other object
+     * @throws IOException if the file cannot be read or is corrupt
+     * @throws ClassNotFoundException if a version 1 file references unknown classes
+     */
+    private static WorldSaveData readSaveFile(File file) throws IOException, ClassNotFoundException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file), 64 * 1024)) {
+            if (WorldSaveFormat.isVersion2(in)) {
+                return WorldSaveFormat.read(in);
+            }
+            Object obj = new ObjectInputStream(in).readObject();
+            return obj instanceof WorldSaveData ? (WorldSaveData) obj : null;
+        }
+    }
 }
\ No newline at end of file
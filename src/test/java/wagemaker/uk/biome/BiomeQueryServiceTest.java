@@ -0,0 +1,93 @@
+package wagemaker.uk.biome;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BiomeQueryService determinism, thread safety and agreement with BiomeManager.
+ * 
+ * Requirements: 4.1 (coordinate-based), 4.2 (deterministic)
+ */
+public class BiomeQueryServiceTest {
+    
+    private BiomeQueryService service;
+    private BiomeManager biomeManager;
+    
+    @BeforeEach
+    public void setUp() {
+        service = BiomeQueryService.getInstance();
+        biomeManager = new BiomeManager();
+        biomeManager.initialize();
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        if (biomeManager != null) {
+            biomeManager.dispose();
+        }
+    }
+    
+    @Test
+    public void testSharedInstance() {
+        assertSame(service, BiomeQueryService.getInstance(), "Service should be a shared singleton");
+    }
+    
+    @Test
+    public void testSpawnAreaIsGrass() {
+        for (float x = -900; x <= 900; x += 100) {
+            for (float y = -400; y <= 400; y += 100) {
+                assertEquals(BiomeType.GRASS, service.getBiomeAtPosition(x, y),
+                    "Spawn area should be grass at (" + x + ", " + y + ")");
+            }
+        }
+    }
+    
+    @Test
+    public void testMatchesBiomeManager() {
+        for (float x = -20000; x <= 20000; x += 317) {
+            for (float y = -20000; y <= 20000; y += 317) {
+                assertEquals(biomeManager.getBiomeAtPosition(x, y), service.getBiomeAtPosition(x, y),
+                    "Service and BiomeManager should agree at (" + x + ", " + y + ")");
+            }
+        }
+    }
+    
+    @Test
+    public void testConcurrentQueriesAreConsistent() throws Exception {
+        int samples = 2000;
+        BiomeType[] expected = new BiomeType[samples];
+        for (int i = 0; i < samples; i++) {
+            expected[i] = service.getBiomeAtPosition(i * 53.0f - 50000, i * -37.0f + 30000);
+        }
+        
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    int mismatches = 0;
+                    for (int i = 0; i < samples; i++) {
+                        if (service.getBiomeAtPosition(i * 53.0f - 50000, i * -37.0f + 30000) != expected[i]) {
+                            mismatches++;
+                        }
+                    }
+                    return mismatches;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(0, result.get().intValue(), "Concurrent queries should match single-threaded results");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package wagemaker.uk.biome;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Performance comparison between raw noise lookups and the biome tile cache
+ * for the grass renderer's access pattern: every visible tile, every frame,
+ * with the camera panning slowly across the world.
+ */
+public class BiomeTileCachePerformanceTest {
+    
+    private static final int VIEW_TILES_X = 40; // (2 x 1280px viewport + buffer) / 64px
+    private static final int VIEW_TILES_Y = 25;
+    private static final int WARMUP_FRAMES = 200;
+    private static final int TEST_FRAMES = 2000;
+    private static final float CAMERA_SPEED = 4.0f; // pixels per frame
+    private static final double MIN_HIT_RATE = 0.95;
+    
+    @Test
+    public void cachedLookupsOutperformRawNoise() {
+        BiomeQueryService service = BiomeQueryService.getInstance();
+        BiomeTileCache cache = new BiomeTileCache();
+        
+        // Warmup - JIT compilation of both paths
+        runRawFrames(service, WARMUP_FRAMES, 90000);
+        runCachedFrames(cache, WARMUP_FRAMES, 90000);
+        cache.clear();
+        
+        long rawStart = System.nanoTime();
+        int rawSand = runRawFrames(service, TEST_FRAMES, 12000);
+        long rawNanos = System.nanoTime() - rawStart;
+        
+        long cachedStart = System.nanoTime();
+        int cachedSand = runCachedFrames(cache, TEST_FRAMES, 12000);
+        long cachedNanos = System.nanoTime() - cachedStart;
+        
+        double rawPerFrameMs = rawNanos / 1_000_000.0 / TEST_FRAMES;
+        double cachedPerFrameMs = cachedNanos / 1_000_000.0 / TEST_FRAMES;
+        
+        System.out.printf("Biome lookup performance (%dx%d tiles per frame):%n", VIEW_TILES_X, VIEW_TILES_Y);
+        System.out.printf("  Raw noise: %.4f ms per frame%n", rawPerFrameMs);
+        System.out.printf("  Tile cache: %.4f ms per frame%n", cachedPerFrameMs);
+        System.out.printf("  Hit rate: %.2f%% (%d hits, %d misses, %d chunks)%n",
+            cache.getHitRate() * 100.0, cache.getHits(), cache.getMisses(), cache.getChunkCount());
+        
+        assertEquals(rawSand, cachedSand, "Cached and raw lookups should see identical biomes");
+        assertTrue(cache.getHitRate() >= MIN_HIT_RATE,
+            String.format("Hit rate %.2f%% below target %.0f%%", cache.getHitRate() * 100.0, MIN_HIT_RATE * 100.0));
+        assertTrue(cachedNanos < rawNanos,
+            String.format("Cached path (%.4f ms/frame) should beat raw noise (%.4f ms/frame)",
+                cachedPerFrameMs, rawPerFrameMs));
+    }
+    
+    private int runRawFrames(BiomeQueryService service, int frames, float startX) {
+        int sandTiles = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            int originX = (int) ((startX + frame * CAMERA_SPEED) / 64) * 64;
+            for (int tx = 0; tx < VIEW_TILES_X; tx++) {
+                for (int ty = 0; ty < VIEW_TILES_Y; ty++) {
+                    if (service.getBiomeAtPosition(originX + tx * 64, ty * 64) == BiomeType.SAND) {
+                        sandTiles++;
+                    }
+                }
+            }
+        }
+        return sandTiles;
+    }
+    
+    private int runCachedFrames(BiomeTileCache cache, int frames, float startX) {
+        int sandTiles = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            int originX = (int) ((startX + frame * CAMERA_SPEED) / 64) * 64;
+            for (int tx = 0; tx < VIEW_TILES_X; tx++) {
+                for (int ty = 0; ty < VIEW_TILES_Y; ty++) {
+                    if (cache.getBiomeAtPosition(originX + tx * 64, ty * 64) == BiomeType.SAND) {
+                        sandTiles++;
+                    }
+                }
+            }
+        }
+        return sandTiles;
+    }
+}
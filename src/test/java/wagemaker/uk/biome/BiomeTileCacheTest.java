@@ -0,0 +1,85 @@
+package wagemaker.uk.biome;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BiomeTileCache agreement with the raw noise path,
+ * hit-rate accounting and LRU chunk eviction.
+ */
+public class BiomeTileCacheTest {
+    
+    private final BiomeQueryService service = BiomeQueryService.getInstance();
+    
+    @Test
+    public void testCachedTilesMatchRawLookups() {
+        BiomeTileCache cache = new BiomeTileCache();
+        
+        // Two passes so the second one is answered entirely from the cache
+        for (int pass = 0; pass < 2; pass++) {
+            for (int tileX = -300; tileX <= 300; tileX += 7) {
+                for (int tileY = -300; tileY <= 300; tileY += 7) {
+                    float worldX = tileX * 64.0f;
+                    float worldY = tileY * 64.0f;
+                    assertEquals(service.getBiomeAtPosition(worldX, worldY), cache.getBiomeAtPosition(worldX, worldY),
+                        "Cache should match raw lookup at (" + worldX + ", " + worldY + ")");
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testUnalignedPositionsBypassCache() {
+        BiomeTileCache cache = new BiomeTileCache();
+        
+        assertFalse(BiomeTileCache.isTileAligned(15000.5f, 64.0f));
+        assertEquals(service.getBiomeAtPosition(15000.5f, 64.0f), cache.getBiomeAtPosition(15000.5f, 64.0f));
+        assertEquals(0, cache.getHits() + cache.getMisses(), "Unaligned lookups should not touch the cache");
+        assertEquals(0, cache.getChunkCount());
+    }
+    
+    @Test
+    public void testHitRateCounters() {
+        BiomeTileCache cache = new BiomeTileCache();
+        assertEquals(0.0, cache.getHitRate(), 0.0001);
+        
+        cache.getBiomeAtTile(10, -10);
+        cache.getBiomeAtTile(10, -10);
+        cache.getBiomeAtTile(10, -10);
+        cache.getBiomeAtTile(11, -10);
+        
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.getHits());
+        assertEquals(0.5, cache.getHitRate(), 0.0001);
+        
+        cache.clear();
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getChunkCount());
+    }
+    
+    @Test
+    public void testLeastRecentlyUsedChunkIsEvicted() {
+        BiomeTileCache cache = new BiomeTileCache(8, 2);
+        
+        cache.getBiomeAtTile(0, 0);    // chunk (0,0)
+        cache.getBiomeAtTile(8, 0);    // chunk (1,0)
+        cache.getBiomeAtTile(0, 0);    // touch chunk (0,0) so (1,0) is eldest
+        cache.getBiomeAtTile(-1, 0);   // chunk (-1,0) evicts (1,0)
+        
+        assertEquals(2, cache.getChunkCount());
+        assertEquals(1, cache.getEvictions());
+        
+        long missesBefore = cache.getMisses();
+        cache.getBiomeAtTile(0, 0);
+        assertEquals(missesBefore, cache.getMisses(), "Recently used chunk should still be cached");
+        cache.getBiomeAtTile(8, 0);
+        assertEquals(missesBefore + 1, cache.getMisses(), "Evicted chunk should be recomputed");
+    }
+    
+    @Test
+    public void testInvalidSizesRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BiomeTileCache(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new BiomeTileCache(32, 0));
+    }
+}
@@ -0,0 +1,105 @@
+package wagemaker.uk.gdx;
+
+import org.junit.jupiter.api.Test;
+import wagemaker.uk.world.TileKey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Frame-time comparison between scanning every entity map each frame, as the
+ * per-type draw methods did, and the world renderer's spatial query, with a
+ * large world loaded and the camera panning across it.
+ */
+public class WorldRendererPerformanceTest {
+    
+    private static final int ENTITY_TYPES = 20;
+    private static final int ENTITIES_PER_TYPE = 600; // 12,000 in total
+    private static final float WORLD_SIZE = 20000;
+    private static final float VIEW_WIDTH = 1280;
+    private static final float VIEW_HEIGHT = 720;
+    private static final int WARMUP_FRAMES = 200;
+    private static final int TEST_FRAMES = 2000;
+    private static final float CAMERA_SPEED = 4.0f; // pixels per frame
+    
+    @Test
+    public void spatialQueryOutperformsFullScan() {
+        WorldRenderer renderer = new WorldRenderer();
+        List<RenderIndexedMap<WorldRendererTest.TestSprite>> maps = new ArrayList<>();
+        Random random = new Random(42);
+        for (int type = 0; type < ENTITY_TYPES; type++) {
+            int layer = type % 2 == 0 ? WorldRenderer.LAYER_OBJECTS : WorldRenderer.LAYER_GROUND;
+            RenderIndexedMap<WorldRendererTest.TestSprite> map = new RenderIndexedMap<>(renderer, layer, 64, 64);
+            for (int i = 0; i < ENTITIES_PER_TYPE; i++) {
+                float x = (random.nextFloat() - 0.5f) * WORLD_SIZE;
+                float y = (random.nextFloat() - 0.5f) * WORLD_SIZE;
+                map.put(TileKey.pack(type, i), new WorldRendererTest.TestSprite(x, y));
+            }
+            maps.add(map);
+        }
+        assertEquals(ENTITY_TYPES * ENTITIES_PER_TYPE, renderer.size());
+        
+        // Warmup - JIT compilation of both paths
+        runScanFrames(maps, WARMUP_FRAMES);
+        runIndexedFrames(renderer, WARMUP_FRAMES);
+        
+        long scanStart = System.nanoTime();
+        long scanned = runScanFrames(maps, TEST_FRAMES);
+        long scanNanos = System.nanoTime() - scanStart;
+        
+        long indexedStart = System.nanoTime();
+        long indexed = runIndexedFrames(renderer, TEST_FRAMES);
+        long indexedNanos = System.nanoTime() - indexedStart;
+        
+        double scanPerFrameMs = scanNanos / 1_000_000.0 / TEST_FRAMES;
+        double indexedPerFrameMs = indexedNanos / 1_000_000.0 / TEST_FRAMES;
+        
+        System.out.printf("World render culling (%d entities, %.0fx%.0f view):%n",
+            renderer.size(), VIEW_WIDTH, VIEW_HEIGHT);
+        System.out.printf("  Full scan: %.4f ms per frame%n", scanPerFrameMs);
+        System.out.printf("  Spatial index (query + depth sort): %.4f ms per frame%n", indexedPerFrameMs);
+        System.out.printf("  Visible sprites: %.1f per frame (%d index cells)%n",
+            (double) indexed / TEST_FRAMES, renderer.getCellCount());
+        
+        assertEquals(scanned, indexed, "Both paths should find the same visible sprites");
+        assertTrue(indexedNanos < scanNanos,
+            String.format("Spatial index (%.4f ms/frame) should beat the full scan (%.4f ms/frame)",
+                indexedPerFrameMs, scanPerFrameMs));
+    }
+    
+    private long runScanFrames(List<RenderIndexedMap<WorldRendererTest.TestSprite>> maps, int frames) {
+        long visibleCount = 0;
+        List<WorldRendererTest.TestSprite> visible = new ArrayList<>();
+        for (int frame = 0; frame < frames; frame++) {
+            float left = -VIEW_WIDTH + frame * CAMERA_SPEED;
+            float bottom = -VIEW_HEIGHT / 2;
+            float right = left + VIEW_WIDTH;
+            float top = bottom + VIEW_HEIGHT;
+            visible.clear();
+            for (RenderIndexedMap<WorldRendererTest.TestSprite> map : maps) {
+                for (WorldRendererTest.TestSprite sprite : map.values()) {
+                    if (sprite.getX() < right && sprite.getX() + 64 > left
+                            && sprite.getY() < top && sprite.getY() + 64 > bottom) {
+                        visible.add(sprite);
+                    }
+                }
+            }
+            visibleCount += visible.size();
+        }
+        return visibleCount;
+    }
+    
+    private long runIndexedFrames(WorldRenderer renderer, int frames) {
+        long visibleCount = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            float left = -VIEW_WIDTH + frame * CAMERA_SPEED;
+            float bottom = -VIEW_HEIGHT / 2;
+            renderer.beginFrame(left, bottom, left + VIEW_WIDTH, bottom + VIEW_HEIGHT);
+            visibleCount += renderer.getVisible().size();
+        }
+        return visibleCount;
+    }
+}
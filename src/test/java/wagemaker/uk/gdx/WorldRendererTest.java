@@ -0,0 +1,141 @@
+package wagemaker.uk.gdx;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import org.junit.jupiter.api.Test;
+import wagemaker.uk.world.TileKey;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the spatially indexed world renderer.
+ */
+public class WorldRendererTest {
+    
+    @Test
+    public void testOnlySpritesInViewAreCollected() {
+        WorldRenderer renderer = new WorldRenderer();
+        RenderIndexedMap<TestSprite> trees = new RenderIndexedMap<>(renderer, WorldRenderer.LAYER_OBJECTS, 64, 128);
+        trees.put(TileKey.pack(1, 1), new TestSprite(100, 100));
+        trees.put(TileKey.pack(-1, -2), new TestSprite(-50, -120)); // Reaches into the view from below left
+        trees.put(TileKey.pack(78, 78), new TestSprite(5000, 5000));
+        trees.put(TileKey.pack(-1, 0), new TestSprite(-64, 0)); // Right edge touches the view's left edge
+        
+        renderer.beginFrame(0, 0, 800, 600);
+        
+        assertEquals(List.of(100f, -120f), ys(renderer.getVisible()));
+    }
+    
+    @Test
+    public void testIndexFollowsMapChanges() {
+        WorldRenderer renderer = new WorldRenderer();
+        RenderIndexedMap<TestSprite> items = new RenderIndexedMap<>(renderer, WorldRenderer.LAYER_GROUND, 32, 32);
+        for (int i = 0; i < 10; i++) {
+            items.put(TileKey.pack(i, 0), new TestSprite(i * 10, 0));
+        }
+        assertEquals(10, renderer.size());
+        
+        items.put(TileKey.pack(0, 0), new TestSprite(500, 500)); // Replaced, not added
+        assertEquals(10, renderer.size());
+        
+        for (int i = 1; i <= 4; i++) {
+            items.remove(TileKey.pack(i, 0));
+        }
+        items.remove(TileKey.pack(1, 0)); // Already gone
+        assertEquals(6, items.size());
+        assertEquals(6, renderer.size());
+        
+        renderer.beginFrame(0, 0, 100, 100);
+        assertEquals(5, renderer.getVisible().size(), "item-0 moved out of view and four were removed");
+        
+        items.clear();
+        assertEquals(0, renderer.size());
+        assertEquals(0, renderer.getCellCount(), "Empty cells should be dropped");
+    }
+    
+    @Test
+    public void testSpritesAreDrawnByLayerThenDepth() {
+        WorldRenderer renderer = new WorldRenderer();
+        RenderIndexedMap<TestSprite> trees = new RenderIndexedMap<>(renderer, WorldRenderer.LAYER_OBJECTS, 64, 128);
+        RenderIndexedMap<TestSprite> items = new RenderIndexedMap<>(renderer, WorldRenderer.LAYER_GROUND, 32, 32);
+        trees.put(TileKey.pack(4, 0), new TestSprite(300, 50));
+        trees.put(TileKey.pack(4, 6), new TestSprite(300, 400));
+        items.put(TileKey.pack(3, 0), new TestSprite(200, 10));
+        trees.put(TileKey.pack(1, 6), new TestSprite(100, 400));
+        
+        renderer.beginFrame(0, 0, 800, 600);
+        renderer.addDynamic(null, 320, 200, 100, 100, WorldRenderer.LAYER_OBJECTS); // A player between them
+        
+        List<WorldRenderer.Entry> visible = renderer.getVisible();
+        assertEquals(WorldRenderer.LAYER_GROUND, visible.get(0).getLayer(), "Ground sprites come first");
+        assertEquals(List.of(10f, 400f, 400f, 200f, 50f), ys(visible));
+        assertEquals(100f, visible.get(1).getX(), "Sprites at the same depth are ordered by x");
+        
+        // The order is the same every frame
+        List<WorldRenderer.Entry> first = new ArrayList<>(visible);
+        renderer.beginFrame(0, 0, 800, 600);
+        renderer.addDynamic(null, 320, 200, 100, 100, WorldRenderer.LAYER_OBJECTS);
+        List<WorldRenderer.Entry> second = renderer.getVisible();
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getY(), second.get(i).getY());
+            assertEquals(first.get(i).getX(), second.get(i).getX());
+        }
+    }
+    
+    @Test
+    public void testTextureChangesAreDrawnWithoutReindexing() {
+        WorldRenderer renderer = new WorldRenderer();
+        RenderIndexedMap<TestSprite> saplings = new RenderIndexedMap<>(renderer, WorldRenderer.LAYER_GROUND, 64, 64);
+        TestSprite sapling = new TestSprite(100, 100);
+        TextureRegion seedling = new TextureRegion();
+        TextureRegion grown = new TextureRegion();
+        sapling.texture = seedling;
+        saplings.put(TileKey.pack(1, 1), sapling);
+        
+        renderer.beginFrame(0, 0, 800, 600);
+        assertSame(seedling, renderer.getVisible().get(0).getRegion());
+        
+        sapling.texture = grown; // Grows in place, as planted trees do
+        renderer.beginFrame(0, 0, 800, 600);
+        assertSame(grown, renderer.getVisible().get(0).getRegion(), "The current sprite should be drawn");
+        assertEquals(1, renderer.size());
+    }
+    
+    private static List<Float> ys(List<WorldRenderer.Entry> entries) {
+        List<Float> ys = new ArrayList<>();
+        for (WorldRenderer.Entry entry : entries) {
+            ys.add(entry.getY());
+        }
+        return ys;
+    }
+    
+    /**
+     * Sprite without a loaded texture, so the index can be tested without a graphics context.
+     */
+    static class TestSprite implements WorldSprite {
+        private final float x, y;
+        TextureRegion texture;
+        
+        TestSprite(float x, float y) {
+            this.x = x;
+            this.y = y;
+        }
+        
+        @Override
+        public TextureRegion getTexture() {
+            return texture;
+        }
+        
+        @Override
+        public float getX() {
+            return x;
+        }
+        
+        @Override
+        public float getY() {
+            return y;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares Java serialization with the binary codec for PlayerMovementMessage,
+ * the most frequent message on the wire (20 per second per client).
+ * Reports bytes per message and encode/decode cost per operation.
+ */
+public class BinaryMessageCodecPerformanceTest {
+    
+    private static final int WARMUP_ITERATIONS = 20000;
+    private static final int TEST_ITERATIONS = 100000;
+    private static final String CLIENT_ID = "3f1c2b8e-5d7a-4e0b-9c1a-2b3c4d5e6f70";
+    
+    @Test
+    public void binaryCodecBeatsJavaSerializationForMovement() throws Exception {
+        PlayerMovementMessage message = new PlayerMovementMessage(CLIENT_ID, 1024.0f, -2048.0f, Direction.UP, true);
+        
+        // Legacy path: one ObjectOutputStream per connection, reset() after every message
+        ByteArrayOutputStream legacyBuffer = new ByteArrayOutputStream();
+        ObjectOutputStream legacyOut = new ObjectOutputStream(legacyBuffer);
+        legacyOut.flush();
+        int headerSize = legacyBuffer.size();
+        legacyOut.writeObject(message);
+        legacyOut.flush();
+        legacyOut.reset();
+        int legacyBytes = legacyBuffer.size() - headerSize;
+        
+        byte[] binary = BinaryMessageCodec.encode(message);
+        int binaryBytes = binary.length;
+        
+        // Warmup - JIT compilation of both paths
+        runLegacyEncode(message, WARMUP_ITERATIONS);
+        runBinaryEncode(message, WARMUP_ITERATIONS);
+        byte[] legacyPayload = serializeStandalone(message);
+        runLegacyDecode(legacyPayload, WARMUP_ITERATIONS);
+        runBinaryDecode(binary, WARMUP_ITERATIONS);
+        
+        long start = System.nanoTime();
+        runLegacyEncode(message, TEST_ITERATIONS);
+        double legacyEncodeNs = (double) (System.nanoTime() - start) / TEST_ITERATIONS;
+        
+        start = System.nanoTime();
+        runBinaryEncode(message, TEST_ITERATIONS);
+        double binaryEncodeNs = (double) (System.nanoTime() - start) / TEST_ITERATIONS;
+        
+        start = System.nanoTime();
+        runLegacyDecode(legacyPayload, TEST_ITERATIONS);
+        double legacyDecodeNs = (double) (System.nanoTime() - start) / TEST_ITERATIONS;
+        
+        start = System.nanoTime();
+        runBinaryDecode(binary, TEST_ITERATIONS);
+        double binaryDecodeNs = (double) (System.nanoTime() - start) / TEST_ITERATIONS;
+        
+        System.out.printf("PlayerMovementMessage wire format comparison:%n");
+        System.out.printf("  Java serialization: %d bytes, encode %.0f ns/op, decode %.0f ns/op%n",
+            legacyBytes, legacyEncodeNs, legacyDecodeNs);
+        System.out.printf("  Binary codec:       %d bytes, encode %.0f ns/op, decode %.0f ns/op%n",
+            binaryBytes, binaryEncodeNs, binaryDecodeNs);
+        
+        assertTrue(binaryBytes * 4 < legacyBytes, "Binary movement message should be at least 4x smaller");
+        assertTrue(binaryEncodeNs < legacyEncodeNs, "Binary encoding should be faster than serialization");
+        assertTrue(binaryDecodeNs < legacyDecodeNs, "Binary decoding should be faster than deserialization");
+    }
+    
+    private void runLegacyEncode(NetworkMessage message, int iterations) throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+        ObjectOutputStream out = new ObjectOutputStream(buffer);
+        for (int i = 0; i < iterations; i++) {
+            buffer.reset();
+            out.writeObject(message);
+            out.flush();
+            out.reset();
+        }
+    }
+    
+    private void runBinaryEncode(NetworkMessage message, int iterations) throws Exception {
+        for (int i = 0; i < iterations; i++) {
+            BinaryMessageCodec.encode(message);
+        }
+    }
+    
+    private void runLegacyDecode(byte[] payload, int iterations) throws Exception {
+        for (int i = 0; i < iterations; i++) {
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+                in.readObject();
+            }
+        }
+    }
+    
+    private void runBinaryDecode(byte[] payload, int iterations) throws Exception {
+        for (int i = 0; i < iterations; i++) {
+            BinaryMessageCodec.decode(payload);
+        }
+    }
+    
+    private byte[] serializeStandalone(NetworkMessage message) throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+            out.writeObject(message);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,199 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the binary wire format and protocol negotiation.
+ */
+public class BinaryMessageCodecTest {
+    
+    @SuppressWarnings("unchecked")
+    private <T extends NetworkMessage> T roundTrip(T message) throws Exception {
+        NetworkMessage decoded = BinaryMessageCodec.decode(BinaryMessageCodec.encode(message));
+        assertEquals(message.getClass(), decoded.getClass());
+        assertEquals(message.getType(), decoded.getType());
+        assertEquals(message.getTimestamp(), decoded.getTimestamp(), "Timestamp should survive encoding");
+        assertEquals(message.getSenderId(), decoded.getSenderId(), "Sender ID should survive encoding");
+        return (T) decoded;
+    }
+    
+    @Test
+    public void testPlayerMovementRoundTrip() throws Exception {
+        PlayerMovementMessage decoded = roundTrip(
+            new PlayerMovementMessage("client-1", -1234.0f, 5678.5f, Direction.LEFT, true));
+        
+        assertEquals(-1234.0f, decoded.getX());
+        assertEquals(5678.5f, decoded.getY());
+        assertEquals(Direction.LEFT, decoded.getDirection());
+        assertTrue(decoded.isMoving());
+    }
+    
+    @Test
+    public void testSequenceNumbersAreOptionalTrailingFields() throws Exception {
+        PlayerMovementMessage movement = roundTrip(
+            new PlayerMovementMessage("client-1", 10.0f, 20.0f, Direction.UP, true, 300));
+        assertEquals(300, movement.getSequence());
+        assertEquals(0, roundTrip(new PlayerMovementMessage("client-1", 10.0f, 20.0f, Direction.UP, true)).getSequence());
+        PlayerMovementMessage corrected = roundTrip(
+            new PlayerMovementMessage("client-1", 10.0f, 20.0f, Direction.UP, true, 301, 297));
+        assertEquals(301, corrected.getSequence());
+        assertEquals(297, corrected.getCorrectionSequence());
+        assertEquals(0, movement.getCorrectionSequence());
+        
+        PositionCorrectionMessage correction = roundTrip(
+            new PositionCorrectionMessage("server", "p", 1.0f, 2.0f, Direction.DOWN, "Collision check failed", 300));
+        assertEquals(300, correction.getAcknowledgedSequence());
+        assertEquals("Collision check failed", correction.getReason());
+        
+        // Unsequenced messages keep the original layout, so older peers read sequenced ones up to the new field
+        byte[] unsequenced = BinaryMessageCodec.encode(new PlayerMovementMessage("c", 1.0f, 2.0f, Direction.UP, true));
+        byte[] sequenced = BinaryMessageCodec.encode(new PlayerMovementMessage("c", 1.0f, 2.0f, Direction.UP, true, 5));
+        assertEquals(unsequenced.length + 1, sequenced.length);
+    }
+    
+    @Test
+    public void testHotMessageRoundTrips() throws Exception {
+        assertEquals(1700000000123L, roundTrip(new PongMessage("server", 1700000000123L)).getPingTimestamp());
+        roundTrip(new HeartbeatMessage("client-1"));
+        roundTrip(new PingMessage("client-1"));
+        
+        AttackActionMessage attack = roundTrip(new AttackActionMessage("c", "p", "128,-64", 12.5f));
+        assertEquals("p", attack.getPlayerId());
+        assertEquals("128,-64", attack.getTargetId());
+        assertEquals(12.5f, attack.getDamage());
+        
+        TreeCreatedMessage tree = roundTrip(new TreeCreatedMessage("server", "64,64", TreeType.BAMBOO, 70.0f, 60.0f, 100.0f));
+        assertEquals(TreeType.BAMBOO, tree.getTreeType());
+        assertEquals(60.0f, tree.getY());
+        
+        PositionCorrectionMessage correction = roundTrip(
+            new PositionCorrectionMessage("server", "p", 10.0f, 20.0f, null, "Speed check failed"));
+        assertNull(correction.getCorrectedDirection(), "Null enums should be preserved");
+        assertEquals("Speed check failed", correction.getReason());
+        
+        PlayerJoinMessage join = roundTrip(new PlayerJoinMessage("p", "Ünïcode Name", "girl_red_start.png", 1.0f, 2.0f));
+        assertEquals("Ünïcode Name", join.getPlayerName());
+        
+        ItemPickupMessage pickup = roundTrip(new ItemPickupMessage(null, "item-1", null));
+        assertNull(pickup.getSenderId());
+        assertNull(pickup.getPlayerId(), "Null strings should be preserved");
+    }
+    
+    @Test
+    public void testUnmappedMessagesUseSerializedFallback() throws Exception {
+        ConnectionRejectedMessage decoded = roundTrip(new ConnectionRejectedMessage("server", "Server is full"));
+        assertEquals("Server is full", decoded.getReason());
+        assertEquals(BinaryMessageCodec.TAG_SERIALIZED,
+            BinaryMessageCodec.encode(new ConnectionRejectedMessage("server", "x"))[0]);
+    }
+    
+    @Test
+    public void testMovementIsMuchSmallerThanJavaSerialization() throws Exception {
+        PlayerMovementMessage message = new PlayerMovementMessage(
+            "3f1c2b8e-5d7a-4e0b-9c1a-2b3c4d5e6f70", 1024.0f, -2048.0f, Direction.UP, true);
+        
+        ByteArrayOutputStream legacy = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(legacy)) {
+            out.writeObject(message);
+        }
+        int binarySize = BinaryMessageCodec.encode(message).length;
+        
+        assertTrue(binarySize * 4 < legacy.size(),
+            "Binary encoding (" + binarySize + " bytes) should be far smaller than serialization (" + legacy.size() + " bytes)");
+    }
+    
+    @Test
+    public void testVarIntRoundTrip() throws Exception {
+        int[] values = {0, 1, 127, 128, 16383, 16384, 65536, Integer.MAX_VALUE, -1};
+        for (int value : values) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            BinaryMessageCodec.writeVarInt(new DataOutputStream(buffer), value);
+            int decoded = BinaryMessageCodec.readVarInt(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+            assertEquals(value, decoded);
+        }
+    }
+    
+    @Test
+    public void testUnknownTagRejected() {
+        assertThrows(StreamCorruptedException.class, () -> BinaryMessageCodec.decode(new byte[] {(byte) 0x7E, 0, 0}));
+    }
+    
+    @Test
+    public void testNegotiatesBinaryAndLegacyClients() throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            // Binary client
+            CompletableFuture<MessageTransport> accepted = CompletableFuture.supplyAsync(() -> acceptOne(serverSocket));
+            try (Socket client = new Socket("localhost", serverSocket.getLocalPort())) {
+                MessageTransport clientTransport = ProtocolNegotiator.connectBinary(client);
+                MessageTransport serverTransport = accepted.get(10, TimeUnit.SECONDS);
+                assertNotNull(clientTransport, "Server should accept the binary protocol");
+                assertTrue(serverTransport instanceof BinaryTransport);
+                
+                clientTransport.send(new PlayerMovementMessage("c", 1.0f, 2.0f, Direction.DOWN, false));
+                assertEquals(MessageType.PLAYER_MOVEMENT, serverTransport.receive().getType());
+                serverTransport.send(new ConnectionRejectedMessage("server", "bye"));
+                assertEquals("bye", ((ConnectionRejectedMessage) clientTransport.receive()).getReason());
+            }
+            
+            // Legacy client using raw object streams, as older builds do
+            accepted = CompletableFuture.supplyAsync(() -> acceptOne(serverSocket));
+            try (Socket client = new Socket("localhost", serverSocket.getLocalPort())) {
+                ObjectOutputStream out = new ObjectOutputStream(client.getOutputStream());
+                out.flush();
+                ObjectInputStream in = new ObjectInputStream(client.getInputStream());
+                MessageTransport serverTransport = accepted.get(10, TimeUnit.SECONDS);
+                assertTrue(serverTransport instanceof ObjectStreamTransport);
+                
+                out.writeObject(new HeartbeatMessage("legacy"));
+                out.flush();
+                assertEquals(MessageType.HEARTBEAT, serverTransport.receive().getType());
+                serverTransport.send(new PongMessage("server", 42L));
+                assertEquals(42L, ((PongMessage) in.readObject()).getPingTimestamp());
+            }
+        }
+    }
+    
+    @Test
+    public void testBinaryClientDetectsLegacyServer() throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            CompletableFuture<Void> legacyServer = CompletableFuture.runAsync(() -> {
+                try (Socket socket = serverSocket.accept()) {
+                    // Legacy servers write the serialization header immediately
+                    ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
+                    out.flush();
+                    // Consume the whole client hello (magic + version) before closing
+                    socket.getInputStream().readNBytes(5);
+                } catch (Exception e) {
+                    // Connection closed by the client
+                }
+            });
+            
+            try (Socket client = new Socket("localhost", serverSocket.getLocalPort())) {
+                assertNull(ProtocolNegotiator.connectBinary(client), "Legacy server should be detected");
+            }
+            legacyServer.get(10, TimeUnit.SECONDS);
+        }
+    }
+    
+    private MessageTransport acceptOne(ServerSocket serverSocket) {
+        try {
+            return ProtocolNegotiator.accept(serverSocket.accept());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import wagemaker.uk.world.TileKey;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChunkGenerationManager chunk tracking and background generation.
+ * The server is never started, so no sockets are opened.
+ */
+public class ChunkGenerationManagerTest {
+    
+    private static final long WORLD_SEED = 987654321L;
+    private static final float FAR_X = 80000.0f;
+    private static final float FAR_Y = -80000.0f;
+    
+    private GameServer server;
+    private ChunkGenerationManager manager;
+    
+    @BeforeEach
+    public void setUp() {
+        server = new GameServer(0, 4, WORLD_SEED);
+        manager = server.getChunkGenerationManager();
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        manager.shutdown();
+    }
+    
+    @Test
+    public void testMovementWithinChunkQueuesNothing() throws Exception {
+        manager.onPlayerMoved("player-1", FAR_X, FAR_Y);
+        assertTrue(manager.awaitIdle(30000), "Initial chunks should finish generating");
+        int generated = manager.getGeneratedChunkCount();
+        assertTrue(generated > 0, "Chunks away from the player should be marked generated");
+        
+        // Small moves inside the same chunk must not queue any work
+        for (int i = 1; i < 20; i++) {
+            manager.onPlayerMoved("player-1", FAR_X + i, FAR_Y + i);
+            assertEquals(0, manager.getPendingChunkCount(), "Moving within a chunk should not queue generation");
+        }
+        assertEquals(generated, manager.getGeneratedChunkCount());
+    }
+    
+    @Test
+    public void testGeneratedChunksAreNotRegenerated() throws Exception {
+        manager.requestChunksAround(FAR_X, FAR_Y);
+        assertTrue(manager.awaitIdle(30000));
+        
+        int treeCount = server.getWorldState().getTrees().size();
+        int chunkX = ChunkGenerationManager.chunkCoord(FAR_X) + ChunkGenerationManager.GENERATION_RADIUS_CHUNKS;
+        int chunkY = ChunkGenerationManager.chunkCoord(FAR_Y) + ChunkGenerationManager.GENERATION_RADIUS_CHUNKS;
+        assertTrue(manager.isChunkGenerated(chunkX, chunkY), "Outer chunk should be marked generated");
+        
+        // Skipped stone tiles are still next to the player, so nothing is queued
+        manager.requestChunksAround(FAR_X, FAR_Y);
+        assertEquals(0, manager.getPendingChunkCount(), "Generated chunks should not be queued again");
+        assertTrue(manager.awaitIdle(30000));
+        assertEquals(treeCount, server.getWorldState().getTrees().size(), "Regeneration should not create duplicates");
+    }
+    
+    @Test
+    public void testStoneSkippedNearPlayerIsPlacedOnceThePlayerMovesAway() throws Exception {
+        // Find a stone, using a second server with the same seed and a distant player
+        GameServer reference = new GameServer(0, 4, WORLD_SEED);
+        StoneState stone = null;
+        for (int chunkX = ChunkGenerationManager.chunkCoord(FAR_X); stone == null && chunkX < ChunkGenerationManager.chunkCoord(FAR_X) + 400; chunkX++) {
+            ChunkGenerationManager.ChunkPlan plan = reference.getChunkGenerationManager().planChunk(chunkX, 0, 0, 0);
+            if (!plan.stones.isEmpty()) {
+                stone = plan.stones.get(0);
+            }
+        }
+        reference.getChunkGenerationManager().shutdown();
+        assertNotNull(stone, "Some chunk along the row should generate a stone");
+        long tile = TileKey.parse(stone.getStoneId());
+        int chunkX = ChunkGenerationManager.chunkCoord(TileKey.x(tile));
+        int chunkY = ChunkGenerationManager.chunkCoord(TileKey.y(tile));
+        
+        // Standing on the stone's tile, the chunk is generated without it
+        manager.requestChunksAround(stone.getX(), stone.getY());
+        assertTrue(manager.awaitIdle(30000));
+        assertTrue(manager.isChunkGenerated(chunkX, chunkY));
+        assertFalse(server.getWorldState().getStones().containsKey(stone.getStoneId()));
+        assertTrue(manager.getDeferredStoneTileCount(chunkX, chunkY) > 0, "The skipped tile should be recorded");
+        
+        // Nothing is planned again while the player stays close
+        manager.requestChunksAround(stone.getX(), stone.getY());
+        assertEquals(0, manager.getPendingChunkCount());
+        
+        // From far enough away, only the skipped tiles are planned and the stone appears
+        manager.requestChunksAround(stone.getX() + 800, stone.getY());
+        assertTrue(manager.awaitIdle(30000));
+        assertTrue(server.getWorldState().getStones().containsKey(stone.getStoneId()),
+            "The stone should be placed once the player has moved away");
+        assertEquals(0, manager.getDeferredStoneTileCount(chunkX, chunkY));
+    }
+    
+    @Test
+    public void testTreeClearedAfterPlanningIsNotRegenerated() {
+        // Find a chunk that generates a tree, using a second server with the same seed
+        GameServer reference = new GameServer(0, 4, WORLD_SEED);
+        int chunkY = ChunkGenerationManager.chunkCoord(FAR_Y);
+        int chunkX = ChunkGenerationManager.chunkCoord(FAR_X);
+        String treeId = null;
+        for (; treeId == null && chunkX < ChunkGenerationManager.chunkCoord(FAR_X) + 100; chunkX++) {
+            reference.getChunkGenerationManager().generateChunk(chunkX, chunkY, 0, 0);
+            for (String id : reference.getWorldState().getTrees().keySet()) {
+                treeId = id;
+            }
+        }
+        reference.getChunkGenerationManager().shutdown();
+        assertNotNull(treeId, "Some chunk near the far corner should generate a tree");
+        chunkX--;
+        
+        // The player cuts the tree down while the worker is still planning its chunk
+        ChunkGenerationManager.ChunkPlan plan = manager.planChunk(chunkX, chunkY, 0, 0);
+        server.getWorldState().removeTree(treeId);
+        manager.applyChunk(plan);
+        
+        assertFalse(server.getWorldState().getTrees().containsKey(treeId),
+            "A tree cleared after planning must not be regenerated");
+    }
+    
+    @Test
+    public void testChunksAreAppliedThroughTickLoop() throws Exception {
+        server.startTickLoop(20);
+        try {
+            manager.requestChunksAround(FAR_X, FAR_Y);
+            assertTrue(manager.awaitIdle(30000), "Chunks should be applied by the tick loop");
+            assertTrue(manager.getGeneratedChunkCount() > 0);
+            assertTrue(server.getTickLoop().getCommandsProcessed() > 0, "Generation results should run as tick commands");
+        } finally {
+            server.getTickLoop().stop();
+        }
+    }
+    
+    @Test
+    public void testChunksAreNotAppliedOffTheTickThread() {
+        server.startTickLoop(20);
+        try {
+            int chunkX = ChunkGenerationManager.chunkCoord(FAR_X);
+            int chunkY = ChunkGenerationManager.chunkCoord(FAR_Y);
+            ChunkGenerationManager.ChunkPlan plan = manager.planChunk(chunkX, chunkY, FAR_X, FAR_Y);
+            assertThrows(IllegalStateException.class, () -> manager.applyChunk(plan),
+                "Only the tick thread may change WorldState while the loop runs");
+        } finally {
+            server.getTickLoop().stop();
+        }
+    }
+    
+    @Test
+    public void testChunkCoordinatesFloorNegativeValues() {
+        assertEquals(0, ChunkGenerationManager.chunkCoord(0));
+        assertEquals(0, ChunkGenerationManager.chunkCoord(ChunkGenerationManager.CHUNK_SIZE - 1));
+        assertEquals(-1, ChunkGenerationManager.chunkCoord(-1));
+        assertEquals(-2, ChunkGenerationManager.chunkCoord(-ChunkGenerationManager.CHUNK_SIZE - 1));
+    }
+    
+    @Test
+    public void testSpawnRollsMatchSeededRandom() {
+        // The allocation-free spawn rolls must agree with the Random that generateTreeAt and generateStoneAt seed
+        Random random = new Random();
+        for (long seed = -1000; seed < 1000; seed++) {
+            random.setSeed(seed * 7919L);
+            assertEquals(random.nextFloat(), WorldState.firstRandomFloat(seed * 7919L));
+        }
+        
+        WorldState worldState = server.getWorldState();
+        int treeRolls = 0;
+        for (int x = -6400; x < 6400; x += 64) {
+            for (int y = -6400; y < 6400; y += 64) {
+                random.setSeed(WORLD_SEED + x * 31L + y * 17L);
+                assertEquals(random.nextFloat() < 0.02f, worldState.passesTreeSpawnRoll(x, y));
+                random.setSeed(WORLD_SEED + x * 37L + y * 23L);
+                assertEquals(random.nextFloat() < 0.002f, worldState.passesStoneSpawnRoll(x, y));
+                if (worldState.passesTreeSpawnRoll(x, y)) {
+                    treeRolls++;
+                }
+            }
+        }
+        assertTrue(treeRolls > 0, "Some tiles should pass the tree spawn roll");
+    }
+}
@@ -0,0 +1,108 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the GameClient send path: queued messages wake the send thread
+ * immediately instead of waiting for a poll interval, and bursts arrive complete
+ * and in order.
+ */
+public class GameClientSendPathTest {
+    
+    private static final int LATENCY_SAMPLES = 100;
+    private static final long MAX_MEDIAN_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(4);
+    
+    private ServerSocket serverSocket;
+    private volatile Socket serverSide;
+    private GameClient client;
+    private final BlockingQueue<PlayerMovementMessage> received = new LinkedBlockingQueue<>();
+    
+    @BeforeEach
+    public void setUp() throws Exception {
+        serverSocket = new ServerSocket(0);
+        CompletableFuture<MessageTransport> accepted = CompletableFuture.supplyAsync(() -> {
+            try {
+                serverSide = serverSocket.accept();
+                return ProtocolNegotiator.accept(serverSide);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        client = new GameClient();
+        client.setClientId("client-1");
+        client.connect("localhost", serverSocket.getLocalPort());
+        MessageTransport transport = accepted.get(10, TimeUnit.SECONDS);
+        
+        Thread reader = new Thread(() -> {
+            try {
+                while (true) {
+                    NetworkMessage message = transport.receive();
+                    // Heartbeats and pings from the client's timer are not part of the test
+                    if (message instanceof PlayerMovementMessage) {
+                        received.add((PlayerMovementMessage) message);
+                    }
+                }
+            } catch (Exception e) {
+                // Connection closed
+            }
+        }, "GameClientSendPathTest-Reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+    
+    @AfterEach
+    public void tearDown() throws Exception {
+        client.disconnect();
+        serverSide.close();
+        serverSocket.close();
+    }
+    
+    @Test
+    public void testQueuedMessageIsSentWithoutPollDelay() throws Exception {
+        long[] latencies = new long[LATENCY_SAMPLES];
+        for (int i = 0; i < LATENCY_SAMPLES; i++) {
+            long start = System.nanoTime();
+            client.sendMessage(new PlayerMovementMessage("client-1", i, 0, Direction.RIGHT, true));
+            assertNotNull(received.poll(5, TimeUnit.SECONDS), "Message " + i + " should arrive");
+            latencies[i] = System.nanoTime() - start;
+            
+            // Let the send thread go idle between samples, as between real inputs
+            Thread.sleep(2);
+        }
+        
+        Arrays.sort(latencies);
+        long median = latencies[LATENCY_SAMPLES / 2];
+        System.out.printf("GameClient send latency: median %.3f ms, max %.3f ms%n",
+            median / 1_000_000.0, latencies[LATENCY_SAMPLES - 1] / 1_000_000.0);
+        
+        assertTrue(median < MAX_MEDIAN_LATENCY_NANOS,
+            String.format("Median send latency %.3f ms should be well below the former 10 ms poll interval",
+                median / 1_000_000.0));
+    }
+    
+    @Test
+    public void testBurstArrivesCompleteAndInOrder() throws Exception {
+        int burst = 500;
+        for (int i = 0; i < burst; i++) {
+            client.sendMessage(new PlayerMovementMessage("client-1", i, 0, Direction.RIGHT, true));
+        }
+        
+        for (int i = 0; i < burst; i++) {
+            PlayerMovementMessage message = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(message, "Message " + i + " should arrive");
+            assertEquals(i, message.getX(), "Messages should keep their order");
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import wagemaker.uk.server.ServerConfig;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for cell-based interest management.
+ */
+public class InterestManagerTest {
+    
+    private static final int TIMEOUT_SECONDS = 15;
+    private static final float FAR_AWAY = InterestManager.CELL_SIZE * (InterestManager.INTEREST_RADIUS_CELLS + 2);
+    
+    private GameServer server;
+    private final List<GameClient> clients = new ArrayList<>();
+    
+    @AfterEach
+    public void tearDown() {
+        for (GameClient client : clients) {
+            client.disconnect();
+        }
+        if (server != null && server.isRunning()) {
+            server.stop();
+        }
+    }
+    
+    @Test
+    public void testEnterAndLeaveAreReportedWhenCrossingCells() {
+        server = new GameServer(findFreePortUnchecked(), 10, 12345L, new ServerConfig());
+        InterestManager interest = new InterestManager();
+        ClientConnection a = createConnection("client-a");
+        ClientConnection b = createConnection("client-b");
+        
+        InterestManager.InterestChange first = interest.updateClient(a, 0, 0);
+        assertTrue(first.getEntered().isEmpty());
+        
+        InterestManager.InterestChange joined = interest.updateClient(b, 100, 100);
+        assertEquals(Set.of(a), joined.getEntered());
+        assertTrue(joined.getLeft().isEmpty());
+        
+        assertNull(interest.updateClient(b, 200, 200), "Moving within a cell should not change interest");
+        
+        InterestManager.InterestChange away = interest.updateClient(b, FAR_AWAY, 0);
+        assertTrue(away.getEntered().isEmpty());
+        assertEquals(Set.of(a), away.getLeft());
+        assertFalse(interest.getInterestedClients(0, 0).contains(b));
+        assertFalse(interest.isInterested(a, FAR_AWAY, 0));
+        
+        InterestManager.InterestChange back = interest.updateClient(b, 0, 0);
+        assertEquals(Set.of(a), back.getEntered());
+        assertTrue(interest.isInterested(b, 0, 0));
+    }
+    
+    @Test
+    public void testEmptyCellsAreRemoved() {
+        server = new GameServer(findFreePortUnchecked(), 10, 12345L, new ServerConfig());
+        InterestManager interest = new InterestManager();
+        ClientConnection a = createConnection("client-a");
+        int side = InterestManager.INTEREST_RADIUS_CELLS * 2 + 1;
+        
+        interest.updateClient(a, 0, 0);
+        assertEquals(side * side, interest.getSubscribedCellCount());
+        
+        for (int i = 1; i <= 20; i++) {
+            interest.updateClient(a, i * FAR_AWAY, -i * FAR_AWAY);
+        }
+        assertEquals(side * side, interest.getSubscribedCellCount(),
+            "Cells left behind should not stay in the index");
+        
+        interest.removeClient(a);
+        assertEquals(0, interest.getSubscribedCellCount());
+        assertTrue(interest.getInterestedClients(20 * FAR_AWAY, -20 * FAR_AWAY).isEmpty());
+    }
+    
+    @Test
+    public void testMovementIsOnlyRelayedToNearbyPlayers() throws Exception {
+        int port = findFreePort();
+        server = new GameServer(port, 10, 12345L, new ServerConfig());
+        server.start();
+        
+        CountDownLatch accepted = new CountDownLatch(2);
+        CountDownLatch wentOutOfView = new CountDownLatch(1);
+        CountDownLatch cameIntoView = new CountDownLatch(1);
+        AtomicInteger farMovementsReceived = new AtomicInteger();
+        
+        GameClient mover = createClient(accepted, null);
+        GameClient observer = createClient(accepted, message -> {
+            if (message instanceof PlayerVisibilityMessage) {
+                if (((PlayerVisibilityMessage) message).isVisible()) {
+                    cameIntoView.countDown();
+                } else {
+                    wentOutOfView.countDown();
+                }
+            } else if (message instanceof PlayerMovementMessage
+                       && ((PlayerMovementMessage) message).getX() >= FAR_AWAY) {
+                farMovementsReceived.incrementAndGet();
+            }
+        });
+        mover.connect("localhost", port);
+        observer.connect("localhost", port);
+        assertTrue(accepted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "Both clients should be accepted");
+        
+        // Walk away in small steps, as the server rejects teleports and moves into trees or stones
+        float x = 0;
+        while (x < FAR_AWAY + 200) {
+            x += 50;
+            clearPath(x, 0);
+            mover.sendMessage(new PlayerMovementMessage(mover.getClientId(), x, 0, Direction.RIGHT, true));
+            Thread.sleep(15);
+        }
+        
+        assertTrue(wentOutOfView.await(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+            "Observer should be told the mover went out of view");
+        assertEquals(0, farMovementsReceived.get(), "Observer should not receive movement from outside its area");
+        
+        while (x > 0) {
+            x -= 50;
+            mover.sendMessage(new PlayerMovementMessage(mover.getClientId(), x, 0, Direction.LEFT, true));
+            Thread.sleep(15);
+        }
+        assertTrue(cameIntoView.await(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+            "Observer should be told the mover came back into view");
+    }
+    
+    /**
+     * Removes the trees and stones around a position so a walking test player is not blocked.
+     */
+    private void clearPath(float x, float y) {
+        WorldState worldState = server.getWorldState();
+        for (TreeState tree : worldState.getTreesNear(x, y, 256)) {
+            worldState.removeTree(tree.getTreeId());
+        }
+        for (StoneState stone : worldState.getStonesNear(x, y, 256)) {
+            worldState.removeStone(stone.getStoneId());
+        }
+    }
+    
+    private ClientConnection createConnection(String clientId) {
+        return new ClientConnection(null, clientId, server, new NullTransport(), Runnable::run);
+    }
+    
+    private GameClient createClient(CountDownLatch accepted, MessageHandler handler) {
+        GameClient client = new GameClient();
+        clients.add(client);
+        client.setMessageHandler(message -> {
+            if (message instanceof ConnectionAcceptedMessage) {
+                client.setClientId(((ConnectionAcceptedMessage) message).getAssignedClientId());
+                accepted.countDown();
+            } else if (handler != null) {
+                handler.handleMessage(message);
+            }
+        });
+        return client;
+    }
+    
+    private static int findFreePort() throws IOException {
+        try (ServerSocket probe = new ServerSocket(0)) {
+            return probe.getLocalPort();
+        }
+    }
+    
+    private static int findFreePortUnchecked() {
+        try {
+            return findFreePort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * Transport that discards everything, for connections that are never started.
+     */
+    private static class NullTransport implements MessageTransport {
+        @Override
+        public void write(NetworkMessage message) {
+        }
+        
+        @Override
+        public void flush() {
+        }
+        
+        @Override
+        public NetworkMessage receive() throws IOException {
+            throw new IOException("Not connected");
+        }
+        
+        @Override
+        public String getProtocolName() {
+            return "null";
+        }
+        
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.Test;
+import wagemaker.uk.server.ServerConfig;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that transports enforce the incoming message size limit before decoding,
+ * and how the server treats clients that break it.
+ */
+public class MessageSizeLimitTest {
+    
+    private static final int LIMIT = 65536;
+    
+    private static String largeText(int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        return builder.toString();
+    }
+    
+    @Test
+    public void testBinaryTransportSkipsOversizedFrame() throws Exception {
+        ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        BinaryTransport sender = new BinaryTransport(new ByteArrayInputStream(new byte[0]), wire);
+        sender.send(new PlayerMovementMessage("c", 1.0f, 2.0f, Direction.DOWN, true));
+        sender.send(new ConnectionRejectedMessage("server", largeText(LIMIT * 2)));
+        sender.send(new HeartbeatMessage("c"));
+        
+        BinaryTransport receiver = new BinaryTransport(new ByteArrayInputStream(wire.toByteArray()),
+            new ByteArrayOutputStream(), LIMIT);
+        
+        assertEquals(MessageType.PLAYER_MOVEMENT, receiver.receive().getType());
+        MessageTooLargeException e = assertThrows(MessageTooLargeException.class, receiver::receive);
+        assertTrue(e.isFrameSkipped(), "Binary frames can be skipped");
+        assertTrue(e.getSize() > LIMIT);
+        assertEquals(LIMIT, e.getLimit());
+        assertEquals(MessageType.HEARTBEAT, receiver.receive().getType(),
+            "The message after an oversized frame should still be received");
+    }
+    
+    @Test
+    public void testBinaryTransportReusesBufferAcrossSizes() throws Exception {
+        ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        BinaryTransport sender = new BinaryTransport(new ByteArrayInputStream(new byte[0]), wire);
+        String[] reasons = {"short", largeText(5000), "tiny", largeText(LIMIT - 100)};
+        for (String reason : reasons) {
+            sender.send(new ConnectionRejectedMessage("server", reason));
+        }
+        
+        BinaryTransport receiver = new BinaryTransport(new ByteArrayInputStream(wire.toByteArray()),
+            new ByteArrayOutputStream(), LIMIT * 2);
+        for (String reason : reasons) {
+            assertEquals(reason, ((ConnectionRejectedMessage) receiver.receive()).getReason());
+        }
+    }
+    
+    @Test
+    public void testLegacyTransportRejectsOversizedMessage() throws Exception {
+        ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        ObjectStreamTransport sender = new ObjectStreamTransport(emptyObjectStream(), wire);
+        sender.send(new HeartbeatMessage("c"));
+        sender.send(new ConnectionRejectedMessage("server", largeText(LIMIT * 2)));
+        
+        ObjectStreamTransport receiver = new ObjectStreamTransport(new ByteArrayInputStream(wire.toByteArray()),
+            new ByteArrayOutputStream(), LIMIT);
+        
+        assertEquals(MessageType.HEARTBEAT, receiver.receive().getType());
+        MessageTooLargeException e = assertThrows(MessageTooLargeException.class, receiver::receive);
+        assertFalse(e.isFrameSkipped(), "Serialization streams cannot skip a message");
+    }
+    
+    @Test
+    public void testLegacyTransportAcceptsMessagesWithinLimit() throws Exception {
+        ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        ObjectStreamTransport sender = new ObjectStreamTransport(emptyObjectStream(), wire);
+        for (int i = 0; i < 200; i++) {
+            sender.send(new ConnectionRejectedMessage("server", largeText(LIMIT / 2)));
+        }
+        
+        ObjectStreamTransport receiver = new ObjectStreamTransport(new ByteArrayInputStream(wire.toByteArray()),
+            new ByteArrayOutputStream(), LIMIT);
+        for (int i = 0; i < 200; i++) {
+            assertEquals(LIMIT / 2, ((ConnectionRejectedMessage) receiver.receive()).getReason().length(),
+                "The limit applies per message, not to the whole stream");
+        }
+    }
+    
+    @Test
+    public void testLegacyTransportDropsObjectsThatAreNotMessages() throws Exception {
+        ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        ObjectOutputStream sender = new ObjectOutputStream(wire);
+        sender.writeObject(new HeartbeatMessage("c"));
+        sender.writeObject("not a message");
+        sender.writeObject(new HeartbeatMessage("c"));
+        sender.flush();
+        
+        ObjectStreamTransport receiver = new ObjectStreamTransport(new ByteArrayInputStream(wire.toByteArray()),
+            new ByteArrayOutputStream(), LIMIT);
+        
+        assertEquals(MessageType.HEARTBEAT, receiver.receive().getType());
+        InvalidMessageTypeException e = assertThrows(InvalidMessageTypeException.class, receiver::receive);
+        assertEquals(String.class.getName(), e.getReceivedClassName());
+        assertEquals(MessageType.HEARTBEAT, receiver.receive().getType(),
+            "The message after a rejected object should still be received");
+    }
+    
+    @Test
+    public void testOversizedMessageDisconnectsLegacyClientsOnly() throws Exception {
+        int port = findFreePort();
+        GameServer server = new GameServer(port, 10, 12345L, new ServerConfig());
+        server.start();
+        GameClient client = new GameClient();
+        try (Socket socket = new Socket("localhost", port)) {
+            ObjectStreamTransport legacy = new ObjectStreamTransport(socket.getInputStream(), socket.getOutputStream());
+            awaitClientCount(server, 1);
+            
+            try {
+                legacy.send(new ConnectionRejectedMessage("c", largeText(ClientConnection.MAX_MESSAGE_SIZE * 2)));
+            } catch (IOException e) {
+                // The server may close the socket before the whole message is written
+            }
+            awaitClientCount(server, 0);
+            assertEquals(0, server.getConnectedClientCount(), "The legacy stream cannot be resumed");
+            
+            client.connect("localhost", port);
+            awaitClientCount(server, 1);
+            client.sendMessage(new ConnectionRejectedMessage("c", largeText(ClientConnection.MAX_MESSAGE_SIZE * 2)));
+            client.sendMessage(new HeartbeatMessage("c"));
+            Thread.sleep(500);
+            assertEquals(1, server.getConnectedClientCount(), "A binary client should stay connected");
+            assertTrue(client.isConnected());
+        } finally {
+            client.disconnect();
+            server.stop();
+        }
+    }
+    
+    private static void awaitClientCount(GameServer server, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (server.getConnectedClientCount() != count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+    
+    private static int findFreePort() throws IOException {
+        try (ServerSocket probe = new ServerSocket(0)) {
+            return probe.getLocalPort();
+        }
+    }
+    
+    private InputStream emptyObjectStream() throws Exception {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        new ObjectOutputStream(header).flush();
+        return new ByteArrayInputStream(header.toByteArray());
+    }
+}
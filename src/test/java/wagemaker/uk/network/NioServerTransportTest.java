@@ -0,0 +1,240 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import wagemaker.uk.server.ServerConfig;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the selector-based server transport (server.transport=nio).
+ */
+public class NioServerTransportTest {
+    
+    private static final int WORKER_THREADS = 2;
+    private static final int TIMEOUT_SECONDS = 10;
+    
+    private File configFile;
+    private GameServer server;
+    private final List<GameClient> clients = new ArrayList<>();
+    private final List<Socket> sockets = new ArrayList<>();
+    
+    @BeforeEach
+    public void setUp() throws IOException {
+        configFile = File.createTempFile("nio-server", ".properties");
+        configFile.deleteOnExit();
+        try (FileWriter writer = new FileWriter(configFile)) {
+            writer.write("server.transport=nio\n");
+            writer.write("server.nio.worker-threads=" + WORKER_THREADS + "\n");
+        }
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        for (GameClient client : clients) {
+            if (client.isConnected()) {
+                client.disconnect();
+            }
+        }
+        for (Socket socket : sockets) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+        }
+        if (server != null && server.isRunning()) {
+            server.stop();
+        }
+        configFile.delete();
+    }
+    
+    @Test
+    public void testTransportConfiguration() throws IOException {
+        ServerConfig config = ServerConfig.load(configFile.getPath());
+        assertTrue(config.isNioTransport());
+        assertEquals(WORKER_THREADS, config.getNioWorkerThreads());
+        
+        try (FileWriter writer = new FileWriter(configFile)) {
+            writer.write("server.transport=epoll\n");
+        }
+        assertFalse(ServerConfig.load(configFile.getPath()).isNioTransport(),
+            "Unknown transports should fall back to blocking");
+        assertFalse(new ServerConfig().isNioTransport(), "Blocking should be the default");
+    }
+    
+    @Test
+    public void testBinaryAndLegacyClientsExchangeMessages() throws Exception {
+        int port = startServer(10);
+        
+        CountDownLatch accepted = new CountDownLatch(2);
+        CountDownLatch movementReceived = new CountDownLatch(1);
+        AtomicReference<PlayerMovementMessage> movement = new AtomicReference<>();
+        
+        GameClient binaryClient = createClient(accepted, null, null);
+        GameClient legacyClient = createClient(accepted, movementReceived, movement);
+        legacyClient.setUseLegacyProtocol(true);
+        
+        binaryClient.connect("localhost", port);
+        legacyClient.connect("localhost", port);
+        
+        assertTrue(accepted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "Both clients should be accepted");
+        assertEquals("java-serialization", legacyClient.getProtocolName());
+        assertTrue(binaryClient.getProtocolName().startsWith("binary"));
+        assertEquals(2, server.getConnectedClientCount());
+        
+        // Binary client (served by the selector) -> legacy client (served by a blocking thread)
+        binaryClient.sendPlayerMovement(128.0f, 256.0f, Direction.RIGHT, true);
+        assertTrue(movementReceived.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "Movement should be relayed");
+        assertEquals(128.0f, movement.get().getX());
+        assertEquals(binaryClient.getClientId(), movement.get().getSenderId());
+    }
+    
+    @Test
+    public void testManyConnectionsOnFewThreads() throws Exception {
+        int connectionCount = 150;
+        int port = startServer(connectionCount);
+        int threadsBefore = Thread.activeCount();
+        
+        for (int i = 0; i < connectionCount; i++) {
+            Socket socket = new Socket("localhost", port);
+            sockets.add(socket);
+            assertNotNull(ProtocolNegotiator.connectBinary(socket), "Handshake should succeed");
+        }
+        
+        waitForCondition(() -> server.getConnectedClientCount() == connectionCount, TIMEOUT_SECONDS * 1000L);
+        assertEquals(connectionCount, server.getConnectedClientCount());
+        
+        int threadsAdded = Thread.activeCount() - threadsBefore;
+        assertTrue(threadsAdded <= WORKER_THREADS + 5,
+            "Connections should not get a thread each (" + threadsAdded + " threads added)");
+    }
+    
+    @Test
+    public void testRejectsWhenFull() throws Exception {
+        int port = startServer(1);
+        
+        CountDownLatch accepted = new CountDownLatch(1);
+        createClient(accepted, null, null).connect("localhost", port);
+        assertTrue(accepted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        
+        Socket socket = new Socket("localhost", port);
+        sockets.add(socket);
+        MessageTransport transport = ProtocolNegotiator.connectBinary(socket);
+        assertNotNull(transport);
+        NetworkMessage reply = transport.receive();
+        assertTrue(reply instanceof ConnectionRejectedMessage, "Expected rejection but got " + reply.getType());
+    }
+    
+    @Test
+    public void testConnectionsStillNegotiatingCountAsClients() throws Exception {
+        int port = startServer(1);
+        
+        // Accepted first, but never sends the protocol handshake
+        Socket idle = new Socket("localhost", port);
+        sockets.add(idle);
+        
+        Socket socket = new Socket("localhost", port);
+        sockets.add(socket);
+        MessageTransport transport = ProtocolNegotiator.connectBinary(socket);
+        assertNotNull(transport);
+        NetworkMessage reply = transport.receive();
+        assertTrue(reply instanceof ConnectionRejectedMessage, "Expected rejection but got " + reply.getType());
+        assertEquals(0, server.getConnectedClientCount());
+        
+        // Closing the idle connection frees its slot
+        idle.close();
+        CountDownLatch accepted = new CountDownLatch(1);
+        long deadline = System.currentTimeMillis() + TIMEOUT_SECONDS * 1000L;
+        while (accepted.getCount() > 0 && System.currentTimeMillis() < deadline) {
+            GameClient client = createClient(accepted, null, null);
+            client.connect("localhost", port);
+            accepted.await(500, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(0, accepted.getCount(), "A client should be accepted once the slot is free");
+    }
+    
+    @Test
+    public void testSlowReaderTriggersOutboundOverflowPolicy() throws Exception {
+        try (FileWriter writer = new FileWriter(configFile, true)) {
+            writer.write("server.outbound-queue-size=16\n");
+            writer.write("server.outbound-overflow=drop-movement\n");
+        }
+        int port = startServer(10);
+        
+        // Connects and handshakes, then never reads
+        Socket socket = new Socket();
+        socket.setReceiveBufferSize(4096);
+        socket.connect(new java.net.InetSocketAddress("localhost", port));
+        sockets.add(socket);
+        assertNotNull(ProtocolNegotiator.connectBinary(socket), "Handshake should succeed");
+        waitForCondition(() -> server.getConnectedClientCount() == 1, TIMEOUT_SECONDS * 1000L);
+        ClientConnection connection = server.getAllClients().iterator().next();
+        
+        // Bursts smaller than the queue, each given time to drain, so only a writer that
+        // stops draining lets the queue fill; in total far more than the socket buffers hold
+        String padding = "x".repeat(1000);
+        int bursts = 40 * NioServerTransport.MAX_QUEUED_WRITE_BYTES / padding.length() / 8;
+        for (int burst = 0; burst < bursts && connection.getDroppedOutboundCount() == 0; burst++) {
+            for (int i = 0; i < 8; i++) {
+                connection.sendMessage(new PlayerMovementMessage("player-" + i + padding, burst, 0,
+                    Direction.RIGHT, true));
+            }
+            long deadline = System.currentTimeMillis() + 20;
+            while (connection.getOutboundQueueDepth() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+        }
+        
+        assertTrue(connection.getDroppedOutboundCount() > 0,
+            "The writer should stop draining so the outbound queue overflows and drops movement");
+        assertTrue(connection.getOutboundQueueDepth() <= 16, "The outbound queue should stay bounded");
+        assertTrue(connection.isRunning(), "Dropping movement updates should not disconnect the client");
+    }
+    
+    private int startServer(int maxClients) throws IOException {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        server = new GameServer(port, maxClients, 12345L, ServerConfig.load(configFile.getPath()));
+        server.start();
+        return port;
+    }
+    
+    private GameClient createClient(CountDownLatch accepted, CountDownLatch movementReceived,
+                                    AtomicReference<PlayerMovementMessage> movement) {
+        GameClient client = new GameClient();
+        client.setMessageHandler(message -> {
+            if (message instanceof ConnectionAcceptedMessage) {
+                client.setClientId(((ConnectionAcceptedMessage) message).getAssignedClientId());
+                accepted.countDown();
+            } else if (message instanceof PlayerMovementMessage && movementReceived != null) {
+                movement.set((PlayerMovementMessage) message);
+                movementReceived.countDown();
+            }
+        });
+        clients.add(client);
+        return client;
+    }
+    
+    private void waitForCondition(BooleanSupplier condition, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import wagemaker.uk.server.ServerConfig;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the per-client outbound message queue and its use by GameServer broadcasts.
+ */
+public class OutboundMessageQueueTest {
+    
+    private static final int TIMEOUT_SECONDS = 15;
+    
+    private File configFile;
+    private GameServer server;
+    private Socket stalledSocket;
+    private GameClient client;
+    
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (client != null) {
+            client.disconnect();
+        }
+        if (stalledSocket != null) {
+            stalledSocket.close();
+        }
+        if (server != null && server.isRunning()) {
+            server.stop();
+        }
+        if (configFile != null) {
+            configFile.delete();
+        }
+    }
+    
+    @Test
+    public void testWriterIsStartedOncePerBurst() {
+        OutboundMessageQueue queue = new OutboundMessageQueue(16, OutboundMessageQueue.OverflowPolicy.DROP_STALE_MOVEMENT);
+        
+        assertEquals(OutboundMessageQueue.OfferResult.START_WRITER, queue.offer(new PingMessage("a")));
+        assertEquals(OutboundMessageQueue.OfferResult.QUEUED, queue.offer(new PongMessage("b", 0L)));
+        
+        List<NetworkMessage> batch = new ArrayList<>();
+        assertEquals(2, queue.drainTo(batch, 10));
+        assertTrue(batch.get(0) instanceof PingMessage, "Messages should keep their order");
+        assertTrue(batch.get(1) instanceof PongMessage, "Messages should keep their order");
+        
+        // Writer is still active until it finds the queue empty
+        assertEquals(OutboundMessageQueue.OfferResult.QUEUED, queue.offer(new PingMessage("c")));
+        assertEquals(1, queue.drainTo(batch, 10));
+        assertEquals(0, queue.drainTo(batch, 10));
+        assertEquals(OutboundMessageQueue.OfferResult.START_WRITER, queue.offer(new PingMessage("d")));
+    }
+    
+    @Test
+    public void testNewerMovementReplacesQueuedMovementFromSamePlayer() {
+        OutboundMessageQueue queue = new OutboundMessageQueue(16, OutboundMessageQueue.OverflowPolicy.DROP_STALE_MOVEMENT);
+        
+        queue.offer(movement("p1", 10));
+        queue.offer(new PingMessage("server"));
+        queue.offer(movement("p2", 20));
+        queue.offer(movement("p1", 30));
+        
+        assertEquals(3, queue.size());
+        assertEquals(1, queue.getDroppedCount());
+        
+        List<NetworkMessage> batch = new ArrayList<>();
+        queue.drainTo(batch, 10);
+        assertEquals(3, batch.size());
+        assertTrue(batch.get(0) instanceof PingMessage);
+        assertEquals(20, ((PlayerMovementMessage) batch.get(1)).getX());
+        assertEquals(30, ((PlayerMovementMessage) batch.get(2)).getX());
+    }
+    
+    @Test
+    public void testOverflowDropsOldestMovementBeforeDisconnecting() {
+        OutboundMessageQueue queue = new OutboundMessageQueue(3, OutboundMessageQueue.OverflowPolicy.DROP_STALE_MOVEMENT);
+        
+        queue.offer(movement("p1", 1));
+        queue.offer(new PingMessage("server"));
+        queue.offer(new PingMessage("server"));
+        
+        assertNotEquals(OutboundMessageQueue.OfferResult.OVERFLOW, queue.offer(new PingMessage("server")),
+            "A queued movement update should make room");
+        assertEquals(3, queue.size());
+        assertEquals(1, queue.getDroppedCount());
+        
+        assertEquals(OutboundMessageQueue.OfferResult.OVERFLOW, queue.offer(new PingMessage("server")),
+            "A queue full of other messages should overflow");
+        assertEquals(3, queue.getHighWaterMark());
+    }
+    
+    @Test
+    public void testDisconnectPolicyNeverDropsMessages() {
+        OutboundMessageQueue queue = new OutboundMessageQueue(2, OutboundMessageQueue.OverflowPolicy.DISCONNECT);
+        
+        queue.offer(movement("p1", 1));
+        queue.offer(movement("p1", 2));
+        
+        assertEquals(2, queue.size(), "Movement updates should not be coalesced");
+        assertEquals(OutboundMessageQueue.OfferResult.OVERFLOW, queue.offer(movement("p1", 3)));
+        assertEquals(0, queue.getDroppedCount());
+    }
+    
+    @Test
+    public void testStalledClientDoesNotBlockBroadcast() throws Exception {
+        configFile = File.createTempFile("outbound-queue", ".properties");
+        try (FileWriter writer = new FileWriter(configFile)) {
+            writer.write("server.outbound-queue-size=256\n");
+        }
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        server = new GameServer(port, 10, 12345L, ServerConfig.load(configFile.getPath()));
+        server.start();
+        
+        // A client that completes the handshake and then never reads
+        stalledSocket = new Socket();
+        stalledSocket.setReceiveBufferSize(4096);
+        stalledSocket.connect(new InetSocketAddress("localhost", port));
+        assertNotNull(ProtocolNegotiator.connectBinary(stalledSocket));
+        
+        int broadcasts = 20000;
+        String padding = "x".repeat(200);
+        String lastSender = "p" + (broadcasts - 1) + padding;
+        CountDownLatch accepted = new CountDownLatch(1);
+        CountDownLatch lastReceived = new CountDownLatch(1);
+        client = new GameClient();
+        client.setMessageHandler(message -> {
+            if (message instanceof ConnectionAcceptedMessage) {
+                client.setClientId(((ConnectionAcceptedMessage) message).getAssignedClientId());
+                accepted.countDown();
+            } else if (message instanceof PlayerMovementMessage && lastSender.equals(message.getSenderId())) {
+                lastReceived.countDown();
+            }
+        });
+        client.connect("localhost", port);
+        assertTrue(accepted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "Client should be accepted");
+        
+        long deadline = System.currentTimeMillis() + TIMEOUT_SECONDS * 1000L;
+        while (server.getConnectedClientCount() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(2, server.getConnectedClientCount());
+        
+        long start = System.nanoTime();
+        for (int i = 0; i < broadcasts; i++) {
+            server.broadcastToAll(movement("p" + i + padding, i));
+        }
+        long broadcastMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("Broadcast %d messages with a stalled client in %d ms%n", broadcasts, broadcastMs);
+        
+        assertTrue(lastReceived.await(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+            "Healthy client should receive the newest broadcast");
+        
+        ClientConnection stalled = null;
+        for (ClientConnection connection : server.getAllClients()) {
+            if (!connection.getClientId().equals(client.getClientId())) {
+                stalled = connection;
+            }
+        }
+        assertNotNull(stalled, "Stalled client should still be connected");
+        assertTrue(stalled.getDroppedOutboundCount() > 0, "Stale movement should be dropped for the stalled client");
+        assertTrue(stalled.getOutboundQueueHighWaterMark() <= 256, "Queue depth should stay bounded");
+    }
+    
+    private static PlayerMovementMessage movement(String playerId, float x) {
+        return new PlayerMovementMessage(playerId, x, 0, Direction.DOWN, true);
+    }
+}
@@ -0,0 +1,129 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import wagemaker.uk.server.ServerConfig;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for server position corrections of sequenced movement updates.
+ */
+public class PositionCorrectionTest {
+    
+    private static final int TIMEOUT_SECONDS = 15;
+    
+    private GameServer server;
+    private GameClient client;
+    private final List<PositionCorrectionMessage> corrections = new CopyOnWriteArrayList<>();
+    
+    @AfterEach
+    public void tearDown() {
+        if (client != null) {
+            client.disconnect();
+        }
+        if (server != null && server.isRunning()) {
+            server.stop();
+        }
+    }
+    
+    @Test
+    public void testUpdatesInFlightDuringCorrectionAreNotCorrectedAgain() throws Exception {
+        int port = findFreePort();
+        server = new GameServer(port, 10, 12345L, new ServerConfig());
+        server.start();
+        
+        // Trees never grow within 200px of spawn, so these moves are not blocked
+        WorldState worldState = server.getWorldState();
+        for (float x = 0; x <= 30; x += 10) {
+            assertFalse(worldState.collidesWithStaticObject(x, 0, 64, 64));
+        }
+        
+        String clientId = connect(port);
+        
+        // Update 2 jumps too far and is corrected back to 0,0. Updates 3 and 4 were already
+        // sent from the rejected position; the client's replay of their steps arrives with 5.
+        client.sendMessage(new PlayerMovementMessage(clientId, 0, 0, Direction.RIGHT, true, 1, 0));
+        client.sendMessage(new PlayerMovementMessage(clientId, 200, 0, Direction.RIGHT, true, 2, 0));
+        client.sendMessage(new PlayerMovementMessage(clientId, 210, 0, Direction.RIGHT, true, 3, 0));
+        client.sendMessage(new PlayerMovementMessage(clientId, 220, 0, Direction.RIGHT, true, 4, 0));
+        client.sendMessage(new PlayerMovementMessage(clientId, 30, 0, Direction.RIGHT, true, 5, 2));
+        
+        awaitPlayerX(clientId, 30);
+        assertEquals(30, playerX(clientId), 0.01f, "The update sent after the correction should be accepted");
+        
+        // Give any further corrections time to arrive
+        Thread.sleep(500);
+        assertEquals(1, corrections.size(), "Only the rejected update should be corrected");
+        assertEquals(2, corrections.get(0).getAcknowledgedSequence());
+        assertEquals(0, corrections.get(0).getCorrectedX(), 0.01f);
+    }
+    
+    @Test
+    public void testStaleUpdatesDoNotExtendTheNextMove() throws Exception {
+        int port = findFreePort();
+        server = new GameServer(port, 10, 12345L, new ServerConfig());
+        server.start();
+        String clientId = connect(port);
+        
+        client.sendMessage(new PlayerMovementMessage(clientId, 0, 0, Direction.RIGHT, true, 1, 0));
+        client.sendMessage(new PlayerMovementMessage(clientId, 200, 0, Direction.RIGHT, true, 2, 0));
+        
+        // Stale updates that ignore the correction, then one far move claiming to cover them all
+        int staleUpdates = 60; // Stays under the server rate limit
+        for (int i = 0; i < staleUpdates; i++) {
+            client.sendMessage(new PlayerMovementMessage(clientId, 200, 0, Direction.RIGHT, true, 3 + i, 0));
+        }
+        client.sendMessage(new PlayerMovementMessage(clientId, 2000, 0, Direction.RIGHT, true, 3 + staleUpdates, 2));
+        
+        long deadline = System.currentTimeMillis() + TIMEOUT_SECONDS * 1000L;
+        while (corrections.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, corrections.size(), "The far move should be corrected");
+        assertEquals(3 + staleUpdates, corrections.get(1).getAcknowledgedSequence());
+        assertEquals(0, corrections.get(1).getCorrectedX(), 0.01f);
+        assertEquals(0, playerX(clientId), 0.01f, "The player should stay at the corrected position");
+    }
+    
+    private String connect(int port) throws Exception {
+        CountDownLatch accepted = new CountDownLatch(1);
+        client = new GameClient();
+        client.setMessageHandler(message -> {
+            if (message instanceof ConnectionAcceptedMessage) {
+                client.setClientId(((ConnectionAcceptedMessage) message).getAssignedClientId());
+                accepted.countDown();
+            } else if (message instanceof PositionCorrectionMessage) {
+                corrections.add((PositionCorrectionMessage) message);
+            }
+        });
+        client.connect("localhost", port);
+        assertTrue(accepted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "Client should be accepted");
+        return client.getClientId();
+    }
+    
+    private void awaitPlayerX(String clientId, float x) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_SECONDS * 1000L;
+        while (playerX(clientId) != x && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+    
+    private float playerX(String clientId) {
+        PlayerState player = server.getWorldState().getPlayers().get(clientId);
+        return player != null ? player.getX() : Float.NaN;
+    }
+    
+    private static int findFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
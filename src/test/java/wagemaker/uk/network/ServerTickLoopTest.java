@@ -0,0 +1,145 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import wagemaker.uk.server.ServerConfig;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the fixed-rate server tick loop.
+ */
+public class ServerTickLoopTest {
+    
+    private static final int TIMEOUT_SECONDS = 15;
+    
+    private GameServer server;
+    private ServerTickLoop tickLoop;
+    private final List<GameClient> clients = new ArrayList<>();
+    
+    @AfterEach
+    public void tearDown() {
+        for (GameClient client : clients) {
+            client.disconnect();
+        }
+        if (tickLoop != null) {
+            tickLoop.stop();
+        }
+        if (server != null && server.isRunning()) {
+            server.stop();
+        }
+    }
+    
+    @Test
+    public void testCommandsRunOnTickThreadInSubmissionOrder() throws Exception {
+        server = new GameServer(findFreePort(), 10, 12345L, new ServerConfig());
+        tickLoop = new ServerTickLoop(server, 50);
+        tickLoop.start();
+        
+        int producers = 4;
+        int commandsPerProducer = 500;
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        List<List<Integer>> executed = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(producers * commandsPerProducer);
+        List<Thread> threads = new ArrayList<>();
+        
+        for (int p = 0; p < producers; p++) {
+            List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+            executed.add(order);
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < commandsPerProducer; i++) {
+                    final int sequence = i;
+                    assertTrue(tickLoop.submit(() -> {
+                        threadNames.add(Thread.currentThread().getName());
+                        order.add(sequence);
+                        done.countDown();
+                    }));
+                }
+            });
+            threads.add(producer);
+            producer.start();
+        }
+        for (Thread producer : threads) {
+            producer.join();
+        }
+        
+        assertTrue(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "All commands should run");
+        assertEquals(Set.of("ServerTick"), threadNames, "Commands should only run on the tick thread");
+        for (List<Integer> order : executed) {
+            for (int i = 0; i < commandsPerProducer; i++) {
+                assertEquals(i, order.get(i), "Commands from one thread should keep their order");
+            }
+        }
+        // Stopping waits for the current tick to finish updating its counters
+        tickLoop.stop();
+        assertTrue(tickLoop.getTickCount() > 0);
+        assertEquals(producers * commandsPerProducer, tickLoop.getCommandsProcessed());
+    }
+    
+    @Test
+    public void testMovementIsRelayedOncePerTick() throws Exception {
+        int port = findFreePort();
+        server = new GameServer(port, 10, 12345L, new ServerConfig());
+        server.startTickLoop(4);
+        server.start();
+        
+        int updates = 10;
+        float finalX = 100.0f + (updates - 1) * 10.0f;
+        CountDownLatch accepted = new CountDownLatch(2);
+        CountDownLatch finalPositionReceived = new CountDownLatch(1);
+        AtomicInteger movementsReceived = new AtomicInteger();
+        
+        GameClient mover = createClient(accepted, null, null);
+        GameClient observer = createClient(accepted, movementsReceived, finalPositionReceived);
+        mover.connect("localhost", port);
+        observer.connect("localhost", port);
+        assertTrue(accepted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "Both clients should be accepted");
+        
+        for (int i = 0; i < updates; i++) {
+            // Sent directly: sendPlayerMovement throttles to one update per 50 ms
+            mover.sendMessage(new PlayerMovementMessage(mover.getClientId(), 100.0f + i * 10.0f, 200.0f, Direction.RIGHT, true));
+        }
+        
+        assertTrue(finalPositionReceived.await(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+            "Observer should receive the latest position");
+        assertTrue(movementsReceived.get() < updates,
+            "Movement should be aggregated per tick (" + movementsReceived.get() + " relayed for " + updates + " sent)");
+        assertEquals(finalX, server.getWorldState().getPlayers().get(mover.getClientId()).getX(), 0.01f);
+        assertTrue(server.getTickLoop().getCommandsProcessed() >= updates);
+    }
+    
+    private GameClient createClient(CountDownLatch accepted, AtomicInteger movementsReceived,
+                                    CountDownLatch finalPositionReceived) {
+        GameClient client = new GameClient();
+        clients.add(client);
+        client.setMessageHandler(message -> {
+            if (message instanceof ConnectionAcceptedMessage) {
+                client.setClientId(((ConnectionAcceptedMessage) message).getAssignedClientId());
+                accepted.countDown();
+            } else if (message instanceof PlayerMovementMessage && movementsReceived != null) {
+                movementsReceived.incrementAndGet();
+                if (((PlayerMovementMessage) message).getX() == 190.0f) {
+                    finalPositionReceived.countDown();
+                }
+            }
+        });
+        return client;
+    }
+    
+    private static int findFreePort() throws IOException {
+        try (ServerSocket probe = new ServerSocket(0)) {
+            return probe.getLocalPort();
+        }
+    }
+}
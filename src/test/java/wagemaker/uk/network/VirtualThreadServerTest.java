@@ -0,0 +1,118 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import wagemaker.uk.server.ServerConfig;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for running client connections on virtual threads
+ * (server.transport=virtual).
+ */
+public class VirtualThreadServerTest {
+    
+    private static final int SIMULATED_CLIENTS = 200;
+    private static final int TIMEOUT_SECONDS = 15;
+    
+    private File configFile;
+    private GameServer server;
+    private final List<Socket> sockets = new ArrayList<>();
+    
+    @BeforeEach
+    public void setUp() throws IOException {
+        configFile = File.createTempFile("virtual-server", ".properties");
+        configFile.deleteOnExit();
+        try (FileWriter writer = new FileWriter(configFile)) {
+            writer.write("server.transport=virtual\n");
+        }
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        for (Socket socket : sockets) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+        }
+        if (server != null && server.isRunning()) {
+            server.stop();
+        }
+        configFile.delete();
+    }
+    
+    @Test
+    public void testSimulatedClientsDoNotAddPlatformThreads() throws Exception {
+        ServerConfig config = ServerConfig.load(configFile.getPath());
+        assertTrue(config.isVirtualThreadTransport());
+        
+        int port = startServer(config, SIMULATED_CLIENTS + 10);
+        int platformThreadsBefore = Thread.activeCount();
+        
+        for (int i = 0; i < SIMULATED_CLIENTS; i++) {
+            Socket socket = new Socket("localhost", port);
+            sockets.add(socket);
+            assertNotNull(ProtocolNegotiator.connectBinary(socket), "Handshake should succeed");
+        }
+        
+        long deadline = System.currentTimeMillis() + TIMEOUT_SECONDS * 1000L;
+        while (server.getConnectedClientCount() < SIMULATED_CLIENTS && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(SIMULATED_CLIENTS, server.getConnectedClientCount());
+        
+        // Thread.activeCount() only counts platform threads
+        int platformThreadsAdded = Thread.activeCount() - platformThreadsBefore;
+        assertTrue(platformThreadsAdded < 20,
+            "Connections should run on virtual threads (" + platformThreadsAdded + " platform threads added)");
+    }
+    
+    @Test
+    public void testClientIsServedOnVirtualThread() throws Exception {
+        int port = startServer(ServerConfig.load(configFile.getPath()), 10);
+        
+        CountDownLatch accepted = new CountDownLatch(1);
+        CountDownLatch pong = new CountDownLatch(1);
+        GameClient client = new GameClient();
+        client.setMessageHandler(message -> {
+            if (message instanceof ConnectionAcceptedMessage) {
+                client.setClientId(((ConnectionAcceptedMessage) message).getAssignedClientId());
+                accepted.countDown();
+            } else if (message instanceof PongMessage) {
+                pong.countDown();
+            }
+        });
+        
+        try {
+            client.connect("localhost", port);
+            assertTrue(accepted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "Client should be accepted");
+            client.sendPing();
+            assertTrue(pong.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "Server should answer pings");
+        } finally {
+            client.disconnect();
+        }
+    }
+    
+    private int startServer(ServerConfig config, int maxClients) throws IOException {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        server = new GameServer(port, maxClients, 12345L, config);
+        server.start();
+        return port;
+    }
+}
@@ -0,0 +1,147 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Performance tests for server-side world generation.
+ * Validates that generation cost does not grow with the number of entities
+ * already in the world, now that proximity checks use the spatial index.
+ */
+public class WorldGenerationPerformanceTest {
+    
+    private static final long WORLD_SEED = 424242L;
+    private static final int[] ENTITY_COUNTS = {0, 10000, 50000};
+    private static final int GENERATION_GRID_CELLS = 48; // 48x48 tiles of 64px
+    private static final int TILE_SIZE = 64;
+    private static final float WORLD_SPREAD = 400000.0f;
+    private static final double MAX_SLOWDOWN_RATIO = 4.0;
+    private static final double TIMER_NOISE_MS = 50.0;
+    
+    /**
+     * Generates the same block of tiles in worlds pre-populated with increasing
+     * numbers of trees, stones and items, and checks the time stays flat.
+     */
+    @Test
+    public void generationTimeStaysFlatAsEntityCountGrows() {
+        // Warmup - JIT compilation of generation and index paths
+        WorldState warmup = createPopulatedWorld(1000);
+        generateBlock(warmup, -50000, -50000);
+        
+        double[] timesMs = new double[ENTITY_COUNTS.length];
+        
+        for (int i = 0; i < ENTITY_COUNTS.length; i++) {
+            WorldState worldState = createPopulatedWorld(ENTITY_COUNTS[i]);
+            
+            long startTime = System.nanoTime();
+            generateBlock(worldState, 20000, 20000);
+            long endTime = System.nanoTime();
+            
+            timesMs[i] = (endTime - startTime) / 1_000_000.0;
+        }
+        
+        System.out.printf("World generation performance (%dx%d tiles):%n",
+            GENERATION_GRID_CELLS, GENERATION_GRID_CELLS);
+        for (int i = 0; i < ENTITY_COUNTS.length; i++) {
+            System.out.printf("  %6d existing entities: %.2f ms%n", ENTITY_COUNTS[i], timesMs[i]);
+        }
+        
+        double baseline = timesMs[0];
+        for (int i = 1; i < ENTITY_COUNTS.length; i++) {
+            assertTrue(
+                timesMs[i] <= baseline * MAX_SLOWDOWN_RATIO + TIMER_NOISE_MS,
+                String.format("Generation with %d entities took %.2f ms, baseline %.2f ms",
+                    ENTITY_COUNTS[i], timesMs[i], baseline)
+            );
+        }
+    }
+    
+    /**
+     * Verifies that spatial queries see entities added through the public mutators
+     * and no longer see them after removal.
+     */
+    @Test
+    public void spatialQueriesFollowMutators() {
+        WorldState worldState = createPopulatedWorld(5000);
+        
+        TreeState tree = new TreeState("99968,99968", TreeType.SMALL, 99968, 99968, 100.0f, true);
+        worldState.addOrUpdateTree(tree);
+        StoneState stone = new StoneState("99904,99904", 99904, 99904, 50.0f);
+        worldState.addOrUpdateStone(stone);
+        ItemState item = new ItemState("item-1", ItemType.PEBBLE, 99990, 99990, false);
+        worldState.addOrUpdateItem(item);
+        
+        assertTrue(worldState.getTreesNear(100000, 100000, 100).contains(tree));
+        assertTrue(worldState.getStonesNear(100000, 100000, 200).contains(stone));
+        assertTrue(worldState.getItemsNear(100000, 100000, 50).contains(item));
+        
+        worldState.removeTree(tree.getTreeId());
+        worldState.removeStone(stone.getStoneId());
+        worldState.removeItem(item.getItemId());
+        
+        assertFalse(worldState.getTreesNear(100000, 100000, 100).contains(tree));
+        assertFalse(worldState.getStonesNear(100000, 100000, 200).contains(stone));
+        assertFalse(worldState.getItemsNear(100000, 100000, 50).contains(item));
+    }
+    
+    /**
+     * Verifies that a tree removed directly from the map is ignored by queries
+     * and that replacing the map rebuilds the index.
+     */
+    @Test
+    public void spatialQueriesIgnoreDirectMapChanges() {
+        WorldState worldState = new WorldState(WORLD_SEED);
+        TreeState tree = new TreeState("64000,64000", TreeType.COCONUT, 64000, 64000, 100.0f, true);
+        worldState.addOrUpdateTree(tree);
+        
+        worldState.getTrees().remove(tree.getTreeId());
+        assertTrue(worldState.getTreesNear(64000, 64000, 10).isEmpty(),
+            "Tree removed from the map should not be returned");
+        
+        Map<String, TreeState> replacement = new ConcurrentHashMap<>();
+        replacement.put(tree.getTreeId(), tree);
+        worldState.setTrees(replacement);
+        List<TreeState> found = worldState.getTreesNear(64000, 64000, 10);
+        assertEquals(1, found.size(), "Index should be rebuilt from the replacement map");
+    }
+    
+    private WorldState createPopulatedWorld(int entityCount) {
+        WorldState worldState = new WorldState(WORLD_SEED);
+        Random random = new Random(entityCount);
+        
+        for (int i = 0; i < entityCount; i++) {
+            float x = (random.nextFloat() - 0.5f) * WORLD_SPREAD;
+            float y = (random.nextFloat() - 0.5f) * WORLD_SPREAD;
+            switch (i % 3) {
+                case 0:
+                    worldState.addOrUpdateTree(new TreeState("t" + i, TreeType.SMALL, x, y, 100.0f, true));
+                    break;
+                case 1:
+                    worldState.addOrUpdateStone(new StoneState("s" + i, x, y, 50.0f));
+                    break;
+                default:
+                    worldState.addOrUpdateItem(new ItemState("i" + i, ItemType.PEBBLE, x, y, false));
+                    break;
+            }
+        }
+        
+        return worldState;
+    }
+    
+    private void generateBlock(WorldState worldState, int originX, int originY) {
+        for (int gx = 0; gx < GENERATION_GRID_CELLS; gx++) {
+            for (int gy = 0; gy < GENERATION_GRID_CELLS; gy++) {
+                int x = originX + gx * TILE_SIZE;
+                int y = originY + gy * TILE_SIZE;
+                worldState.generateTreeAt(x, y);
+                worldState.generateStoneAt(x, y, originX, originY);
+            }
+        }
+    }
+}
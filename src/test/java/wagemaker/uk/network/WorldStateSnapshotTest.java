@@ -0,0 +1,82 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for WorldState snapshots sent to joining clients.
+ * Snapshots must contain exactly the authoritative entities and must not
+ * regenerate the spawn area.
+ */
+public class WorldStateSnapshotTest {
+    
+    private static final long WORLD_SEED = 13579L;
+    
+    @Test
+    public void testSnapshotContainsExactlyTheSourceTrees() {
+        WorldState worldState = new WorldState(WORLD_SEED);
+        
+        // Remove every tree so any tree in the snapshot must come from regeneration
+        for (String treeId : worldState.getTrees().keySet().toArray(new String[0])) {
+            worldState.removeTree(treeId);
+        }
+        worldState.addOrUpdateTree(new TreeState("640,640", TreeType.APPLE, 650, 630, 75.0f, true));
+        
+        WorldState snapshot = worldState.createSnapshot();
+        
+        assertEquals(1, snapshot.getTrees().size(), "Snapshot should not contain regenerated trees");
+        TreeState copy = snapshot.getTrees().get("640,640");
+        assertNotNull(copy);
+        assertNotSame(worldState.getTrees().get("640,640"), copy, "Snapshot should hold its own copy");
+        assertEquals(75.0f, copy.getHealth(), 0.001f);
+        assertEquals(WORLD_SEED, snapshot.getWorldSeed());
+    }
+    
+    @Test
+    public void testSnapshotIsIndependentOfSource() {
+        WorldState worldState = new WorldState(WORLD_SEED, false);
+        worldState.addOrUpdateStone(new StoneState("1280,1280", 1290, 1270, 50.0f));
+        
+        WorldState snapshot = worldState.createSnapshot();
+        worldState.getStones().get("1280,1280").setHealth(10.0f);
+        worldState.removeStone("1280,1280");
+        
+        assertEquals(50.0f, snapshot.getStones().get("1280,1280").getHealth(), 0.001f,
+            "Later changes to the source should not affect the snapshot");
+        assertEquals(1, snapshot.getStonesNear(1290, 1270, 10).size());
+    }
+    
+    @Test
+    public void testWorldStateWithoutInitialTrees() {
+        WorldState worldState = new WorldState(WORLD_SEED, false);
+        
+        assertTrue(worldState.getTrees().isEmpty(), "No trees should be generated");
+        assertEquals(WORLD_SEED, worldState.getWorldSeed());
+        assertFalse(worldState.getRainZones().isEmpty(), "Default rain zones should still be created");
+    }
+    
+    @Test
+    public void testSnapshotDoesNotDependOnGeneration() {
+        WorldState worldState = new WorldState(WORLD_SEED);
+        
+        // Warmup
+        for (int i = 0; i < 20; i++) {
+            worldState.createSnapshot();
+        }
+        
+        long snapshotStart = System.nanoTime();
+        worldState.createSnapshot();
+        double snapshotMs = (System.nanoTime() - snapshotStart) / 1_000_000.0;
+        
+        long generationStart = System.nanoTime();
+        new WorldState(WORLD_SEED);
+        double generationMs = (System.nanoTime() - generationStart) / 1_000_000.0;
+        
+        System.out.printf("Snapshot of %d trees: %.2f ms (full generation: %.2f ms)%n",
+            worldState.getTrees().size(), snapshotMs, generationMs);
+        
+        assertTrue(snapshotMs < generationMs,
+            String.format("Snapshot (%.2f ms) should be cheaper than generation (%.2f ms)", snapshotMs, generationMs));
+    }
+}
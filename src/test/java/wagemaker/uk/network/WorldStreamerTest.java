@@ -0,0 +1,154 @@
+package wagemaker.uk.network;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import wagemaker.uk.server.ServerConfig;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the chunked initial world download.
+ */
+public class WorldStreamerTest {
+    
+    private static final int TIMEOUT_SECONDS = 15;
+    
+    private GameServer server;
+    private GameClient client;
+    
+    @AfterEach
+    public void tearDown() {
+        if (client != null) {
+            client.disconnect();
+        }
+        if (server != null && server.isRunning()) {
+            server.stop();
+        }
+    }
+    
+    @Test
+    public void testChunksAreOrderedNearestFirst() throws Exception {
+        server = new GameServer(findFreePort(), 10, 12345L, new ServerConfig());
+        WorldStreamer streamer = new WorldStreamer(null, server, 0, 0);
+        
+        List<int[]> order = streamer.getChunkOrder();
+        assertTrue(order.size() > 1, "The spawn area should span several chunks");
+        long previous = -1;
+        for (int[] chunk : order) {
+            // Chunk (0,0) contains the origin, so distance is measured in chunks from it
+            long distance = (long) chunk[0] * chunk[0] + (long) chunk[1] * chunk[1];
+            assertTrue(distance >= previous, "Chunks should be sent nearest-first");
+            previous = distance;
+        }
+    }
+    
+    @Test
+    public void testJoiningClientReceivesWholeWorldInChunks() throws Exception {
+        int port = findFreePort();
+        server = new GameServer(port, 10, 12345L, new ServerConfig());
+        WorldState world = server.getWorldState();
+        world.addOrUpdateItem(new ItemState("item-far", ItemType.APPLE, 9000, -9000, false));
+        world.removeTree(world.getTrees().keySet().iterator().next());
+        server.start();
+        
+        CountDownLatch lastChunk = new CountDownLatch(1);
+        AtomicReference<WorldStateMessage> header = new AtomicReference<>();
+        List<WorldChunkMessage> chunks = new ArrayList<>();
+        client = new GameClient();
+        client.setMessageHandler(message -> {
+            if (message instanceof WorldStateMessage) {
+                header.set((WorldStateMessage) message);
+            } else if (message instanceof WorldChunkMessage) {
+                WorldChunkMessage chunk = (WorldChunkMessage) message;
+                synchronized (chunks) {
+                    chunks.add(chunk);
+                }
+                if (chunk.isLastChunk()) {
+                    lastChunk.countDown();
+                }
+            }
+        });
+        client.connect("localhost", port);
+        assertTrue(lastChunk.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "The whole world should be downloaded");
+        
+        assertNotNull(header.get(), "The world state header should arrive before the chunks");
+        assertTrue(header.get().getTrees().isEmpty(), "Trees should not be sent in the header");
+        assertEquals(header.get().getStreamedChunkCount(), chunks.size());
+        
+        Set<String> trees = new HashSet<>();
+        Set<String> items = new HashSet<>();
+        Set<String> cleared = new HashSet<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            WorldChunkMessage chunk = chunks.get(i);
+            assertEquals(i, chunk.getChunkIndex(), "Chunks should arrive in order");
+            trees.addAll(chunk.getTrees().keySet());
+            items.addAll(chunk.getItems().keySet());
+            cleared.addAll(chunk.getClearedPositions());
+        }
+        assertEquals(world.getTrees().keySet(), trees);
+        assertEquals(world.getItems().keySet(), items);
+        assertEquals(world.getClearedPositions(), cleared);
+        
+        WorldChunkMessage farthest = chunks.get(chunks.size() - 1);
+        assertTrue(farthest.getItems().containsKey("item-far"), "The farthest chunk should be sent last");
+    }
+    
+    @Test
+    public void testLegacyClientReceivesWholeWorldInOneMessage() throws Exception {
+        int port = findFreePort();
+        server = new GameServer(port, 10, 12345L, new ServerConfig());
+        WorldState world = server.getWorldState();
+        world.removeTree(world.getTrees().keySet().iterator().next());
+        server.start();
+        
+        // A client that predates the binary protocol opens Java serialization streams directly
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setSoTimeout(500);
+            ObjectStreamTransport legacy = new ObjectStreamTransport(socket.getInputStream(), socket.getOutputStream());
+            WorldStateMessage state = null;
+            List<NetworkMessage> received = new ArrayList<>();
+            long deadline = System.currentTimeMillis() + TIMEOUT_SECONDS * 1000L;
+            while (System.currentTimeMillis() < deadline) {
+                NetworkMessage message;
+                try {
+                    message = legacy.receive();
+                } catch (SocketTimeoutException e) {
+                    if (state != null) {
+                        break; // Nothing more follows the world state
+                    }
+                    continue;
+                }
+                received.add(message);
+                if (message instanceof WorldStateMessage) {
+                    state = (WorldStateMessage) message;
+                }
+            }
+            
+            assertNotNull(state, "The legacy client should receive the world state");
+            assertEquals(0, state.getStreamedChunkCount());
+            assertEquals(world.getTrees().keySet(), state.getTrees().keySet());
+            assertEquals(world.getClearedPositions(), state.getClearedPositions());
+            for (NetworkMessage message : received) {
+                assertFalse(message instanceof WorldChunkMessage, "Legacy clients cannot read world chunks");
+            }
+        }
+    }
+    
+    private static int findFreePort() throws IOException {
+        try (ServerSocket probe = new ServerSocket(0)) {
+            return probe.getLocalPort();
+        }
+    }
+}
@@ -9,11 +9,11 @@ import wagemaker.uk.biome.BiomeType;
 import wagemaker.uk.inventory.InventoryManager;
 import wagemaker.uk.player.Player;
 import wagemaker.uk.trees.BambooTree;
+import wagemaker.uk.world.LongObjectHashMap;
+import wagemaker.uk.world.TileKey;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.Gdx;
 
-import java.util.HashMap;
-import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assumptions.*;
@@ -28,8 +28,8 @@ public class TargetedPlantingSinglePlayerTest {
     private PlantingSystem plantingSystem;
     private InventoryManager inventoryManager;
     private BiomeManager biomeManager;
-    private Map<String, PlantedBamboo> plantedBamboos;
-    private Map<String, BambooTree> bambooTrees;
+    private LongObjectHashMap<PlantedBamboo> plantedBamboos;
+    private LongObjectHashMap<BambooTree> bambooTrees;
     private Player player;
     
     @BeforeAll
@@ -57,8 +57,8 @@ public class TargetedPlantingSinglePlayerTest {
             }
         };
         
-        plantedBamboos = new HashMap<>();
-        bambooTrees = new HashMap<>();
+        plantedBamboos = new LongObjectHashMap<>();
+        bambooTrees = new LongObjectHashMap<>();
         
         // Add baby bamboo to inventory for testing
         inventoryManager.getCurrentInventory().addBambooSapling(5);
@@ -112,7 +112,7 @@ public class TargetedPlantingSinglePlayerTest {
             float tileX = (float) (Math.floor(targetX / 64.0) * 64.0);
             float tileY = (float) (Math.floor(targetY / 64.0) * 64.0);
             String key = "planted-bamboo-" + (int)tileX + "-" + (int)tileY;
-            plantedBamboos.put(key, plantedBamboo);
+            plantedBamboos.put(TileKey.keyOf(key), plantedBamboo);
         }
         
         // Assert: Planted bamboo should be in game world
@@ -120,10 +120,10 @@ public class TargetedPlantingSinglePlayerTest {
         assertEquals(1, plantedBamboos.size(), "Game world should have 1 planted bamboo");
         
         String expectedKey = "planted-bamboo-128-192";
-        assertTrue(plantedBamboos.containsKey(expectedKey), 
+        assertTrue(plantedBamboos.containsKey(TileKey.findKey(expectedKey)), 
             "Game world should contain planted bamboo at expected key");
         
-        PlantedBamboo worldBamboo = plantedBamboos.get(expectedKey);
+        PlantedBamboo worldBamboo = plantedBamboos.get(TileKey.findKey(expectedKey));
         assertEquals(128.0f, worldBamboo.getX(), 0.01f, "World bamboo X should match");
         assertEquals(192.0f, worldBamboo.getY(), 0.01f, "World bamboo Y should match");
     }
@@ -193,7 +193,7 @@ public class TargetedPlantingSinglePlayerTest {
         
         // Add to game world
         String key = "planted-bamboo-64-64";
-        plantedBamboos.put(key, firstPlant);
+        plantedBamboos.put(TileKey.keyOf(key), firstPlant);
         
         // Act: Attempt to plant at same location
         PlantedBamboo secondPlant = plantingSystem.attemptPlant(
@@ -239,7 +239,7 @@ public class TargetedPlantingSinglePlayerTest {
             float tileX = (float) (Math.floor(target[0] / 64.0) * 64.0);
             float tileY = (float) (Math.floor(target[1] / 64.0) * 64.0);
             String key = "planted-bamboo-" + (int)tileX + "-" + (int)tileY;
-            plantedBamboos.put(key, planted);
+            plantedBamboos.put(TileKey.keyOf(key), planted);
         }
         
         // Assert: All plantings should be in game world
@@ -379,7 +379,7 @@ public class TargetedPlantingSinglePlayerTest {
         
         BambooTree bambooTree = new BambooTree(targetX, targetY);
         String key = "planted-bamboo-64-64";
-        bambooTrees.put(key, bambooTree);
+        bambooTrees.put(TileKey.keyOf(key), bambooTree);
         
         int initialCount = inventoryManager.getCurrentInventory().getBambooSaplingCount();
         
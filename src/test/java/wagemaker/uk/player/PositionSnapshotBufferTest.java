@@ -0,0 +1,147 @@
+package wagemaker.uk.player;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the timestamped remote player snapshot buffer.
+ */
+public class PositionSnapshotBufferTest {
+    
+    private static final long SERVER_START = 1_000_000L;
+    private static final long CLOCK_SKEW = 5_000L; // Local clock runs this far behind the server
+    
+    private final float[] out = new float[2];
+    
+    @Test
+    public void testEmptyBufferHasNoPosition() {
+        PositionSnapshotBuffer buffer = new PositionSnapshotBuffer();
+        assertFalse(buffer.sample(0, out));
+    }
+    
+    @Test
+    public void testInterpolatesBehindTheNewestSample() {
+        PositionSnapshotBuffer buffer = new PositionSnapshotBuffer(8, 100, 100);
+        // Samples every 50ms, moving 10px each, received without delay
+        for (int i = 0; i <= 4; i++) {
+            long serverTime = SERVER_START + i * 50;
+            buffer.add(serverTime, i * 10, 0, serverTime - CLOCK_SKEW);
+        }
+        
+        // At the newest sample's arrival, render 100ms back: the third sample
+        assertTrue(buffer.sample(SERVER_START + 200 - CLOCK_SKEW, out));
+        assertEquals(20, out[0], 0.001f);
+        
+        // Halfway between the third and fourth samples
+        buffer.sample(SERVER_START + 225 - CLOCK_SKEW, out);
+        assertEquals(25, out[0], 0.001f);
+        assertEquals(0, out[1], 0.001f);
+    }
+    
+    @Test
+    public void testJitterDoesNotMoveTheTimeline() {
+        PositionSnapshotBuffer buffer = new PositionSnapshotBuffer(8, 100, 100);
+        buffer.add(SERVER_START, 0, 0, SERVER_START - CLOCK_SKEW + 10);
+        buffer.add(SERVER_START + 50, 10, 0, SERVER_START + 50 - CLOCK_SKEW); // Least delayed
+        buffer.add(SERVER_START + 100, 20, 0, SERVER_START + 100 - CLOCK_SKEW + 40); // Late packet
+        
+        // Positions follow the server timeline, not arrival times
+        buffer.sample(SERVER_START + 175 - CLOCK_SKEW, out);
+        assertEquals(15, out[0], 0.001f);
+    }
+    
+    @Test
+    public void testClockEstimateFollowsLastingDelayChanges() {
+        PositionSnapshotBuffer buffer = new PositionSnapshotBuffer(4, 100, 100);
+        // Four samples without delay, then four that all arrive 100ms late
+        for (int i = 0; i < 8; i++) {
+            long serverTime = SERVER_START + i * 50;
+            long delay = i < 4 ? 0 : 100;
+            buffer.add(serverTime, i * 10, 0, serverTime - CLOCK_SKEW + delay);
+        }
+        
+        // Once the undelayed samples are overwritten, rendering runs 100ms behind the newest again
+        buffer.sample(SERVER_START + 7 * 50 - CLOCK_SKEW + 100, out);
+        assertEquals(50, out[0], 0.001f);
+    }
+    
+    @Test
+    public void testOutOfOrderSamplesAreIgnored() {
+        PositionSnapshotBuffer buffer = new PositionSnapshotBuffer(8, 100, 100);
+        assertTrue(buffer.add(SERVER_START + 50, 10, 0, SERVER_START + 50));
+        assertFalse(buffer.add(SERVER_START, 0, 0, SERVER_START + 60));
+        assertFalse(buffer.add(SERVER_START + 50, 5, 0, SERVER_START + 60));
+        assertEquals(1, buffer.size());
+    }
+    
+    @Test
+    public void testExtrapolationIsBounded() {
+        PositionSnapshotBuffer buffer = new PositionSnapshotBuffer(8, 100, 100);
+        buffer.add(SERVER_START, 0, 0, SERVER_START);
+        buffer.add(SERVER_START + 50, 10, 0, SERVER_START + 50);
+        
+        // 50ms past the newest sample at 10px per 50ms
+        buffer.sample(SERVER_START + 200, out);
+        assertEquals(20, out[0], 0.001f);
+        
+        // Lost packets: stop after 100ms of extrapolation
+        buffer.sample(SERVER_START + 1_000, out);
+        assertEquals(30, out[0], 0.001f);
+    }
+    
+    @Test
+    public void testDistantSampleStartsOver() {
+        PositionSnapshotBuffer buffer = new PositionSnapshotBuffer(8, 100, 100);
+        buffer.add(SERVER_START, 0, 0, SERVER_START);
+        buffer.add(SERVER_START + 50, 10, 0, SERVER_START + 50);
+        buffer.add(SERVER_START + 100, 900, 900, SERVER_START + 100); // Respawn
+        
+        assertEquals(1, buffer.size());
+        buffer.sample(SERVER_START + 100, out);
+        assertEquals(900, out[0], 0.001f);
+        assertEquals(900, out[1], 0.001f);
+    }
+    
+    @Test
+    public void testMovingAgainAfterStandingStill() {
+        PositionSnapshotBuffer buffer = new PositionSnapshotBuffer(8, 100, 100);
+        buffer.add(SERVER_START, 0, 0, SERVER_START);
+        buffer.add(SERVER_START + 5_000, 10, 0, SERVER_START + 5_000);
+        
+        // Still at rest one delay before the new sample, then moving towards it
+        buffer.sample(SERVER_START + 5_000, out);
+        assertEquals(0, out[0], 0.001f);
+        buffer.sample(SERVER_START + 5_050, out);
+        assertEquals(5, out[0], 0.001f);
+    }
+    
+    @Test
+    public void testOldestSamplesAreOverwritten() {
+        PositionSnapshotBuffer buffer = new PositionSnapshotBuffer(4, 100, 100);
+        for (int i = 0; i < 10; i++) {
+            buffer.add(SERVER_START + i * 50, i * 10, 0, SERVER_START + i * 50);
+        }
+        assertEquals(4, buffer.size());
+        
+        // Before the oldest kept sample (the seventh), hold at it
+        buffer.sample(SERVER_START, out);
+        assertEquals(60, out[0], 0.001f);
+        buffer.sample(SERVER_START + 9 * 50 + 100, out);
+        assertEquals(90, out[0], 0.001f);
+    }
+    
+    @Test
+    public void testClearDropsSamples() {
+        PositionSnapshotBuffer buffer = new PositionSnapshotBuffer();
+        buffer.add(SERVER_START, 0, 0, SERVER_START);
+        buffer.clear();
+        assertEquals(0, buffer.size());
+        assertFalse(buffer.sample(SERVER_START, out));
+        
+        // The clock is learned again from the next sample
+        buffer.add(10, 5, 5, SERVER_START);
+        assertTrue(buffer.sample(SERVER_START + PositionSnapshotBuffer.DEFAULT_INTERPOLATION_DELAY_MS, out));
+        assertEquals(5, out[0], 0.001f);
+    }
+}
@@ -0,0 +1,100 @@
+package wagemaker.uk.player;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the local player's predicted movement history.
+ */
+public class PredictedMovementHistoryTest {
+    
+    private final float[] out = new float[2];
+    
+    @Test
+    public void testSequencesAdvanceOnlyWhenSent() {
+        PredictedMovementHistory history = new PredictedMovementHistory();
+        assertEquals(1, history.getPendingSequence());
+        history.record(1, 0);
+        history.record(1, 0);
+        assertEquals(1, history.getPendingSequence(), "Throttled frames share the pending sequence");
+        history.commitSequence();
+        assertEquals(2, history.getPendingSequence());
+    }
+    
+    @Test
+    public void testReplaysUnacknowledgedSteps() {
+        PredictedMovementHistory history = new PredictedMovementHistory();
+        // Three updates of 10px each to the right
+        for (int update = 0; update < 3; update++) {
+            history.record(5, 0);
+            history.record(5, 0);
+            history.commitSequence();
+        }
+        // Pending, not yet sent
+        history.record(0, 3);
+        
+        // The server rejected update 1 and kept the player at 100,100
+        int replayed = history.reconcile(1, 100, 100, null, out);
+        
+        assertEquals(5, replayed, "Updates 2 and 3 and the pending step should be replayed");
+        assertEquals(120, out[0], 0.001f);
+        assertEquals(103, out[1], 0.001f);
+        assertEquals(5, history.size());
+        assertEquals(1, history.getCorrectionSequence(), "Later updates should report the applied correction");
+    }
+    
+    @Test
+    public void testAcknowledgedStepsAreDropped() {
+        PredictedMovementHistory history = new PredictedMovementHistory();
+        history.record(5, 5);
+        history.commitSequence();
+        history.record(5, 5);
+        history.commitSequence();
+        
+        assertEquals(0, history.reconcile(2, 50, 60, null, out));
+        assertEquals(50, out[0], 0.001f);
+        assertEquals(60, out[1], 0.001f);
+        assertEquals(0, history.size());
+    }
+    
+    @Test
+    public void testReplayRespectsCollisions() {
+        PredictedMovementHistory history = new PredictedMovementHistory();
+        history.commitSequence(); // Update 1 acknowledged below
+        history.record(10, 10);
+        history.record(10, 10);
+        
+        // A wall at x >= 15 blocks horizontal steps but not vertical ones
+        history.reconcile(1, 0, 0, (x, y) -> x >= 15, out);
+        
+        assertEquals(10, out[0], 0.001f);
+        assertEquals(20, out[1], 0.001f);
+    }
+    
+    @Test
+    public void testOldestStepsAreOverwritten() {
+        PredictedMovementHistory history = new PredictedMovementHistory(4);
+        for (int i = 0; i < 10; i++) {
+            history.record(1, 0);
+        }
+        assertEquals(4, history.size());
+        
+        history.reconcile(0, 0, 0, null, out);
+        assertEquals(4, out[0], 0.001f);
+    }
+    
+    @Test
+    public void testIdleFramesAndClearRecordNothing() {
+        PredictedMovementHistory history = new PredictedMovementHistory();
+        history.record(0, 0);
+        assertEquals(0, history.size());
+        
+        history.record(3, 4);
+        history.clear();
+        assertEquals(0, history.size());
+        history.reconcile(0, 7, 8, null, out);
+        assertEquals(7, out[0], 0.001f);
+        assertEquals(8, out[1], 0.001f);
+    }
+}
@@ -0,0 +1,108 @@
+package wagemaker.uk.weather;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Per-frame update cost of the former RainParticle object pool, with its linear
+ * searches for free and active particles, against the structure-of-arrays store,
+ * at a heavy rain particle count.
+ */
+public class RainParticlePerformanceTest {
+    
+    private static final int PARTICLES = RainConfig.MAX_PARTICLES;
+    private static final float SCREEN_TOP = 600;
+    private static final float SCREEN_BOTTOM = -600;
+    private static final float DELTA_TIME = 1 / 60f;
+    private static final int WARMUP_FRAMES = 500;
+    private static final int TEST_FRAMES = 3000;
+    
+    @Test
+    public void storeOutperformsObjectPool() {
+        List<RainParticle> pool = new ArrayList<>();
+        for (int i = 0; i < PARTICLES; i++) {
+            pool.add(new RainParticle());
+        }
+        RainParticleStore store = new RainParticleStore(PARTICLES);
+        
+        // Warmup - JIT compilation of both paths
+        runPoolFrames(pool, new Random(7), WARMUP_FRAMES);
+        runStoreFrames(store, new Random(7), WARMUP_FRAMES);
+        
+        long poolStart = System.nanoTime();
+        long poolSpawned = runPoolFrames(pool, new Random(42), TEST_FRAMES);
+        long poolNanos = System.nanoTime() - poolStart;
+        
+        long storeStart = System.nanoTime();
+        long storeSpawned = runStoreFrames(store, new Random(42), TEST_FRAMES);
+        long storeNanos = System.nanoTime() - storeStart;
+        
+        double poolPerFrameUs = poolNanos / 1_000.0 / TEST_FRAMES;
+        double storePerFrameUs = storeNanos / 1_000.0 / TEST_FRAMES;
+        
+        System.out.printf("Rain particle update (%d particles):%n", PARTICLES);
+        System.out.printf("  Object pool: %.2f us per frame%n", poolPerFrameUs);
+        System.out.printf("  Structure-of-arrays store: %.2f us per frame%n", storePerFrameUs);
+        
+        assertEquals(poolSpawned, storeSpawned, "Both paths should recycle and respawn the same particles");
+        assertTrue(storeNanos < poolNanos,
+            String.format("Store (%.2f us/frame) should beat the object pool (%.2f us/frame)",
+                storePerFrameUs, poolPerFrameUs));
+    }
+    
+    /**
+     * The former RainRenderer update: move and recycle, count active, then search for free particles to spawn.
+     */
+    private long runPoolFrames(List<RainParticle> pool, Random random, int frames) {
+        long spawned = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            for (RainParticle particle : pool) {
+                if (particle.isActive()) {
+                    particle.update(DELTA_TIME);
+                    if (particle.isOffScreen(SCREEN_BOTTOM)) {
+                        particle.setActive(false);
+                    }
+                }
+            }
+            
+            int activeCount = 0;
+            for (RainParticle particle : pool) {
+                if (particle.isActive()) {
+                    activeCount++;
+                }
+            }
+            
+            while (activeCount < PARTICLES) {
+                RainParticle free = null;
+                for (RainParticle particle : pool) {
+                    if (!particle.isActive()) {
+                        free = particle;
+                        break;
+                    }
+                }
+                free.reset(random.nextFloat() * 1280, SCREEN_TOP + random.nextFloat() * 1200, 500, 12);
+                free.setAlpha(0.5f);
+                activeCount++;
+                spawned++;
+            }
+        }
+        return spawned;
+    }
+    
+    private long runStoreFrames(RainParticleStore store, Random random, int frames) {
+        long spawned = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            store.update(DELTA_TIME, SCREEN_BOTTOM);
+            while (store.getActiveCount() < PARTICLES) {
+                store.spawn(random.nextFloat() * 1280, SCREEN_TOP + random.nextFloat() * 1200, 500, 12, 0.5f, 0f);
+                spawned++;
+            }
+        }
+        return spawned;
+    }
+}
@@ -0,0 +1,83 @@
+package wagemaker.uk.weather;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the structure-of-arrays rain particle store.
+ */
+public class RainParticleStoreTest {
+    
+    @Test
+    public void testSpawnFillsUpToCapacity() {
+        RainParticleStore store = new RainParticleStore(3);
+        assertTrue(store.spawn(0, 100, 500, 10, 0.5f, 0f));
+        assertTrue(store.spawn(10, 100, 500, 10, 0.5f, 0f));
+        assertTrue(store.spawn(20, 100, 500, 10, 0.5f, 0f));
+        assertFalse(store.spawn(30, 100, 500, 10, 0.5f, 0f), "A full store should refuse new particles");
+        assertEquals(3, store.getActiveCount());
+        assertEquals(3, store.getCapacity());
+    }
+    
+    @Test
+    public void testUpdateMovesAndRecyclesParticles() {
+        RainParticleStore store = new RainParticleStore(10);
+        store.spawn(1, 100, 100, 10, 0.3f, 0f); // Falls to 50
+        store.spawn(2, 100, 300, 12, 0.4f, 0f); // Falls to -50, recycled
+        store.spawn(3, 100, 50, 14, 0.5f, 0f);  // Falls to 75
+        
+        store.update(0.5f, 0);
+        
+        assertEquals(2, store.getActiveCount());
+        // The last particle fills the recycled slot with its properties intact
+        assertEquals(1, store.getX(0));
+        assertEquals(50, store.getY(0), 0.001f);
+        assertEquals(3, store.getX(1));
+        assertEquals(75, store.getY(1), 0.001f);
+        assertEquals(14, store.getLength(1));
+        assertEquals(0.5f, store.getAlpha(1));
+        assertEquals(50, store.getVelocityY(1));
+        
+        // Freed slots are reused
+        assertTrue(store.spawn(4, 100, 1, 10, 0.5f, 0f));
+        assertEquals(3, store.getActiveCount());
+    }
+    
+    @Test
+    public void testRecyclingSeveralParticlesInOnePass() {
+        RainParticleStore store = new RainParticleStore(5);
+        for (int i = 0; i < 5; i++) {
+            store.spawn(i, 100, i % 2 == 0 ? 1000 : 10, 10, 0.5f, 0f);
+        }
+        
+        store.update(1.0f, 0);
+        
+        // Only the slow particles (odd x) survive, each moved exactly once
+        assertEquals(2, store.getActiveCount());
+        for (int i = 0; i < store.getActiveCount(); i++) {
+            assertEquals(1, (int) store.getX(i) % 2);
+            assertEquals(90, store.getY(i), 0.001f);
+        }
+        
+        store.clear();
+        assertEquals(0, store.getActiveCount());
+    }
+    
+    @Test
+    public void testWritesOneQuadPerParticle() {
+        RainParticleStore store = new RainParticleStore(2);
+        store.spawn(10, 20, 500, 15, 0.5f, 7f);
+        store.spawn(30, 40, 500, 10, 0.5f, 8f);
+        
+        float[] vertices = new float[2 * RainParticleStore.VERTICES_PER_PARTICLE * RainParticleStore.VERTEX_SIZE];
+        assertEquals(vertices.length, store.writeVertices(vertices, 2));
+        
+        // First particle: bottom left, bottom right, top right, top left
+        assertArrayEquals(new float[] {10, 20, 7f, 12, 20, 7f, 12, 35, 7f, 10, 35, 7f},
+            java.util.Arrays.copyOfRange(vertices, 0, 12));
+        assertEquals(30, vertices[12]);
+        assertEquals(50, vertices[22], "Top of the second particle");
+        assertEquals(8f, vertices[23]);
+    }
+}
@@ -0,0 +1,102 @@
+package wagemaker.uk.world;
+
+import org.junit.jupiter.api.Test;
+import wagemaker.uk.network.StoneState;
+import wagemaker.uk.network.TreeState;
+import wagemaker.uk.network.TreeType;
+import wagemaker.uk.network.WorldState;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the static collider grid and the server's matching collision check.
+ */
+public class CollisionGridTest {
+    
+    @Test
+    public void testBoxBlockedOnlyByOverlappingCollider() {
+        CollisionGrid grid = new CollisionGrid();
+        grid.put("tree", CollisionGrid.forTree(TreeType.APPLE, 1000, 1000)); // Trunk 1048..1080 x 1028..1080
+        grid.put("stone", CollisionGrid.forStone(-500, -500)); // Box -492..-468 x -492..-444
+        assertEquals(2, grid.size());
+        
+        assertTrue(grid.collides(1020, 1000, 64, 64), "Player box over the trunk should be blocked");
+        assertFalse(grid.collides(1080, 1000, 64, 64), "Touching the trunk's right edge is not a collision");
+        assertFalse(grid.collides(900, 900, 64, 64), "Under the canopy but clear of the trunk");
+        assertTrue(grid.collides(-520, -500, 64, 64), "Player box over the stone should be blocked");
+        assertFalse(grid.collides(0, 0, 64, 64), "Nothing near the origin");
+    }
+    
+    @Test
+    public void testPutReplacesAndRemoveClears() {
+        CollisionGrid grid = new CollisionGrid();
+        grid.put("tree", CollisionGrid.forTree(TreeType.SMALL, 0, 0));
+        assertTrue(grid.collides(0, 0, 64, 64));
+        
+        // Re-putting the same ID moves the collider rather than adding a second one
+        grid.put("tree", CollisionGrid.forTree(TreeType.SMALL, 2000, 0));
+        assertEquals(1, grid.size());
+        assertFalse(grid.collides(0, 0, 64, 64), "Old position should no longer block");
+        assertTrue(grid.collides(2000, 0, 64, 64));
+        
+        grid.put("tree", null);
+        assertEquals(0, grid.size());
+        assertFalse(grid.collides(2000, 0, 64, 64), "Removed tree should no longer block");
+        
+        grid.put("stone", CollisionGrid.forStone(0, 0));
+        grid.remove("stone");
+        assertFalse(grid.collides(0, 0, 64, 64));
+        
+        grid.put("stone", CollisionGrid.forStone(0, 0));
+        grid.clear();
+        assertEquals(0, grid.size());
+    }
+    
+    @Test
+    public void testEveryTreeTypeIsFoundByTheBroadPhase() {
+        // Each box must lie within QUERY_MARGIN of its entity's position for the query to reach it
+        for (TreeType type : TreeType.values()) {
+            CollisionGrid.Collider box = CollisionGrid.forTree(type, 5000, 5000);
+            CollisionGrid grid = new CollisionGrid();
+            grid.put(type.name(), box);
+            assertTrue(grid.collides(box.getX(), box.getY(), 1, 1), type + " trunk should be found");
+        }
+    }
+    
+    @Test
+    public void testServerRejectsBoxesInsideTreesAndStones() {
+        WorldState worldState = new WorldState(12345L, false);
+        worldState.addOrUpdateTree(new TreeState("tree", TreeType.BAMBOO, 256, 256, 100, true));
+        worldState.addOrUpdateStone(new StoneState("stone", 1024, 256, 50));
+        
+        assertTrue(worldState.collidesWithStaticObject(256, 256, 64, 64), "Bamboo trunk should block");
+        assertTrue(worldState.collidesWithStaticObject(1000, 256, 64, 64), "Stone should block");
+        assertFalse(worldState.collidesWithStaticObject(600, 256, 64, 64), "Open ground should not block");
+        
+        // The server uses the same boxes as the client grid
+        CollisionGrid grid = new CollisionGrid();
+        grid.put("tree", CollisionGrid.forTree(TreeType.BAMBOO, 256, 256));
+        grid.put("stone", CollisionGrid.forStone(1024, 256));
+        for (float x = 0; x < 1200; x += 8) {
+            assertEquals(grid.collides(x, 256, 64, 64), worldState.collidesWithStaticObject(x, 256, 64, 64),
+                "Client and server should agree at x=" + x);
+        }
+        
+        worldState.removeTree("tree");
+        worldState.removeStone("stone");
+        assertFalse(worldState.collidesWithStaticObject(256, 256, 64, 64), "Removed tree should no longer block");
+        assertFalse(worldState.collidesWithStaticObject(1000, 256, 64, 64), "Removed stone should no longer block");
+    }
+    
+    @Test
+    public void testTreeReplacedBySaplingNoLongerBlocks() {
+        WorldState worldState = new WorldState(12345L, false);
+        worldState.addOrUpdateTree(new TreeState("256,256", TreeType.SMALL, 256, 256, 100, true));
+        assertTrue(worldState.collidesWithStaticObject(256, 256, 64, 64));
+        
+        worldState.removeTreeWithoutClearing("256,256");
+        assertFalse(worldState.collidesWithStaticObject(256, 256, 64, 64), "Replaced tree should no longer block");
+        assertTrue(worldState.getTreesNear(256, 256, 100).isEmpty());
+        assertFalse(worldState.getClearedPositions().contains("256,256"), "The tile is replanted, not cleared");
+    }
+}
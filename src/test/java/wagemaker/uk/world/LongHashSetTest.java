@@ -0,0 +1,87 @@
+package wagemaker.uk.world;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the primitive long set.
+ */
+public class LongHashSetTest {
+    
+    @Test
+    public void testAddContainsRemove() {
+        LongHashSet set = new LongHashSet();
+        assertTrue(set.isEmpty());
+        assertTrue(set.add(TileKey.pack(64, 128)));
+        assertFalse(set.add(TileKey.pack(64, 128)));
+        assertTrue(set.contains(TileKey.pack(64, 128)));
+        assertFalse(set.contains(TileKey.pack(128, 64)));
+        assertEquals(1, set.size());
+        
+        assertTrue(set.remove(TileKey.pack(64, 128)));
+        assertFalse(set.remove(TileKey.pack(64, 128)));
+        assertFalse(set.contains(TileKey.pack(64, 128)));
+        assertTrue(set.isEmpty());
+    }
+    
+    @Test
+    public void testZeroIsAnOrdinaryValue() {
+        // The tile at the origin packs to 0
+        LongHashSet set = new LongHashSet();
+        assertFalse(set.contains(0L));
+        assertTrue(set.add(TileKey.pack(0, 0)));
+        assertTrue(set.contains(0L));
+        assertEquals(1, set.size());
+        assertArrayEquals(new long[] {0L}, set.toArray());
+        assertTrue(set.remove(0L));
+        assertEquals(0, set.size());
+    }
+    
+    @Test
+    public void testMatchesHashSetUnderRandomOperations() {
+        LongHashSet set = new LongHashSet();
+        Set<Long> reference = new HashSet<>();
+        Random random = new Random(7);
+        
+        for (int i = 0; i < 200_000; i++) {
+            // A small coordinate range forces collisions, growth and removals within probe runs
+            long value = TileKey.pack((random.nextInt(64) - 32) * 64, (random.nextInt(64) - 32) * 64);
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(reference.add(value), set.add(value));
+                    break;
+                case 1:
+                    assertEquals(reference.remove(value), set.remove(value));
+                    break;
+                default:
+                    assertEquals(reference.contains(value), set.contains(value));
+                    break;
+            }
+            assertEquals(reference.size(), set.size());
+        }
+        
+        long[] values = set.toArray();
+        Arrays.sort(values);
+        long[] expected = reference.stream().mapToLong(Long::longValue).sorted().toArray();
+        assertArrayEquals(expected, values);
+    }
+    
+    @Test
+    public void testClearKeepsTheSetUsable() {
+        LongHashSet set = new LongHashSet(4);
+        for (int i = 0; i < 1000; i++) {
+            set.add(TileKey.pack(i, -i));
+        }
+        assertEquals(1000, set.size());
+        set.clear();
+        assertEquals(0, set.size());
+        assertFalse(set.contains(TileKey.pack(5, -5)));
+        assertTrue(set.add(TileKey.pack(5, -5)));
+    }
+}
@@ -0,0 +1,100 @@
+package wagemaker.uk.world;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the primitive long-keyed map.
+ */
+public class LongObjectHashMapTest {
+    
+    @Test
+    public void testPutGetRemove() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        long key = TileKey.pack(-3, 7);
+        assertNull(map.put(key, "a"));
+        assertEquals("a", map.put(key, "b"));
+        assertEquals("b", map.get(key));
+        assertTrue(map.containsKey(key));
+        assertNull(map.get(TileKey.pack(7, -3)));
+        assertEquals(1, map.size());
+        
+        assertEquals("b", map.remove(key));
+        assertNull(map.remove(key));
+        assertTrue(map.isEmpty());
+    }
+    
+    @Test
+    public void testZeroKeyAndNullValues() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        map.put(0L, "origin");
+        assertEquals("origin", map.get(TileKey.pack(0, 0)));
+        assertThrows(IllegalArgumentException.class, () -> map.put(1L, null));
+    }
+    
+    @Test
+    public void testMatchesHashMapUnderRandomOperations() {
+        LongObjectHashMap<Integer> map = new LongObjectHashMap<>();
+        Map<Long, Integer> reference = new HashMap<>();
+        Random random = new Random(11);
+        
+        for (int i = 0; i < 200_000; i++) {
+            long key = TileKey.pack(random.nextInt(48) - 24, random.nextInt(48) - 24);
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(reference.put(key, i), map.put(key, i));
+                    break;
+                case 1:
+                    assertEquals(reference.remove(key), map.remove(key));
+                    break;
+                default:
+                    assertEquals(reference.get(key), map.get(key));
+                    break;
+            }
+            assertEquals(reference.size(), map.size());
+        }
+        
+        List<Integer> values = new ArrayList<>();
+        map.forEachValue(values::add);
+        assertEquals(reference.size(), values.size());
+        assertTrue(values.containsAll(reference.values()));
+        
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(reference.keySet().iterator().next()));
+    }
+    
+    @Test
+    public void testKeysValuesAndEntriesAreAllVisited() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(TileKey.pack(i, -i), "v" + i);
+        }
+        map.remove(TileKey.pack(7, -7));
+        
+        long[] keys = map.keys();
+        assertEquals(99, keys.length);
+        for (long key : keys) {
+            assertEquals("v" + TileKey.x(key), map.get(key));
+            map.remove(key); // The keys are a copy, so removing while iterating is safe
+        }
+        assertTrue(map.isEmpty());
+        
+        map.put(TileKey.pack(1, 1), "a");
+        map.put(TileKey.pack(2, 2), "b");
+        List<String> values = new ArrayList<>(map.values());
+        assertEquals(2, map.values().size());
+        assertTrue(values.containsAll(List.of("a", "b")));
+        
+        Map<Long, String> entries = new HashMap<>();
+        map.forEach(entries::put);
+        assertEquals(Map.of(TileKey.pack(1, 1), "a", TileKey.pack(2, 2), "b"), entries);
+    }
+}
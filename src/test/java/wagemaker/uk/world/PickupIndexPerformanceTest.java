@@ -0,0 +1,100 @@
+package wagemaker.uk.world;
+
+import org.junit.jupiter.api.Test;
+import wagemaker.uk.network.ItemType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Per-frame pickup cost of scanning every item map, as the per-type pickup checks did,
+ * against a single pickup index query, with many items dropped across the world.
+ */
+public class PickupIndexPerformanceTest {
+    
+    private static final int ITEMS_PER_TYPE = 2000; // 20,000 in total
+    private static final float WORLD_SIZE = 20000;
+    private static final int WARMUP_FRAMES = 500;
+    private static final int TEST_FRAMES = 5000;
+    private static final float PLAYER_SPEED = 4.0f; // pixels per frame
+    
+    @Test
+    public void indexQueryOutperformsPerTypeScans() {
+        PickupIndex index = new PickupIndex();
+        List<Map<String, float[]>> maps = new ArrayList<>();
+        Random random = new Random(42);
+        for (ItemType type : ItemType.values()) {
+            Map<String, float[]> map = new HashMap<>();
+            for (int i = 0; i < ITEMS_PER_TYPE; i++) {
+                float x = (random.nextFloat() - 0.5f) * WORLD_SIZE;
+                float y = (random.nextFloat() - 0.5f) * WORLD_SIZE;
+                map.put(type + "-" + i, new float[] {x, y});
+                index.put(type + "-" + i, type, x, y);
+            }
+            maps.add(map);
+        }
+        
+        // Warmup - JIT compilation of both paths
+        runScanFrames(maps, WARMUP_FRAMES);
+        runIndexedFrames(index, WARMUP_FRAMES);
+        
+        long scanStart = System.nanoTime();
+        long scanned = runScanFrames(maps, TEST_FRAMES);
+        long scanNanos = System.nanoTime() - scanStart;
+        
+        long indexedStart = System.nanoTime();
+        long indexed = runIndexedFrames(index, TEST_FRAMES);
+        long indexedNanos = System.nanoTime() - indexedStart;
+        
+        double scanPerFrameUs = scanNanos / 1_000.0 / TEST_FRAMES;
+        double indexedPerFrameUs = indexedNanos / 1_000.0 / TEST_FRAMES;
+        
+        System.out.printf("Item pickup check (%d items):%n", index.size());
+        System.out.printf("  Per-type scans: %.3f us per frame%n", scanPerFrameUs);
+        System.out.printf("  Pickup index: %.3f us per frame%n", indexedPerFrameUs);
+        System.out.printf("  Frames with an item in range: %d%n", indexed);
+        
+        assertEquals(scanned, indexed, "Both paths should find an item on the same frames");
+        assertTrue(indexedNanos < scanNanos,
+            String.format("Pickup index (%.3f us/frame) should beat the per-type scans (%.3f us/frame)",
+                indexedPerFrameUs, scanPerFrameUs));
+    }
+    
+    private long runScanFrames(List<Map<String, float[]>> maps, int frames) {
+        long found = 0;
+        ItemType[] types = ItemType.values();
+        for (int frame = 0; frame < frames; frame++) {
+            float px = frame * PLAYER_SPEED - WORLD_SIZE / 4;
+            float py = 0;
+            boolean hit = false;
+            for (int t = 0; t < types.length && !hit; t++) {
+                for (float[] item : maps.get(t).values()) {
+                    if (PickupIndex.isInRange(px, py, types[t], item[0], item[1], PickupIndex.PICKUP_RANGE)) {
+                        hit = true;
+                        break;
+                    }
+                }
+            }
+            if (hit) {
+                found++;
+            }
+        }
+        return found;
+    }
+    
+    private long runIndexedFrames(PickupIndex index, int frames) {
+        long found = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            float px = frame * PLAYER_SPEED - WORLD_SIZE / 4;
+            if (index.findNearest(px, 0) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
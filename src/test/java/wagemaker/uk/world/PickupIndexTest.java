@@ -0,0 +1,74 @@
+package wagemaker.uk.world;
+
+import org.junit.jupiter.api.Test;
+import wagemaker.uk.network.ItemType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the cross-type pickup index and its shared range check.
+ */
+public class PickupIndexTest {
+    
+    @Test
+    public void testFindsNearestItemOfAnyType() {
+        PickupIndex index = new PickupIndex();
+        index.put("pebble", ItemType.PEBBLE, 120, 100); // Centre 136,116
+        index.put("apple", ItemType.APPLE, 112, 112); // Centre 124,124
+        index.put("far", ItemType.WOOD_STACK, 5000, 5000);
+        
+        // Player centre is 132,132
+        PickupIndex.Candidate nearest = index.findNearest(100, 100);
+        assertNotNull(nearest);
+        assertEquals("apple", nearest.getKey());
+        assertEquals(ItemType.APPLE, nearest.getType());
+        
+        index.remove("apple", ItemType.APPLE);
+        assertEquals("pebble", index.findNearest(100, 100).getKey());
+        
+        assertNull(index.findNearest(2000, 2000), "Nothing should be in range");
+    }
+    
+    @Test
+    public void testRangeMatchesThePerTypeChecks() {
+        // The former checks: |player centre - item centre| <= 32 on both axes, apples being 24x24
+        PickupIndex index = new PickupIndex();
+        index.put("apple", ItemType.APPLE, 0, 0);
+        for (float px = -80; px <= 80; px += 4) {
+            for (float py = -80; py <= 80; py += 4) {
+                boolean expected = Math.abs((px + 32) - 12) <= 32 && Math.abs((py + 32) - 12) <= 32;
+                assertEquals(expected, index.findNearest(px, py) != null, "Player at " + px + "," + py);
+            }
+        }
+    }
+    
+    @Test
+    public void testKeysAreScopedByType() {
+        // Item maps are keyed independently, so the same key can exist in two of them
+        PickupIndex index = new PickupIndex();
+        index.put("item-1", ItemType.BANANA, 0, 0);
+        index.put("item-1", ItemType.PEBBLE, 1000, 0);
+        assertEquals(2, index.size());
+        
+        index.remove("item-1", ItemType.BANANA);
+        assertEquals(1, index.size());
+        assertEquals(ItemType.PEBBLE, index.findNearest(1000, 0).getType());
+        
+        // Re-putting moves the item
+        index.put("item-1", ItemType.PEBBLE, 0, 0);
+        assertEquals(1, index.size());
+        assertNull(index.findNearest(1000, 0));
+        assertNotNull(index.findNearest(0, 0));
+        
+        index.clear();
+        assertEquals(0, index.size());
+    }
+    
+    @Test
+    public void testServerAllowanceIsWiderThanClientRange() {
+        // A pickup the client makes at the edge of its range must pass the server's check
+        assertTrue(PickupIndex.isInRange(0, 0, ItemType.WOOD_STACK, 48, 48, PickupIndex.PICKUP_RANGE));
+        assertTrue(PickupIndex.isInRange(0, 0, ItemType.WOOD_STACK, 48, 48, PickupIndex.PICKUP_RANGE + 18));
+        assertFalse(PickupIndex.isInRange(0, 0, ItemType.WOOD_STACK, 100, 0, PickupIndex.PICKUP_RANGE + 18));
+    }
+}
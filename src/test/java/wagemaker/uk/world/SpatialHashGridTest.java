@@ -0,0 +1,119 @@
+package wagemaker.uk.world;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SpatialHashGrid insertion, movement, removal and proximity queries.
+ */
+public class SpatialHashGridTest {
+    
+    private SpatialHashGrid<String> grid;
+    
+    @BeforeEach
+    public void setUp() {
+        grid = new SpatialHashGrid<>(256.0f);
+    }
+    
+    @Test
+    public void testCollectWithinReturnsOnlyEntitiesInRadius() {
+        grid.put("near", 100, 100, "near");
+        grid.put("edge", 300, 100, "edge");
+        grid.put("far", 1000, 1000, "far");
+        
+        List<String> result = new ArrayList<>();
+        grid.collectWithin(100, 100, 200, result);
+        
+        assertTrue(result.contains("near"), "Entity at query centre should be found");
+        assertTrue(result.contains("edge"), "Entity exactly at the radius should be found");
+        assertFalse(result.contains("far"), "Entity outside the radius should not be found");
+    }
+    
+    @Test
+    public void testQueriesSpanNegativeCells() {
+        grid.put("a", -10, -10, "a");
+        grid.put("b", 10, 10, "b");
+        
+        List<String> result = new ArrayList<>();
+        grid.collectWithin(0, 0, 20, result);
+        
+        assertEquals(2, result.size(), "Query around the origin should cover cells on both sides of zero");
+    }
+    
+    @Test
+    public void testPutMovesEntityBetweenCells() {
+        grid.put("tree", 100, 100, "tree");
+        grid.put("tree", 5000, 5000, "tree");
+        
+        List<String> oldArea = new ArrayList<>();
+        grid.collectWithin(100, 100, 50, oldArea);
+        List<String> newArea = new ArrayList<>();
+        grid.collectWithin(5000, 5000, 50, newArea);
+        
+        assertTrue(oldArea.isEmpty(), "Entity should no longer be indexed at its old position");
+        assertEquals(1, newArea.size(), "Entity should be indexed at its new position");
+        assertEquals(1, grid.size(), "Moving an entity should not duplicate it");
+    }
+    
+    @Test
+    public void testRemove() {
+        grid.put("stone", 50, 50, "stone");
+        
+        assertEquals("stone", grid.remove("stone"));
+        assertNull(grid.remove("stone"), "Removing twice should return null");
+        assertFalse(grid.contains("stone"));
+        assertFalse(grid.anyNear(50, 50, 10, (id, value) -> true), "Removed entity should not be visited");
+    }
+    
+    @Test
+    public void testAnyNearStopsAtFirstMatch() {
+        for (int i = 0; i < 10; i++) {
+            grid.put("item" + i, i, i, "item" + i);
+        }
+        
+        int[] visits = new int[1];
+        boolean found = grid.anyNear(5, 5, 10, (id, value) -> {
+            visits[0]++;
+            return true;
+        });
+        
+        assertTrue(found);
+        assertEquals(1, visits[0], "Query should stop once the predicate matches");
+    }
+    
+    @Test
+    public void testAnyNearOnlyVisitsNeighbouringCells() {
+        grid.put("local", 0, 0, "local");
+        for (int i = 0; i < 100; i++) {
+            grid.put("distant" + i, 100000 + i * 300, 100000, "distant" + i);
+        }
+        
+        int[] visits = new int[1];
+        grid.anyNear(0, 0, 256, (id, value) -> {
+            visits[0]++;
+            return false;
+        });
+        
+        assertEquals(1, visits[0], "Entities in distant cells should never be visited");
+    }
+    
+    @Test
+    public void testClear() {
+        grid.put("a", 0, 0, "a");
+        grid.put("b", 1000, 0, "b");
+        grid.clear();
+        
+        assertEquals(0, grid.size());
+        assertFalse(grid.anyNear(0, 0, 2000, (id, value) -> true));
+    }
+    
+    @Test
+    public void testInvalidCellSizeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SpatialHashGrid<String>(0));
+    }
+}
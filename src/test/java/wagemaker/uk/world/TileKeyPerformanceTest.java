@@ -0,0 +1,86 @@
+package wagemaker.uk.world;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cost of the per-tile occupancy checks made while generating chunks: building an
+ * "x,y" string key and looking it up in a string set, as generation did, against
+ * looking up the packed tile key in a primitive set.
+ */
+public class TileKeyPerformanceTest {
+    
+    private static final int OCCUPIED_TILES = 20000;
+    private static final int CHUNK_TILES = 16;
+    private static final int TILE_SIZE = 64;
+    private static final int WARMUP_CHUNKS = 2000;
+    private static final int TEST_CHUNKS = 20000;
+    
+    @Test
+    public void packedKeysOutperformStringKeys() {
+        Set<String> stringKeys = new HashSet<>();
+        LongHashSet packedKeys = new LongHashSet();
+        Random random = new Random(42);
+        for (int i = 0; i < OCCUPIED_TILES; i++) {
+            int x = (random.nextInt(2000) - 1000) * TILE_SIZE;
+            int y = (random.nextInt(2000) - 1000) * TILE_SIZE;
+            stringKeys.add(x + "," + y);
+            packedKeys.add(TileKey.pack(x, y));
+        }
+        
+        scanWithStrings(stringKeys, WARMUP_CHUNKS);
+        scanWithPackedKeys(packedKeys, WARMUP_CHUNKS);
+        
+        long start = System.nanoTime();
+        int stringHits = scanWithStrings(stringKeys, TEST_CHUNKS);
+        long stringTime = System.nanoTime() - start;
+        
+        start = System.nanoTime();
+        int packedHits = scanWithPackedKeys(packedKeys, TEST_CHUNKS);
+        long packedTime = System.nanoTime() - start;
+        
+        System.out.printf("Tile occupancy checks for %d chunks: string keys %.2f ms, packed keys %.2f ms (%.1fx)%n",
+            TEST_CHUNKS, stringTime / 1_000_000.0, packedTime / 1_000_000.0, (double) stringTime / packedTime);
+        
+        assertEquals(stringHits, packedHits, "Both key forms should find the same occupied tiles");
+        assertTrue(packedTime < stringTime, "Packed tile keys should be faster than building string keys");
+    }
+    
+    private static int scanWithStrings(Set<String> occupied, int chunks) {
+        int hits = 0;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int originX = ((chunk % 125) - 62) * CHUNK_TILES * TILE_SIZE;
+            int originY = ((chunk / 125 % 125) - 62) * CHUNK_TILES * TILE_SIZE;
+            for (int tx = 0; tx < CHUNK_TILES; tx++) {
+                for (int ty = 0; ty < CHUNK_TILES; ty++) {
+                    String key = (originX + tx * TILE_SIZE) + "," + (originY + ty * TILE_SIZE);
+                    if (occupied.contains(key)) {
+                        hits++;
+                    }
+                }
+            }
+        }
+        return hits;
+    }
+    
+    private static int scanWithPackedKeys(LongHashSet occupied, int chunks) {
+        int hits = 0;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int originX = ((chunk % 125) - 62) * CHUNK_TILES * TILE_SIZE;
+            int originY = ((chunk / 125 % 125) - 62) * CHUNK_TILES * TILE_SIZE;
+            for (int tx = 0; tx < CHUNK_TILES; tx++) {
+                for (int ty = 0; ty < CHUNK_TILES; ty++) {
+                    if (occupied.contains(TileKey.pack(originX + tx * TILE_SIZE, originY + ty * TILE_SIZE))) {
+                        hits++;
+                    }
+                }
+            }
+        }
+        return hits;
+    }
+}
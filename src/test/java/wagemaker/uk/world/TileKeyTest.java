@@ -0,0 +1,76 @@
+package wagemaker.uk.world;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for packed tile keys and their "x,y" string id form.
+ */
+public class TileKeyTest {
+    
+    @Test
+    public void testPackRoundTripsEveryQuadrant() {
+        int[] values = {0, 1, -1, 64, -64, 123456, -987654, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        for (int x : values) {
+            for (int y : values) {
+                long key = TileKey.pack(x, y);
+                assertEquals(x, TileKey.x(key));
+                assertEquals(y, TileKey.y(key));
+            }
+        }
+    }
+    
+    @Test
+    public void testDistinctCoordinatesGiveDistinctKeys() {
+        assertNotEquals(TileKey.pack(1, 2), TileKey.pack(2, 1));
+        assertNotEquals(TileKey.pack(0, -1), TileKey.pack(-1, 0));
+        assertNotEquals(TileKey.pack(0, -1), TileKey.pack(-1, -1));
+    }
+    
+    @Test
+    public void testStringIdMatchesTheSaveFormat() {
+        assertEquals("128,-64", TileKey.toId(TileKey.pack(128, -64)));
+        assertEquals(TileKey.pack(128, -64), TileKey.parse("128,-64"));
+        assertEquals(TileKey.pack(Integer.MIN_VALUE, Integer.MAX_VALUE),
+            TileKey.parse(Integer.MIN_VALUE + "," + Integer.MAX_VALUE));
+        
+        for (int x = -640; x <= 640; x += 64) {
+            for (int y = -640; y <= 640; y += 64) {
+                String id = x + "," + y;
+                assertEquals(id, TileKey.toId(TileKey.parse(id)));
+            }
+        }
+    }
+    
+    @Test
+    public void testOtherIdsAreNotTileIds() {
+        String[] ids = {null, "", ",", "1", "1,", ",1", "-,1", "1,-", "a,b", "1.5,2",
+                        "1,2,3", "planted-17", "2147483648,0", "0,-2147483649", "12345678901,0",
+                        "064,0", "-0,64", "+64,0", " 64,0"};
+        for (String id : ids) {
+            assertFalse(TileKey.isTileId(id), "Should not be a tile id: " + id);
+        }
+        assertThrows(IllegalArgumentException.class, () -> TileKey.parse("planted-17"));
+    }
+    
+    @Test
+    public void testEntityIdsRoundTripThroughMapKeys() {
+        assertEquals(TileKey.pack(128, -64), TileKey.keyOf("128,-64"));
+        assertEquals(TileKey.pack(128, -64), TileKey.findKey("128,-64"));
+        
+        String[] ids = {"planted-tree-64-128", "128,-64-item1", "-2147483648,5"};
+        for (String id : ids) {
+            long key = TileKey.keyOf(id);
+            assertEquals(key, TileKey.keyOf(id), "The same id should always get the same key");
+            assertEquals(key, TileKey.findKey(id));
+            assertEquals(id, TileKey.idOf(key));
+        }
+        assertNotEquals(TileKey.keyOf("planted-tree-64-128"), TileKey.keyOf("planted-tree-64-192"));
+        assertNotEquals(TileKey.keyOf("128,-64"), TileKey.keyOf("128,-64-item1"));
+        
+        long unknown = TileKey.findKey("never-seen-before");
+        assertNotEquals(unknown, TileKey.keyOf("planted-tree-64-128"));
+        assertEquals(unknown, TileKey.findKey(null));
+    }
+}
@@ -0,0 +1,181 @@
+package wagemaker.uk.world;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import wagemaker.uk.network.TreeType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the background singleplayer world generation worker.
+ */
+public class WorldGenerationWorkerTest {
+    
+    private static final long SEED = 12345L;
+    private static final float AREA = 8192; // Half-width of the requested area
+    private static final float FAR_AWAY = 1_000_000; // Player position that never blocks stones
+    
+    private final List<WorldGenerationWorker> workers = new ArrayList<>();
+    
+    @AfterEach
+    public void tearDown() {
+        for (WorldGenerationWorker worker : workers) {
+            worker.shutdown();
+        }
+    }
+    
+    @Test
+    public void testLayoutIsDeterministicForASeed() throws Exception {
+        List<WorldGenerationWorker.GeneratedEntity> fast = generate(SEED, 1000);
+        List<WorldGenerationWorker.GeneratedEntity> slow = generate(SEED, 3); // Worker repeatedly waits on a full queue
+        List<WorldGenerationWorker.GeneratedEntity> otherSeed = generate(SEED + 1, 1000);
+        
+        assertFalse(fast.isEmpty(), "A large area should contain trees");
+        assertEquals(describe(fast), describe(slow), "Draining speed must not change the layout");
+        assertNotEquals(describe(fast), describe(otherSeed), "Another seed should give another layout");
+    }
+    
+    @Test
+    public void testTreesKeepTheirSpacing() throws Exception {
+        List<WorldGenerationWorker.GeneratedEntity> generated = generate(SEED, 1000);
+        List<WorldGenerationWorker.GeneratedEntity> trees = new ArrayList<>();
+        for (WorldGenerationWorker.GeneratedEntity entity : generated) {
+            if (!entity.isStone()) {
+                trees.add(entity);
+                assertTrue(Math.sqrt(entity.getX() * entity.getX() + entity.getY() * entity.getY()) >= 200,
+                    "The spawn point should stay clear");
+            }
+        }
+        for (int i = 0; i < trees.size(); i++) {
+            for (int j = i + 1; j < trees.size(); j++) {
+                float dx = trees.get(i).getX() - trees.get(j).getX();
+                float dy = trees.get(i).getY() - trees.get(j).getY();
+                assertTrue(Math.sqrt(dx * dx + dy * dy) >= 50, "Trees should never overlap");
+            }
+        }
+    }
+    
+    @Test
+    public void testOccupiedTilesAreNotGeneratedAgain() throws Exception {
+        List<WorldGenerationWorker.GeneratedEntity> generated = generate(SEED, 1000);
+        WorldGenerationWorker.GeneratedEntity first = null;
+        for (WorldGenerationWorker.GeneratedEntity entity : generated) {
+            if (!entity.isStone()) {
+                first = entity;
+                break;
+            }
+        }
+        assertNotNull(first);
+        
+        // A loaded world already has a tree on that tile
+        WorldGenerationWorker worker = newWorker();
+        worker.reset(SEED);
+        worker.occupyTree(first.getKey(), first.getX(), first.getY());
+        List<WorldGenerationWorker.GeneratedEntity> regenerated = requestAndCollect(worker, 1000);
+        
+        for (WorldGenerationWorker.GeneratedEntity entity : regenerated) {
+            if (!entity.isStone()) {
+                assertNotEquals(first.getKey(), entity.getKey(), "Occupied tile should be skipped");
+            }
+        }
+        assertEquals(countTrees(generated) - 1, countTrees(regenerated));
+    }
+    
+    @Test
+    public void testResetDiscardsPreviousLayout() throws Exception {
+        WorldGenerationWorker worker = newWorker();
+        worker.reset(SEED);
+        worker.requestArea(-AREA, -AREA, AREA, AREA, FAR_AWAY, FAR_AWAY);
+        
+        // Switch worlds before draining anything
+        worker.reset(SEED + 1);
+        List<WorldGenerationWorker.GeneratedEntity> afterReset = requestAndCollect(worker, 1000);
+        
+        assertEquals(describe(generate(SEED + 1, 1000)), describe(afterReset),
+            "Only the new world's entities should be handed over");
+    }
+    
+    @Test
+    public void testStonesAreNotGeneratedNextToThePlayer() throws Exception {
+        WorldGenerationWorker worker = newWorker();
+        worker.reset(SEED);
+        worker.requestArea(-AREA, -AREA, AREA, AREA, 0, 0);
+        List<WorldGenerationWorker.GeneratedEntity> generated = collect(worker, 1000);
+        for (WorldGenerationWorker.GeneratedEntity entity : generated) {
+            if (entity.isStone()) {
+                assertTrue(Math.sqrt(entity.getX() * entity.getX() + entity.getY() * entity.getY()) >= 512);
+            }
+        }
+    }
+    
+    @Test
+    public void testDrainRespectsLimit() throws Exception {
+        WorldGenerationWorker worker = newWorker();
+        worker.reset(SEED);
+        worker.requestArea(-AREA, -AREA, AREA, AREA, FAR_AWAY, FAR_AWAY);
+        worker.awaitIdle(100);
+        
+        List<WorldGenerationWorker.GeneratedEntity> drained = new ArrayList<>();
+        int count = worker.drain(drained::add, 5);
+        assertTrue(count <= 5);
+        assertEquals(count, drained.size());
+    }
+    
+    private List<WorldGenerationWorker.GeneratedEntity> generate(long seed, int drainBatch) throws Exception {
+        WorldGenerationWorker worker = newWorker();
+        worker.reset(seed);
+        return requestAndCollect(worker, drainBatch);
+    }
+    
+    private List<WorldGenerationWorker.GeneratedEntity> requestAndCollect(WorldGenerationWorker worker, int drainBatch)
+            throws Exception {
+        worker.requestArea(-AREA, -AREA, AREA, AREA, FAR_AWAY, FAR_AWAY);
+        return collect(worker, drainBatch);
+    }
+    
+    /**
+     * Drains the worker until it has processed every request and handed over everything.
+     */
+    private List<WorldGenerationWorker.GeneratedEntity> collect(WorldGenerationWorker worker, int drainBatch)
+            throws Exception {
+        List<WorldGenerationWorker.GeneratedEntity> generated = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline) {
+            int drained = worker.drain(generated::add, drainBatch);
+            if (drained == 0 && worker.awaitIdle(20) && worker.drain(generated::add, drainBatch) == 0) {
+                return generated;
+            }
+        }
+        fail("World generation did not finish");
+        return generated;
+    }
+    
+    private WorldGenerationWorker newWorker() {
+        WorldGenerationWorker worker = new WorldGenerationWorker();
+        workers.add(worker);
+        return worker;
+    }
+    
+    private static List<String> describe(List<WorldGenerationWorker.GeneratedEntity> entities) {
+        List<String> described = new ArrayList<>();
+        for (WorldGenerationWorker.GeneratedEntity entity : entities) {
+            TreeType type = entity.getTreeType();
+            described.add(entity.getKey() + "=" + (type != null ? type : "STONE")
+                + "@" + entity.getX() + "," + entity.getY());
+        }
+        return described;
+    }
+    
+    private static int countTrees(List<WorldGenerationWorker.GeneratedEntity> entities) {
+        int count = 0;
+        for (WorldGenerationWorker.GeneratedEntity entity : entities) {
+            if (!entity.isStone()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,134 @@
+package wagemaker.uk.world;
+
+import org.junit.jupiter.api.Test;
+import wagemaker.uk.network.ItemState;
+import wagemaker.uk.network.ItemType;
+import wagemaker.uk.network.StoneState;
+import wagemaker.uk.network.TreeState;
+import wagemaker.uk.network.TreeType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Save and load time and file size of a large explored world in the version 1
+ * format (one serialized object graph) against the version 2 columnar,
+ * compressed format.
+ */
+public class WorldSaveFormatPerformanceTest {
+    
+    private static final int TREES = 100_000;
+    private static final int STONES = 10_000;
+    private static final int ITEMS = 20_000;
+    private static final int CLEARED = 50_000;
+    private static final int WARMUP_RUNS = 3;
+    private static final int TEST_RUNS = 5;
+    
+    private static WorldSaveData createLargeWorld() {
+        Random random = new Random(42);
+        Map<String, TreeState> trees = new ConcurrentHashMap<>();
+        for (int i = 0; i < TREES; i++) {
+            int x = (random.nextInt(4000) - 2000) * 64;
+            int y = (random.nextInt(4000) - 2000) * 64;
+            String id = x + "," + y;
+            TreeType type = TreeType.values()[random.nextInt(TreeType.values().length)];
+            trees.put(id, new TreeState(id, type, x + random.nextFloat() * 64 - 32, y + random.nextFloat() * 64 - 32,
+                random.nextInt(10) == 0 ? 40 : 100, random.nextInt(20) != 0));
+        }
+        Map<String, StoneState> stones = new ConcurrentHashMap<>();
+        for (int i = 0; i < STONES; i++) {
+            int x = (random.nextInt(4000) - 2000) * 64;
+            int y = (random.nextInt(4000) - 2000) * 64;
+            stones.put(x + "," + y, new StoneState(x + "," + y, x + random.nextFloat() * 64, y, 50));
+        }
+        Map<String, ItemState> items = new ConcurrentHashMap<>();
+        for (int i = 0; i < ITEMS; i++) {
+            String id = "item-" + i;
+            ItemType type = ItemType.values()[random.nextInt(ItemType.values().length)];
+            items.put(id, new ItemState(id, type, random.nextFloat() * 100000, random.nextFloat() * 100000,
+                random.nextBoolean()));
+        }
+        Set<String> cleared = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < CLEARED; i++) {
+            cleared.add((random.nextInt(4000) - 2000) * 64 + "," + (random.nextInt(4000) - 2000) * 64);
+        }
+        return new WorldSaveData(987654321L, trees, stones, items, cleared, new ArrayList<>(),
+            0, 0, 100, "perf-format", "singleplayer");
+    }
+    
+    private static byte[] writeVersion1(WorldSaveData data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(data);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static WorldSaveData readVersion1(byte[] bytes) throws Exception {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (WorldSaveData) in.readObject();
+        }
+    }
+    
+    private static byte[] writeVersion2(WorldSaveData data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        WorldSaveFormat.write(data, bytes);
+        return bytes.toByteArray();
+    }
+    
+    @Test
+    public void version2IsSmallerAndFasterToLoad() throws Exception {
+        WorldSaveData world = createLargeWorld();
+        byte[] v1 = null;
+        byte[] v2 = null;
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            v1 = writeVersion1(world);
+            v2 = writeVersion2(world);
+            readVersion1(v1);
+            WorldSaveFormat.read(new ByteArrayInputStream(v2));
+        }
+        
+        long v1Save = 0, v2Save = 0, v1Load = 0, v2Load = 0;
+        WorldSaveData loaded = null;
+        for (int i = 0; i < TEST_RUNS; i++) {
+            long start = System.nanoTime();
+            v1 = writeVersion1(world);
+            v1Save += System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            v2 = writeVersion2(world);
+            v2Save += System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            readVersion1(v1);
+            v1Load += System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            loaded = WorldSaveFormat.read(new ByteArrayInputStream(v2));
+            v2Load += System.nanoTime() - start;
+        }
+        
+        System.out.printf("World save, %d trees, %d stones, %d items, %d cleared positions:%n",
+            TREES, STONES, ITEMS, CLEARED);
+        System.out.printf("  v1 serialized: %,d bytes, save %.1f ms, load %.1f ms%n",
+            v1.length, v1Save / 1e6 / TEST_RUNS, v1Load / 1e6 / TEST_RUNS);
+        System.out.printf("  v2 columnar:   %,d bytes, save %.1f ms, load %.1f ms (%.1fx smaller)%n",
+            v2.length, v2Save / 1e6 / TEST_RUNS, v2Load / 1e6 / TEST_RUNS, (double) v1.length / v2.length);
+        
+        assertEquals(world.getTrees().size(), loaded.getTrees().size());
+        assertEquals(world.getClearedPositions(), new HashSet<>(loaded.getClearedPositions()));
+        assertTrue(v2.length * 3 < v1.length, "The v2 save should be at least 3x smaller");
+        assertTrue(v2Load < v1Load, "Loading a v2 save should be faster than deserializing v1");
+    }
+}
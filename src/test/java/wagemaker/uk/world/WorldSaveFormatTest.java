@@ -0,0 +1,186 @@
+package wagemaker.uk.world;
+
+import org.junit.jupiter.api.Test;
+import wagemaker.uk.network.ItemState;
+import wagemaker.uk.network.ItemType;
+import wagemaker.uk.network.PlantedAppleTreeState;
+import wagemaker.uk.network.PlantedBambooState;
+import wagemaker.uk.network.PlantedTreeState;
+import wagemaker.uk.network.StoneState;
+import wagemaker.uk.network.TreeState;
+import wagemaker.uk.network.TreeType;
+import wagemaker.uk.respawn.ResourceType;
+import wagemaker.uk.respawn.RespawnEntry;
+import wagemaker.uk.weather.RainZone;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round-trip tests for the version 2 .wld save format.
+ */
+public class WorldSaveFormatTest {
+    
+    private static WorldSaveData createSaveData() {
+        Map<String, TreeState> trees = new ConcurrentHashMap<>();
+        trees.put("128,-64", new TreeState("128,-64", TreeType.APPLE, 130.5f, -60.25f, 75.0f, true));
+        trees.put("planted-tree-7", new TreeState("planted-tree-7", TreeType.BAMBOO, 10, 20, 100, false));
+        
+        Map<String, StoneState> stones = new ConcurrentHashMap<>();
+        stones.put("-640,1280", new StoneState("-640,1280", -630, 1290, 50));
+        
+        Map<String, ItemState> items = new ConcurrentHashMap<>();
+        items.put("item-1", new ItemState("item-1", ItemType.PEBBLE, 1, 2, true));
+        items.put("item-2", new ItemState("other-id", ItemType.APPLE, 3, 4, false));
+        
+        Set<String> cleared = new HashSet<>(Arrays.asList("64,64", "0,-64", "legacy_cleared"));
+        List<RainZone> rainZones = new ArrayList<>();
+        rainZones.add(new RainZone("spawn_rain", 0, 0, 640, 160, 0.8f));
+        
+        WorldSaveData data = new WorldSaveData(123456789L, trees, stones, items, cleared, rainZones,
+            100.5f, -200.25f, 87.5f, "format-test", "singleplayer");
+        data.setAppleCount(3);
+        data.setPebbleCount(12);
+        data.setWoodStackCount(99);
+        
+        Map<String, PlantedTreeState> plantedTrees = new HashMap<>();
+        plantedTrees.put("192,192", new PlantedTreeState("192,192", 192, 192, 12.5f));
+        data.setPlantedTrees(plantedTrees);
+        Map<String, PlantedBambooState> plantedBamboos = new HashMap<>();
+        data.setPlantedBamboos(plantedBamboos);
+        Map<String, PlantedAppleTreeState> plantedAppleTrees = new HashMap<>();
+        plantedAppleTrees.put("apple-1", new PlantedAppleTreeState("apple-1", 5, 6, 1.0f));
+        data.setPlantedAppleTrees(plantedAppleTrees);
+        
+        List<RespawnEntry> respawns = new ArrayList<>();
+        respawns.add(new RespawnEntry("256,256", ResourceType.TREE, 250, 260, 1_700_000_000_000L, 900_000L, TreeType.SMALL));
+        respawns.add(new RespawnEntry("320,0", ResourceType.STONE, 320, 5, 1_700_000_100_000L, 900_000L, null));
+        data.setPendingRespawns(respawns);
+        return data;
+    }
+    
+    private static byte[] write(WorldSaveData data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        WorldSaveFormat.write(data, bytes);
+        return bytes.toByteArray();
+    }
+    
+    private static WorldSaveData read(byte[] bytes) throws IOException {
+        return WorldSaveFormat.read(new ByteArrayInputStream(bytes));
+    }
+    
+    @Test
+    public void testRoundTripKeepsEveryField() throws IOException {
+        WorldSaveData original = createSaveData();
+        WorldSaveData loaded = read(write(original));
+        
+        assertEquals(original.getWorldSeed(), loaded.getWorldSeed());
+        assertEquals(original.getSaveTimestamp(), loaded.getSaveTimestamp());
+        assertEquals("format-test", loaded.getSaveName());
+        assertEquals("singleplayer", loaded.getGameMode());
+        assertEquals(100.5f, loaded.getPlayerX());
+        assertEquals(-200.25f, loaded.getPlayerY());
+        assertEquals(87.5f, loaded.getPlayerHealth());
+        assertEquals(3, loaded.getAppleCount());
+        assertEquals(12, loaded.getPebbleCount());
+        assertEquals(99, loaded.getWoodStackCount());
+        assertEquals(original.getSaveFormatVersion(), loaded.getSaveFormatVersion());
+        assertTrue(loaded.isValid());
+        
+        TreeState tree = loaded.getTrees().get("128,-64");
+        assertEquals("128,-64", tree.getTreeId());
+        assertEquals(TreeType.APPLE, tree.getType());
+        assertEquals(130.5f, tree.getX());
+        assertEquals(-60.25f, tree.getY());
+        assertEquals(75.0f, tree.getHealth());
+        assertTrue(tree.isExists());
+        assertFalse(loaded.getTrees().get("planted-tree-7").isExists());
+        
+        StoneState stone = loaded.getStones().get("-640,1280");
+        assertEquals(-630, stone.getX());
+        assertEquals(50, stone.getHealth());
+        
+        assertTrue(loaded.getItems().get("item-1").isCollected());
+        assertEquals("other-id", loaded.getItems().get("item-2").getItemId(), "Ids that differ from the key are kept");
+        assertEquals(ItemType.APPLE, loaded.getItems().get("item-2").getType());
+        
+        assertEquals(original.getClearedPositions(), loaded.getClearedPositions());
+        assertEquals(1, loaded.getRainZones().size());
+        assertEquals("spawn_rain", loaded.getRainZones().get(0).getZoneId());
+        assertEquals(0.8f, loaded.getRainZones().get(0).getIntensity());
+        
+        assertEquals(12.5f, loaded.getPlantedTrees().get("192,192").getGrowthTimer());
+        assertTrue(loaded.getPlantedBamboos().isEmpty(), "Empty maps load as empty");
+        assertNull(loaded.getPlantedBananaTrees(), "Missing maps load as missing");
+        assertEquals("apple-1", loaded.getPlantedAppleTrees().get("apple-1").getPlantedAppleTreeId());
+        
+        RespawnEntry treeRespawn = loaded.getPendingRespawns().get(0);
+        assertEquals("256,256", treeRespawn.getResourceId());
+        assertEquals(ResourceType.TREE, treeRespawn.getResourceType());
+        assertEquals(TreeType.SMALL, treeRespawn.getTreeType());
+        assertEquals(1_700_000_000_000L, treeRespawn.getDestructionTimestamp());
+        assertEquals(900_000L, treeRespawn.getRespawnDuration());
+        assertNull(loaded.getPendingRespawns().get(1).getTreeType());
+        assertEquals(1_700_000_100_000L, loaded.getPendingRespawns().get(1).getDestructionTimestamp());
+    }
+    
+    @Test
+    public void testLargeMapsAreSplitIntoSections() throws IOException {
+        WorldSaveData data = createSaveData();
+        Map<String, TreeState> trees = new HashMap<>();
+        int count = WorldSaveFormat.SECTION_ENTITIES * 2 + 17;
+        for (int i = 0; i < count; i++) {
+            String id = (i % 100) * 64 + "," + (i / 100) * -64;
+            trees.put(id, new TreeState(id, TreeType.values()[i % TreeType.values().length], i, -i, 100, true));
+        }
+        data.setTrees(trees);
+        
+        WorldSaveData loaded = read(write(data));
+        assertEquals(count, loaded.getTrees().size());
+        for (Map.Entry<String, TreeState> entry : trees.entrySet()) {
+            TreeState tree = loaded.getTrees().get(entry.getKey());
+            assertNotNull(tree, "Tree " + entry.getKey() + " should be loaded");
+            assertEquals(entry.getValue().getX(), tree.getX());
+            assertEquals(entry.getValue().getType(), tree.getType());
+        }
+    }
+    
+    @Test
+    public void testVersion1SavesAreDetected() throws IOException {
+        ByteArrayOutputStream v1 = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(v1)) {
+            out.writeObject(createSaveData());
+        }
+        assertFalse(WorldSaveFormat.isVersion2(new BufferedInputStream(new ByteArrayInputStream(v1.toByteArray()))));
+        assertFalse(WorldSaveFormat.isVersion2(new BufferedInputStream(new ByteArrayInputStream(new byte[2]))));
+        
+        BufferedInputStream v2 = new BufferedInputStream(new ByteArrayInputStream(write(createSaveData())));
+        assertTrue(WorldSaveFormat.isVersion2(v2));
+        assertEquals("format-test", WorldSaveFormat.read(v2).getSaveName(), "Detection should not consume the stream");
+    }
+    
+    @Test
+    public void testNewerAndDamagedFilesAreRejected() throws IOException {
+        byte[] bytes = write(createSaveData());
+        
+        byte[] newer = bytes.clone();
+        newer[4] = (byte) (WorldSaveFormat.FORMAT_VERSION + 1);
+        assertThrows(IOException.class, () -> read(newer));
+        
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 10);
+        assertThrows(IOException.class, () -> read(truncated));
+    }
+}